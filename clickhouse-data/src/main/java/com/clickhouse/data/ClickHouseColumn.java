@@ -899,6 +899,42 @@ public final class ClickHouseColumn implements Serializable {
         this.enumConstants = enumConstants;
     }
 
+    /**
+     * Creates a copy of this column. Properties that can be changed after parsing (column index, default value
+     * and expression) are independent in the copy, while nested columns and other parsed state are shared.
+     *
+     * @return copy of the column
+     */
+    public ClickHouseColumn copy() {
+        ClickHouseColumn column = new ClickHouseColumn(dataType, columnName, originalTypeName, nullable,
+                lowCardinality, null, null, enumConstants);
+        column.columnCount = columnCount;
+        column.columnIndex = columnIndex;
+        column.aggFuncType = aggFuncType;
+        column.valueDataType = valueDataType;
+        column.hasDefault = hasDefault;
+        column.lowCardinalityDisabled = lowCardinalityDisabled;
+        column.timeZone = timeZone;
+        column.precision = precision;
+        column.scale = scale;
+        column.nested = nested;
+        column.parameters = parameters;
+        column.jsonPredefinedPaths = jsonPredefinedPaths;
+        column.arrayLevel = arrayLevel;
+        column.arrayBaseColumn = arrayBaseColumn;
+        column.fixedByteLength = fixedByteLength;
+        column.estimatedByteLength = estimatedByteLength;
+        column.template = template;
+        column.classToVariantOrdNumMap = classToVariantOrdNumMap;
+        column.arrayToVariantOrdNumMap = arrayToVariantOrdNumMap;
+        column.geometryTypeDimensionsToVariantOrdNumMap = geometryTypeDimensionsToVariantOrdNumMap;
+        column.mapKeyToVariantOrdNumMap = mapKeyToVariantOrdNumMap;
+        column.mapValueToVariantOrdNumMap = mapValueToVariantOrdNumMap;
+        column.defaultValue = defaultValue;
+        column.defaultExpression = defaultExpression;
+        return column;
+    }
+
     /**
      * Sets zero-based column index and column count.
      * 
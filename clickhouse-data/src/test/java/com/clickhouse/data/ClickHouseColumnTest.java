@@ -196,6 +196,24 @@ public class ClickHouseColumnTest {
         Assert.assertEquals(list.size(), 2);
     }
 
+    @Test(groups = { "unit" })
+    public void testCopy() {
+        ClickHouseColumn column = ClickHouseColumn.of("v", "Array(Nullable(DateTime64(3, 'Asia/Tokyo')))");
+        ClickHouseColumn copy = column.copy();
+        Assert.assertNotSame(copy, column);
+        Assert.assertEquals(copy.getColumnName(), "v");
+        Assert.assertEquals(copy.getOriginalTypeName(), column.getOriginalTypeName());
+        Assert.assertEquals(copy.getDataType(), ClickHouseDataType.Array);
+        Assert.assertEquals(copy.getArrayNestedLevel(), 1);
+        Assert.assertSame(copy.getArrayBaseColumn(), column.getArrayBaseColumn());
+        Assert.assertEquals(copy.getArrayBaseColumn().getScale(), 3);
+
+        copy.setHasDefault(true);
+        copy.setDefaultValue(ClickHouseColumn.DefaultValue.DEFAULT);
+        Assert.assertFalse(column.hasDefault());
+        Assert.assertNull(column.getDefaultValue());
+    }
+
     @Test(groups = { "unit" })
     public void testAggregationFunction() {
         ClickHouseColumn column = ClickHouseColumn.of("aggFunc", "AggregateFunction(groupBitmap, UInt32)");
@@ -8,6 +8,7 @@ import com.clickhouse.client.api.data_formats.NativeFormatReader;
 import com.clickhouse.client.api.data_formats.RowBinaryFormatReader;
 import com.clickhouse.client.api.data_formats.RowBinaryWithNamesAndTypesFormatReader;
 import com.clickhouse.client.api.data_formats.RowBinaryWithNamesFormatReader;
+import com.clickhouse.client.api.data_formats.internal.AbstractBinaryFormatReader;
 import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
 import com.clickhouse.client.api.data_formats.internal.MapBackedRecord;
 import com.clickhouse.client.api.data_formats.internal.ProcessParser;
@@ -17,27 +18,40 @@ import com.clickhouse.client.api.enums.SSLMode;
 import com.clickhouse.client.api.http.ClickHouseHttpProto;
 import com.clickhouse.client.api.insert.InsertResponse;
 import com.clickhouse.client.api.insert.InsertSettings;
+import com.clickhouse.client.api.internal.BufferPool;
 import com.clickhouse.client.api.internal.ClientStatisticsHolder;
 import com.clickhouse.client.api.internal.ClientUtils;
 import com.clickhouse.client.api.internal.CredentialsManager;
 import com.clickhouse.client.api.internal.DataTypeConverter;
+import com.clickhouse.client.api.internal.FileDataStreamWriter;
 import com.clickhouse.client.api.internal.HttpAPIClientHelper;
+import com.clickhouse.client.api.internal.LineChunkDistributor;
 import com.clickhouse.client.api.internal.MapUtils;
+import com.clickhouse.client.api.internal.QueryBatchPlanner;
+import com.clickhouse.client.api.internal.ReplayBuffer;
 import com.clickhouse.client.api.internal.TableSchemaParser;
 import com.clickhouse.client.api.internal.ValidationUtils;
 import com.clickhouse.client.api.metadata.ColumnToMethodMatchingStrategy;
 import com.clickhouse.client.api.metadata.DefaultColumnToMethodMatchingStrategy;
 import com.clickhouse.client.api.metadata.TableSchema;
 import com.clickhouse.client.api.metrics.ClientMetrics;
+import com.clickhouse.client.api.metrics.Metric;
 import com.clickhouse.client.api.metrics.OperationMetrics;
+import com.clickhouse.client.api.metrics.OperationMetricsRecorder;
+import com.clickhouse.client.api.metrics.ServerMetrics;
 import com.clickhouse.client.api.observability.DefaultSpanRecorder;
 import com.clickhouse.client.api.observability.Span;
 import com.clickhouse.client.api.observability.SpanRecorder;
+import com.clickhouse.client.api.query.ExternalTable;
 import com.clickhouse.client.api.query.GenericRecord;
+import com.clickhouse.client.api.query.QueryBatchResult;
 import com.clickhouse.client.api.query.QueryResponse;
 import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.client.api.query.QueryStatement;
+import com.clickhouse.client.api.query.QueryToFileResponse;
 import com.clickhouse.client.api.query.Records;
 import com.clickhouse.client.api.serde.DataSerializationException;
+import com.clickhouse.client.api.serde.POJOConstructorDeserializer;
 import com.clickhouse.client.api.serde.POJOFieldDeserializer;
 import com.clickhouse.client.api.serde.POJOFieldSerializer;
 import com.clickhouse.client.api.serde.POJOSerDe;
@@ -53,6 +67,7 @@ import com.clickhouse.data.ClickHouseFormat;
 import com.google.common.collect.ImmutableList;
 import net.jpountz.lz4.LZ4Factory;
 import org.apache.hc.core5.concurrent.DefaultThreadFactory;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +75,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
@@ -68,24 +86,34 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.net.ssl.SSLContext;
 
@@ -139,12 +167,20 @@ public class Client implements AutoCloseable {
 
     private final boolean isSharedOpExecutorOwned;
 
+    // decodes Native format blocks in parallel for all readers of this client and its forks
+    private final ExecutorService nativeDecodingExecutor;
+
+    // sends requests of one operation split into several requests; bounded by the connection pool size
+    private final ExecutorService parallelRequestExecutor;
+
     private final Map<String, ClientStatisticsHolder> globalClientStats = new ConcurrentHashMap<>();
 
     private final Map<String, TableSchema> tableSchemaCache = new ConcurrentHashMap<>();
 
     private final Map<String, Boolean> tableSchemaHasDefaults = new ConcurrentHashMap<>();
 
+    private final QueryBatchPlanner queryBatchPlanner = new QueryBatchPlanner();
+
     private final Map<ClickHouseDataType, Class<?>> typeHintMapping;
 
     private final ConcurrentHashMap<String, TransportRequest> ongoingRequests = new ConcurrentHashMap<>(REQ_REGISTRY_SIZE);
@@ -166,6 +202,23 @@ public class Client implements AutoCloseable {
      */
     private final SpanRecorder spanRecorder;
 
+    /**
+     * Records per-operation meters. {@link OperationMetricsRecorder#NOOP} when operation metrics are not enabled
+     * or no metrics registry is set.
+     */
+    private final OperationMetricsRecorder operationMetricsRecorder;
+
+    /**
+     * If transport phases are measured for each operation.
+     */
+    private final boolean measureOperationPhases;
+
+    /**
+     * If this client created the transport and should close it. {@code false} for clients created
+     * by {@link #fork()}.
+     */
+    private final boolean isTransportOwned;
+
     private Client(Collection<Endpoint> endpoints, Map<String,String> configuration,
                    ExecutorService sharedOperationExecutor, ColumnToMethodMatchingStrategy columnToMethodMatchingStrategy,
                    Object metricsRegistry, Supplier<String> queryIdGenerator, CredentialsManager cManager,
@@ -196,6 +249,14 @@ public class Client implements AutoCloseable {
             this.isSharedOpExecutorOwned = false;
             this.sharedOperationExecutor = sharedOperationExecutor;
         }
+        // threads are created only when a reader decodes in parallel and released when idle
+        this.nativeDecodingExecutor = Executors.newCachedThreadPool(
+                new DefaultThreadFactory("chc-native-decoder", true));
+        int maxParallelRequests = ClientConfigProperties.HTTP_MAX_OPEN_CONNECTIONS.getOrDefault(this.configuration);
+        ThreadPoolExecutor parallelRequestExecutor = new ThreadPoolExecutor(maxParallelRequests, maxParallelRequests,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultThreadFactory("chc-parallel-request", true));
+        parallelRequestExecutor.allowCoreThreadTimeOut(true);
+        this.parallelRequestExecutor = parallelRequestExecutor;
 
         // Transport
         ImmutableList.Builder<Endpoint> tmpEndpoints = ImmutableList.builder();
@@ -225,9 +286,76 @@ public class Client implements AutoCloseable {
 
         this.httpClientHelper = new HttpAPIClientHelper(this.configuration, metricsRegistry, initSslContext, lz4Factory,
                 this.spanRecorder);
+        int minIdleConnections = ClientConfigProperties.CONNECTION_POOL_MIN_IDLE.getOrDefault(this.configuration);
+        if (minIdleConnections > 0) {
+            httpClientHelper.warmUpConnections(this.endpoints, minIdleConnections);
+        }
+        long keepAlivePingInterval = ClientConfigProperties.CONNECTION_KEEP_ALIVE_PING_INTERVAL.getOrDefault(this.configuration);
+        if (keepAlivePingInterval > 0) {
+            httpClientHelper.startKeepAlivePings(this.endpoints, keepAlivePingInterval, minIdleConnections);
+        }
+        this.measureOperationPhases = ClientConfigProperties.OPERATION_METRICS_ENABLED.getOrDefault(this.configuration);
+        this.operationMetricsRecorder = createOperationMetricsRecorder();
         this.serverVersion = configuration.getOrDefault(ClientConfigProperties.SERVER_VERSION.getKey(), "unknown");
         this.dbUser = configuration.getOrDefault(ClientConfigProperties.USER.getKey(), ClientConfigProperties.USER.getDefObjVal());
         this.typeHintMapping = (Map<ClickHouseDataType, Class<?>>) this.configuration.get(ClientConfigProperties.TYPE_HINT_MAPPING.getKey());
+        this.isTransportOwned = true;
+    }
+
+    private Client(Client parent) {
+        this.configuration = new ConcurrentHashMap<>(parent.configuration);
+        this.readOnlyConfig = parent.readOnlyConfig;
+        this.session = Session.extractFrom(this.configuration);
+        this.credentialsManager = new CredentialsManager(parent.readOnlyConfig);
+        this.spanRecorder = parent.spanRecorder;
+        this.metricsRegistry = parent.metricsRegistry;
+        this.queryIdGenerator = parent.queryIdGenerator;
+        this.pojoSerDe = parent.pojoSerDe;
+        this.isSharedOpExecutorOwned = false;
+        this.sharedOperationExecutor = parent.sharedOperationExecutor;
+        this.nativeDecodingExecutor = parent.nativeDecodingExecutor;
+        this.parallelRequestExecutor = parent.parallelRequestExecutor;
+        this.endpoints = parent.endpoints;
+        this.nodeSelector = parent.nodeSelector;
+        this.lz4Factory = parent.lz4Factory;
+        this.httpClientHelper = parent.httpClientHelper;
+        this.measureOperationPhases = parent.measureOperationPhases;
+        this.operationMetricsRecorder = parent.operationMetricsRecorder;
+        this.serverVersion = parent.serverVersion;
+        this.dbUser = parent.dbUser;
+        this.typeHintMapping = parent.typeHintMapping;
+        this.unmodifiableDbRolesView = parent.unmodifiableDbRolesView;
+        this.isTransportOwned = false;
+    }
+
+    /**
+     * Creates a client that shares transport with this one: HTTP connection pool, SSL context, operation executor
+     * and loaded server information. The new client has its own copy of configuration, so changes of DB roles,
+     * client name, session or credentials do not affect this client and vice versa. Creating a fork does not do
+     * any network calls.
+     * <p>
+     * Closing the fork cancels its ongoing requests but keeps shared resources open. They are released when
+     * this client is closed; after that the fork cannot be used anymore.
+     *
+     * @return new client sharing transport with this one
+     */
+    public Client fork() {
+        return new Client(this);
+    }
+
+    private OperationMetricsRecorder createOperationMetricsRecorder() {
+        if (metricsRegistry == null || !measureOperationPhases) {
+            return OperationMetricsRecorder.NOOP;
+        }
+        try {
+            String mGroupName = ClientConfigProperties.METRICS_GROUP_NAME.getOrDefault(configuration);
+            Class<?> micrometerLoader = getClass().getClassLoader().loadClass("com.clickhouse.client.api.metrics.MicrometerLoader");
+            Method createMethod = micrometerLoader.getDeclaredMethod("createOperationMetricsRecorder", Object.class, String.class);
+            return (OperationMetricsRecorder) createMethod.invoke(micrometerLoader, metricsRegistry, mGroupName);
+        } catch (Exception e) {
+            LOG.error("Failed to register operation metrics", e);
+            return OperationMetricsRecorder.NOOP;
+        }
     }
 
     /**
@@ -265,9 +393,18 @@ public class Client implements AutoCloseable {
      * <ul>
      *     <li>Shuts down the shared operation executor by calling {@code shutdownNow()}</li>
      * </ul>
+     * A client created by {@link #fork()} only cancels its ongoing requests because transport belongs to
+     * the parent client.
      */
     @Override
     public void close() {
+        if (!isTransportOwned) {
+            for (TransportRequest request : ongoingRequests.values()) {
+                request.cancel();
+            }
+            return;
+        }
+
         if (isSharedOpExecutorOwned) {
             try {
                 if (sharedOperationExecutor != null && !sharedOperationExecutor.isShutdown()) {
@@ -279,6 +416,8 @@ public class Client implements AutoCloseable {
         } else {
             LOG.debug("Skip closing operation executor because not owned by client");
         }
+        nativeDecodingExecutor.shutdownNow();
+        parallelRequestExecutor.shutdownNow();
 
         if (httpClientHelper != null) {
             httpClientHelper.close();
@@ -524,6 +663,33 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Sets number of connections to each endpoint that are opened when the client is built. Connections
+         * are established (including TLS handshake) and kept idle in the pool, so first requests do not wait
+         * for them. If keep-alive pings are enabled then the pool is topped up to this number on each round.
+         * Connection pool should be enabled. Default is 0.
+         * {@see Builder#setKeepAlivePingInterval}
+         * @param minIdleConnections - number of connections per endpoint
+         * @return same instance of the builder
+         */
+        public Builder setMinIdleConnections(int minIdleConnections) {
+            this.configuration.put(ClientConfigProperties.CONNECTION_POOL_MIN_IDLE.getKey(), String.valueOf(minIdleConnections));
+            return this;
+        }
+
+        /**
+         * Sets interval of {@code GET /ping} requests that keep idle pooled connections from being closed by
+         * the server. Should be less than server {@code keep_alive_timeout}. Pings are sent from a background
+         * thread. Default is 0 - no pings.
+         * @param interval - time in unit
+         * @param unit - time unit
+         * @return same instance of the builder
+         */
+        public Builder setKeepAlivePingInterval(long interval, ChronoUnit unit) {
+            this.configuration.put(ClientConfigProperties.CONNECTION_KEEP_ALIVE_PING_INTERVAL.getKey(), String.valueOf(Duration.of(interval, unit).toMillis()));
+            return this;
+        }
+
         /**
          * Sets strategy of how connections are reuse.
          * Default is {@link ConnectionReuseStrategy#FIFO} to evenly distribute load between them.
@@ -665,6 +831,68 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Configures the client to select compression of insert requests for each endpoint by measured
+         * compression ratio, encoding time and network speed. Client chooses between no compression, LZ4 and
+         * a stronger HTTP codec ({@code gzip}, or {@code zstd} when zstd-jni is available). Other compression
+         * settings are not used for inserts when enabled. Default is false.
+         *
+         * @param enabled - indicates if adaptive compression is enabled
+         * @return this builder instance
+         */
+        public Builder useAdaptiveCompression(boolean enabled) {
+            this.configuration.put(ClientConfigProperties.ADAPTIVE_CLIENT_COMPRESSION.getKey(), String.valueOf(enabled));
+            return this;
+        }
+
+        /**
+         * Sets max percent of insert request time adaptive compression may spend on encoding.
+         * Codecs exceeding it are not selected while there are other options. Default is 50.
+         *
+         * @param percent - percent of request time in range [1, 100]
+         * @return this builder instance
+         */
+        public Builder setAdaptiveCompressionCpuBudget(int percent) {
+            this.configuration.put(ClientConfigProperties.ADAPTIVE_COMPRESSION_CPU_BUDGET.getKey(), String.valueOf(percent));
+            return this;
+        }
+
+        /**
+         * Configures the client to encode and compress an insert request body once and send the same bytes on every
+         * retry or failover. Body is kept in memory up to {@link #setInsertReplayBufferMemoryLimit(long)} and the rest
+         * is written to a temporary file. Default is false.
+         *
+         * @param enabled - indicates if insert replay buffer is used
+         * @return this builder instance
+         */
+        public Builder useInsertReplayBuffer(boolean enabled) {
+            this.configuration.put(ClientConfigProperties.INSERT_REPLAY_BUFFER.getKey(), String.valueOf(enabled));
+            return this;
+        }
+
+        /**
+         * Sets max number of bytes of an insert replay buffer kept in memory. Default is 16 MiB.
+         *
+         * @param bytes - memory limit in bytes
+         * @return this builder instance
+         */
+        public Builder setInsertReplayBufferMemoryLimit(long bytes) {
+            this.configuration.put(ClientConfigProperties.INSERT_REPLAY_BUFFER_MEMORY_LIMIT.getKey(), String.valueOf(bytes));
+            return this;
+        }
+
+        /**
+         * Configures the client to generate {@code insert_deduplication_token} for inserts that have none.
+         * The same token is sent with every attempt of an insert. Default is false.
+         *
+         * @param enabled - indicates if deduplication token is generated
+         * @return this builder instance
+         */
+        public Builder useAutoDeduplicationToken(boolean enabled) {
+            this.configuration.put(ClientConfigProperties.INSERT_AUTO_DEDUPLICATION_TOKEN.getKey(), String.valueOf(enabled));
+            return this;
+        }
+
         /**
          * Sets buffer size for uncompressed data in LZ4 compression.
          * For outgoing data it is the size of a buffer that will be compressed.
@@ -678,6 +906,59 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Skips checksum verification of LZ4 compressed blocks of responses. Saves CPU time on trusted links
+         * but corrupted data is not detected.
+         *
+         * @param skip - indicates if checksum verification is skipped
+         * @return this builder instance
+         * @see ClientConfigProperties#COMPRESSION_LZ4_SKIP_CHECKSUM
+         */
+        public Builder skipLZ4ChecksumVerification(boolean skip) {
+            this.configuration.put(ClientConfigProperties.COMPRESSION_LZ4_SKIP_CHECKSUM.getKey(), String.valueOf(skip));
+            return this;
+        }
+
+        /**
+         * Sets number of threads decoding blocks of {@code Native} format responses. Blocks are decoded in
+         * parallel when the value is greater than 1. Rows are still read in the original order.
+         *
+         * @param threads - number of decoding threads; 0 or 1 to decode sequentially
+         * @return this builder instance
+         * @see ClientConfigProperties#NATIVE_DECODING_THREADS
+         */
+        public Builder setNativeDecodingThreads(int threads) {
+            this.configuration.put(ClientConfigProperties.NATIVE_DECODING_THREADS.getKey(), String.valueOf(threads));
+            return this;
+        }
+
+        /**
+         * Enables a client-wide pool of buffers. Compression streams and data copying lease buffers from
+         * the pool and return them when an operation is complete, so following operations do not allocate them again.
+         * Buffers are grouped by size and kept per thread group to reduce contention.
+         *
+         * @param maxRetainedBytes - maximum total size of buffers kept by the pool; 0 disables pooling
+         * @return this builder instance
+         * @see ClientConfigProperties#BUFFER_POOL_MAX_RETAINED_BYTES
+         */
+        public Builder setBufferPoolMaxRetainedBytes(long maxRetainedBytes) {
+            this.configuration.put(ClientConfigProperties.BUFFER_POOL_MAX_RETAINED_BYTES.getKey(),
+                    String.valueOf(maxRetainedBytes));
+            return this;
+        }
+
+        /**
+         * Sets number of concurrent requests one insert is split into by default.
+         *
+         * @param streams - number of requests; 1 to send data in one request
+         * @return this builder instance
+         * @see ClientConfigProperties#INSERT_PARALLEL_STREAMS
+         */
+        public Builder setInsertParallelStreams(int streams) {
+            this.configuration.put(ClientConfigProperties.INSERT_PARALLEL_STREAMS.getKey(), String.valueOf(streams));
+            return this;
+        }
+
         /**
          * Disable native compression. If set to true then native compression will be disabled.
          * If from some reason the native compressor is not working then it can be disabled.
@@ -845,6 +1126,23 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Configures cache of TLS sessions of the SSL context created by the client. A cached session is resumed
+         * when a new connection is opened to the same server, which skips the full handshake. Has no effect
+         * when SSL context is set by {@link #setSSLContext(SSLContext)}.
+         *
+         * @param cacheSize maximum number of cached sessions, 0 for no limit
+         * @param timeout time a session can be resumed, 0 for no limit
+         * @param unit time unit
+         * @return same instance of the builder
+         */
+        public Builder setSSLSessionCache(int cacheSize, long timeout, ChronoUnit unit) {
+            this.configuration.put(ClientConfigProperties.SSL_SESSION_CACHE_SIZE.getKey(), String.valueOf(cacheSize));
+            this.configuration.put(ClientConfigProperties.SSL_SESSION_TIMEOUT.getKey(),
+                    String.valueOf(Duration.of(timeout, unit).getSeconds()));
+            return this;
+        }
+
         /**
          * Supplies a pre-built {@link SSLContext}. When set, it is used as is instead of a context built
          * from the configured trust/key material (which then cannot be set alongside it). {@link SSLMode}
@@ -1169,6 +1467,21 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Enables per-operation meters in the registry set by {@link #registerClientMetrics(Object, String)}.
+         * Meters are tagged with operation ({@code query} or {@code insert}) and endpoint and include timers for
+         * connection lease, request write, time to first byte, response decompression and read, summaries of
+         * rows and bytes, and retry/failover/failure counters.
+         * Default is {@code false}.
+         *
+         * @param enabled - if operation meters should be recorded
+         * @return same instance of the builder
+         */
+        public Builder enableOperationMetrics(boolean enabled) {
+            this.configuration.put(ClientConfigProperties.OPERATION_METRICS_ENABLED.getKey(), String.valueOf(enabled));
+            return this;
+        }
+
         /**
          * Sets server version that the client is interacting with.
          *
@@ -1208,6 +1521,20 @@ public class Client implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Enables reading {@code String} and {@code FixedString} columns of binary formats into reusable byte slices.
+         * Slices are available through {@link ClickHouseBinaryFormatReader#getStringBytes(int)} and are valid only
+         * until the reader moves to the next row. This avoids allocating and decoding a value for every row when
+         * strings are only hashed, compared or forwarded. Can also be configured per operation.
+         *
+         * @param enable - if the feature is enabled
+         * @return this builder instance
+         */
+        public Builder stringSliceSupport(boolean enable) {
+            this.configuration.put(ClientConfigProperties.STRING_SLICE_SUPPORT.getKey(), String.valueOf(enable));
+            return this;
+        }
+
 
         /**
          * SNI SSL parameter that will be set for each outbound SSL socket.
@@ -1459,6 +1786,15 @@ public class Client implements AutoCloseable {
 
         final InsertSettings requestSettings = new InsertSettings(buildRequestSettings(settings.getAllSettings()));
 
+        final int streams = Math.min(data.size(), parallelStreamsOf(requestSettings));
+        if (streams > 1) {
+            return insertInParallel(streams, requestSettings, (stream, streamSettings) -> {
+                int from = (int) ((long) data.size() * stream / streams);
+                int to = (int) ((long) data.size() * (stream + 1) / streams);
+                return insert(tableName, data.subList(from, to), streamSettings).join();
+            }, null);
+        }
+
         String operationId = registerOperationMetrics();
         requestSettings.setOperationId(operationId);
         globalClientStats.get(operationId).start(ClientMetrics.OP_DURATION);
@@ -1495,6 +1831,25 @@ public class Client implements AutoCloseable {
         if (requestSettings.getQueryId() == null && queryIdGenerator != null) {
             requestSettings.setQueryId(queryIdGenerator.get());
         }
+        applyAutoDeduplicationToken(requestSettings);
+
+        final DataStreamWriter pojoWriter = out -> {
+            out.write("INSERT INTO ".getBytes());
+            out.write(tableName.getBytes());
+            out.write(" \n FORMAT ".getBytes());
+            out.write(format.name().getBytes());
+            out.write(" \n".getBytes());
+            for (Object obj : data) {
+
+                for (POJOFieldSerializer serializer : serializersForTable) {
+                    try {
+                        serializer.serialize(obj, out);
+                    } catch (InvocationTargetException | IllegalAccessException e) {
+                        throw new DataSerializationException(obj, serializer, e);
+                    }
+                }
+            }
+        };
         final Span operationSpan = orNoop(spanRecorder.startInsertSpan(requestSettings, tableName, data.size(),
                 endpoints.get(0)));
         Supplier<InsertResponse> supplier = () -> {
@@ -1502,6 +1857,7 @@ public class Client implements AutoCloseable {
             // Selecting some node
             Endpoint selectedEndpoint = nodeSelector.getEndpoint();
             final String queryId = requestSettings.getQueryId();
+            final ReplayBuffer replayBuffer = newReplayBuffer(requestSettings.getAllSettings());
             RuntimeException lastException = null;
             try {
                 for (int i = 0; i <= maxAttempts; i++) {
@@ -1509,29 +1865,17 @@ public class Client implements AutoCloseable {
                     // Execute request
                     TransportRequest transportRequest = httpClientHelper.createRequest(selectedEndpoint, requestSettings.getAllSettings(),
                             out -> {
-                                out.write("INSERT INTO ".getBytes());
-                                out.write(tableName.getBytes());
-                                out.write(" \n FORMAT ".getBytes());
-                                out.write(format.name().getBytes());
-                                out.write(" \n".getBytes());
-                                for (Object obj : data) {
-
-                                    for (POJOFieldSerializer serializer : serializersForTable) {
-                                        try {
-                                            serializer.serialize(obj, out);
-                                        } catch (InvocationTargetException | IllegalAccessException e) {
-                                            throw new DataSerializationException(obj, serializer, e);
-                                        }
-                                    }
-                                }
+                                pojoWriter.onOutput(out);
                                 out.close();
-                            });
+                            }, replayBuffer);
 
                     registerTransportReq(queryId, transportRequest);
 
-                    try (TransportResponse transportResponse = httpClientHelper.executeRequest(transportRequest, operationSpan)) {
+                    try (TransportResponse transportResponse = executeRequest(transportRequest, operationSpan,
+                            globalClientStats.get(operationId))) {
                         ClientStatisticsHolder clientStats = globalClientStats.remove(operationId);
                         OperationMetrics metrics = completeOperation(transportResponse, clientStats, requestSettings.getQueryId());
+                        operationMetricsRecorder.recordOperation(OperationMetricsRecorder.OP_INSERT, selectedEndpoint, metrics);
 
                         spanRecorder.recordSuccess(operationSpan, metrics);
                         return new InsertResponse(transportResponse, metrics);
@@ -1540,7 +1884,9 @@ public class Client implements AutoCloseable {
                         lastException = httpClientHelper.wrapException(msg, e, requestSettings.getQueryId());
                         if (httpClientHelper.shouldRetry(e, requestSettings.getAllSettings()) && requestIsNotCancelled(queryId)) {
                             if (i < maxAttempts) {
-                                selectedEndpoint = logRetryAndSelectNextNode("Insert", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                Endpoint nextEndpoint = logRetryAndSelectNextNode("Insert", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                recordRetry(OperationMetricsRecorder.OP_INSERT, globalClientStats.get(operationId), selectedEndpoint, nextEndpoint);
+                                selectedEndpoint = nextEndpoint;
                             } else {
                                 nodeSelector.getNextAliveNode(selectedEndpoint);
                             }
@@ -1554,12 +1900,14 @@ public class Client implements AutoCloseable {
                 LOG.warn(errMsg);
                 throw (lastException == null ? new ClientException(errMsg) : lastException);
             } catch (RuntimeException | Error e) {
+                operationMetricsRecorder.recordFailure(OperationMetricsRecorder.OP_INSERT, selectedEndpoint);
                 spanRecorder.recordFailure(operationSpan, e);
                 throw e;
             } finally {
                 // The request of the last attempt stays registered until the operation is over, so a cancellation
                 // landing between two attempts is not lost.
                 unregisterTransportReq(queryId);
+                closeQuietly(replayBuffer);
                 operationSpan.end();
             }
         };
@@ -1632,13 +1980,29 @@ public class Client implements AutoCloseable {
             throw new IllegalArgumentException("Buffer size must be greater than 0");
         }
 
+        final InsertSettings requestSettings = new InsertSettings(buildRequestSettings(settings.getAllSettings()));
+        final int streams = parallelStreamsOf(requestSettings);
+        // a token must cover the same rows on retry but lines are assigned to parts as they are read
+        if (streams > 1 && LineChunkDistributor.isSplittable(format)
+                && !MapUtils.getFlag(requestSettings.getAllSettings(), ClientConfigProperties.APP_COMPRESSED_DATA.getKey(), false)
+                && requestSettings.getAllSettings().get(ClientConfigProperties.serverSetting("insert_deduplication_token")) == null) {
+            LineChunkDistributor distributor = new LineChunkDistributor(data, streams, writeBufferSize);
+            return insertInParallel(streams, requestSettings, (stream, streamSettings) ->
+                    insert(tableName, columnNames, distributor.newWriter(), format, streamSettings).join(), distributor);
+        }
+
         return insert(tableName, columnNames, new DataStreamWriter() {
                     @Override
                     public void onOutput(OutputStream out) throws IOException {
-                        byte[] buffer = new byte[writeBufferSize];
-                        int bytesRead;
-                        while ((bytesRead = data.read(buffer)) > 0) {
-                            out.write(buffer, 0, bytesRead);
+                        BufferPool bufferPool = httpClientHelper.getBufferPool();
+                        byte[] buffer = bufferPool.lease(writeBufferSize);
+                        try {
+                            int bytesRead;
+                            while ((bytesRead = data.read(buffer, 0, writeBufferSize)) > 0) {
+                                out.write(buffer, 0, bytesRead);
+                            }
+                        } finally {
+                            bufferPool.release(buffer);
                         }
                         out.close();
                     }
@@ -1651,6 +2015,68 @@ public class Client implements AutoCloseable {
                 format, settings);
     }
 
+    /**
+     * Sends write request to database. Data is read from the file.
+     *
+     * @param tableName - destination table name
+     * @param file - file with data to insert
+     * @param format - format of the data in the file
+     * @param settings - insert operation settings
+     * @return {@code CompletableFuture<InsertResponse>} - a promise to insert response
+     * @see #insert(String, List, Path, ClickHouseFormat, InsertSettings)
+     */
+    public CompletableFuture<InsertResponse> insert(String tableName,
+                                                    Path file,
+                                                    ClickHouseFormat format,
+                                                    InsertSettings settings) {
+        return insert(tableName, Collections.emptyList(), file, format, settings);
+    }
+
+    /**
+     * Sends write request to database. Data is read from the file.
+     * <p>
+     * The file is reopened for each attempt, so the request can be retried without buffering the data.
+     * If the file name has a compression extension ({@code .gz}, {@code .zst}, {@code .lz4}, {@code .br},
+     * {@code .xz}, {@code .bz2}, {@code .deflate}) and {@link ClientConfigProperties#APP_COMPRESSED_DATA} is not set,
+     * then the file is sent as is with a matching {@code Content-Encoding} and the server decompresses it.
+     *
+     * @param tableName - destination table name
+     * @param columnNames - list of column names to insert data into. If null or empty, all columns will be used.
+     * @param file - file with data to insert
+     * @param format - format of the data in the file
+     * @param settings - insert operation settings
+     * @return {@code CompletableFuture<InsertResponse>} - a promise to insert response
+     */
+    public CompletableFuture<InsertResponse> insert(String tableName,
+                                                    List<String> columnNames,
+                                                    Path file,
+                                                    ClickHouseFormat format,
+                                                    InsertSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Settings cannot be null");
+        }
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new IllegalArgumentException("File is not readable: " + file);
+        }
+
+        final int writeBufferSize = settings.getInputStreamCopyBufferSize() <= 0 ?
+                (int) configuration.get(ClientConfigProperties.CLIENT_NETWORK_BUFFER_SIZE.getKey()) :
+                settings.getInputStreamCopyBufferSize();
+
+        InsertSettings fileSettings = settings;
+        String contentEncoding = FileDataStreamWriter.contentEncodingOf(file);
+        String appCompressedKey = ClientConfigProperties.APP_COMPRESSED_DATA.getKey();
+        if (contentEncoding != null && !settings.getAllSettings().containsKey(appCompressedKey)
+                && !Boolean.parseBoolean(String.valueOf(configuration.get(appCompressedKey)))) {
+            fileSettings = new InsertSettings(settings.getAllSettings());
+            fileSettings.setInputStreamCopyBufferSize(settings.getInputStreamCopyBufferSize());
+            fileSettings.appCompressedData(true, contentEncoding);
+        }
+
+        return insert(tableName, columnNames, new FileDataStreamWriter(file, writeBufferSize,
+                httpClientHelper.getBufferPool()), format, fileSettings);
+    }
+
     /**
      * Does an insert request to a server. Data is pushed when a {@link DataStreamWriter#onOutput(OutputStream)} is called.
      *
@@ -1724,6 +2150,7 @@ public class Client implements AutoCloseable {
         if (requestSettings.getQueryId() == null && queryIdGenerator != null) {
             requestSettings.setQueryId(queryIdGenerator.get());
         }
+        applyAutoDeduplicationToken(requestSettings);
 
         final int maxRetries = ClientConfigProperties.RETRY_ON_FAILURE.getOrDefault(requestSettings.getAllSettings());
         final int maxAttempts = Math.max(maxRetries, endpoints.size() - 1);
@@ -1736,6 +2163,7 @@ public class Client implements AutoCloseable {
 
             RuntimeException lastException = null;
             final String queryId = requestSettings.getQueryId();
+            final ReplayBuffer replayBuffer = newReplayBuffer(requestSettings.getAllSettings());
             try {
                 for (int i = 0; i <= maxAttempts; i++) {
                     failIfCancelled(queryId, i, lastException);
@@ -1744,11 +2172,12 @@ public class Client implements AutoCloseable {
                             out -> {
                                 writer.onOutput(out);
                                 out.close();
-                            });
+                            }, replayBuffer);
                     registerTransportReq(queryId, transportRequest);
 
-                    try (TransportResponse transportResponse = httpClientHelper.executeRequest(transportRequest, operationSpan)) {
+                    try (TransportResponse transportResponse = executeRequest(transportRequest, operationSpan, finalClientStats)) {
                         OperationMetrics metrics = completeOperation(transportResponse, finalClientStats, requestSettings.getQueryId());
+                        operationMetricsRecorder.recordOperation(OperationMetricsRecorder.OP_INSERT, selectedEndpoint, metrics);
                         spanRecorder.recordSuccess(operationSpan, metrics);
                         return new InsertResponse(transportResponse, metrics);
                     } catch (Exception e) {
@@ -1756,7 +2185,9 @@ public class Client implements AutoCloseable {
                         lastException = httpClientHelper.wrapException(msg, e, requestSettings.getQueryId());
                         if (httpClientHelper.shouldRetry(e, requestSettings.getAllSettings()) && requestIsNotCancelled(requestSettings.getQueryId())) {
                             if (i < maxAttempts) {
-                                selectedEndpoint = logRetryAndSelectNextNode("Insert (stream)", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                Endpoint nextEndpoint = logRetryAndSelectNextNode("Insert (stream)", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                recordRetry(OperationMetricsRecorder.OP_INSERT, finalClientStats, selectedEndpoint, nextEndpoint);
+                                selectedEndpoint = nextEndpoint;
                             } else {
                                 nodeSelector.getNextAliveNode(selectedEndpoint);
                             }
@@ -1765,7 +2196,8 @@ public class Client implements AutoCloseable {
                         }
                     }
 
-                    if (i < maxAttempts) {
+                    // the source is read again only if its body was not captured
+                    if (i < maxAttempts && (replayBuffer == null || !replayBuffer.isCaptured())) {
                         try {
                             writer.onRetry();
                         } catch (IOException ioe) {
@@ -1778,12 +2210,14 @@ public class Client implements AutoCloseable {
                 LOG.warn(errMsg);
                 throw (lastException == null ? new ClientException(errMsg) : lastException);
             } catch (RuntimeException | Error e) {
+                operationMetricsRecorder.recordFailure(OperationMetricsRecorder.OP_INSERT, selectedEndpoint);
                 spanRecorder.recordFailure(operationSpan, e);
                 throw e;
             } finally {
                 // The request of the last attempt stays registered until the operation is over, so a cancellation
                 // landing between two attempts is not lost.
                 unregisterTransportReq(queryId);
+                closeQuietly(replayBuffer);
                 operationSpan.end();
             }
         };
@@ -1890,8 +2324,14 @@ public class Client implements AutoCloseable {
                         registerTransportReq(queryId, request);
                         TransportResponse transportResp = null;
                         try {
-                            transportResp = httpClientHelper.executeRequest(request, operationSpan);
+                            transportResp = executeRequest(request, operationSpan, clientStats);
                             OperationMetrics metrics = completeOperation(transportResp, clientStats, requestSettings.getQueryId());
+                            operationMetricsRecorder.recordOperation(OperationMetricsRecorder.OP_QUERY, selectedEndpoint, metrics);
+                            if (operationMetricsRecorder != OperationMetricsRecorder.NOOP) {
+                                final Endpoint responseEndpoint = selectedEndpoint;
+                                clientStats.setResponseClosedListener(stats -> operationMetricsRecorder
+                                        .recordResponse(OperationMetricsRecorder.OP_QUERY, responseEndpoint, stats));
+                            }
                             ClickHouseFormat responseFormat = transportResp.getDataFormat();
                             if (responseFormat == null) {
                                 responseFormat = requestSettings.getFormat();
@@ -1906,7 +2346,10 @@ public class Client implements AutoCloseable {
                             lastException = httpClientHelper.wrapException(msg, e, requestSettings.getQueryId());
                             if (httpClientHelper.shouldRetry(e, requestSettings.getAllSettings()) && requestIsNotCancelled(requestSettings.getQueryId())) {
                                 if (i < maxAttempts) {
-                                    selectedEndpoint = logRetryAndSelectNextNode("Query", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                    Endpoint nextEndpoint = logRetryAndSelectNextNode("Query", i, maxAttempts, requestSettings.getQueryId(), selectedEndpoint, e);
+                                    recordRetry(OperationMetricsRecorder.OP_QUERY, clientStats, selectedEndpoint, nextEndpoint);
+                                    selectedEndpoint = nextEndpoint;
+                                    resetExternalTables(requestSettings);
                                 } else {
                                     nodeSelector.getNextAliveNode(selectedEndpoint);
                                 }
@@ -1920,6 +2363,7 @@ public class Client implements AutoCloseable {
                     LOG.warn(errMsg);
                     throw (lastException == null ? new ClientException(errMsg) : lastException);
                 } catch (RuntimeException | Error e) {
+                    operationMetricsRecorder.recordFailure(OperationMetricsRecorder.OP_QUERY, selectedEndpoint);
                     spanRecorder.recordFailure(operationSpan, e);
                     throw e;
                 } finally {
@@ -1932,6 +2376,17 @@ public class Client implements AutoCloseable {
         return runAsyncOperation(responseSupplier, requestSettings.getAllSettings());
     }
 
+    private static void resetExternalTables(QuerySettings settings) {
+        for (ExternalTable table : settings.getExternalTables()) {
+            try {
+                table.getWriter().onRetry();
+            } catch (IOException e) {
+                throw new ClientException("Failed to reset external table '" + table.getName()
+                        + "' before next attempt", e);
+            }
+        }
+    }
+
     /**
      * Logs a single consolidated warning for a failed but retryable request attempt and returns
      * the next endpoint to try. Keeping this in one place ensures a retry is logged exactly once
@@ -1945,6 +2400,29 @@ public class Client implements AutoCloseable {
         return nodeSelector.getNextAliveNode(endpoint);
     }
 
+    /**
+     * Executes a request passing operation statistics to the transport only when operation phases are measured.
+     */
+    private TransportResponse executeRequest(TransportRequest request, Span operationSpan,
+                                             ClientStatisticsHolder clientStats) throws Exception {
+        return httpClientHelper.executeRequest(request, operationSpan, measureOperationPhases ? clientStats : null);
+    }
+
+    /**
+     * Counts a retry of an operation. It is a failover when the next attempt goes to another endpoint.
+     */
+    private void recordRetry(String operation, ClientStatisticsHolder clientStats, Endpoint failedEndpoint,
+                             Endpoint nextEndpoint) {
+        boolean failover = !Objects.equals(failedEndpoint, nextEndpoint);
+        if (clientStats != null) {
+            clientStats.increment(ClientMetrics.RETRIES);
+            if (failover) {
+                clientStats.increment(ClientMetrics.FAILOVERS);
+            }
+        }
+        operationMetricsRecorder.recordRetry(operation, failedEndpoint, failover);
+    }
+
     /**
      * Replaces a span a recorder did not return with one that records nothing, so an incomplete
      * implementation cannot break an operation.
@@ -1995,6 +2473,180 @@ public class Client implements AutoCloseable {
         return query(sqlQuery, queryParams, null);
     }
 
+    /**
+     * Runs a query and writes the response body to the file. The file is created or truncated.
+     * <p>
+     * Response bytes are copied to the file through one pooled buffer as they are received, without decoding and
+     * without keeping the response in memory. If the query fails after the file is created then the file is deleted.
+     * If the file name has a compression extension ({@code .gz}, {@code .zst}, {@code .lz4}, {@code .br},
+     * {@code .xz}, {@code .bz2}, {@code .deflate}) then the server is asked to compress the response with the matching
+     * HTTP compression and the compressed body is stored as is.
+     *
+     * @param sqlQuery - query to run. Should not contain {@code FORMAT} clause.
+     * @param file - destination file
+     * @param format - format of the data in the file
+     * @param settings - query operation settings
+     * @return {@code CompletableFuture<QueryToFileResponse>} - a promise to the result of the operation
+     * @see #queryToFile(List, Path, ClickHouseFormat, QuerySettings)
+     */
+    public CompletableFuture<QueryToFileResponse> queryToFile(String sqlQuery, Path file, ClickHouseFormat format,
+                                                              QuerySettings settings) {
+        final QuerySettings fileSettings = fileQuerySettings(file, format, settings);
+        return runAsyncOperation(() -> writeQueryResponse(sqlQuery, file, fileSettings),
+                settings == null ? Collections.emptyMap() : settings.getAllSettings());
+    }
+
+    /**
+     * Runs a query split into segments by a key. Segment {@code i} of {@code segments} selects rows for which
+     * {@code cityHash64(segmentKey) % segments = i}, so segments do not overlap and together return all rows.
+     *
+     * @param sqlQuery - query to run. Should not contain {@code FORMAT} clause.
+     * @param segmentKey - expression over the result columns used to split rows
+     * @param segments - number of segments
+     * @param file - destination file. Names of part files are derived from it.
+     * @param format - format of the data in the files
+     * @param settings - query operation settings
+     * @return {@code CompletableFuture<QueryToFileResponse>} - a promise to the result of the operation
+     * @see #queryToFile(List, Path, ClickHouseFormat, QuerySettings)
+     */
+    public CompletableFuture<QueryToFileResponse> queryToFile(String sqlQuery, String segmentKey, int segments,
+                                                              Path file, ClickHouseFormat format,
+                                                              QuerySettings settings) {
+        if (segments <= 0) {
+            throw new IllegalArgumentException("Number of segments should be greater than 0");
+        }
+        List<String> segmentQueries = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            segmentQueries.add("SELECT * FROM (" + sqlQuery + ") WHERE cityHash64(" + segmentKey + ") % "
+                    + segments + " = " + i);
+        }
+        return queryToFile(segmentQueries, file, format, settings);
+    }
+
+    /**
+     * Runs segment queries concurrently and writes response of each to own part file. Part file name is the
+     * destination file name with {@code .part<i>} inserted before the first extension
+     * (e.g. {@code data.part0.csv.gz}). Each segment is a separate request, so it gets an endpoint from
+     * the node selector and segments may be served by different replicas.
+     * <p>
+     * Segments are queued to a client-wide pool that runs at most {@link ClientConfigProperties#HTTP_MAX_OPEN_CONNECTIONS}
+     * requests at a time, so segments above the connection pool size wait for a thread instead of failing on
+     * a connection lease timeout. The shared operation executor is not used because the operation itself may run
+     * on it and waits for the segments. If any segment fails then the operation fails, the file of the failed
+     * segment is deleted and part files of other segments are kept.
+     *
+     * @param segmentQueries - queries which results together make the export. Should not contain {@code FORMAT} clause.
+     * @param file - destination file. Names of part files are derived from it.
+     * @param format - format of the data in the files
+     * @param settings - query operation settings
+     * @return {@code CompletableFuture<QueryToFileResponse>} - a promise to the result of the operation
+     */
+    public CompletableFuture<QueryToFileResponse> queryToFile(List<String> segmentQueries, Path file,
+                                                              ClickHouseFormat format, QuerySettings settings) {
+        if (segmentQueries == null || segmentQueries.isEmpty()) {
+            throw new IllegalArgumentException("At least one segment query is required");
+        }
+        final QuerySettings fileSettings = fileQuerySettings(file, format, settings);
+        return runAsyncOperation(() -> {
+            int segments = segmentQueries.size();
+            List<CompletableFuture<QueryToFileResponse>> futures = new ArrayList<>(segments);
+            try {
+                List<Path> files = new ArrayList<>(segments);
+                for (int i = 0; i < segments; i++) {
+                    Path partFile = partFileOf(file, i);
+                    QuerySettings segmentSettings = new QuerySettings(fileSettings.getAllSettings());
+                    if (fileSettings.getQueryId() != null) {
+                        segmentSettings.setQueryId(fileSettings.getQueryId() + "-" + i);
+                    }
+                    String segmentQuery = segmentQueries.get(i);
+                    files.add(partFile);
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> writeQueryResponse(segmentQuery, partFile, segmentSettings), parallelRequestExecutor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+                List<OperationMetrics> metrics = new ArrayList<>(segments);
+                long bytesWritten = 0;
+                for (CompletableFuture<QueryToFileResponse> f : futures) {
+                    QueryToFileResponse part = f.join();
+                    metrics.addAll(part.getMetrics());
+                    bytesWritten += part.getBytesWritten();
+                }
+                return new QueryToFileResponse(files, metrics, bytesWritten);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                        : new ClientException("Failed to write query response to file", e.getCause());
+            } finally {
+                // queued segments are not needed after a failure
+                for (CompletableFuture<QueryToFileResponse> f : futures) {
+                    f.cancel(false);
+                }
+            }
+        }, settings == null ? Collections.emptyMap() : settings.getAllSettings());
+    }
+
+    private QuerySettings fileQuerySettings(Path file, ClickHouseFormat format, QuerySettings settings) {
+        if (file == null || format == null) {
+            throw new IllegalArgumentException("File and format cannot be null");
+        }
+        QuerySettings fileSettings = new QuerySettings(settings == null ? new HashMap<>() : settings.getAllSettings());
+        fileSettings.setFormat(format);
+        String contentEncoding = FileDataStreamWriter.contentEncodingOf(file);
+        if (contentEncoding != null) {
+            fileSettings.setOption(ClientConfigProperties.COMPRESS_SERVER_RESPONSE.getKey(), true);
+            fileSettings.setOption(ClientConfigProperties.USE_HTTP_COMPRESSION.getKey(), true);
+            fileSettings.httpHeader(HttpHeaders.ACCEPT_ENCODING, contentEncoding);
+            fileSettings.setOption(HttpAPIClientHelper.KEY_KEEP_CONTENT_ENCODING, true);
+        }
+        // requests are sent from the thread of the operation or of the segment
+        fileSettings.setOption(ClientConfigProperties.ASYNC_OPERATIONS.getKey(), false);
+        return fileSettings;
+    }
+
+    private QueryToFileResponse writeQueryResponse(String sqlQuery, Path file, QuerySettings settings) {
+        int bufferSize = (int) configuration.get(ClientConfigProperties.CLIENT_NETWORK_BUFFER_SIZE.getKey());
+        boolean fileCreated = false;
+        try (QueryResponse response = query(sqlQuery, null, settings).join();
+             InputStream in = response.getInputStream()) {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                fileCreated = true;
+                BufferPool bufferPool = httpClientHelper.getBufferPool();
+                byte[] buffer = bufferPool.lease(bufferSize);
+                long written = 0;
+                try {
+                    int n;
+                    while ((n = in.read(buffer, 0, bufferSize)) != -1) {
+                        out.write(buffer, 0, n);
+                        written += n;
+                    }
+                } finally {
+                    bufferPool.release(buffer);
+                }
+                return new QueryToFileResponse(Collections.singletonList(file),
+                        Collections.singletonList(response.getMetrics()), written);
+            }
+        } catch (Exception e) {
+            RuntimeException error = e instanceof ClientException ? (ClientException) e
+                    : new ClientException("Failed to write query response to file " + file, e);
+            if (fileCreated) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException deleteError) {
+                    error.addSuppressed(deleteError);
+                }
+            }
+            throw error;
+        }
+    }
+
+    static Path partFileOf(Path file, int part) {
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.', 1);
+        String partName = dot < 0 ? name + ".part" + part
+                : name.substring(0, dot) + ".part" + part + name.substring(dot);
+        return file.resolveSibling(partName);
+    }
+
     private OperationMetrics completeOperation(TransportResponse transportResponse, ClientStatisticsHolder clientStats, String originalQueryId) {
         OperationMetrics metrics = new OperationMetrics(clientStats);
         String summary = transportResponse.getSummaryJson();
@@ -2114,6 +2766,166 @@ public class Client implements AutoCloseable {
         return queryAll(sqlQuery, null, (QuerySettings) null);
     }
 
+    /**
+     * Runs independent statements as a batch and reads result of each to a collection.
+     *
+     * @param statements - statements to run
+     * @return a promise to the results in the order of the statements
+     * @see #queryBatch(List, QuerySettings)
+     */
+    public CompletableFuture<List<QueryBatchResult>> queryBatch(List<QueryStatement> statements) {
+        return queryBatch(statements, null);
+    }
+
+    /**
+     * <p>Runs independent statements as a batch and reads result of each to a collection. Statements that return
+     * the same columns are merged into one {@code UNION ALL} query, so a batch of similar statements takes one
+     * request instead of a request per statement. Rows of each statement are tagged on the server and split back
+     * on the client.</p>
+     * <p>Columns of a statement are known after it is run once, so a statement is sent alone the first time and
+     * is merged in following batches. Only {@code SELECT} and {@code WITH} statements without a {@code FORMAT}
+     * clause are merged. Statements with a parameter of the same name and a different value are not merged
+     * together.</p>
+     * <p>An error of a statement is returned in its result and does not affect other statements: when a merged
+     * query fails its statements are run again one by one. Requests of the batch are sent one after another, so
+     * the batch uses one connection at a time.</p>
+     * <p>Use this method for statements that return only a few records because whole results are kept in memory.</p>
+     *
+     * @param statements - statements to run
+     * @param settings - operation settings applied to all statements. Query id gets suffix {@code -<index>} of
+     *                 the statement or, for a merged query, of its first statement.
+     * @return a promise to the results in the order of the statements
+     */
+    public CompletableFuture<List<QueryBatchResult>> queryBatch(List<QueryStatement> statements, QuerySettings settings) {
+        if (statements == null || statements.isEmpty()) {
+            throw new IllegalArgumentException("At least one statement is required");
+        }
+        final QuerySettings batchSettings = new QuerySettings(buildRequestSettings(
+                settings == null ? Collections.emptyMap() : settings.getAllSettings()));
+        // requests are sent from the thread of the batch
+        batchSettings.setOption(ClientConfigProperties.ASYNC_OPERATIONS.getKey(), false);
+        return runAsyncOperation(() -> {
+            QueryBatchResult[] results = new QueryBatchResult[statements.size()];
+            for (List<Integer> group : queryBatchPlanner.plan(statements)) {
+                if (group.size() > 1 && runMergedBatchStatements(statements, group, batchSettings, results)) {
+                    continue;
+                }
+                for (int i : group) {
+                    results[i] = runBatchStatement(statements.get(i), i, batchSettings);
+                }
+            }
+            return Arrays.asList(results);
+        }, settings == null ? Collections.emptyMap() : settings.getAllSettings());
+    }
+
+    private QueryBatchResult runBatchStatement(QueryStatement statement, int index, QuerySettings batchSettings) {
+        try {
+            List<GenericRecord> records = new ArrayList<>();
+            TableSchema schema = readBatchQuery(statement.getQuery(), statement.getParams(),
+                    batchStatementSettings(batchSettings, index), (record, convertions, recordSchema) ->
+                            records.add(new MapBackedRecord(record, convertions, recordSchema)));
+            queryBatchPlanner.remember(statement.getQuery(), schema.getColumns());
+            return new QueryBatchResult(statement, records, null);
+        } catch (ClientException e) {
+            // reading wraps errors of the server
+            RuntimeException error = e.getCause() instanceof ServerException ? (ServerException) e.getCause() : e;
+            return new QueryBatchResult(statement, null, error);
+        } catch (RuntimeException e) {
+            return new QueryBatchResult(statement, null, e);
+        }
+    }
+
+    /**
+     * Runs statements of a group as one query and sets their results.
+     *
+     * @return {@code false} if the merged query failed or returned unexpected columns and statements should be
+     *          run one by one
+     */
+    private boolean runMergedBatchStatements(List<QueryStatement> statements, List<Integer> group,
+                                             QuerySettings batchSettings, QueryBatchResult[] results) {
+        Map<Integer, List<GenericRecord>> records = new HashMap<>();
+        for (int i : group) {
+            records.put(i, new ArrayList<>());
+        }
+        QueryStatement first = statements.get(group.get(0));
+        TableSchema[] statementSchema = new TableSchema[1];
+        try {
+            TableSchema schema = readBatchQuery(QueryBatchPlanner.mergedQuery(statements, group),
+                    QueryBatchPlanner.mergedParams(statements, group), batchStatementSettings(batchSettings, group.get(0)),
+                    (record, convertions, recordSchema) -> {
+                        if (statementSchema[0] == null) {
+                            List<ClickHouseColumn> columns = recordSchema.getColumns();
+                            statementSchema[0] = new TableSchema(new ArrayList<>(columns.subList(0, columns.size() - 1)));
+                        }
+                        Object index = record.remove(QueryBatchPlanner.STATEMENT_COLUMN);
+                        List<GenericRecord> statementRecords = index instanceof Number ?
+                                records.get(((Number) index).intValue()) : null;
+                        if (statementRecords == null) {
+                            throw new ClientException("Unexpected statement index in a merged batch query: " + index);
+                        }
+                        // converters are looked up by column index and the tag is the last column
+                        statementRecords.add(new MapBackedRecord(record, convertions, statementSchema[0]));
+                    });
+            if (!queryBatchPlanner.matches(first, schema.getColumns())) {
+                LOG.debug("Merged batch query returned unexpected columns; running statements one by one");
+                return false;
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Merged batch query failed; running statements one by one", e);
+            return false;
+        }
+        for (int i : group) {
+            results[i] = new QueryBatchResult(statements.get(i), records.get(i), null);
+        }
+        return true;
+    }
+
+    private static QuerySettings batchStatementSettings(QuerySettings batchSettings, int index) {
+        QuerySettings statementSettings = new QuerySettings(batchSettings.getAllSettings());
+        if (batchSettings.getQueryId() != null) {
+            statementSettings.setQueryId(batchSettings.getQueryId() + "-" + index);
+        }
+        return statementSettings;
+    }
+
+    /**
+     * Consumer of rows of a batch query.
+     */
+    private interface BatchRowConsumer {
+        void accept(Map<String, Object> record, Map[] convertions, TableSchema schema);
+    }
+
+    /**
+     * Runs a query of a batch and passes all rows to the consumer.
+     *
+     * @return schema of the result
+     */
+    private TableSchema readBatchQuery(String sqlQuery, Map<String, Object> params, QuerySettings settings,
+                                       BatchRowConsumer rows) {
+        try {
+            int operationTimeout = getOperationTimeout();
+            settings.setFormat(ClickHouseFormat.RowBinaryWithNamesAndTypes);
+            settings.waitEndOfQuery(true);
+
+            CompletableFuture<QueryResponse> f = query(sqlQuery, params, settings);
+            try (QueryResponse response = operationTimeout == 0 ? f.get() : f.get(operationTimeout, TimeUnit.MILLISECONDS)) {
+                RowBinaryWithNamesAndTypesFormatReader reader =
+                        (RowBinaryWithNamesAndTypesFormatReader) newBinaryFormatReader(response);
+                Map<String, Object> record;
+                while (reader.readRecord((record = new LinkedHashMap<>()))) {
+                    rows.accept(record, reader.getConvertions(), reader.getSchema());
+                }
+                return reader.getSchema();
+            }
+        } catch (ExecutionException e) {
+            throw new ClientException("Failed to get query response", e.getCause());
+        } catch (ClientException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ClientException("Failed to get query response", e);
+        }
+    }
+
     public <T> List<T> queryAll(String sqlQuery, Class<T> clazz, TableSchema schema) {
         return queryAll(sqlQuery, clazz, schema, null);
     }
@@ -2127,6 +2939,9 @@ public class Client implements AutoCloseable {
      * <p>{@code class} should be registered before calling this method using {@link #register(Class, TableSchema)}</p>
      * <p>Internally deserializer is compiled at the register stage. Compilation is done using ASM library by
      *  writing a bytecode</p>
+     * <p>Java records and classes without a no-args constructor are created by calling a constructor with
+     *  column values when no allocator is given. Such classes do not need to be registered.
+     *  See {@link #newObjectIterator(ClickHouseBinaryFormatReader, Class)}</p>
      * <p>Note: this method will cache schema and it will use sql as a key for storage.</p>
      *
      *
@@ -2139,6 +2954,10 @@ public class Client implements AutoCloseable {
      */
     @SuppressWarnings("unchecked")
     public <T> List<T> queryAll(String sqlQuery, Class<T> clazz, TableSchema schema, Supplier<T> allocator) {
+        if (allocator == null && !hasNoArgsConstructor(clazz)) {
+            return queryAllWithConstructor(sqlQuery, clazz);
+        }
+
         Map<String, POJOFieldDeserializer> classDeserializers = pojoSerDe.getFieldDeserializers(clazz, schema);
 
         if (classDeserializers.isEmpty()) {
@@ -2178,6 +2997,309 @@ public class Client implements AutoCloseable {
         }
     }
 
+    private <T> List<T> queryAllWithConstructor(String sqlQuery, Class<T> clazz) {
+        try {
+            int operationTimeout = getOperationTimeout();
+            QuerySettings settings = new QuerySettings().setFormat(ClickHouseFormat.RowBinaryWithNamesAndTypes);
+            CompletableFuture<QueryResponse> f = query(sqlQuery, settings);
+            try (QueryResponse response = operationTimeout == 0 ? f.get() : f.get(operationTimeout, TimeUnit.MILLISECONDS)) {
+                List<T> records = new ArrayList<>();
+                Iterator<T> iterator = newObjectIterator(newBinaryFormatReader(response), clazz);
+                while (iterator.hasNext()) {
+                    records.add(iterator.next());
+                }
+                return records;
+            }
+        } catch (ExecutionException e) {
+            throw new ClientException("Failed to get query response", e.getCause());
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ClientException("Failed to get query response", e);
+        }
+    }
+
+    private static boolean hasNoArgsConstructor(Class<?> clazz) {
+        try {
+            clazz.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * WARNING: Experimental API
+     *
+     * <p>Returns iterator that reads rows from the reader and creates an object for each row by calling
+     *  a constructor of the class with column values. Rows are read while iterating so whole result is not
+     *  kept in memory.</p>
+     * <p>For a Java record the canonical constructor is used. For other classes it is a public constructor with
+     *  known parameter names: the class is compiled with {@code -parameters} or the constructor is annotated
+     *  with {@code java.beans.ConstructorProperties}. Parameters are matched to columns by name using
+     *  the column to method matching strategy. Parameters without a column get default values.</p>
+     * <p>Constructor call is compiled to bytecode once for a class and a list of columns. Values of
+     *  not nullable numeric columns are read to primitive parameters without boxing.</p>
+     *
+     * @param reader - reader of {@code RowBinary} family format
+     * @param clazz - class of objects
+     * @return iterator over objects
+     * @param <T> type of objects
+     * @throws IllegalArgumentException when reader is not supported or class has no suitable constructor
+     */
+    public <T> Iterator<T> newObjectIterator(ClickHouseBinaryFormatReader reader, Class<T> clazz) {
+        if (!(reader instanceof AbstractBinaryFormatReader) || reader instanceof NativeFormatReader) {
+            throw new IllegalArgumentException("Reader " + reader.getClass().getName() + " is not supported");
+        }
+        AbstractBinaryFormatReader binaryReader = (AbstractBinaryFormatReader) reader;
+        POJOConstructorDeserializer<T> deserializer =
+                pojoSerDe.getConstructorDeserializer(clazz, binaryReader.getSchema());
+        return binaryReader.objectIterator(deserializer);
+    }
+
+    /**
+     * WARNING: Experimental API
+     *
+     * <p>Queries data and returns a stream of DTOs which are read from the response while the stream is consumed.
+     *  Each DTO is a new instance. See {@link #queryStream(String, Class, QuerySettings, Supplier)} for details.</p>
+     *
+     * @param sqlQuery - query to execute
+     * @param clazz - class of the DTO
+     * @param settings - operation settings
+     * @return sequential stream of DTOs
+     * @param <T> type of DTO
+     * @throws IllegalArgumentException when class has no setters or constructor matching the result columns
+     */
+    public <T> Stream<T> queryStream(String sqlQuery, Class<T> clazz, QuerySettings settings) {
+        return queryStream(sqlQuery, clazz, settings, null);
+    }
+
+    /**
+     * WARNING: Experimental API
+     *
+     * <p>Queries data and returns a stream of DTOs which are read from the response while the stream is consumed.
+     *  Only one row is decoded at a time so memory use doesn't depend on size of the result.</p>
+     * <p>DTO is filled with setters compiled for the result columns and is instantiated by the allocator or
+     *  with default constructor. Allocator is called once for each row and only after the row is found in
+     *  the response. It may return recycled instances, for example, taken from a pool
+     *  where a consumer puts objects it has processed. Java records and classes without a no-args constructor
+     *  are created with a constructor when no allocator is given
+     *  (see {@link #newObjectIterator(ClickHouseBinaryFormatReader, Class)}). Class doesn't need to be registered.</p>
+     * <p>Stream should be closed to release the connection. It is also released when all rows are read.</p>
+     *
+     * @param sqlQuery - query to execute
+     * @param clazz - class of the DTO
+     * @param settings - operation settings
+     * @param allocator - optional supplier of instances to fill
+     * @return sequential stream of DTOs
+     * @param <T> type of DTO
+     * @throws IllegalArgumentException when class has no setters or constructor matching the result columns
+     */
+    public <T> Stream<T> queryStream(String sqlQuery, Class<T> clazz, QuerySettings settings, Supplier<T> allocator) {
+        if (settings == null) {
+            settings = new QuerySettings();
+        }
+        QueryResponse response = null;
+        try {
+            int operationTimeout = getOperationTimeout();
+            QuerySettings requestSettings = new QuerySettings(new HashMap<>(settings.getAllSettings()));
+            requestSettings.setFormat(ClickHouseFormat.RowBinaryWithNamesAndTypes);
+            CompletableFuture<QueryResponse> f = query(sqlQuery, requestSettings);
+            response = operationTimeout == 0 ? f.get() : f.get(operationTimeout, TimeUnit.MILLISECONDS);
+
+            Iterator<T> iterator;
+            AbstractBinaryFormatReader reader = (AbstractBinaryFormatReader) newBinaryFormatReader(response);
+            if (allocator == null && !hasNoArgsConstructor(clazz)) {
+                iterator = reader.objectIterator(pojoSerDe.getConstructorDeserializer(clazz, reader.getSchema()));
+            } else {
+                Map<String, POJOFieldDeserializer> deserializers =
+                        pojoSerDe.getResultFieldDeserializers(clazz, reader.getSchema());
+                if (deserializers.isEmpty() && !reader.getSchema().getColumns().isEmpty()) {
+                    throw new IllegalArgumentException("No setters found in '" + clazz + "' for the query columns");
+                }
+                iterator = reader.objectIterator(deserializers, allocator == null ? () -> newInstance(clazz) : allocator);
+            }
+
+            final QueryResponse streamResponse = response;
+            Iterator<T> closingIterator = new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    boolean hasNext = iterator.hasNext();
+                    if (!hasNext) {
+                        closeQuietly(streamResponse);
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    return iterator.next();
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(closingIterator,
+                            Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> closeQuietly(streamResponse));
+        } catch (Exception e) {
+            closeQuietly(response);
+            if (e instanceof ExecutionException) {
+                throw new ClientException("Failed to get query response", e.getCause());
+            } else if (e instanceof IllegalArgumentException || e instanceof ClientException) {
+                throw (RuntimeException) e;
+            }
+            throw new ClientException("Failed to get query response", e);
+        }
+    }
+
+    private static <T> T newInstance(Class<T> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new ClientException("Failed to instantiate DTO to store data", e);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                LOG.debug("Failed to close {}", resource.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Creates a replay buffer for the insert body when {@link ClientConfigProperties#INSERT_REPLAY_BUFFER} is set.
+     *
+     * @return replay buffer or {@code null} if it is not enabled
+     */
+    private ReplayBuffer newReplayBuffer(Map<String, Object> settings) {
+        Object enabled = ClientConfigProperties.INSERT_REPLAY_BUFFER.getOrDefault(settings);
+        if (!Boolean.parseBoolean(String.valueOf(enabled))) {
+            return null;
+        }
+        Object memoryLimit = ClientConfigProperties.INSERT_REPLAY_BUFFER_MEMORY_LIMIT.getOrDefault(settings);
+        return new ReplayBuffer(Long.parseLong(String.valueOf(memoryLimit)), httpClientHelper.getBufferPool());
+    }
+
+    /**
+     * Returns number of parts of an insert. It is not more than the connection pool size, so parts do not wait
+     * for a connection lease of each other and do not fail on its timeout.
+     */
+    private int parallelStreamsOf(InsertSettings requestSettings) {
+        Object value = ClientConfigProperties.INSERT_PARALLEL_STREAMS.getOrDefault(requestSettings.getAllSettings());
+        int streams = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(String.valueOf(value).trim());
+        int maxConnections = ClientConfigProperties.HTTP_MAX_OPEN_CONNECTIONS.getOrDefault(configuration);
+        return Math.min(streams, maxConnections);
+    }
+
+    /**
+     * Runs parts of an insert as concurrent inserts and combines their responses. Parts run on the client-wide pool
+     * of parallel requests and not on the shared operation executor because the operation itself may occupy
+     * its only thread.
+     * Server metrics of the result are sums over the parts except elapsed time which is the longest one.
+     * If any part fails then the operation fails; parts that are complete stay inserted.
+     *
+     * @param streams - number of parts
+     * @param requestSettings - settings of the operation
+     * @param streamInsert - inserts a part with given index and settings
+     * @param distributor - source of data for parts; {@code null} if parts have own data
+     * @return a promise to the combined response
+     */
+    private CompletableFuture<InsertResponse> insertInParallel(int streams, InsertSettings requestSettings,
+                                                               BiFunction<Integer, InsertSettings, InsertResponse> streamInsert,
+                                                               LineChunkDistributor distributor) {
+        return runAsyncOperation(() -> {
+            ClientStatisticsHolder clientStats = new ClientStatisticsHolder();
+            clientStats.start(ClientMetrics.OP_DURATION);
+            AtomicBoolean failed = new AtomicBoolean();
+            List<CompletableFuture<InsertResponse>> futures = new ArrayList<>(streams);
+            try {
+                for (int i = 0; i < streams; i++) {
+                    final int stream = i;
+                    final InsertSettings streamSettings = new InsertSettings(requestSettings.getAllSettings());
+                    // requests are sent from the threads of the parts
+                    streamSettings.setOption(ClientConfigProperties.ASYNC_OPERATIONS.getKey(), false);
+                    streamSettings.setParallelStreams(1);
+                    if (requestSettings.getQueryId() != null) {
+                        streamSettings.setQueryId(requestSettings.getQueryId() + "-" + i);
+                    }
+                    Object token = requestSettings.getAllSettings()
+                            .get(ClientConfigProperties.serverSetting("insert_deduplication_token"));
+                    if (token != null) {
+                        // parts with the same token would be dropped as duplicates
+                        streamSettings.setDeduplicationToken(token + "-" + i);
+                    }
+                    CompletableFuture<InsertResponse> part = CompletableFuture.supplyAsync(
+                            () -> streamInsert.apply(stream, streamSettings), parallelRequestExecutor);
+                    part.whenComplete((response, e) -> {
+                        if (e != null) {
+                            failed.set(true);
+                        }
+                    });
+                    futures.add(part);
+                }
+                if (distributor != null) {
+                    try {
+                        distributor.distribute(failed::get);
+                    } catch (IOException e) {
+                        if (!failed.get()) {
+                            throw new ClientException("Failed to read data to insert", e);
+                        }
+                        // error of the failed part is reported below
+                    }
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+                List<InsertResponse> responses = new ArrayList<>(streams);
+                for (CompletableFuture<InsertResponse> f : futures) {
+                    responses.add(f.join());
+                }
+                return combineInsertResponses(responses, clientStats, requestSettings.getQueryId());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                        : new ClientException("Failed to insert data", e.getCause());
+            } finally {
+                // queued parts are not needed after a failure
+                for (CompletableFuture<InsertResponse> f : futures) {
+                    f.cancel(false);
+                }
+            }
+        }, requestSettings.getAllSettings());
+    }
+
+    private static InsertResponse combineInsertResponses(List<InsertResponse> responses,
+                                                         ClientStatisticsHolder clientStats, String queryId) {
+        OperationMetrics metrics = new OperationMetrics(clientStats);
+        for (ServerMetrics serverMetric : ServerMetrics.values()) {
+            boolean present = false;
+            long value = 0;
+            for (InsertResponse response : responses) {
+                Metric metric = response.getMetrics().getMetric(serverMetric);
+                if (metric != null) {
+                    present = true;
+                    value = serverMetric == ServerMetrics.ELAPSED_TIME ? Math.max(value, metric.getLong())
+                            : value + metric.getLong();
+                }
+            }
+            if (present) {
+                metrics.updateMetric(serverMetric, value);
+            }
+        }
+        metrics.setQueryId(queryId == null ? responses.get(0).getQueryId() : queryId);
+        metrics.operationComplete();
+        return new InsertResponse(metrics, responses.get(0).getResponseHeaders());
+    }
+
+    private static void applyAutoDeduplicationToken(InsertSettings settings) {
+        Map<String, Object> allSettings = settings.getAllSettings();
+        Object enabled = ClientConfigProperties.INSERT_AUTO_DEDUPLICATION_TOKEN.getOrDefault(allSettings);
+        if (Boolean.parseBoolean(String.valueOf(enabled))
+                && allSettings.get(ClientConfigProperties.serverSetting("insert_deduplication_token")) == null) {
+            settings.setDeduplicationToken(UUID.randomUUID().toString());
+        }
+    }
+
     /**
      * <p>Fetches schema of a table and returns complete information about each column.
      * Information includes column name, type, default value, etc.</p>
@@ -2333,7 +3455,7 @@ public class Client implements AutoCloseable {
         switch (response.getFormat()) {
             case Native:
                 reader = new NativeFormatReader(response.getInputStream(), response.getSettings(),
-                        byteBufferPool, typeHintMapping);
+                        byteBufferPool, typeHintMapping, nativeDecodingExecutor);
                 break;
             case RowBinaryWithNamesAndTypes:
                 reader = new RowBinaryWithNamesAndTypesFormatReader(response.getInputStream(), response.getSettings(), byteBufferPool, typeHintMapping);
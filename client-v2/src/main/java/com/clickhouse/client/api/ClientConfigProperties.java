@@ -193,6 +193,15 @@ public enum ClientConfigProperties {
      */
     BINARY_STRING_SUPPORT("binary_string_support", Boolean.class, "false"),
 
+    /**
+     * When enabled, binary readers decode top-level {@code String} and {@code FixedString} columns into
+     * reusable {@link com.clickhouse.client.api.data_formats.StringSlice} objects available through
+     * {@link com.clickhouse.client.api.data_formats.ClickHouseBinaryFormatReader#getStringBytes(int)}. Values are
+     * neither copied into a new array nor decoded as UTF-8 per row, and are valid only until the next row is read.
+     * Records read with {@code readRecord(Map)} and POJO readers are not affected. Can be configured per operation.
+     */
+    STRING_SLICE_SUPPORT("string_slice_support", Boolean.class, "false"),
+
     /**
      * SNI SSL parameter that will be set for each outbound SSL socket.
      */
@@ -245,6 +254,98 @@ public enum ClientConfigProperties {
                     .collect(Collectors.toList());
         }
     },
+
+    /**
+     * Enables per-operation meters (phase timers, rows/bytes summaries, retry and failover counters) in the
+     * metrics registry set by {@link Client.Builder#registerClientMetrics(Object, String)}. Disabled by default:
+     * transport phases are not measured at all then.
+     */
+    OPERATION_METRICS_ENABLED("client.metrics.operation_meters", Boolean.class, "false"),
+
+    /**
+     * Number of connections to each endpoint that are opened when the client is built and kept in the pool
+     * (topped up by keep-alive pings, see {@link #CONNECTION_KEEP_ALIVE_PING_INTERVAL}). Has effect only when
+     * connection pool is enabled. Default is 0 - connections are opened on demand.
+     */
+    CONNECTION_POOL_MIN_IDLE("connection_pool_min_idle", Integer.class, "0"),
+
+    /**
+     * Interval in milliseconds between pings that keep idle pooled connections alive. Should be less than
+     * server {@code keep_alive_timeout}. Default is 0 - no pings are sent.
+     */
+    CONNECTION_KEEP_ALIVE_PING_INTERVAL("connection_keep_alive_ping_interval", Long.class, "0"),
+
+    /**
+     * Maximum number of TLS sessions kept for resumption by an SSL context created by the client.
+     * When unset the JVM default is used. Has no effect on a context set by {@link Client.Builder#setSSLContext}.
+     */
+    SSL_SESSION_CACHE_SIZE("ssl_session_cache_size", Integer.class),
+
+    /**
+     * Time in seconds a cached TLS session can be resumed by an SSL context created by the client.
+     * When unset the JVM default is used. Has no effect on a context set by {@link Client.Builder#setSSLContext}.
+     */
+    SSL_SESSION_TIMEOUT("ssl_session_timeout", Integer.class),
+
+    /**
+     * Selects compression of insert requests for each endpoint by measured compression ratio, encoding time
+     * and network speed. Chooses between no compression, LZ4 and stronger HTTP codecs. When enabled it overrides
+     * {@link #COMPRESS_CLIENT_REQUEST} and {@link #USE_HTTP_COMPRESSION} for inserts.
+     * Has no effect when {@link #APP_COMPRESSED_DATA} is set.
+     */
+    ADAPTIVE_CLIENT_COMPRESSION("adaptive_client_compression", Boolean.class, "false"),
+
+    /**
+     * Max percent of insert request time adaptive compression may spend on encoding. Codecs exceeding it
+     * are not selected while there are other options.
+     */
+    ADAPTIVE_COMPRESSION_CPU_BUDGET("adaptive_compression_cpu_budget", Integer.class, "50"),
+
+    /**
+     * Encodes and compresses insert request body once and sends the same bytes on every retry or failover.
+     * Serialization of POJOs and compression are not repeated and input streams do not need to support
+     * {@link java.io.InputStream#reset()}.
+     */
+    INSERT_REPLAY_BUFFER("insert_replay_buffer", Boolean.class, "false"),
+
+    /**
+     * Max number of bytes of an insert replay buffer kept in memory. The rest is written to a temporary file.
+     */
+    INSERT_REPLAY_BUFFER_MEMORY_LIMIT("insert_replay_buffer_memory_limit", Long.class, String.valueOf(16 * 1024 * 1024)),
+
+    /**
+     * Generates {@code insert_deduplication_token} for an insert that has none, so a retried insert
+     * is not applied twice by tables with deduplication enabled. The same token is used for all attempts.
+     */
+    INSERT_AUTO_DEDUPLICATION_TOKEN("insert_auto_deduplication_token", Boolean.class, "false"),
+
+    /**
+     * Skips checksum verification of LZ4 compressed blocks of responses. Corrupted data is not detected then,
+     * so it should be used only on trusted links (for example, TLS connections).
+     */
+    COMPRESSION_LZ4_SKIP_CHECKSUM("compression.lz4.skip_checksum", Boolean.class, "false"),
+
+    /**
+     * Number of threads decoding blocks of a {@code Native} format response. Values greater than 1 enable
+     * decoding blocks in parallel while the application reads rows in the original order.
+     */
+    NATIVE_DECODING_THREADS("native_decoding_threads", Integer.class, "0"),
+
+    /**
+     * Maximum total size of buffers kept by the client-wide buffer pool for reuse by compression streams and
+     * data copying of following operations. 0 disables pooling.
+     */
+    BUFFER_POOL_MAX_RETAINED_BYTES("buffer_pool_max_retained_bytes", Long.class, "0"),
+
+    /**
+     * Number of concurrent requests one insert is split into. Each request serializes and compresses its part
+     * of the data on its own thread and uses its own connection. Applies to inserts of a list of objects and
+     * of an input stream in a line-delimited format. Parts are separate inserts on the server side.
+     * An input stream with {@code insert_deduplication_token} is sent in one request because its lines are
+     * not assigned to parts in the same way on retry. The number of parts is not more than
+     * {@link #HTTP_MAX_OPEN_CONNECTIONS}.
+     */
+    INSERT_PARALLEL_STREAMS("insert_parallel_streams", Integer.class, "1"),
     ;
 
     private static final Logger LOG = LoggerFactory.getLogger(ClientConfigProperties.class);
@@ -1,5 +1,7 @@
 package com.clickhouse.client.api.data_formats;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Reader for ClickHouse <b>binary</b> output formats (such as {@code Native},
  * {@code RowBinary}, {@code RowBinaryWithNames}, and
@@ -18,4 +20,30 @@ package com.clickhouse.client.api.data_formats;
  * {@link com.clickhouse.client.api.Client#newBinaryFormatReader(com.clickhouse.client.api.query.QueryResponse, com.clickhouse.client.api.metadata.TableSchema)}.</p>
  */
 public interface ClickHouseBinaryFormatReader extends ClickHouseFormatReader {
+
+    /**
+     * @see #getStringBytes(int)
+     * @param colName - column name
+     * @return slice with value bytes, or {@code null} if the value is null
+     */
+    default StringSlice getStringBytes(String colName) {
+        String value = getString(colName);
+        return value == null ? null : new StringSlice(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns raw bytes of a {@code String} or {@code FixedString} value without decoding them.
+     * When {@link com.clickhouse.client.api.ClientConfigProperties#STRING_SLICE_SUPPORT} is enabled the returned
+     * slice is reused by the reader and is valid only until the next row is read. Otherwise, a new slice over a copy
+     * of the value bytes is returned. The default implementation encodes the result of {@link #getString(int)}
+     * as UTF-8.
+     *
+     * @param index - column index (1-based)
+     * @return slice with value bytes, or {@code null} if the value is null
+     * @throws com.clickhouse.client.api.ClientException if the column is not of a string type
+     */
+    default StringSlice getStringBytes(int index) {
+        String value = getString(index);
+        return value == null ? null : new StringSlice(value.getBytes(StandardCharsets.UTF_8));
+    }
 }
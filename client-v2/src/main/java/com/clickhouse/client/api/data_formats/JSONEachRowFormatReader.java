@@ -362,7 +362,7 @@ public class JSONEachRowFormatReader implements ClickHouseTextFormatReader {
                             + "' contains a null element which cannot fit into an array of primitive "
                             + componentType.getName());
                 }
-                Array.set(array, i, coerceToComponent(el, componentType));
+                Array.set(array, i, NumberConverter.coerceToComponent(el, componentType));
             }
             return (T) array;
         } catch (ClassCastException | IllegalArgumentException e) {
@@ -371,47 +371,6 @@ public class JSONEachRowFormatReader implements ClickHouseTextFormatReader {
         }
     }
 
-    /**
-     * Coerces a parsed JSON element to a boxed primitive type. JSON parsers
-     * may materialize numeric array elements as different boxed types
-     * (e.g. {@code Integer}, {@code Long}, {@code Double}, {@code BigDecimal}),
-     * so element-level conversion is necessary before populating a typed
-     * primitive array. The {@code componentType} is always one of the eight
-     * Java primitives passed by {@link #getPrimitiveArray}; unsupported
-     * component types are rejected explicitly to keep the helper total.
-     */
-    private static Object coerceToComponent(Object value, Class<?> componentType) {
-        if (componentType == byte.class) {
-            return NumberConverter.toByte(value);
-        }
-        if (componentType == short.class) {
-            return NumberConverter.toShort(value);
-        }
-        if (componentType == int.class) {
-            return NumberConverter.toInt(value);
-        }
-        if (componentType == long.class) {
-            return NumberConverter.toLong(value);
-        }
-        if (componentType == float.class) {
-            return NumberConverter.toFloat(value);
-        }
-        if (componentType == double.class) {
-            return NumberConverter.toDouble(value);
-        }
-        if (componentType == boolean.class) {
-            if (value instanceof Boolean) {
-                return value;
-            }
-            if (value instanceof Number) {
-                return ((Number) value).longValue() != 0;
-            }
-            throw new IllegalArgumentException(
-                    "Cannot convert " + value.getClass().getName() + " to boolean array element");
-        }
-        throw new IllegalArgumentException("Unsupported component type: " + componentType.getName());
-    }
-
     @Override
     public String getString(int index) {
         return getString(schema.columnIndexToName(index));
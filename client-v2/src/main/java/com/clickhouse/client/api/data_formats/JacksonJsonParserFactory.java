@@ -1,5 +1,6 @@
 package com.clickhouse.client.api.data_formats;
 
+import com.clickhouse.data.ClickHouseFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
@@ -23,6 +24,38 @@ public class JacksonJsonParserFactory implements JsonParserFactory {
         return new JsonParserImpl(mapper.createParser(in));
     }
 
+    /**
+     * Creates a streaming reader that decodes rows directly from Jackson tokens without creating a map per row.
+     * See {@link StreamingJSONFormatReader} for supported formats.
+     *
+     * @param in - stream of bytes to parse as JSON
+     * @param format - format of the data
+     * @return streaming reader
+     * @throws IOException if the stream cannot be read
+     */
+    public StreamingJSONFormatReader createStreamingReader(InputStream in, ClickHouseFormat format) throws IOException {
+        return new StreamingJSONFormatReader(mapper, in, format);
+    }
+
+    /**
+     * Creates a {@link StreamingJSONFormatReader} for formats it supports. A subclass that overrides
+     * {@link #createJsonParser(InputStream)} to change how rows are parsed should override this method too.
+     */
+    @Override
+    public ClickHouseTextFormatReader createReader(InputStream in, ClickHouseFormat format) throws IOException {
+        switch (format) {
+            case JSONEachRow:
+            case JSONLines:
+            case NDJSON:
+            case JSONCompactEachRow:
+            case JSONCompactEachRowWithNames:
+            case JSONCompactEachRowWithNamesAndTypes:
+                return createStreamingReader(in, format);
+            default:
+                return JsonParserFactory.super.createReader(in, format);
+        }
+    }
+
     private class JsonParserImpl implements JsonParser {
 
         private final com.fasterxml.jackson.core.JsonParser parser;
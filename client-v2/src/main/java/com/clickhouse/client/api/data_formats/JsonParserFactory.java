@@ -1,5 +1,7 @@
 package com.clickhouse.client.api.data_formats;
 
+import com.clickhouse.data.ClickHouseFormat;
+
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -14,4 +16,21 @@ public interface JsonParserFactory {
      * @return instance of {@link JsonParser}
      */
     JsonParser createJsonParser(InputStream in) throws IOException;
+
+    /**
+     * Creates a reader of a JSON result. Default implementation supports only {@code JSONEachRow} and
+     * reads it with {@link JSONEachRowFormatReader} over a parser from {@link #createJsonParser(InputStream)}.
+     * Implementations may return a more efficient reader or support more formats.
+     *
+     * @param in - stream of bytes to parse as JSON
+     * @param format - format of the data
+     * @return reader of the data
+     * @throws IOException if the stream cannot be read
+     */
+    default ClickHouseTextFormatReader createReader(InputStream in, ClickHouseFormat format) throws IOException {
+        if (format != ClickHouseFormat.JSONEachRow) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return new JSONEachRowFormatReader(createJsonParser(in));
+    }
 }
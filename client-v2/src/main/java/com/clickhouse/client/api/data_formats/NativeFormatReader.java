@@ -1,19 +1,38 @@
 package com.clickhouse.client.api.data_formats;
 
+import com.clickhouse.client.api.ClientConfigProperties;
 import com.clickhouse.client.api.ClientException;
 import com.clickhouse.client.api.data_formats.internal.AbstractBinaryFormatReader;
 import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
+import com.clickhouse.client.api.data_formats.internal.NativeBlockSplitter;
+import com.clickhouse.client.api.internal.MapUtils;
+import com.clickhouse.client.api.internal.ServerSettings;
 import com.clickhouse.client.api.metadata.TableSchema;
 import com.clickhouse.client.api.query.QuerySettings;
 import com.clickhouse.data.ClickHouseColumn;
 import com.clickhouse.data.ClickHouseDataType;
+import org.apache.hc.core5.concurrent.DefaultThreadFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * For the backward compatibility server will not send TZ id in column type. Client should send version to a server
@@ -22,14 +41,62 @@ import java.util.Map;
  */
 public class NativeFormatReader extends AbstractBinaryFormatReader {
 
+    /**
+     * Serialization version of {@code LowCardinality} columns written by the server:
+     * a dictionary with additional keys in each block.
+     */
+    static final long LOW_CARDINALITY_SHARED_DICTIONARIES_WITH_ADDITIONAL_KEYS = 1;
+
+    static final long LOW_CARDINALITY_INDEX_TYPE_MASK = 0xFF;
+
+    static final long LOW_CARDINALITY_NEED_GLOBAL_DICTIONARY_BIT = 1L << 8;
+
+    static final long LOW_CARDINALITY_HAS_ADDITIONAL_KEYS_BIT = 1L << 9;
+
+    private ParallelDecoder parallelDecoder;
+
     private Block currentBlock;
 
     private int blockRowIndex;
 
+    // Base class reads one record ahead, so block and row are tracked for both record buffers
+    private Object[] lastFilledRecord;
+    private Block lastFilledBlock;
+    private int lastFilledRow;
+    private Object[] prevFilledRecord;
+    private Block prevFilledBlock;
+    private int prevFilledRow;
+
     public NativeFormatReader(InputStream inputStream, QuerySettings settings,
                               BinaryStreamReader.ByteBufferAllocator byteBufferAllocator,
                               Map<ClickHouseDataType, Class<?>> typeHintMapping) {
+        this(inputStream, settings, byteBufferAllocator, typeHintMapping, null);
+    }
+
+    /**
+     * @param inputStream - stream of {@code Native} format data
+     * @param settings - query settings
+     * @param byteBufferAllocator - byte buffer allocator
+     * @param typeHintMapping - what type use as hint if hint is not set or may not be known
+     * @param decodingExecutor - executor for parallel decoding (see
+     *                         {@link ClientConfigProperties#NATIVE_DECODING_THREADS}). It should not limit
+     *                         the number of threads because one task of each reader reads the stream.
+     *                         When {@code null} a pool shared by all such readers is used.
+     */
+    public NativeFormatReader(InputStream inputStream, QuerySettings settings,
+                              BinaryStreamReader.ByteBufferAllocator byteBufferAllocator,
+                              Map<ClickHouseDataType, Class<?>> typeHintMapping, ExecutorService decodingExecutor) {
         super(inputStream, settings, null, byteBufferAllocator, typeHintMapping);
+        Map<String, Object> settingsMap = settings == null ? Collections.emptyMap() : settings.getAllSettings();
+        Object threadsValue = ClientConfigProperties.NATIVE_DECODING_THREADS.getOrDefault(settingsMap);
+        int decodingThreads = threadsValue instanceof Number ? ((Number) threadsValue).intValue()
+                : Integer.parseInt(String.valueOf(threadsValue).trim());
+        if (decodingThreads > 1) {
+            boolean jsonAsString = MapUtils.getFlag(settingsMap,
+                    ClientConfigProperties.serverSetting(ServerSettings.OUTPUT_FORMAT_BINARY_WRITE_JSON_AS_STRING), false);
+            parallelDecoder = new ParallelDecoder(this, decodingThreads, jsonAsString,
+                    decodingExecutor == null ? DefaultDecodingExecutor.INSTANCE : decodingExecutor);
+        }
         try {
             readBlock();
         } catch (IOException e) {
@@ -44,7 +111,7 @@ public class NativeFormatReader extends AbstractBinaryFormatReader {
 
     @Override
     public boolean readRecord(Map<String, Object> record) throws IOException {
-        if (blockRowIndex >= currentBlock.getnRows()) {
+        while (blockRowIndex >= currentBlock.getnRows()) {
             if (!readBlock()) {
                 return false;
             }
@@ -57,31 +124,151 @@ public class NativeFormatReader extends AbstractBinaryFormatReader {
 
     @Override
     protected boolean readRecord(Object[] record) throws IOException {
-        if (blockRowIndex >= currentBlock.getnRows()) {
+        while (blockRowIndex >= currentBlock.getnRows()) {
             if (!readBlock()) {
                 return false;
             }
         }
 
         currentBlock.fillRecord(blockRowIndex, record);
+        prevFilledRecord = lastFilledRecord;
+        prevFilledBlock = lastFilledBlock;
+        prevFilledRow = lastFilledRow;
+        lastFilledRecord = record;
+        lastFilledBlock = currentBlock;
+        lastFilledRow = blockRowIndex;
         blockRowIndex++;
         return true;
     }
 
+    /**
+     * Returns position of the current row value in the dictionary of a {@code LowCardinality} column.
+     * Positions are valid only within one block: compare {@link #getDictionary(int)} results by identity
+     * to detect a block change. For a {@code LowCardinality(Nullable(...))} column position {@code 0} is {@code NULL}.
+     *
+     * @param colName - column name
+     * @return position in the dictionary of the current block
+     * @throws ClientException if the column is not {@code LowCardinality} or there is no current row
+     */
+    public int getDictionaryIndex(String colName) {
+        return getDictionaryIndex(getSchema().nameToColumnIndex(colName));
+    }
+
+    /**
+     * Returns position of the current row value in the dictionary of a {@code LowCardinality} column.
+     *
+     * @param index - column index starting with 1
+     * @return position in the dictionary of the current block
+     * @see #getDictionaryIndex(String)
+     */
+    public int getDictionaryIndex(int index) {
+        Block block = currentRecordBlock();
+        return lowCardinalityValues(block, index).getIndex(currentRecordRow());
+    }
+
+    /**
+     * Returns dictionary of a {@code LowCardinality} column in the block of the current row. The same unmodifiable
+     * list instance is returned for all rows of a block. Each distinct value is materialized only once per block
+     * and row values returned by other getters are the same instances.
+     *
+     * @param colName - column name
+     * @return dictionary of the current block
+     * @throws ClientException if the column is not {@code LowCardinality} or there is no current row
+     */
+    public List<Object> getDictionary(String colName) {
+        return getDictionary(getSchema().nameToColumnIndex(colName));
+    }
+
+    /**
+     * Returns dictionary of a {@code LowCardinality} column in the block of the current row.
+     *
+     * @param index - column index starting with 1
+     * @return dictionary of the current block
+     * @see #getDictionary(String)
+     */
+    public List<Object> getDictionary(int index) {
+        return lowCardinalityValues(currentRecordBlock(), index).getDictionary();
+    }
+
+    private Block currentRecordBlock() {
+        if (currentRecord != null) {
+            if (currentRecord == lastFilledRecord) {
+                return lastFilledBlock;
+            } else if (currentRecord == prevFilledRecord) {
+                return prevFilledBlock;
+            }
+        }
+        throw new ClientException("No current row. Call next() first");
+    }
+
+    private int currentRecordRow() {
+        return currentRecord == lastFilledRecord ? lastFilledRow : prevFilledRow;
+    }
+
+    private LowCardinalityValues lowCardinalityValues(Block block, int index) {
+        if (index < 1 || index > block.values.size()) {
+            throw new ClientException("Column index out of bounds: " + index);
+        }
+        List<Object> values = block.values.get(index - 1);
+        if (!(values instanceof LowCardinalityValues)) {
+            throw new ClientException("Column " + getSchema().getColumnByIndex(index).getColumnIndexAndName()
+                    + " is not LowCardinality");
+        }
+        return (LowCardinalityValues) values;
+    }
+
     private boolean readBlock() throws IOException {
+        Block block;
+        if (parallelDecoder == null) {
+            block = decodeBlock(input, binaryStreamReader);
+        } else {
+            block = parallelDecoder.next();
+            if (block == null) {
+                parallelDecoder.close();
+                InputStream remaining = parallelDecoder.getRemaining();
+                parallelDecoder = null;
+                if (remaining != null) {
+                    // continue with sequential decoding from the block that cannot be split
+                    input = remaining;
+                    binaryStreamReader = binaryStreamReader.newReader(remaining,
+                            new BinaryStreamReader.DefaultByteBufferAllocator());
+                    block = decodeBlock(input, binaryStreamReader);
+                }
+            }
+        }
+        if (block == null) {
+            endReached();
+            return false;
+        }
+
+        currentBlock = block;
+        if (getSchema() == null || !isSameStructure(getSchema().getColumns(), block.columns)) {
+            // replacing schema resets record buffers, so it is done only when the structure changes
+            setSchema(new TableSchema(block.columns));
+        }
+
+        blockRowIndex = 0;
+        return true;
+    }
+
+    /**
+     * Decodes a block.
+     *
+     * @return decoded block or {@code null} at the end of the stream
+     */
+    private static Block decodeBlock(InputStream input, BinaryStreamReader binaryStreamReader) throws IOException {
         int nColumns;
         try {
             nColumns = BinaryStreamReader.readVarInt(input);
         } catch (EOFException e) {
-            endReached();
-            return false;
+            return null;
         }
         int nRows = BinaryStreamReader.readVarInt(input);
 
         List<String> names = new ArrayList<>(nColumns);
         List<String> types = new ArrayList<>(nColumns);
-        currentBlock = new Block(names, types, nRows);
         List<ClickHouseColumn> columns = new ArrayList<>(nColumns);
+        Block block = new Block(names, types, columns, nRows);
         for (int i = 0; i < nColumns; i++) {
 
             ClickHouseColumn column = ClickHouseColumn.of(BinaryStreamReader.readString(input),
@@ -106,14 +293,26 @@ public class NativeFormatReader extends AbstractBinaryFormatReader {
                         + "(e.g. RowBinaryWithNamesAndTypes) to read QBit values");
             }
 
-            List<Object> values = new ArrayList<>(nRows);
+            List<Object> values;
+            if (column.isLowCardinality()) {
+                values = nRows == 0 ? Collections.emptyList()
+                        : readLowCardinality(binaryStreamReader, column, nRows);
+                block.add(values);
+                continue;
+            }
+
+            values = new ArrayList<>(nRows);
             if (column.isArray()) {
+                // offsets are cumulative: size of a row is the difference with the previous offset
                 int[] sizes = new int[nRows];
+                long prevOffset = 0;
                 for (int j = 0; j < nRows; j++) {
-                    sizes[j] = Math.toIntExact(binaryStreamReader.readLongLE());
+                    long offset = binaryStreamReader.readLongLE();
+                    sizes[j] = Math.toIntExact(offset - prevOffset);
+                    prevOffset = offset;
                 }
                 for (int j = 0; j < nRows; j++) {
-                    values.add(binaryStreamReader.readArrayItem(column.getNestedColumns().get(0), sizes[0]));
+                    values.add(binaryStreamReader.readArrayItem(column.getNestedColumns().get(0), sizes[j]));
                 }
             } else {
                 for (int j = 0; j < nRows; j++) {
@@ -121,16 +320,97 @@ public class NativeFormatReader extends AbstractBinaryFormatReader {
                     values.add(value);
                 }
             }
-            currentBlock.add(values);
+            block.add(values);
         }
-        TableSchema schema = new TableSchema(columns);
-
-        setSchema(schema);
+        return block;
+    }
 
-        blockRowIndex = 0;
+    private static boolean isSameStructure(List<ClickHouseColumn> current, List<ClickHouseColumn> columns) {
+        if (current.size() != columns.size()) {
+            return false;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (!current.get(i).getColumnName().equals(columns.get(i).getColumnName())
+                    || !current.get(i).getOriginalTypeName().equals(columns.get(i).getOriginalTypeName())) {
+                return false;
+            }
+        }
         return true;
     }
 
+    /**
+     * Reads a {@code LowCardinality} column of a block as a dictionary and an array of positions in it.
+     * Values are not copied per row: every row refers to a dictionary entry.
+     */
+    private static LowCardinalityValues readLowCardinality(BinaryStreamReader binaryStreamReader,
+                                                           ClickHouseColumn column, int nRows) throws IOException {
+        long version = binaryStreamReader.readLongLE();
+        if (version != LOW_CARDINALITY_SHARED_DICTIONARIES_WITH_ADDITIONAL_KEYS) {
+            throw new ClientException("Unsupported serialization version " + version + " of LowCardinality column "
+                    + column.getColumnName());
+        }
+        long flags = binaryStreamReader.readLongLE();
+        if ((flags & LOW_CARDINALITY_NEED_GLOBAL_DICTIONARY_BIT) != 0
+                || (flags & LOW_CARDINALITY_HAS_ADDITIONAL_KEYS_BIT) == 0) {
+            throw new ClientException("LowCardinality column " + column.getColumnName()
+                    + " uses a global dictionary which is not supported");
+        }
+
+        ClickHouseColumn keyColumn = ClickHouseColumn.of(column.getColumnName(), dictionaryTypeName(column));
+        int nKeys = Math.toIntExact(binaryStreamReader.readLongLE());
+        Object[] dictionary = new Object[nKeys];
+        for (int i = 0; i < nKeys; i++) {
+            dictionary[i] = binaryStreamReader.readValue(keyColumn);
+        }
+        if (column.isNullable() && nKeys > 0) {
+            // first key of a nullable dictionary is a placeholder for NULL
+            dictionary[0] = null;
+        }
+
+        long nIndexes = binaryStreamReader.readLongLE();
+        if (nIndexes != nRows) {
+            throw new ClientException("LowCardinality column " + column.getColumnName() + " has " + nIndexes
+                    + " rows but block has " + nRows);
+        }
+        int[] indexes = new int[nRows];
+        int indexType = (int) (flags & LOW_CARDINALITY_INDEX_TYPE_MASK);
+        for (int i = 0; i < nRows; i++) {
+            switch (indexType) {
+                case 0:
+                    indexes[i] = binaryStreamReader.readUnsignedByte();
+                    break;
+                case 1:
+                    indexes[i] = binaryStreamReader.readUnsignedShortLE();
+                    break;
+                case 2:
+                    indexes[i] = Math.toIntExact(binaryStreamReader.readUnsignedIntLE());
+                    break;
+                case 3:
+                    indexes[i] = Math.toIntExact(binaryStreamReader.readLongLE());
+                    break;
+                default:
+                    throw new ClientException("Unknown LowCardinality index type " + indexType);
+            }
+        }
+        return new LowCardinalityValues(dictionary, indexes);
+    }
+
+    /**
+     * Returns type of dictionary keys: type name without {@code LowCardinality} and {@code Nullable} wrappers
+     * because keys are written without null map.
+     */
+    private static String dictionaryTypeName(ClickHouseColumn column) {
+        String typeName = unwrapType(column.getOriginalTypeName(), "LowCardinality(");
+        return unwrapType(typeName, "Nullable(");
+    }
+
+    private static String unwrapType(String typeName, String wrapper) {
+        if (typeName.startsWith(wrapper) && typeName.endsWith(")")) {
+            return typeName.substring(wrapper.length(), typeName.length() - 1).trim();
+        }
+        return typeName;
+    }
+
     /**
      * Returns {@code true} if {@code column} is a {@code QBit} or contains a {@code QBit} anywhere in
      * its nested type tree (e.g. {@code Array(QBit(...))}, {@code Tuple(..., QBit(...))},
@@ -151,16 +431,192 @@ public class NativeFormatReader extends AbstractBinaryFormatReader {
         return false;
     }
 
+    /**
+     * Values of a {@code LowCardinality} column in a block. Implements {@link List} over the dictionary
+     * so it can be used in place of materialized values.
+     */
+    private static final class LowCardinalityValues extends AbstractList<Object> {
+        private final List<Object> dictionary;
+        private final Object[] keys;
+        private final int[] indexes;
+
+        LowCardinalityValues(Object[] keys, int[] indexes) {
+            this.keys = keys;
+            this.indexes = indexes;
+            this.dictionary = Collections.unmodifiableList(Arrays.asList(keys));
+        }
+
+        @Override
+        public Object get(int index) {
+            return keys[indexes[index]];
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+
+        int getIndex(int row) {
+            return indexes[row];
+        }
+
+        List<Object> getDictionary() {
+            return dictionary;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (parallelDecoder != null) {
+            parallelDecoder.close();
+        }
+        super.close();
+    }
+
+    /**
+     * Pool for readers created without an executor. Idle threads are released.
+     */
+    private static final class DefaultDecodingExecutor {
+        static final ExecutorService INSTANCE =
+                Executors.newCachedThreadPool(new DefaultThreadFactory("chc-native-decoder", true));
+    }
+
+    /**
+     * Decodes blocks on a pool of threads. A splitter task reads the stream into raw blocks and submits them to
+     * the pool; decoded blocks are returned in the order they were read. The number of blocks in flight is bounded
+     * to limit memory use. When a block cannot be split the remaining data is decoded sequentially.
+     * <p>
+     * The splitter keeps only a weak reference to the reader and stops when the reader is closed or is not
+     * reachable any more, so a reader that is dropped without closing doesn't hold a thread and decoded blocks.
+     * When reading fails (for example, the response is closed) blocks in flight are dropped and the error is
+     * passed to the reader without waiting.
+     */
+    private static final class ParallelDecoder {
+
+        private static final long OFFER_TIMEOUT_MS = 100;
+
+        private final Future<Block> end = CompletableFuture.completedFuture(null);
+
+        private final NativeBlockSplitter splitter;
+
+        private final ExecutorService decoders;
+
+        private final BlockingQueue<Future<Block>> blocks;
+
+        private final WeakReference<NativeFormatReader> owner;
+
+        private final Future<?> splitterTask;
+
+        private volatile boolean closed;
+
+        ParallelDecoder(NativeFormatReader reader, int threads, boolean jsonAsString, ExecutorService decoders) {
+            this.splitter = new NativeBlockSplitter(reader.input, jsonAsString);
+            this.decoders = decoders;
+            this.blocks = new ArrayBlockingQueue<>(threads);
+            this.owner = new WeakReference<>(reader);
+            final BinaryStreamReader template = reader.binaryStreamReader;
+            this.splitterTask = decoders.submit(() -> split(template));
+        }
+
+        private void split(BinaryStreamReader template) {
+            try {
+                byte[] bytes;
+                while (!closed && (bytes = splitter.nextBlock()) != null) {
+                    final ByteArrayInputStream blockInput = new ByteArrayInputStream(bytes);
+                    Future<Block> block = decoders.submit(() -> decodeBlock(blockInput,
+                            template.newReader(blockInput, new BinaryStreamReader.DefaultByteBufferAllocator())));
+                    if (!offer(block)) {
+                        block.cancel(true);
+                        return;
+                    }
+                }
+                offer(end);
+            } catch (Exception e) {
+                CompletableFuture<Block> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                // the splitter is the only producer so there is space after clearing
+                releaseBlocks();
+                blocks.offer(failed);
+            }
+        }
+
+        /**
+         * Waits for space in the queue while the reader is open and reachable.
+         *
+         * @return {@code false} if the block should not be decoded any more
+         */
+        private boolean offer(Future<Block> block) {
+            try {
+                while (!closed) {
+                    if (blocks.offer(block, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (owner.get() == null) {
+                        // reader was dropped without closing
+                        closed = true;
+                        releaseBlocks();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        Block next() throws IOException {
+            Future<Block> future;
+            Block block;
+            try {
+                future = blocks.take();
+                block = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a decoded block");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new ClientException("Failed to decode block", cause);
+            }
+            return future == end ? null : block;
+        }
+
+        /**
+         * @return stream positioned at the block that cannot be split or {@code null} when all blocks were read
+         */
+        InputStream getRemaining() {
+            return splitter.getRemaining();
+        }
+
+        void close() {
+            closed = true;
+            splitterTask.cancel(true);
+            releaseBlocks();
+        }
+
+        private void releaseBlocks() {
+            Future<Block> block;
+            while ((block = blocks.poll()) != null) {
+                block.cancel(true);
+            }
+        }
+    }
+
     private static class Block {
         final List<String> names;
         final List<String> types;
+        final List<ClickHouseColumn> columns;
 
         final List<List<Object>> values = new ArrayList<>();
         final int nRows;
 
-        Block(List<String> names, List<String> types, int nRows) {
+        Block(List<String> names, List<String> types, List<ClickHouseColumn> columns, int nRows) {
             this.names = names;
             this.types = types;
+            this.columns = columns;
             this.nRows = nRows;
         }
 
@@ -0,0 +1,1371 @@
+package com.clickhouse.client.api.data_formats;
+
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.DataTypeUtils;
+import com.clickhouse.client.api.data_formats.internal.InetAddressConverter;
+import com.clickhouse.client.api.data_formats.internal.NumberConverter;
+import com.clickhouse.client.api.internal.SchemaUtils;
+import com.clickhouse.client.api.metadata.TableSchema;
+import com.clickhouse.client.api.query.NullValueException;
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseDataType;
+import com.clickhouse.data.ClickHouseFormat;
+import com.clickhouse.data.value.ClickHouseBitmap;
+import com.clickhouse.data.value.ClickHouseGeoMultiPolygonValue;
+import com.clickhouse.data.value.ClickHouseGeoPointValue;
+import com.clickhouse.data.value.ClickHouseGeoPolygonValue;
+import com.clickhouse.data.value.ClickHouseGeoRingValue;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAmount;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Streaming reader for {@code JSONEachRow} and {@code JSONCompactEachRow} family of formats built directly on
+ * Jackson's token stream.
+ *
+ * <p>Unlike {@link JSONEachRowFormatReader} this reader does not materialize a {@link Map} per row. Each field
+ * is decoded straight from the parser into a reusable row buffer in schema order: integer and floating-point
+ * numbers are kept in primitive slots, so typed accessors like {@link #getLong(int)} or {@link #getDouble(int)}
+ * do not box. Strings, big numbers and nested arrays/objects are kept as objects.</p>
+ *
+ * <p>Supported formats:</p>
+ * <ul>
+ *     <li>{@code JSONEachRow} (and aliases {@code JSONLines}, {@code NDJSON}) - schema is inferred from the first
+ *     row the same way {@link JSONEachRowFormatReader} does it. Fields of following rows are matched by name,
+ *     fields unknown to the schema are skipped and missing fields read as {@code null}.</li>
+ *     <li>{@code JSONCompactEachRowWithNamesAndTypes} - column names and ClickHouse types are taken from the
+ *     header rows, so the schema is exact.</li>
+ *     <li>{@code JSONCompactEachRowWithNames} - column names are taken from the header row, types are inferred
+ *     from the first row.</li>
+ *     <li>{@code JSONCompactEachRow} - columns are named {@code c1}, {@code c2}, ... (the same way ClickHouse
+ *     names columns of a headerless input) and types are inferred from the first row.</li>
+ * </ul>
+ *
+ * <p>Numeric accessors also accept numbers encoded as JSON strings (ClickHouse quotes 64-bit integers by default).
+ * Accessor semantics follow {@link ClickHouseTextFormatReader}. Date and time values are parsed from any
+ * {@code date_time_output_format}; the time zone is taken from the column type and is UTC when the type
+ * has none or is inferred. Interval values need exact column types, so {@link #getTemporalAmount(int)} works
+ * only with {@code JSONCompactEachRowWithNamesAndTypes}. Bitmaps are not available in JSON formats.</p>
+ */
+public class StreamingJSONFormatReader implements ClickHouseTextFormatReader {
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private static final byte KIND_NULL = 0;
+    private static final byte KIND_INT = 1;
+    private static final byte KIND_LONG = 2;
+    private static final byte KIND_DOUBLE = 3;
+    private static final byte KIND_BOOLEAN = 4;
+    private static final byte KIND_OBJECT = 5;
+
+    private final com.fasterxml.jackson.core.JsonParser parser;
+
+    private final boolean compact;
+
+    private final boolean bigIntegerForInts;
+
+    private final boolean bigDecimalForFloats;
+
+    private TableSchema schema;
+
+    private String[] names;
+
+    private Map<String, Integer> nameIndex;
+
+    private boolean[] decimalColumns;
+
+    // row buffer
+    private byte[] kinds;
+    private long[] longs;
+    private double[] doubles;
+    private Object[] objects;
+
+    private JsonToken nextToken;
+    private boolean tokenPeeked;
+    private boolean rowBuffered;
+    private boolean hasCurrentRow;
+
+    private final Map<String, Object> rowView = new RowView();
+
+    /**
+     * Creates reader using a default {@link ObjectMapper}.
+     *
+     * @param in - stream of JSON data
+     * @param format - format of the data
+     * @throws IOException if the stream cannot be read
+     */
+    public StreamingJSONFormatReader(InputStream in, ClickHouseFormat format) throws IOException {
+        this(DEFAULT_MAPPER, in, format);
+    }
+
+    /**
+     * Creates reader using the given mapper. The mapper is used to create the parser and to read nested
+     * arrays and objects. {@code USE_BIG_INTEGER_FOR_INTS} and {@code USE_BIG_DECIMAL_FOR_FLOATS} features
+     * of the mapper are applied to top-level values too.
+     *
+     * @param mapper - object mapper
+     * @param in - stream of JSON data
+     * @param format - format of the data
+     * @throws IOException if the stream cannot be read
+     */
+    public StreamingJSONFormatReader(ObjectMapper mapper, InputStream in, ClickHouseFormat format) throws IOException {
+        this.parser = mapper.createParser(in);
+        this.bigIntegerForInts = mapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+        this.bigDecimalForFloats = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        switch (format) {
+            case JSONEachRow:
+            case JSONLines:
+            case NDJSON:
+                this.compact = false;
+                break;
+            case JSONCompactEachRow:
+            case JSONCompactEachRowWithNames:
+            case JSONCompactEachRowWithNamesAndTypes:
+                this.compact = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+
+        try {
+            init(format);
+        } catch (Exception e) {
+            throw new ClientException("Failed to initialize JSON reader", e);
+        }
+    }
+
+    private void init(ClickHouseFormat format) throws IOException {
+        List<String> headerNames = null;
+        List<String> headerTypes = null;
+        if (format == ClickHouseFormat.JSONCompactEachRowWithNames
+                || format == ClickHouseFormat.JSONCompactEachRowWithNamesAndTypes) {
+            headerNames = readHeaderRow();
+            if (format == ClickHouseFormat.JSONCompactEachRowWithNamesAndTypes) {
+                headerTypes = readHeaderRow();
+            }
+        }
+
+        if (headerTypes != null) {
+            List<ClickHouseColumn> columns = new ArrayList<>(headerNames.size());
+            for (int i = 0; i < headerNames.size(); i++) {
+                columns.add(ClickHouseColumn.of(headerNames.get(i), headerTypes.get(i)));
+            }
+            initSchema(columns);
+            return;
+        }
+
+        if (!peek()) {
+            List<ClickHouseColumn> columns = new ArrayList<>();
+            if (headerNames != null) {
+                for (String name : headerNames) {
+                    columns.add(ClickHouseColumn.of(name, SchemaUtils.inferDataType(null), false));
+                }
+            }
+            initSchema(columns);
+            return;
+        }
+
+        // Types are inferred from the first row. It is read into the buffer and becomes the first row returned.
+        List<String> firstRowNames = new ArrayList<>();
+        List<Object> firstRowValues = new ArrayList<>();
+        tokenPeeked = false;
+        if (compact) {
+            expect(nextToken, JsonToken.START_ARRAY);
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                firstRowValues.add(readBoxed(token));
+                int position = firstRowValues.size();
+                firstRowNames.add(headerNames == null || position > headerNames.size() ? "c" + position
+                        : headerNames.get(position - 1));
+            }
+        } else {
+            expect(nextToken, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                firstRowNames.add(parser.currentName());
+                firstRowValues.add(readBoxed(parser.nextToken()));
+            }
+        }
+
+        List<ClickHouseColumn> columns = new ArrayList<>(firstRowNames.size());
+        for (int i = 0; i < firstRowNames.size(); i++) {
+            columns.add(ClickHouseColumn.of(firstRowNames.get(i), SchemaUtils.inferDataType(firstRowValues.get(i)), false));
+        }
+        initSchema(columns);
+        for (int i = 0; i < firstRowValues.size(); i++) {
+            setBoxed(i, firstRowValues.get(i));
+        }
+        rowBuffered = true;
+    }
+
+    private List<String> readHeaderRow() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return new ArrayList<>();
+        }
+        expect(token, JsonToken.START_ARRAY);
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getText());
+        }
+        return values;
+    }
+
+    private void initSchema(List<ClickHouseColumn> columns) {
+        this.schema = new TableSchema(columns);
+        int size = columns.size();
+        this.names = new String[size];
+        this.nameIndex = new HashMap<>(size * 2);
+        this.decimalColumns = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            ClickHouseColumn column = columns.get(i);
+            names[i] = column.getColumnName();
+            nameIndex.put(names[i], i);
+            ClickHouseDataType dataType = column.getDataType();
+            decimalColumns[i] = dataType == ClickHouseDataType.Decimal || dataType == ClickHouseDataType.Decimal32
+                    || dataType == ClickHouseDataType.Decimal64 || dataType == ClickHouseDataType.Decimal128
+                    || dataType == ClickHouseDataType.Decimal256;
+        }
+        this.kinds = new byte[size];
+        this.longs = new long[size];
+        this.doubles = new double[size];
+        this.objects = new Object[size];
+    }
+
+    private boolean peek() throws IOException {
+        if (!tokenPeeked) {
+            nextToken = parser.nextToken();
+            tokenPeeked = true;
+        }
+        return nextToken != null;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new ClientException("Unexpected JSON token " + actual + " (expected " + expected + ")");
+        }
+    }
+
+    private Object readBoxed(JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NUMBER_INT:
+                return bigIntegerForInts ? parser.getBigIntegerValue() : parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return bigDecimalForFloats ? parser.getDecimalValue() : parser.getNumberValue();
+            case VALUE_STRING:
+                return parser.getText();
+            default:
+                return parser.readValueAs(Object.class);
+        }
+    }
+
+    private void setBoxed(int index, Object value) {
+        objects[index] = null;
+        if (value == null) {
+            kinds[index] = KIND_NULL;
+        } else if (value instanceof Integer) {
+            kinds[index] = KIND_INT;
+            longs[index] = (Integer) value;
+        } else if (value instanceof Long) {
+            kinds[index] = KIND_LONG;
+            longs[index] = (Long) value;
+        } else if (value instanceof Double) {
+            kinds[index] = KIND_DOUBLE;
+            doubles[index] = (Double) value;
+        } else if (value instanceof Boolean) {
+            kinds[index] = KIND_BOOLEAN;
+            longs[index] = (Boolean) value ? 1 : 0;
+        } else {
+            kinds[index] = KIND_OBJECT;
+            objects[index] = value;
+        }
+    }
+
+    private void readField(int index, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                kinds[index] = KIND_NULL;
+                objects[index] = null;
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                kinds[index] = KIND_BOOLEAN;
+                longs[index] = token == JsonToken.VALUE_TRUE ? 1 : 0;
+                objects[index] = null;
+                break;
+            case VALUE_NUMBER_INT:
+                if (bigIntegerForInts) {
+                    kinds[index] = KIND_OBJECT;
+                    objects[index] = parser.getBigIntegerValue();
+                    break;
+                }
+                switch (parser.getNumberType()) {
+                    case INT:
+                        kinds[index] = KIND_INT;
+                        longs[index] = parser.getIntValue();
+                        objects[index] = null;
+                        break;
+                    case LONG:
+                        kinds[index] = KIND_LONG;
+                        longs[index] = parser.getLongValue();
+                        objects[index] = null;
+                        break;
+                    default:
+                        kinds[index] = KIND_OBJECT;
+                        objects[index] = parser.getBigIntegerValue();
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                if (decimalColumns[index] || bigDecimalForFloats) {
+                    kinds[index] = KIND_OBJECT;
+                    objects[index] = parser.getDecimalValue();
+                } else {
+                    kinds[index] = KIND_DOUBLE;
+                    doubles[index] = parser.getDoubleValue();
+                    objects[index] = null;
+                }
+                break;
+            case VALUE_STRING:
+                kinds[index] = KIND_OBJECT;
+                objects[index] = parser.getText();
+                break;
+            default:
+                kinds[index] = KIND_OBJECT;
+                objects[index] = parser.readValueAs(Object.class);
+        }
+    }
+
+    private boolean readRow() throws IOException {
+        if (!peek()) {
+            return false;
+        }
+        tokenPeeked = false;
+        Arrays.fill(kinds, KIND_NULL);
+        if (compact) {
+            expect(nextToken, JsonToken.START_ARRAY);
+            int index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (index < kinds.length) {
+                    readField(index, token);
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
+            }
+        } else {
+            expect(nextToken, JsonToken.START_OBJECT);
+            int expected = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                int index;
+                // fields usually come in the same order as in the first row
+                if (expected < names.length && names[expected].equals(name)) {
+                    index = expected;
+                } else {
+                    Integer found = nameIndex.get(name);
+                    index = found == null ? -1 : found;
+                }
+                JsonToken token = parser.nextToken();
+                if (index < 0) {
+                    parser.skipChildren();
+                } else {
+                    readField(index, token);
+                    expected = index + 1;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return rowBuffered || peek();
+        } catch (IOException e) {
+            throw new ClientException("Failed to read next JSON row", e);
+        }
+    }
+
+    /**
+     * Moves to the next row. Returned map is a read-only view of the internal row buffer and changes
+     * with the next call.
+     *
+     * @return view of the current row or {@code null} if no more rows
+     */
+    @Override
+    public Map<String, Object> next() {
+        if (rowBuffered) {
+            rowBuffered = false;
+            hasCurrentRow = true;
+            return rowView;
+        }
+        try {
+            hasCurrentRow = readRow();
+        } catch (Exception e) {
+            hasCurrentRow = false;
+            throw new ClientException("Failed to read next JSON row", e);
+        }
+        return hasCurrentRow ? rowView : null;
+    }
+
+    private int indexOf(String colName) {
+        return schema.nameToIndex(colName);
+    }
+
+    private int checkIndex(int colIndex) {
+        if (colIndex < 1 || colIndex > kinds.length) {
+            // reuse schema error reporting
+            schema.columnIndexToName(colIndex);
+        }
+        return colIndex - 1;
+    }
+
+    private void checkRow() {
+        if (!hasCurrentRow) {
+            throw new ClientException("No current row. Call next() before reading values");
+        }
+    }
+
+    /**
+     * Returns value of a column as an object. Numbers are boxed here, typed accessors should be used
+     * to avoid it.
+     */
+    private Object value(int index) {
+        checkRow();
+        switch (kinds[index]) {
+            case KIND_NULL:
+                return null;
+            case KIND_INT:
+                return (int) longs[index];
+            case KIND_LONG:
+                return longs[index];
+            case KIND_DOUBLE:
+                return doubles[index];
+            case KIND_BOOLEAN:
+                return longs[index] != 0;
+            default:
+                return objects[index];
+        }
+    }
+
+    private void checkNotNull(int index, String targetType) {
+        checkRow();
+        if (kinds[index] == KIND_NULL) {
+            throw new NullValueException("Column " + names[index] + " has null value and it cannot be cast to " + targetType);
+        }
+    }
+
+    private long readLong(int index, String targetType) {
+        checkNotNull(index, targetType);
+        switch (kinds[index]) {
+            case KIND_INT:
+            case KIND_LONG:
+            case KIND_BOOLEAN:
+                return longs[index];
+            case KIND_DOUBLE:
+                return (long) doubles[index];
+            default:
+                return NumberConverter.toLong(objects[index]);
+        }
+    }
+
+    private double readDouble(int index, String targetType) {
+        checkNotNull(index, targetType);
+        switch (kinds[index]) {
+            case KIND_INT:
+            case KIND_LONG:
+            case KIND_BOOLEAN:
+                return longs[index];
+            case KIND_DOUBLE:
+                return doubles[index];
+            default:
+                return NumberConverter.toDouble(objects[index]);
+        }
+    }
+
+    private byte getByte0(int index) {
+        long v = readLong(index, "byte");
+        if (v != (byte) v) {
+            throw new ArithmeticException("integer overflow: " + v + " cannot be presented as byte");
+        }
+        return (byte) v;
+    }
+
+    private short getShort0(int index) {
+        long v = readLong(index, "short");
+        if (v != (short) v) {
+            throw new ArithmeticException("integer overflow: " + v + " cannot be presented as short");
+        }
+        return (short) v;
+    }
+
+    private int getInteger0(int index) {
+        long v = readLong(index, "int");
+        if (v != (int) v) {
+            throw new ArithmeticException("integer overflow: " + v + " cannot be presented as int");
+        }
+        return (int) v;
+    }
+
+    private boolean getBoolean0(int index) {
+        checkNotNull(index, "boolean");
+        switch (kinds[index]) {
+            case KIND_INT:
+            case KIND_LONG:
+            case KIND_BOOLEAN:
+                return longs[index] != 0;
+            case KIND_DOUBLE:
+                return (long) doubles[index] != 0;
+            default:
+                Object val = objects[index];
+                if (val instanceof Number) {
+                    return ((Number) val).longValue() != 0;
+                }
+                throw new ClientException("Cannot convert value of type " + val.getClass().getName()
+                        + " in column '" + names[index] + "' to boolean");
+        }
+    }
+
+    private String getString0(int index) {
+        Object val = value(index);
+        return val == null ? null : val.toString();
+    }
+
+    private BigInteger getBigInteger0(int index) {
+        checkRow();
+        switch (kinds[index]) {
+            case KIND_NULL:
+                return null;
+            case KIND_INT:
+            case KIND_LONG:
+                return BigInteger.valueOf(longs[index]);
+            case KIND_DOUBLE:
+                return BigDecimal.valueOf(doubles[index]).toBigInteger();
+            default:
+                Object val = objects[index];
+                if (val instanceof BigInteger) {
+                    return (BigInteger) val;
+                }
+                return new BigDecimal(val.toString()).toBigInteger();
+        }
+    }
+
+    private BigDecimal getBigDecimal0(int index) {
+        checkRow();
+        switch (kinds[index]) {
+            case KIND_NULL:
+                return null;
+            case KIND_INT:
+            case KIND_LONG:
+                return BigDecimal.valueOf(longs[index]);
+            case KIND_DOUBLE:
+                return BigDecimal.valueOf(doubles[index]);
+            default:
+                Object val = objects[index];
+                if (val instanceof BigDecimal) {
+                    return (BigDecimal) val;
+                }
+                return new BigDecimal(val.toString());
+        }
+    }
+
+    private List<?> asList(int index) {
+        Object val = value(index);
+        if (val == null) {
+            return null;
+        }
+        if (!(val instanceof List<?>)) {
+            throw new ClientException("Column '" + names[index] + "' is not of array type (actual: "
+                    + val.getClass().getName() + ")");
+        }
+        return (List<?>) val;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getPrimitiveArray(int index, Class<?> componentType) {
+        List<?> list = asList(index);
+        if (list == null) {
+            return null;
+        }
+        try {
+            Object array = Array.newInstance(componentType, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Object el = list.get(i);
+                if (el == null) {
+                    throw new ClientException("Column '" + names[index]
+                            + "' contains a null element which cannot fit into an array of primitive "
+                            + componentType.getName());
+                }
+                Array.set(array, i, NumberConverter.coerceToComponent(el, componentType));
+            }
+            return (T) array;
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new ClientException("Value of column '" + names[index]
+                    + "' cannot be converted to an array of " + componentType.getName(), e);
+        }
+    }
+
+    private String[] getStringArray0(int index) {
+        List<?> list = asList(index);
+        if (list == null) {
+            return null;
+        }
+        String[] out = new String[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            Object el = list.get(i);
+            out[i] = el == null ? null : el.toString();
+        }
+        return out;
+    }
+
+    private Object[] getTuple0(int index) {
+        Object val = value(index);
+        if (val == null) {
+            return null;
+        }
+        if (val instanceof List<?>) {
+            return ((List<?>) val).toArray(new Object[0]);
+        }
+        return (Object[]) val;
+    }
+
+    private ZoneId zoneOf(int index) {
+        TimeZone timeZone = schema.getColumns().get(index).getTimeZone();
+        return timeZone == null ? ZoneOffset.UTC : timeZone.toZoneId();
+    }
+
+    private ZonedDateTime getZonedDateTime0(int index) {
+        Object val = value(index);
+        if (val == null) {
+            return null;
+        }
+        ZoneId zone = zoneOf(index);
+        String text = val.toString();
+        try {
+            if (val instanceof Number || isUnixTimestamp(text)) {
+                // date_time_output_format = 'unix_timestamp'
+                BigDecimal seconds = new BigDecimal(text);
+                int nanos = seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue();
+                return Instant.ofEpochSecond(seconds.longValue(), nanos).atZone(zone);
+            } else if (text.indexOf('T') > 0) {
+                // date_time_output_format = 'iso'
+                return ZonedDateTime.parse(text).withZoneSameInstant(zone);
+            }
+            return LocalDateTime.parse(text, DataTypeUtils.DATE_TIME_WITH_OPTIONAL_NANOS).atZone(zone);
+        } catch (DateTimeException | NumberFormatException e) {
+            throw new ClientException("Value of column '" + names[index] + "' cannot be converted to ZonedDateTime", e);
+        }
+    }
+
+    private static boolean isUnixTimestamp(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && !(i == 0 && c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Instant getInstant0(int index) {
+        Object val = value(index);
+        if (val instanceof String && ((String) val).length() == 10 && ((String) val).charAt(4) == '-') {
+            // Date and Date32
+            try {
+                return LocalDate.parse((String) val).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeException e) {
+                throw new ClientException("Value of column '" + names[index] + "' cannot be converted to Instant", e);
+            }
+        }
+        ZonedDateTime dateTime = getZonedDateTime0(index);
+        return dateTime == null ? null : dateTime.toInstant();
+    }
+
+    private TemporalAmount getTemporalAmount0(int index) {
+        Object val = value(index);
+        if (val == null) {
+            return null;
+        }
+        ClickHouseDataType dataType = schema.getColumns().get(index).getDataType();
+        try {
+            switch (dataType) {
+                case IntervalYear:
+                    return Period.ofYears(NumberConverter.toInt(val));
+                case IntervalQuarter:
+                    return Period.ofMonths(3 * NumberConverter.toInt(val));
+                case IntervalMonth:
+                    return Period.ofMonths(NumberConverter.toInt(val));
+                case IntervalWeek:
+                    return Period.ofWeeks(NumberConverter.toInt(val));
+                case IntervalDay:
+                    return Period.ofDays(NumberConverter.toInt(val));
+                case IntervalHour:
+                    return Duration.ofHours(NumberConverter.toLong(val));
+                case IntervalMinute:
+                    return Duration.ofMinutes(NumberConverter.toLong(val));
+                case IntervalSecond:
+                    return Duration.ofSeconds(NumberConverter.toLong(val));
+                case IntervalMillisecond:
+                    return Duration.ofMillis(NumberConverter.toLong(val));
+                case IntervalMicrosecond:
+                    return Duration.ofNanos(NumberConverter.toLong(val) * 1000);
+                case IntervalNanosecond:
+                    return Duration.ofNanos(NumberConverter.toLong(val));
+                case Time:
+                case Time64:
+                    return parseTime(val.toString());
+                default:
+                    // types inferred from values do not tell the unit
+                    throw new ClientException("Column '" + names[index] + "' of type " + dataType
+                            + " cannot be converted to TemporalAmount");
+            }
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            throw new ClientException("Value of column '" + names[index] + "' cannot be converted to TemporalAmount", e);
+        }
+    }
+
+    /**
+     * Parses text of {@code Time} and {@code Time64} values: {@code [-]hhh:mm:ss[.fraction]}.
+     */
+    private static Duration parseTime(String text) {
+        boolean negative = text.startsWith("-");
+        String[] parts = (negative ? text.substring(1) : text).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid time value: " + text);
+        }
+        BigDecimal seconds = new BigDecimal(parts[2]);
+        Duration duration = Duration.ofHours(Long.parseLong(parts[0]))
+                .plusMinutes(Long.parseLong(parts[1]))
+                .plusNanos(seconds.movePointRight(9).longValueExact());
+        return negative ? duration.negated() : duration;
+    }
+
+    private Duration getDuration0(int index) {
+        TemporalAmount amount = getTemporalAmount0(index);
+        return amount == null ? null : Duration.from(amount);
+    }
+
+    private InetAddress getInetAddress0(int index) {
+        String val = getString0(index);
+        if (val == null) {
+            return null;
+        }
+        // only IP literals are accepted, so there is no name lookup
+        for (int i = 0; i < val.length(); i++) {
+            char c = val.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                throw new ClientException("Value of column '" + names[index] + "' is not an IP address");
+            }
+        }
+        try {
+            return InetAddress.getByName(val);
+        } catch (UnknownHostException e) {
+            throw new ClientException("Value of column '" + names[index] + "' is not an IP address", e);
+        }
+    }
+
+    private Inet4Address getInet4Address0(int index) {
+        return InetAddressConverter.convertToIpv4(getInetAddress0(index));
+    }
+
+    private Inet6Address getInet6Address0(int index) {
+        return InetAddressConverter.convertToIpv6(getInetAddress0(index));
+    }
+
+    private static double[] toPoint(Object value) {
+        List<?> list = (List<?>) value;
+        double[] point = new double[list.size()];
+        for (int i = 0; i < point.length; i++) {
+            point[i] = NumberConverter.toDouble(list.get(i));
+        }
+        return point;
+    }
+
+    private static double[][] toRing(Object value) {
+        List<?> list = (List<?>) value;
+        double[][] ring = new double[list.size()][];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = toPoint(list.get(i));
+        }
+        return ring;
+    }
+
+    private static double[][][] toPolygon(Object value) {
+        List<?> list = (List<?>) value;
+        double[][][] polygon = new double[list.size()][][];
+        for (int i = 0; i < polygon.length; i++) {
+            polygon[i] = toRing(list.get(i));
+        }
+        return polygon;
+    }
+
+    private <T> T getGeo(int index, Function<Object, T> converter, String targetType) {
+        List<?> list = asList(index);
+        if (list == null) {
+            return null;
+        }
+        try {
+            return converter.apply(list);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new ClientException("Value of column '" + names[index] + "' cannot be converted to " + targetType, e);
+        }
+    }
+
+    private ClickHouseGeoPointValue getGeoPoint0(int index) {
+        return getGeo(index, v -> ClickHouseGeoPointValue.of(toPoint(v)), "Point");
+    }
+
+    private ClickHouseGeoRingValue getGeoRing0(int index) {
+        return getGeo(index, v -> ClickHouseGeoRingValue.of(toRing(v)), "Ring");
+    }
+
+    private ClickHouseGeoPolygonValue getGeoPolygon0(int index) {
+        return getGeo(index, v -> ClickHouseGeoPolygonValue.of(toPolygon(v)), "Polygon");
+    }
+
+    private ClickHouseGeoMultiPolygonValue getGeoMultiPolygon0(int index) {
+        return getGeo(index, v -> {
+            List<?> list = (List<?>) v;
+            double[][][][] multiPolygon = new double[list.size()][][][];
+            for (int i = 0; i < multiPolygon.length; i++) {
+                multiPolygon[i] = toPolygon(list.get(i));
+            }
+            return ClickHouseGeoMultiPolygonValue.of(multiPolygon);
+        }, "MultiPolygon");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readValue(int colIndex) {
+        return (T) value(checkIndex(colIndex));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readValue(String colName) {
+        return (T) value(indexOf(colName));
+    }
+
+    @Override
+    public boolean hasValue(String colName) {
+        Integer index = nameIndex.get(colName);
+        return index != null && hasCurrentRow && kinds[index] != KIND_NULL;
+    }
+
+    @Override
+    public boolean hasValue(int colIndex) {
+        return hasCurrentRow && kinds[checkIndex(colIndex)] != KIND_NULL;
+    }
+
+    @Override
+    public String getString(String colName) {
+        return getString0(indexOf(colName));
+    }
+
+    @Override
+    public byte getByte(String colName) {
+        return getByte0(indexOf(colName));
+    }
+
+    @Override
+    public short getShort(String colName) {
+        return getShort0(indexOf(colName));
+    }
+
+    @Override
+    public int getInteger(String colName) {
+        return getInteger0(indexOf(colName));
+    }
+
+    @Override
+    public long getLong(String colName) {
+        return readLong(indexOf(colName), "long");
+    }
+
+    @Override
+    public float getFloat(String colName) {
+        return (float) readDouble(indexOf(colName), "float");
+    }
+
+    @Override
+    public double getDouble(String colName) {
+        return readDouble(indexOf(colName), "double");
+    }
+
+    @Override
+    public boolean getBoolean(String colName) {
+        return getBoolean0(indexOf(colName));
+    }
+
+    @Override
+    public BigInteger getBigInteger(String colName) {
+        return getBigInteger0(indexOf(colName));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String colName) {
+        return getBigDecimal0(indexOf(colName));
+    }
+
+    @Override
+    public Instant getInstant(String colName) {
+        return getInstant0(indexOf(colName));
+    }
+
+    @Override
+    public ZonedDateTime getZonedDateTime(String colName) {
+        return getZonedDateTime0(indexOf(colName));
+    }
+
+    @Override
+    public Duration getDuration(String colName) {
+        return getDuration0(indexOf(colName));
+    }
+
+    @Override
+    public Inet4Address getInet4Address(String colName) {
+        return getInet4Address0(indexOf(colName));
+    }
+
+    @Override
+    public Inet6Address getInet6Address(String colName) {
+        return getInet6Address0(indexOf(colName));
+    }
+
+    @Override
+    public UUID getUUID(String colName) {
+        String val = getString(colName);
+        return val == null ? null : UUID.fromString(val);
+    }
+
+    @Override
+    public ClickHouseGeoPointValue getGeoPoint(String colName) {
+        return getGeoPoint0(indexOf(colName));
+    }
+
+    @Override
+    public ClickHouseGeoRingValue getGeoRing(String colName) {
+        return getGeoRing0(indexOf(colName));
+    }
+
+    @Override
+    public ClickHouseGeoPolygonValue getGeoPolygon(String colName) {
+        return getGeoPolygon0(indexOf(colName));
+    }
+
+    @Override
+    public ClickHouseGeoMultiPolygonValue getGeoMultiPolygon(String colName) {
+        return getGeoMultiPolygon0(indexOf(colName));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(String colName) {
+        return (List<T>) asList(indexOf(colName));
+    }
+
+    @Override
+    public byte[] getByteArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), byte.class);
+    }
+
+    @Override
+    public int[] getIntArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), int.class);
+    }
+
+    @Override
+    public long[] getLongArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), long.class);
+    }
+
+    @Override
+    public float[] getFloatArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), float.class);
+    }
+
+    @Override
+    public double[] getDoubleArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), double.class);
+    }
+
+    @Override
+    public boolean[] getBooleanArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), boolean.class);
+    }
+
+    @Override
+    public short[] getShortArray(String colName) {
+        return getPrimitiveArray(indexOf(colName), short.class);
+    }
+
+    @Override
+    public String[] getStringArray(String colName) {
+        return getStringArray0(indexOf(colName));
+    }
+
+    @Override
+    public Object[] getObjectArray(String colName) {
+        List<?> list = asList(indexOf(colName));
+        return list == null ? null : list.toArray(new Object[0]);
+    }
+
+    @Override
+    public String getString(int index) {
+        return getString0(checkIndex(index));
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return getByte0(checkIndex(index));
+    }
+
+    @Override
+    public short getShort(int index) {
+        return getShort0(checkIndex(index));
+    }
+
+    @Override
+    public int getInteger(int index) {
+        return getInteger0(checkIndex(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        return readLong(checkIndex(index), "long");
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return (float) readDouble(checkIndex(index), "float");
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return readDouble(checkIndex(index), "double");
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return getBoolean0(checkIndex(index));
+    }
+
+    @Override
+    public BigInteger getBigInteger(int index) {
+        return getBigInteger0(checkIndex(index));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int index) {
+        return getBigDecimal0(checkIndex(index));
+    }
+
+    @Override
+    public Instant getInstant(int index) {
+        return getInstant0(checkIndex(index));
+    }
+
+    @Override
+    public ZonedDateTime getZonedDateTime(int index) {
+        return getZonedDateTime0(checkIndex(index));
+    }
+
+    @Override
+    public Duration getDuration(int index) {
+        return getDuration0(checkIndex(index));
+    }
+
+    @Override
+    public Inet4Address getInet4Address(int index) {
+        return getInet4Address0(checkIndex(index));
+    }
+
+    @Override
+    public Inet6Address getInet6Address(int index) {
+        return getInet6Address0(checkIndex(index));
+    }
+
+    @Override
+    public UUID getUUID(int index) {
+        String val = getString(index);
+        return val == null ? null : UUID.fromString(val);
+    }
+
+    @Override
+    public ClickHouseGeoPointValue getGeoPoint(int index) {
+        return getGeoPoint0(checkIndex(index));
+    }
+
+    @Override
+    public ClickHouseGeoRingValue getGeoRing(int index) {
+        return getGeoRing0(checkIndex(index));
+    }
+
+    @Override
+    public ClickHouseGeoPolygonValue getGeoPolygon(int index) {
+        return getGeoPolygon0(checkIndex(index));
+    }
+
+    @Override
+    public ClickHouseGeoMultiPolygonValue getGeoMultiPolygon(int index) {
+        return getGeoMultiPolygon0(checkIndex(index));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(int index) {
+        return (List<T>) asList(checkIndex(index));
+    }
+
+    @Override
+    public byte[] getByteArray(int index) {
+        return getPrimitiveArray(checkIndex(index), byte.class);
+    }
+
+    @Override
+    public int[] getIntArray(int index) {
+        return getPrimitiveArray(checkIndex(index), int.class);
+    }
+
+    @Override
+    public long[] getLongArray(int index) {
+        return getPrimitiveArray(checkIndex(index), long.class);
+    }
+
+    @Override
+    public float[] getFloatArray(int index) {
+        return getPrimitiveArray(checkIndex(index), float.class);
+    }
+
+    @Override
+    public double[] getDoubleArray(int index) {
+        return getPrimitiveArray(checkIndex(index), double.class);
+    }
+
+    @Override
+    public boolean[] getBooleanArray(int index) {
+        return getPrimitiveArray(checkIndex(index), boolean.class);
+    }
+
+    @Override
+    public short[] getShortArray(int index) {
+        return getPrimitiveArray(checkIndex(index), short.class);
+    }
+
+    @Override
+    public String[] getStringArray(int index) {
+        return getStringArray0(checkIndex(index));
+    }
+
+    @Override
+    public Object[] getObjectArray(int index) {
+        List<?> list = asList(checkIndex(index));
+        return list == null ? null : list.toArray(new Object[0]);
+    }
+
+    @Override
+    public Object[] getTuple(int index) {
+        return getTuple0(checkIndex(index));
+    }
+
+    @Override
+    public Object[] getTuple(String colName) {
+        return getTuple0(indexOf(colName));
+    }
+
+    @Override
+    public byte getEnum8(String colName) {
+        return getByte(colName);
+    }
+
+    @Override
+    public byte getEnum8(int index) {
+        return getByte(index);
+    }
+
+    @Override
+    public short getEnum16(String colName) {
+        return getShort(colName);
+    }
+
+    @Override
+    public short getEnum16(int index) {
+        return getShort(index);
+    }
+
+    @Override
+    public LocalDate getLocalDate(String colName) {
+        String val = getString(colName);
+        return val == null ? null : LocalDate.parse(val);
+    }
+
+    @Override
+    public LocalDate getLocalDate(int index) {
+        String val = getString(index);
+        return val == null ? null : LocalDate.parse(val);
+    }
+
+    @Override
+    public LocalTime getLocalTime(String colName) {
+        String val = getString(colName);
+        return val == null ? null : LocalTime.parse(val);
+    }
+
+    @Override
+    public LocalTime getLocalTime(int index) {
+        String val = getString(index);
+        return val == null ? null : LocalTime.parse(val);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(String colName) {
+        String val = getString(colName);
+        return val == null ? null : LocalDateTime.parse(val);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(int index) {
+        String val = getString(index);
+        return val == null ? null : LocalDateTime.parse(val);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(String colName) {
+        String val = getString(colName);
+        return val == null ? null : OffsetDateTime.parse(val);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(int index) {
+        String val = getString(index);
+        return val == null ? null : OffsetDateTime.parse(val);
+    }
+
+    @Override
+    public TableSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public ClickHouseBitmap getClickHouseBitmap(String colName) {
+        throw new UnsupportedOperationException("Bitmap values are not available in JSON formats");
+    }
+
+    @Override
+    public ClickHouseBitmap getClickHouseBitmap(int index) {
+        throw new UnsupportedOperationException("Bitmap values are not available in JSON formats");
+    }
+
+    @Override
+    public TemporalAmount getTemporalAmount(int index) {
+        return getTemporalAmount0(checkIndex(index));
+    }
+
+    @Override
+    public TemporalAmount getTemporalAmount(String colName) {
+        return getTemporalAmount0(indexOf(colName));
+    }
+
+    @Override
+    public void close() throws Exception {
+        parser.close();
+    }
+
+    /**
+     * Read-only map view of the row buffer. Values are boxed only when accessed.
+     */
+    private class RowView extends AbstractMap<String, Object> {
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return nameIndex.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer index = nameIndex.get(key);
+            return index == null ? null : value(index);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public int size() {
+                    return names.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= names.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(names[index], value(index));
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.clickhouse.client.api.data_formats;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable view over raw bytes of a {@code String} or {@code FixedString} value of the current row.
+ * <p>
+ * When string slices are enabled (see {@link com.clickhouse.client.api.ClientConfigProperties#STRING_SLICE_SUPPORT})
+ * binary readers decode top-level string columns into slices that are reused from row to row: there is no
+ * per-row {@code byte[]} or {@link String} allocation and no UTF-8 decoding unless the value is requested
+ * as a {@link String}. This suits pass-through processing where values are hashed, compared or forwarded.
+ * <p>
+ * <b>A slice is valid only until the reader moves to the next row.</b> Callers that need to keep the value
+ * must copy it with {@link #copyTo(ByteBuffer)}, {@link #toByteArray()} or {@link #asString()}.
+ * Instances are not thread-safe. They are created by readers; the class is not meant to be extended by user code.
+ */
+public class StringSlice {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] bytes = EMPTY;
+
+    private int length;
+
+    private CharsetDecoder decoder;
+
+    protected StringSlice() {
+    }
+
+    protected StringSlice(byte[] bytes) {
+        this.bytes = bytes;
+        this.length = bytes.length;
+    }
+
+    /**
+     * Prepares the slice to hold {@code length} bytes. Backing array grows only when it is too small.
+     *
+     * @param length - value length
+     * @return backing array to fill starting at offset {@code 0}
+     */
+    protected byte[] prepare(int length) {
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        this.length = length;
+        return bytes;
+    }
+
+    /**
+     * Returns backing array. Value occupies {@link #length()} bytes starting at {@link #offset()}.
+     * The array is owned by the slice and is overwritten when the next row is read.
+     *
+     * @return backing array
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    /**
+     * @return offset of the value in {@link #array()}
+     */
+    public int offset() {
+        return 0;
+    }
+
+    /**
+     * @return number of bytes in the value
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return {@code true} if the value has no bytes
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns a read-only buffer over the value bytes. The buffer shares storage with this slice.
+     *
+     * @return read-only buffer positioned at the first byte of the value
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies value bytes into the buffer starting at its current position.
+     *
+     * @param dst - destination buffer
+     * @throws BufferOverflowException if the buffer does not have enough space
+     */
+    public void copyTo(ByteBuffer dst) {
+        dst.put(bytes, 0, length);
+    }
+
+    /**
+     * Decodes value as UTF-8 into the buffer starting at its current position. Malformed input is replaced
+     * the same way as {@link String} construction does. The decoder is reused between calls.
+     *
+     * @param dst - destination buffer
+     * @throws BufferOverflowException if the buffer does not have enough space
+     */
+    public void copyTo(CharBuffer dst) {
+        if (decoder == null) {
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        decoder.reset();
+        ByteBuffer src = ByteBuffer.wrap(bytes, 0, length);
+        CoderResult result = decoder.decode(src, dst, true);
+        if (!result.isOverflow()) {
+            result = decoder.flush(dst);
+        }
+        if (result.isOverflow()) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    /**
+     * @return copy of the value bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Compares value bytes with the given array without decoding.
+     *
+     * @param other - bytes to compare with
+     * @return {@code true} if value has the same bytes
+     */
+    public boolean contentEquals(byte[] other) {
+        if (other == null || other.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the value as UTF-8. A new string is created on each call.
+     *
+     * @return decoded string
+     */
+    public String asString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
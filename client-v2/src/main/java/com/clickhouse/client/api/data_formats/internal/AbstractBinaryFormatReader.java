@@ -4,6 +4,7 @@ import com.clickhouse.client.api.ClientConfigProperties;
 import com.clickhouse.client.api.ClientException;
 import com.clickhouse.client.api.DataTypeUtils;
 import com.clickhouse.client.api.data_formats.ClickHouseBinaryFormatReader;
+import com.clickhouse.client.api.data_formats.StringSlice;
 import com.clickhouse.client.api.internal.DataTypeConverter;
 import com.clickhouse.client.api.internal.MapUtils;
 import com.clickhouse.client.api.internal.ServerSettings;
@@ -11,6 +12,7 @@ import com.clickhouse.client.api.metadata.NoSuchColumnException;
 import com.clickhouse.client.api.metadata.TableSchema;
 import com.clickhouse.client.api.query.NullValueException;
 import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.client.api.serde.POJOConstructorDeserializer;
 import com.clickhouse.client.api.serde.POJOFieldDeserializer;
 import com.clickhouse.data.ClickHouseColumn;
 import com.clickhouse.data.ClickHouseDataType;
@@ -48,12 +50,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryFormatReader {
@@ -71,6 +76,10 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
     private TableSchema schema;
     private ClickHouseColumn[] columns;
     private Map[] convertions;
+
+    private final boolean stringSliceSupport;
+
+    private boolean[] stringSlices;
     private boolean hasNext = true;
     private boolean initialState = true; // reader is in initial state, no records have been read yet
     private long row = -1; // before first row
@@ -94,6 +103,7 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
                 ClientConfigProperties.BINARY_STRING_SUPPORT.getKey(), false);
         this.binaryStreamReader = new BinaryStreamReader(inputStream, timeZone, LOG, byteBufferAllocator, jsonAsString,
                 defaultTypeHintMap, binaryStringSupport);
+        this.stringSliceSupport = MapUtils.getFlag(settings, ClientConfigProperties.STRING_SLICE_SUPPORT.getKey(), false);
         if (schema != null) {
             setSchema(schema);
         }
@@ -118,6 +128,15 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
      * @throws IOException
      */
     public boolean readToPOJO(Map<String, POJOFieldDeserializer> deserializers, Object obj ) throws IOException {
+        return readToPOJO(deserializers, obj, binaryStreamReader, false);
+    }
+
+    /**
+     * @param firstColumnReader - reader of the first column value
+     * @param rowStarted - whether the row is known to exist, so end of stream in the first column is an error
+     */
+    private boolean readToPOJO(Map<String, POJOFieldDeserializer> deserializers, Object obj,
+                               BinaryStreamReader firstColumnReader, boolean rowStarted) throws IOException {
         if (columns == null || columns.length == 0) {
             return false;
         }
@@ -125,16 +144,17 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
         boolean firstColumn = true;
 
         for (ClickHouseColumn column : columns) {
+            BinaryStreamReader reader = firstColumn ? firstColumnReader : binaryStreamReader;
             try {
                 POJOFieldDeserializer deserializer = deserializers.get(column.getColumnName());
                 if (deserializer != null) {
-                    deserializer.setValue(obj, binaryStreamReader, column);
+                    deserializer.setValue(obj, reader, column);
                 } else {
-                    binaryStreamReader.skipValue(column);
+                    reader.skipValue(column);
                 }
                 firstColumn = false;
             } catch (EOFException e) {
-                if (firstColumn) {
+                if (firstColumn && !rowStarted) {
                     endReached();
                     return false;
                 }
@@ -146,6 +166,153 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
         return true;
     }
 
+    /**
+     * Reads next row into a new object created by the deserializer.
+     *
+     * @param deserializer - compiled deserializer for the columns of this reader
+     * @return new object or {@code null} if there are no more rows
+     * @param <T> type of the object
+     * @throws IOException when failed to read data
+     */
+    public <T> T readToObject(POJOConstructorDeserializer<T> deserializer) throws IOException {
+        if (columns == null || columns.length == 0) {
+            return null;
+        }
+
+        T obj;
+        try {
+            obj = deserializer.readObject(binaryStreamReader, columns);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ClientException("Failed to read object", e);
+        }
+        if (obj == null) {
+            endReached();
+        }
+        return obj;
+    }
+
+    /**
+     * Returns iterator over objects created by the deserializer. Rows are read while iterating
+     * so whole result is not kept in memory. Iterator cannot be used together with other read methods.
+     *
+     * @param deserializer - compiled deserializer for the columns of this reader
+     * @return iterator over objects
+     * @param <T> type of objects
+     */
+    public <T> Iterator<T> objectIterator(POJOConstructorDeserializer<T> deserializer) {
+        return new ObjectIterator<>(() -> readToObject(deserializer));
+    }
+
+    /**
+     * Returns iterator over objects filled with setter deserializers. Each object is taken from the allocator
+     * so it may return recycled instances. Allocator is called only when the next row exists.
+     * Rows are read while iterating so whole result is not kept in memory.
+     * Iterator cannot be used together with other read methods.
+     *
+     * @param deserializers - map of column name to deserializer
+     * @param allocator - supplier of objects to fill
+     * @return iterator over objects
+     * @param <T> type of objects
+     */
+    public <T> Iterator<T> objectIterator(Map<String, POJOFieldDeserializer> deserializers, Supplier<T> allocator) {
+        // the first byte of a row is read ahead to find out if the row exists before taking an object
+        ReadAheadInputStream rowInput = new ReadAheadInputStream(input);
+        BinaryStreamReader firstColumnReader = binaryStreamReader.newReader(rowInput);
+        return new ObjectIterator<>(() -> {
+            if (columns == null || columns.length == 0) {
+                return null;
+            }
+            if (!rowInput.readAhead()) {
+                endReached();
+                return null;
+            }
+            T obj = allocator.get();
+            readToPOJO(deserializers, obj, firstColumnReader, true);
+            return obj;
+        });
+    }
+
+    /**
+     * Returns a byte read ahead from the input before the rest of the input.
+     */
+    private static final class ReadAheadInputStream extends InputStream {
+
+        private final InputStream input;
+
+        private int next = -1;
+
+        ReadAheadInputStream(InputStream input) {
+            this.input = input;
+        }
+
+        boolean readAhead() throws IOException {
+            next = input.read();
+            return next >= 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (next >= 0) {
+                int b = next;
+                next = -1;
+                return b;
+            }
+            return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len > 0 && next >= 0) {
+                b[off] = (byte) next;
+                next = -1;
+                return 1;
+            }
+            return input.read(b, off, len);
+        }
+    }
+
+    private interface ObjectReader<T> {
+        T read() throws IOException;
+    }
+
+    private static final class ObjectIterator<T> implements Iterator<T> {
+
+        private final ObjectReader<T> objectReader;
+
+        private T next;
+
+        private boolean done;
+
+        ObjectIterator(ObjectReader<T> objectReader) {
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = objectReader.read();
+                } catch (IOException e) {
+                    throw new ClientException("Failed to read next object", e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T obj = next;
+            next = null;
+            return obj;
+        }
+    }
+
     /**
      * It is still internal method and should be used with care.
      * Usually this method is called to read next record into internal object and affects hasNext() method.
@@ -192,6 +359,13 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
         boolean firstColumn = true;
         for (int i = 0; i < columns.length; i++) {
             try {
+                if (stringSlices[i]) {
+                    // slice is owned by the record buffer and reused when the buffer is filled again
+                    record[i] = binaryStreamReader.readStringSlice(columns[i],
+                            record[i] instanceof ReusableStringSlice ? (ReusableStringSlice) record[i] : null);
+                    firstColumn = false;
+                    continue;
+                }
                 Object val = binaryStreamReader.readValue(columns[i]);
                 if (val != null) {
                     record[i] = val;
@@ -307,10 +481,13 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
 
         this.currentRecord = new Object[columns.length];
         this.nextRecord = new Object[columns.length];
+        this.stringSlices = new boolean[columns.length];
 
         for (int i = 0; i < columns.length; i++) {
             ClickHouseColumn column = columns[i];
             ClickHouseDataType columnDataType = column.getDataType();
+            stringSlices[i] = stringSliceSupport
+                    && (columnDataType == ClickHouseDataType.String || columnDataType == ClickHouseDataType.FixedString);
             if (columnDataType.equals(ClickHouseDataType.SimpleAggregateFunction)){
                 columnDataType = column.getNestedColumns().get(0).getDataType();
             }
@@ -550,6 +727,25 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
         }
     }
 
+    @Override
+    public StringSlice getStringBytes(String colName) {
+        return getStringBytes(schema.nameToColumnIndex(colName));
+    }
+
+    @Override
+    public StringSlice getStringBytes(int index) {
+        Object value = readValue(index);
+        if (value == null || value instanceof StringSlice) {
+            return (StringSlice) value;
+        }
+        byte[] bytes = stringLikeToBytes(value);
+        if (bytes == null) {
+            throw new ClientException("Column " + schema.getColumnByIndex(index).getColumnIndexAndName()
+                    + " is not of string type");
+        }
+        return new ReusableStringSlice(bytes);
+    }
+
     @Override
     public byte[] getByteArray(String colName) {
         return getByteArray(schema.nameToColumnIndex(colName));
@@ -694,6 +890,8 @@ public abstract class AbstractBinaryFormatReader implements ClickHouseBinaryForm
     public static byte[] stringLikeToBytes(Object value) {
         if (value instanceof StringValue) {
             return ((StringValue) value).toByteArray();
+        } else if (value instanceof StringSlice) {
+            return ((StringSlice) value).toByteArray();
         } else if (value instanceof String) {
             return ((String) value).getBytes(StandardCharsets.UTF_8);
         }
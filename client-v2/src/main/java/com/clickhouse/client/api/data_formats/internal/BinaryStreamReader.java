@@ -2,6 +2,7 @@ package com.clickhouse.client.api.data_formats.internal;
 
 import com.clickhouse.client.api.ClientException;
 import com.clickhouse.client.api.DataTypeUtils;
+import com.clickhouse.client.api.internal.ClickHouseLZ4InputStream;
 import com.clickhouse.data.ClickHouseColumn;
 import com.clickhouse.data.ClickHouseDataType;
 import com.clickhouse.data.ClickHouseEnum;
@@ -17,6 +18,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
 import java.time.Duration;
@@ -47,6 +50,9 @@ public class BinaryStreamReader {
 
     private final InputStream input;
 
+    // set when input is a decompressed block stream so fixed-width values are decoded from the block directly
+    private final ClickHouseLZ4InputStream blockInput;
+
     private final Logger log;
 
     private final TimeZone timeZone;
@@ -79,6 +85,7 @@ public class BinaryStreamReader {
         this.log = log == null ? NOPLogger.NOP_LOGGER : log;
         this.timeZone = timeZone;
         this.input = input;
+        this.blockInput = input instanceof ClickHouseLZ4InputStream ? (ClickHouseLZ4InputStream) input : null;
         this.bufferAllocator = bufferAllocator;
         this.jsonAsString = jsonAsString;
 
@@ -87,6 +94,40 @@ public class BinaryStreamReader {
         this.binaryStringSupport = binaryStringSupport;
     }
 
+    private BinaryStreamReader(BinaryStreamReader reader, InputStream input, ByteBufferAllocator bufferAllocator) {
+        this.log = reader.log;
+        this.timeZone = reader.timeZone;
+        this.input = input;
+        this.blockInput = input instanceof ClickHouseLZ4InputStream ? (ClickHouseLZ4InputStream) input : null;
+        this.bufferAllocator = bufferAllocator;
+        this.jsonAsString = reader.jsonAsString;
+        this.arrayDefaultTypeHint = reader.arrayDefaultTypeHint;
+        this.binaryStringSupport = reader.binaryStringSupport;
+    }
+
+    /**
+     * Creates a reader of another stream with the same settings. Readers are not thread-safe, so a reader
+     * used by another thread should be created with its own buffer allocator.
+     *
+     * @param input - source of raw data
+     * @param bufferAllocator - byte buffer allocator
+     * @return new reader
+     */
+    public BinaryStreamReader newReader(InputStream input, ByteBufferAllocator bufferAllocator) {
+        return new BinaryStreamReader(this, input, bufferAllocator);
+    }
+
+    /**
+     * Creates a reader of another stream with the same settings and buffer allocator. The new reader should
+     * be used only by the thread that uses this reader.
+     *
+     * @param input - source of raw data
+     * @return new reader
+     */
+    public BinaryStreamReader newReader(InputStream input) {
+        return new BinaryStreamReader(this, input, bufferAllocator);
+    }
+
     /**
      * Reads a value from the internal input stream.
      * @param column - column information
@@ -117,7 +158,7 @@ public class BinaryStreamReader {
     @SuppressWarnings("unchecked")
     private <T> T readValue(ClickHouseColumn column, Class<?> typeHint, boolean stringAsBytes) throws IOException {
         if (column.isNullable()) {
-            int isNull = readByteOrEOF(input);
+            int isNull = readByte();
             if (isNull == 1) { // is Null?
                 return null;
             }
@@ -188,7 +229,7 @@ public class BinaryStreamReader {
                 case Float64:
                     return (T) (Double)readDoubleLE();
                 case Bool:
-                    return (T) Boolean.valueOf(readByteOrEOF(input) == 1);
+                    return (T) Boolean.valueOf(readByte() == 1);
                 case Enum8: {
                     byte enum8Val = (byte) readUnsignedByte();
                     String name = actualColumn.getEnumConstants().nameNullable(enum8Val);
@@ -355,7 +396,8 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public short readShortLE() throws IOException {
-        return readShortLE(input, int16Buff);
+        ByteBuffer block = block(INT16_SIZE);
+        return block == null ? readShortLE(input, int16Buff) : block.getShort();
     }
 
     /**
@@ -379,7 +421,8 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public int readIntLE() throws IOException {
-        return readIntLE(input, int32Buff);
+        ByteBuffer block = block(INT32_SIZE);
+        return block == null ? readIntLE(input, int32Buff) : block.getInt();
     }
 
     /**
@@ -404,7 +447,8 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public long readLongLE() throws IOException {
-        return readLongLE(input, int64Buff);
+        ByteBuffer block = block(INT64_SIZE);
+        return block == null ? readLongLE(input, int64Buff) : block.getLong();
     }
 
     /**
@@ -430,7 +474,8 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public byte readByte() throws IOException {
-        return (byte) readByteOrEOF(input);
+        ByteBuffer block = block(1);
+        return block == null ? (byte) readByteOrEOF(input) : block.get();
     }
 
     /**
@@ -439,7 +484,7 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public short readUnsignedByte() throws IOException {
-        return (short) (readByteOrEOF(input) & 0xFF);
+        return (short) (readByte() & 0xFF);
     }
 
     /**
@@ -448,7 +493,7 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public int readUnsignedShortLE() throws IOException {
-        return readUnsignedShortLE(input, int16Buff);
+        return readShortLE() & 0xFFFF;
     }
 
     /**
@@ -669,7 +714,7 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public ArrayValue readArray(ClickHouseColumn column) throws IOException {
-        int len = readVarInt(input);
+        int len = readVarInt();
 
         ArrayValue array;
         ClickHouseColumn itemTypeColumn = column.getNestedColumns().get(0);
@@ -690,7 +735,11 @@ public class BinaryStreamReader {
 
     public ArrayValue readArrayItem(ClickHouseColumn itemTypeColumn, int len) throws IOException {
         ArrayValue array;
-        if (itemTypeColumn.isNullable()) {
+        if (len == 0) {
+            array = new ArrayValue(resolveArrayItemClass(itemTypeColumn), 0);
+        } else if (!itemTypeColumn.isNullable() && (array = readPrimitiveArray(itemTypeColumn, len)) != null) {
+            return array;
+        } else if (itemTypeColumn.isNullable()) {
             Class<?> itemClass = resolveArrayItemClass(itemTypeColumn);
             array = new ArrayValue(itemClass, len);
             for (int i = 0; i < len; i++) {
@@ -737,6 +786,131 @@ public class BinaryStreamReader {
         return array;
     }
 
+    /**
+     * Returns the current decompressed block when the input is a block stream and the block has at least
+     * {@code len} unread bytes. Values read from the returned buffer are consumed from the input.
+     * When a value crosses the block boundary it is read from the stream that refills the block.
+     *
+     * @param len - number of bytes to be read
+     * @return little-endian block buffer positioned at the next unread byte or {@code null}
+     */
+    private ByteBuffer block(int len) {
+        if (blockInput != null) {
+            ByteBuffer block = blockInput.getBlockBuffer();
+            if (block.remaining() >= len) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads values of a not nullable numeric array with a single read of the whole block. Values are decoded
+     * from a little-endian buffer view into a primitive array of the same type {@link #readValue} returns
+     * for the element, so no boxing or reflective array access is done.
+     *
+     * @param itemTypeColumn - column of array elements
+     * @param len - number of elements
+     * @return array value or {@code null} if element type has no bulk read
+     * @throws IOException when IO error occurs
+     */
+    private ArrayValue readPrimitiveArray(ClickHouseColumn itemTypeColumn, int len) throws IOException {
+        ClickHouseDataType dataType = itemTypeColumn.getDataType();
+        int size;
+        switch (dataType) {
+            case Int8:
+            case UInt8:
+            case Bool:
+                size = 1;
+                break;
+            case Int16:
+            case UInt16:
+                size = INT16_SIZE;
+                break;
+            case Int32:
+            case UInt32:
+            case Float32:
+                size = INT32_SIZE;
+                break;
+            case Int64:
+            case Float64:
+                size = INT64_SIZE;
+                break;
+            default:
+                return null;
+        }
+
+        int bytesLen = Math.multiplyExact(len, size);
+        ByteBuffer source = block(bytesLen);
+        if (source == null) {
+            source = ByteBuffer.wrap(readNBytes(input, bufferAllocator.allocate(bytesLen), 0, bytesLen), 0, bytesLen);
+        }
+        ByteBuffer buffer = source.slice().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(bytesLen);
+        source.position(source.position() + bytesLen);
+        lastDataColumn = itemTypeColumn;
+        switch (dataType) {
+            case Int8: {
+                byte[] values = new byte[len];
+                buffer.get(values);
+                return new ArrayValue(byte.class, values);
+            }
+            case UInt8: {
+                short[] values = new short[len];
+                for (int i = 0; i < len; i++) {
+                    values[i] = (short) (buffer.get(i) & 0xFF);
+                }
+                return new ArrayValue(short.class, values);
+            }
+            case Bool: {
+                boolean[] values = new boolean[len];
+                for (int i = 0; i < len; i++) {
+                    values[i] = buffer.get(i) == 1;
+                }
+                return new ArrayValue(boolean.class, values);
+            }
+            case Int16: {
+                short[] values = new short[len];
+                buffer.asShortBuffer().get(values);
+                return new ArrayValue(short.class, values);
+            }
+            case UInt16: {
+                int[] values = new int[len];
+                for (int i = 0; i < len; i++) {
+                    values[i] = buffer.getShort(i * INT16_SIZE) & 0xFFFF;
+                }
+                return new ArrayValue(int.class, values);
+            }
+            case Int32: {
+                int[] values = new int[len];
+                buffer.asIntBuffer().get(values);
+                return new ArrayValue(int.class, values);
+            }
+            case UInt32: {
+                long[] values = new long[len];
+                for (int i = 0; i < len; i++) {
+                    values[i] = buffer.getInt(i * INT32_SIZE) & 0xFFFFFFFFL;
+                }
+                return new ArrayValue(long.class, values);
+            }
+            case Float32: {
+                float[] values = new float[len];
+                buffer.asFloatBuffer().get(values);
+                return new ArrayValue(float.class, values);
+            }
+            case Int64: {
+                long[] values = new long[len];
+                buffer.asLongBuffer().get(values);
+                return new ArrayValue(long.class, values);
+            }
+            default: {
+                double[] values = new double[len];
+                buffer.asDoubleBuffer().get(values);
+                return new ArrayValue(double.class, values);
+            }
+        }
+    }
+
     /**
      * Resolves the Java class that {@link #readValue} actually returns for a given column
      * so that it can be used as the component type of an array.
@@ -833,6 +1007,18 @@ public class BinaryStreamReader {
             }
         }
 
+        /**
+         * Creates array value backed by the given array.
+         *
+         * @param itemType - type of items
+         * @param array - array of items, primitive array when item type is primitive
+         */
+        public ArrayValue(Class<?> itemType, Object array) {
+            this.itemType = itemType;
+            this.length = Array.getLength(array);
+            this.array = array;
+        }
+
         public int length() {
             return length;
         }
@@ -967,7 +1153,7 @@ public class BinaryStreamReader {
      * @throws IOException when IO error occurs
      */
     public Map<?, ?> readMap(ClickHouseColumn column) throws IOException {
-        int len = readVarInt(input);
+        int len = readVarInt();
         if (len == 0) {
             return Collections.emptyMap();
         }
@@ -1086,6 +1272,35 @@ public class BinaryStreamReader {
         return value;
     }
 
+    /**
+     * Reads a var-int from the internal input stream.
+     *
+     * @return int value
+     * @throws IOException when IO error occurs
+     */
+    private int readVarInt() throws IOException {
+        ByteBuffer block = block(5);
+        if (block == null) {
+            return readVarInt(input);
+        }
+
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            byte b = block.get();
+            if (i == 4 && (b & 0xF8) != 0) {
+                throw new IOException("VarInt is too large for int");
+            }
+
+            value |= (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed VarInt");
+    }
+
     /**
      * Reads a varint from input stream.
      *
@@ -1288,10 +1503,16 @@ public class BinaryStreamReader {
      * @throws IOException
      */
     public String readString() throws IOException {
-        int len = readVarInt(input);
+        int len = readVarInt();
         if (len == 0) {
             return "";
         }
+        ByteBuffer block = block(len);
+        if (block != null) {
+            int position = block.position();
+            block.position(position + len);
+            return new String(block.array(), block.arrayOffset() + position, len, StandardCharsets.UTF_8);
+        }
         byte[] dest = len > STRING_BUFF.length ? new byte[len] : STRING_BUFF;
         readNBytes(input, dest, 0, len);
         return new String(dest, 0, len, StandardCharsets.UTF_8);
@@ -1309,6 +1530,28 @@ public class BinaryStreamReader {
         return new StringValue(readStringBytes(input, readVarInt(input)));
     }
 
+    /**
+     * Reads a {@code String} or {@code FixedString} value into a reusable slice. The slice backing array is
+     * reused, so nothing is allocated when the value fits into it.
+     *
+     * @param column - string column
+     * @param reuse - slice to fill, or {@code null} to create a new one
+     * @return filled slice, or {@code null} if the value is null
+     * @throws IOException when IO error occurs
+     */
+    public ReusableStringSlice readStringSlice(ClickHouseColumn column, ReusableStringSlice reuse) throws IOException {
+        if (column.isNullable() && readByteOrEOF(input) == 1) {
+            return null;
+        }
+        int len = column.getDataType() == ClickHouseDataType.FixedString ? column.getPrecision() : readVarInt(input);
+        ReusableStringSlice slice = reuse == null ? new ReusableStringSlice() : reuse;
+        byte[] dest = slice.prepare(len);
+        if (len > 0) {
+            readNBytes(input, dest, 0, len);
+        }
+        return slice;
+    }
+
     /**
      * Reads the raw bytes of a string from the input stream given its length.
      *
@@ -1414,10 +1657,10 @@ public class BinaryStreamReader {
             if (tag == ClickHouseDataType.DateTime64.getBinTag() - 1) {
                 // without timezone
                 byte scale = readByte();
-                return ClickHouseColumn.of("v", "DateTime64(" + scale + ")");
+                return ColumnTypeCache.get("DateTime64(" + scale + ")");
             } else if (tag == ClickHouseDataType.CUSTOM_TYPE_BIN_TAG) {
                 String typeName = readString(input);
-                return ClickHouseColumn.of("v", typeName);
+                return ColumnTypeCache.get(typeName);
             } else if (tag == ClickHouseDataType.TUPLE_WITH_NAMES_BIN_TAG || tag == ClickHouseDataType.TUPLE_WITHOUT_NAMES_BIN_TAG) {
                 int size = readVarInt(input);
                 StringBuilder typeNameBuilder = new StringBuilder(SB_INIT_SIZE);
@@ -1433,7 +1676,7 @@ public class BinaryStreamReader {
                 }
                 typeNameBuilder.setLength(typeNameBuilder.length() - 1);
                 typeNameBuilder.append(")");
-                return ClickHouseColumn.of("v", typeNameBuilder.toString());
+                return ColumnTypeCache.get(typeNameBuilder.toString());
             } else {
                 throw new ClientException("Unsupported data type with tag " + tag);
             }
@@ -1441,16 +1684,16 @@ public class BinaryStreamReader {
         switch (type) {
             case Array: {
                 ClickHouseColumn elementColumn = readDynamicData();
-                return ClickHouseColumn.of("v", "Array(" + elementColumn.getOriginalTypeName() + ")");
+                return ColumnTypeCache.get("Array(" + elementColumn.getOriginalTypeName() + ")");
             }
             case DateTime32: {
                 String timezone = readString(input);
-                return ClickHouseColumn.of("v", "DateTime32(" + timezone + ")");
+                return ColumnTypeCache.get("DateTime32(" + timezone + ")");
             }
             case DateTime64: {
                 byte scale = readByte();
                 String timezone = readString(input);
-                return ClickHouseColumn.of("v", "DateTime64(" + scale + (timezone.isEmpty() ? "" : ", " + timezone) +")");
+                return ColumnTypeCache.get("DateTime64(" + scale + (timezone.isEmpty() ? "" : ", " + timezone) +")");
             }
             case Decimal:
             case Decimal32:
@@ -1459,11 +1702,11 @@ public class BinaryStreamReader {
             case Decimal256: {
                 int precision = readByte();
                 int scale = readByte();
-                return ClickHouseColumn.of("v", ClickHouseDataType.binTag2Type.get(tag), false, precision, scale);
+                return ColumnTypeCache.getDecimal(type, precision, scale);
             }
             case Dynamic: {
                 int maxTypes = readVarInt(input);
-                return ClickHouseColumn.of("v", "Dynamic(" + maxTypes + ")");
+                return ColumnTypeCache.get("Dynamic(" + maxTypes + ")");
             }
             case Enum:
             case Enum8:
@@ -1485,7 +1728,7 @@ public class BinaryStreamReader {
             }
             case FixedString: {
                 int length = readVarInt(input);
-                return ClickHouseColumn.of("v", "FixedString(" + length + ")");
+                return ColumnTypeCache.get("FixedString(" + length + ")");
             }
             case IntervalHour:
             case IntervalMinute:
@@ -1503,7 +1746,7 @@ public class BinaryStreamReader {
                 if (type == null) {
                     throw new ClientException("Unsupported interval kind: " + intervalKind);
                 }
-                return ClickHouseColumn.of("v", type, false, 0, 0);
+                return ColumnTypeCache.get(type);
             }
             case JSON: {
                 byte serializationVersion = readByte();
@@ -1527,16 +1770,16 @@ public class BinaryStreamReader {
                 }
                 typeDef.setLength(typeDef.length() - 1);
                 typeDef.append(')');
-                return ClickHouseColumn.of("v", typeDef.toString());
+                return ColumnTypeCache.get(typeDef.toString());
             }
             case LowCardinality: {
                 ClickHouseColumn column = readDynamicData();
-                return ClickHouseColumn.of("v", "LowCardinality(" + column.getOriginalTypeName() + ")");
+                return ColumnTypeCache.get("LowCardinality(" + column.getOriginalTypeName() + ")");
             }
             case Map: {
                 ClickHouseColumn keyInfo = readDynamicData();
                 ClickHouseColumn valueInfo = readDynamicData();
-                return ClickHouseColumn.of("v", "Map(" + keyInfo.getOriginalTypeName() + "," + valueInfo.getOriginalTypeName() + ")");
+                return ColumnTypeCache.get("Map(" + keyInfo.getOriginalTypeName() + "," + valueInfo.getOriginalTypeName() + ")");
             }
             case Nested: {
                 int size = readVarInt(input);
@@ -1548,11 +1791,11 @@ public class BinaryStreamReader {
                 }
                 nested.setLength(nested.length() - 1);
                 nested.append(')');
-                return ClickHouseColumn.of("v", nested.toString());
+                return ColumnTypeCache.get(nested.toString());
             }
             case Nullable:  {
                 ClickHouseColumn column = readDynamicData();
-                return ClickHouseColumn.of("v", "Nullable(" + column.getOriginalTypeName() + ")");
+                return ColumnTypeCache.get("Nullable(" + column.getOriginalTypeName() + ")");
             }
             case QBit: {
                 // 0x36 <element_type_encoding> <var_uint dimension> -> QBit(T, N).
@@ -1560,11 +1803,11 @@ public class BinaryStreamReader {
                 // Dynamic/Variant/JSON column does not desynchronize the stream.
                 ClickHouseColumn elementColumn = readDynamicData();
                 int dimension = readVarInt(input);
-                return ClickHouseColumn.of("v", "QBit(" + elementColumn.getOriginalTypeName() + ", " + dimension + ")");
+                return ColumnTypeCache.get("QBit(" + elementColumn.getOriginalTypeName() + ", " + dimension + ")");
             }
             case Time64: {
                 byte precision = readByte();
-                return ClickHouseColumn.of("v", "Time64(" + precision + ")");
+                return ColumnTypeCache.get("Time64(" + precision + ")");
             }
             case Variant: {
                 int variants = readVarInt(input);
@@ -1576,12 +1819,12 @@ public class BinaryStreamReader {
                 }
                 variant.setLength(variant.length() - 1);
                 variant.append(")");
-                return  ClickHouseColumn.of("v", "Variant(" + variant + ")");
+                return  ColumnTypeCache.get("Variant(" + variant + ")");
             }
             case AggregateFunction:
                 throw new ClientException("Aggregate functions are not supported yet");
             default:
-                return ClickHouseColumn.of("v", type, false, 0, 0);
+                return ColumnTypeCache.get(type);
         }
     }
 
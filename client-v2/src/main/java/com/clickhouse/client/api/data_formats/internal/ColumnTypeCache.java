@@ -0,0 +1,97 @@
+package com.clickhouse.client.api.data_formats.internal;
+
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseDataType;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of column descriptors used to decode and encode values of {@code Dynamic}, {@code Variant} and
+ * {@code JSON} columns. Type of such values is sent per value, so without the cache every value would cause
+ * a full type name parse.
+ * <p>
+ * Descriptors are created with column name {@code v}. The cache keeps parsed descriptors to itself and returns
+ * a {@link ClickHouseColumn#copy() copy} on every lookup, so a caller that changes a descriptor does not affect
+ * other readers and writers. Copying is much cheaper than parsing. The cache is bounded: when it is full, it is
+ * cleared and filled again, so a stream with unusual variety of types cannot grow it without limit.
+ */
+public final class ColumnTypeCache {
+
+    static final String COLUMN_NAME = "v";
+
+    static final int MAX_SIZE = 4096;
+
+    private static final ConcurrentHashMap<String, ClickHouseColumn> TYPE_NAME_CACHE = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<String, ClickHouseColumn> DECIMAL_CACHE = new ConcurrentHashMap<>();
+
+    private static final ClickHouseColumn[] SIMPLE_TYPE_CACHE = new ClickHouseColumn[ClickHouseDataType.values().length];
+
+    private ColumnTypeCache() {
+    }
+
+    /**
+     * Returns column descriptor for a type name.
+     *
+     * @param typeName - ClickHouse type name, for example {@code Array(Nullable(String))}
+     * @return copy of the cached column descriptor
+     */
+    public static ClickHouseColumn get(String typeName) {
+        ClickHouseColumn column = TYPE_NAME_CACHE.get(typeName);
+        if (column == null) {
+            column = ClickHouseColumn.of(COLUMN_NAME, typeName);
+            if (TYPE_NAME_CACHE.size() >= MAX_SIZE) {
+                TYPE_NAME_CACHE.clear();
+            }
+            ClickHouseColumn existing = TYPE_NAME_CACHE.putIfAbsent(typeName, column);
+            if (existing != null) {
+                column = existing;
+            }
+        }
+        return column.copy();
+    }
+
+    /**
+     * Returns column descriptor for a type without parameters.
+     *
+     * @param dataType - data type
+     * @return copy of the cached column descriptor
+     */
+    public static ClickHouseColumn get(ClickHouseDataType dataType) {
+        ClickHouseColumn column = SIMPLE_TYPE_CACHE[dataType.ordinal()];
+        if (column == null) {
+            // benign race: at worst an equal descriptor is created twice
+            column = ClickHouseColumn.of(COLUMN_NAME, dataType, false, 0, 0);
+            SIMPLE_TYPE_CACHE[dataType.ordinal()] = column;
+        }
+        return column.copy();
+    }
+
+    /**
+     * Returns column descriptor for a decimal type.
+     *
+     * @param dataType - one of decimal types
+     * @param precision - precision
+     * @param scale - scale
+     * @return copy of the cached column descriptor
+     */
+    public static ClickHouseColumn getDecimal(ClickHouseDataType dataType, int precision, int scale) {
+        String key = dataType.name() + '(' + precision + ',' + scale + ')';
+        ClickHouseColumn column = DECIMAL_CACHE.get(key);
+        if (column == null) {
+            column = ClickHouseColumn.of(COLUMN_NAME, dataType, false, precision, scale);
+            if (DECIMAL_CACHE.size() >= MAX_SIZE) {
+                DECIMAL_CACHE.clear();
+            }
+            ClickHouseColumn existing = DECIMAL_CACHE.putIfAbsent(key, column);
+            if (existing != null) {
+                column = existing;
+            }
+        }
+        return column.copy();
+    }
+
+    static int size() {
+        return TYPE_NAME_CACHE.size() + DECIMAL_CACHE.size();
+    }
+}
@@ -0,0 +1,413 @@
+package com.clickhouse.client.api.data_formats.internal;
+
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseDataType;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Reads {@code Native} format blocks as raw bytes without decoding values, so blocks can be decoded by other threads.
+ * The size of a column is found by skipping exactly the bytes {@link BinaryStreamReader} reads for it.
+ * <p>
+ * Some types (for example {@code Variant}, {@code Dynamic} and {@code JSON}) are self-describing per value and are
+ * not skipped. When such a column is met {@link #nextBlock()} returns {@code null} and {@link #getRemaining()}
+ * returns the stream positioned at the start of that block.
+ * <p>
+ * Input is read through an internal buffer because most reads are a few bytes long.
+ */
+public class NativeBlockSplitter {
+
+    private static final int INITIAL_BLOCK_SIZE = 64 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private static final long LOW_CARDINALITY_VERSION = 1;
+
+    private static final long INDEX_TYPE_MASK = 0xFF;
+
+    private static final long NEED_GLOBAL_DICTIONARY_BIT = 1L << 8;
+
+    private static final long HAS_ADDITIONAL_KEYS_BIT = 1L << 9;
+
+    private final InputStream input;
+
+    private final boolean jsonAsString;
+
+    private byte[] block = new byte[INITIAL_BLOCK_SIZE];
+
+    private int size;
+
+    private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private InputStream remaining;
+
+    /**
+     * @param input - stream of {@code Native} format data
+     * @param jsonAsString - indicates if {@code JSON} values are sent as strings
+     */
+    public NativeBlockSplitter(InputStream input, boolean jsonAsString) {
+        this.input = input;
+        this.jsonAsString = jsonAsString;
+    }
+
+    /**
+     * Reads the next block.
+     *
+     * @return bytes of the block or {@code null} when there are no more blocks that can be split
+     * @throws IOException when failed to read data
+     */
+    public byte[] nextBlock() throws IOException {
+        if (remaining != null) {
+            return null;
+        }
+        size = 0;
+        int first = read();
+        if (first == -1) {
+            return null;
+        }
+        append((byte) first);
+        int nColumns = readVarInt(first);
+        int nRows = readVarInt(readByte());
+        for (int i = 0; i < nColumns; i++) {
+            String name = readString();
+            String type = readString();
+            ClickHouseColumn column = ClickHouseColumn.of(name, type);
+            if (!skipColumn(column, nRows)) {
+                remaining = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                        new ByteArrayInputStream(block, 0, size),
+                        new ByteArrayInputStream(buffer, position, limit - position),
+                        input)));
+                return null;
+            }
+        }
+        return Arrays.copyOf(block, size);
+    }
+
+    /**
+     * Returns the stream positioned at the start of a block that cannot be split.
+     *
+     * @return stream of unread data or {@code null} when all blocks were read
+     */
+    public InputStream getRemaining() {
+        return remaining;
+    }
+
+    private boolean skipColumn(ClickHouseColumn column, int nRows) throws IOException {
+        if (column.isLowCardinality()) {
+            return nRows == 0 || skipLowCardinality(column, nRows);
+        }
+        if (column.isArray()) {
+            ClickHouseColumn itemColumn = column.getNestedColumns().get(0);
+            long prevOffset = 0;
+            int offsetsStart = size;
+            skip(8L * nRows);
+            for (int i = 0; i < nRows; i++) {
+                long offset = getLongLE(offsetsStart + i * 8);
+                for (long j = prevOffset; j < offset; j++) {
+                    if (!skipValue(itemColumn)) {
+                        return false;
+                    }
+                }
+                prevOffset = offset;
+            }
+            return true;
+        }
+        for (int i = 0; i < nRows; i++) {
+            if (!skipValue(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean skipLowCardinality(ClickHouseColumn column, int nRows) throws IOException {
+        long version = readLongLE();
+        long flags = readLongLE();
+        if (version != LOW_CARDINALITY_VERSION || (flags & NEED_GLOBAL_DICTIONARY_BIT) != 0
+                || (flags & HAS_ADDITIONAL_KEYS_BIT) == 0 || (flags & INDEX_TYPE_MASK) > 3) {
+            // not supported by the decoder too
+            return false;
+        }
+        ClickHouseColumn keyColumn = ClickHouseColumn.of(column.getColumnName(), dictionaryTypeName(column));
+        long nKeys = readLongLE();
+        for (long i = 0; i < nKeys; i++) {
+            if (!skipValue(keyColumn)) {
+                return false;
+            }
+        }
+        readLongLE(); // number of indexes
+        skip((long) nRows << (int) (flags & INDEX_TYPE_MASK));
+        return true;
+    }
+
+    private static String dictionaryTypeName(ClickHouseColumn column) {
+        String typeName = unwrapType(column.getOriginalTypeName(), "LowCardinality(");
+        return unwrapType(typeName, "Nullable(");
+    }
+
+    private static String unwrapType(String typeName, String wrapper) {
+        if (typeName.startsWith(wrapper) && typeName.endsWith(")")) {
+            return typeName.substring(wrapper.length(), typeName.length() - 1).trim();
+        }
+        return typeName;
+    }
+
+    /**
+     * Skips a value the way {@link BinaryStreamReader#readValue(ClickHouseColumn)} reads it.
+     *
+     * @return {@code false} if the type cannot be skipped
+     */
+    private boolean skipValue(ClickHouseColumn column) throws IOException {
+        if (column.isNullable() && readByte() == 1) {
+            return true;
+        }
+
+        ClickHouseDataType dataType = column.getDataType();
+        switch (dataType) {
+            case Nothing:
+                return true;
+            case Int8:
+            case UInt8:
+            case Bool:
+            case Enum8:
+                skip(1);
+                return true;
+            case Int16:
+            case UInt16:
+            case Enum16:
+            case Date:
+            case BFloat16:
+                skip(2);
+                return true;
+            case Int32:
+            case UInt32:
+            case Float32:
+            case Date32:
+            case DateTime:
+            case DateTime32:
+            case Time:
+            case IPv4:
+            case Decimal32:
+                skip(4);
+                return true;
+            case Int64:
+            case UInt64:
+            case Float64:
+            case DateTime64:
+            case Time64:
+            case Decimal64:
+            case IntervalYear:
+            case IntervalQuarter:
+            case IntervalMonth:
+            case IntervalWeek:
+            case IntervalDay:
+            case IntervalHour:
+            case IntervalMinute:
+            case IntervalSecond:
+            case IntervalMicrosecond:
+            case IntervalMillisecond:
+            case IntervalNanosecond:
+                skip(8);
+                return true;
+            case Int128:
+            case UInt128:
+            case IPv6:
+            case UUID:
+            case Decimal128:
+            case Point:
+                skip(16);
+                return true;
+            case Int256:
+            case UInt256:
+            case Decimal256:
+                skip(32);
+                return true;
+            case Decimal:
+                skip(decimalSize(column.getPrecision()));
+                return true;
+            case FixedString:
+                skip(column.getPrecision());
+                return true;
+            case String:
+                skip(readVarInt(readByte()));
+                return true;
+            case JSON:
+                if (!jsonAsString) {
+                    return false;
+                }
+                skip(readVarInt(readByte()));
+                return true;
+            case Ring:
+            case LineString:
+                skip(16L * readVarInt(readByte()));
+                return true;
+            case Polygon:
+            case MultiLineString:
+                return skipGeo(1);
+            case MultiPolygon:
+                return skipGeo(2);
+            case Array: {
+                ClickHouseColumn itemColumn = column.getNestedColumns().get(0);
+                int len = readVarInt(readByte());
+                for (int i = 0; i < len; i++) {
+                    if (!skipValue(itemColumn)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case Map: {
+                int len = readVarInt(readByte());
+                for (int i = 0; i < len; i++) {
+                    if (!skipValue(column.getKeyInfo()) || !skipValue(column.getValueInfo())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case Tuple:
+                for (ClickHouseColumn nested : column.getNestedColumns()) {
+                    if (!skipValue(nested)) {
+                        return false;
+                    }
+                }
+                return true;
+            case SimpleAggregateFunction:
+                return skipValue(column.getNestedColumns().get(0));
+            default:
+                return false;
+        }
+    }
+
+    private boolean skipGeo(int depth) throws IOException {
+        int count = readVarInt(readByte());
+        for (int i = 0; i < count; i++) {
+            if (depth == 1) {
+                skip(16L * readVarInt(readByte()));
+            } else {
+                skipGeo(depth - 1);
+            }
+        }
+        return true;
+    }
+
+    private static int decimalSize(int precision) {
+        if (precision <= ClickHouseDataType.Decimal32.getMaxScale()) {
+            return 4;
+        } else if (precision <= ClickHouseDataType.Decimal64.getMaxScale()) {
+            return 8;
+        } else if (precision <= ClickHouseDataType.Decimal128.getMaxScale()) {
+            return 16;
+        }
+        return 32;
+    }
+
+    private String readString() throws IOException {
+        int len = readVarInt(readByte());
+        int start = size;
+        skip(len);
+        return new String(block, start, len, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(int first) throws IOException {
+        int value = first & 0x7F;
+        int b = first;
+        for (int i = 1; (b & 0x80) != 0; i++) {
+            if (i == 5) {
+                throw new IOException("VarInt is too large for int");
+            }
+            b = readByte();
+            value |= (b & 0x7F) << (7 * i);
+        }
+        return value;
+    }
+
+    private long readLongLE() throws IOException {
+        skip(8);
+        return getLongLE(size - 8);
+    }
+
+    private long getLongLE(int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (block[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = input.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private int readByte() throws IOException {
+        int b = read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of stream");
+        }
+        append((byte) b);
+        return b;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        block[size++] = b;
+    }
+
+    private void skip(long len) throws IOException {
+        if (len < 0 || len > Integer.MAX_VALUE - 8 - size) {
+            throw new ClientException("Block is too large to be split: " + len);
+        }
+        int n = (int) len;
+        ensureCapacity(n);
+        while (n > 0) {
+            int read;
+            if (position < limit) {
+                read = Math.min(n, limit - position);
+                System.arraycopy(buffer, position, block, size, read);
+                position += read;
+            } else if (n >= buffer.length) {
+                // large values are read directly into the block
+                read = input.read(block, size, n);
+            } else {
+                read = fill() ? 0 : -1;
+            }
+            if (read < 0) {
+                throw new EOFException("Unexpected end of stream");
+            }
+            size += read;
+            n -= read;
+        }
+    }
+
+    private void ensureCapacity(int len) {
+        if (size + len > block.length) {
+            long capacity = Math.max((long) block.length * 2, (long) size + len);
+            block = Arrays.copyOf(block, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        }
+    }
+}
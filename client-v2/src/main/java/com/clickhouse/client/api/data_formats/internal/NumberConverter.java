@@ -155,6 +155,47 @@ public class NumberConverter {
         }
     }
 
+    /**
+     * Coerces a parsed JSON element to a boxed primitive type. JSON parsers
+     * may materialize numeric array elements as different boxed types
+     * (e.g. {@code Integer}, {@code Long}, {@code Double}, {@code BigDecimal}),
+     * so element-level conversion is necessary before populating a typed
+     * primitive array. The {@code componentType} is always one of the eight
+     * Java primitives; unsupported component types are rejected explicitly
+     * to keep the helper total.
+     */
+    public static Object coerceToComponent(Object value, Class<?> componentType) {
+        if (componentType == byte.class) {
+            return toByte(value);
+        }
+        if (componentType == short.class) {
+            return toShort(value);
+        }
+        if (componentType == int.class) {
+            return toInt(value);
+        }
+        if (componentType == long.class) {
+            return toLong(value);
+        }
+        if (componentType == float.class) {
+            return toFloat(value);
+        }
+        if (componentType == double.class) {
+            return toDouble(value);
+        }
+        if (componentType == boolean.class) {
+            if (value instanceof Boolean) {
+                return value;
+            }
+            if (value instanceof Number) {
+                return ((Number) value).longValue() != 0;
+            }
+            throw new IllegalArgumentException(
+                    "Cannot convert " + value.getClass().getName() + " to boolean array element");
+        }
+        throw new IllegalArgumentException("Unsupported component type: " + componentType.getName());
+    }
+
     static Map<NumberType, Function<Object, ?>> getNumberConverters() {
         Map<NumberType, Function<Object, ?>> converters = new HashMap<>();
         converters.put(NumberType.Byte, NumberConverter::toByte);
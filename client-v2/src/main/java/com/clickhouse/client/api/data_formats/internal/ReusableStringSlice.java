@@ -0,0 +1,21 @@
+package com.clickhouse.client.api.data_formats.internal;
+
+import com.clickhouse.client.api.data_formats.StringSlice;
+
+/**
+ * String slice that readers fill with values of the current row.
+ */
+public final class ReusableStringSlice extends StringSlice {
+
+    public ReusableStringSlice() {
+    }
+
+    public ReusableStringSlice(byte[] bytes) {
+        super(bytes);
+    }
+
+    @Override
+    public byte[] prepare(int length) {
+        return super.prepare(length);
+    }
+}
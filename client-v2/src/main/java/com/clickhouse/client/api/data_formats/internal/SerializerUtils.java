@@ -2,6 +2,7 @@ package com.clickhouse.client.api.data_formats.internal;
 
 import com.clickhouse.client.api.Client;
 import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.serde.POJOConstructorDeserializer;
 import com.clickhouse.client.api.serde.POJOFieldDeserializer;
 import com.clickhouse.data.ClickHouseAggregateFunction;
 import com.clickhouse.data.ClickHouseColumn;
@@ -14,18 +15,24 @@ import com.clickhouse.data.value.ClickHouseGeoPointValue;
 import com.clickhouse.data.value.ClickHouseGeoPolygonValue;
 import com.clickhouse.data.value.ClickHouseGeoRingValue;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.Duration;
@@ -48,6 +55,7 @@ import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
@@ -229,9 +237,9 @@ public class SerializerUtils {
         ClickHouseColumn column;
         if (value instanceof ZonedDateTime) {
             ZonedDateTime dt = (ZonedDateTime) value;
-            column = ClickHouseColumn.of("v", "DateTime64(9, " + dt.getZone().getId() + ")");
+            column = ColumnTypeCache.get("DateTime64(9, " + dt.getZone().getId() + ")");
         } else if (value instanceof LocalDateTime) {
-            column = ClickHouseColumn.of("v", "DateTime64(9, " + ZoneId.systemDefault().getId() + ")");
+            column = ColumnTypeCache.get("DateTime64(9, " + ZoneId.systemDefault().getId() + ")");
         } else if (value instanceof BigDecimal) {
             BigDecimal d = (BigDecimal) value;
             // A DecimalN(S) column is Decimal(P, S) with P fixed to the width's precision
@@ -270,20 +278,20 @@ public class SerializerUtils {
             }
             int scale = decType.getMaxScale() - integerDigits;
 
-            column = ClickHouseColumn.of("v", decType.name() + "(" + scale + ")");
+            column = ColumnTypeCache.get(decType.name() + "(" + scale + ")");
         } else if (value instanceof Map<?,?>) {
             Map<?, ?> map = (Map<?, ?>) value;
             // TODO: handle empty map?
             Map.Entry<?, ?> entry = map.entrySet().iterator().next();
             ClickHouseColumn keyInfo = valueToColumnForDynamicType(entry.getKey());
             ClickHouseColumn valueInfo = valueToColumnForDynamicType(entry.getValue());
-            column = ClickHouseColumn.of("v", "Map(" + keyInfo.getOriginalTypeName() + ", " + valueInfo.getOriginalTypeName() + ")");
+            column = ColumnTypeCache.get("Map(" + keyInfo.getOriginalTypeName() + ", " + valueInfo.getOriginalTypeName() + ")");
         } else if (value instanceof Enum<?>) {
             column = enumValue2Column((Enum)value);
         } else if (value instanceof List<?> || (value !=null && value.getClass().isArray())) {
             column = listValue2Column(value);
         } else if (value instanceof Instant) {
-            column = ClickHouseColumn.of("v", "Time64(9)");
+            column = ColumnTypeCache.get("Time64(9)");
         } else if (value == null) {
             column = PREDEFINED_TYPE_COLUMNS.get(Void.class);
         } else {
@@ -357,17 +365,26 @@ public class SerializerUtils {
                 }
             }
 
-            column = ClickHouseColumn.of("v", typeStr.toString());
+            column = ColumnTypeCache.get(typeStr.toString());
         } else {
             column = null;
         }
         return column;
     }
 
+    private static final ClassValue<ClickHouseColumn> ENUM_COLUMNS = new ClassValue<ClickHouseColumn>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ClickHouseColumn computeValue(Class<?> type) {
+            ClickHouseEnum clickHouseEnum= ClickHouseEnum.of((Class<? extends Enum>) type);
+            return new ClickHouseColumn(clickHouseEnum.size() > 127 ? ClickHouseDataType.Enum16 : ClickHouseDataType.Enum8, "v", "Enum16", false, false, Collections.emptyList(), Collections.emptyList(),
+                    clickHouseEnum);
+        }
+    };
+
     private static ClickHouseColumn enumValue2Column(Enum<?> enumValue) {
-        ClickHouseEnum clickHouseEnum= ClickHouseEnum.of(enumValue.getClass());
-        return new ClickHouseColumn(clickHouseEnum.size() > 127 ? ClickHouseDataType.Enum16 : ClickHouseDataType.Enum8, "v", "Enum16", false, false, Collections.emptyList(), Collections.emptyList(),
-                clickHouseEnum);
+        // enum constants are read by reflection, so the column is built once per enum class
+        return ENUM_COLUMNS.get(enumValue.getClass());
     }
 
     public static void writeDynamicTypeTag(OutputStream stream, ClickHouseColumn typeColumn)
@@ -519,6 +536,10 @@ public class SerializerUtils {
             return;
         }
 
+        if (writePrimitiveArray(stream, value, column.getNestedColumns().get(0))) {
+            return;
+        }
+
         boolean isArray = value.getClass().isArray();
         if (value instanceof List<?> || isArray) {
             List<?> list = isArray ? null : (List<?>)value;
@@ -539,6 +560,63 @@ public class SerializerUtils {
         }
     }
 
+    private static final int PRIMITIVE_ARRAY_CHUNK = 8192;
+
+    /**
+     * Writes a primitive array which Java type matches not nullable element type with a bulk encode
+     * into a little-endian buffer instead of boxing and writing each element.
+     *
+     * @return {@code true} if value was written
+     */
+    private static boolean writePrimitiveArray(OutputStream stream, Object value, ClickHouseColumn itemColumn)
+            throws IOException {
+        if (itemColumn.isNullable()) {
+            return false;
+        }
+        ClickHouseDataType dataType = itemColumn.getDataType();
+        int size;
+        if (value instanceof float[] && dataType == ClickHouseDataType.Float32) {
+            size = 4;
+        } else if (value instanceof double[] && dataType == ClickHouseDataType.Float64) {
+            size = 8;
+        } else if (value instanceof long[] && dataType == ClickHouseDataType.Int64) {
+            size = 8;
+        } else if (value instanceof int[] && dataType == ClickHouseDataType.Int32) {
+            size = 4;
+        } else if (value instanceof short[] && dataType == ClickHouseDataType.Int16) {
+            size = 2;
+        } else if (value instanceof byte[] && dataType == ClickHouseDataType.Int8) {
+            byte[] bytes = (byte[]) value;
+            writeVarInt(stream, bytes.length);
+            stream.write(bytes);
+            return true;
+        } else {
+            return false;
+        }
+
+        int len = Array.getLength(value);
+        writeVarInt(stream, len);
+        int chunkLen = Math.min(len, PRIMITIVE_ARRAY_CHUNK / size);
+        ByteBuffer buffer = ByteBuffer.allocate(chunkLen * size).order(ByteOrder.LITTLE_ENDIAN);
+        for (int offset = 0; offset < len; offset += chunkLen) {
+            int n = Math.min(chunkLen, len - offset);
+            buffer.clear();
+            if (value instanceof float[]) {
+                buffer.asFloatBuffer().put((float[]) value, offset, n);
+            } else if (value instanceof double[]) {
+                buffer.asDoubleBuffer().put((double[]) value, offset, n);
+            } else if (value instanceof long[]) {
+                buffer.asLongBuffer().put((long[]) value, offset, n);
+            } else if (value instanceof int[]) {
+                buffer.asIntBuffer().put((int[]) value, offset, n);
+            } else {
+                buffer.asShortBuffer().put((short[]) value, offset, n);
+            }
+            stream.write(buffer.array(), 0, n * size);
+        }
+        return true;
+    }
+
     /**
      * Serializes a {@code QBit(element_type, dimension)} value. On the wire a {@code QBit} is
      * transmitted exactly like {@code Array(element_type)} — a var-int length followed by that many
@@ -1305,6 +1383,325 @@ public class SerializerUtils {
         }
     }
 
+    private static final AtomicInteger POJO_CONSTRUCTOR_MAPPER_COUNTER = new AtomicInteger();
+
+    /**
+     * Compiles a deserializer that reads a row into local variables and creates an object with the constructor.
+     * Values of primitive parameters are read with primitive reads when a column is not nullable
+     * so no boxing is done. Parameters without a column get default values.
+     * <p>
+     * Generated class is defined in its own class loader and can access only public types. For other classes
+     * a reflection based deserializer is returned.
+     *
+     * @param constructor - public constructor to call
+     * @param columns - columns in the order they are in the stream
+     * @param columnToParameter - index of the constructor parameter for each column or {@code -1} to skip the column
+     * @return compiled deserializer
+     * @param <T> type of the object
+     * @see SerializerUtils#compilePOJOSetter(Method, ClickHouseColumn)
+     * @see SerializerUtils#binaryReaderMethodForType(MethodVisitor, Class, ClickHouseDataType)
+     * @see SerializerUtils#convertToBoolean(Object)
+     * @see BinaryStreamReader#readValue(ClickHouseColumn, Class)
+     * @see BinaryStreamReader#skipValue(ClickHouseColumn)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> POJOConstructorDeserializer<T> compilePOJOConstructor(Constructor<T> constructor,
+                                                                           ClickHouseColumn[] columns,
+                                                                           int[] columnToParameter) {
+        Class<?> dtoClass = constructor.getDeclaringClass();
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int i = 0; i < columns.length; i++) {
+            if (columnToParameter[i] >= 0 && parameterTypes[columnToParameter[i]] == char.class) {
+                throw new ClientException("Column '" + columns[i].getColumnName() + "' cannot be read to a char");
+            }
+        }
+        if (!isPublicType(dtoClass) || !Arrays.stream(parameterTypes).allMatch(SerializerUtils::isPublicType)) {
+            return new ReflectionConstructorDeserializer<>(constructor, columnToParameter);
+        }
+
+        final String mapperClassName = (dtoClass.getName() + "$$ConstructorMapper"
+                + POJO_CONSTRUCTOR_MAPPER_COUNTER.incrementAndGet()).replace('.', '/');
+        // frames are needed because of the exception handler
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V1_8, ACC_PUBLIC, mapperClassName
+                , null, "java/lang/Object",
+                new String[]{Type.getInternalName(POJOConstructorDeserializer.class)});
+
+        // constructor method
+        {
+            MethodVisitor mv = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL,
+                    "java/lang/Object",
+                    "<init>",
+                    "()V");
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // readObject(BinaryStreamReader reader, ClickHouseColumn[] columns) impl
+        {
+            MethodVisitor mv = writer.visitMethod(ACC_PUBLIC, "readObject",
+                    Type.getMethodDescriptor(Type.getType(Object.class),
+                            Type.getType(BinaryStreamReader.class), Type.getType(ClickHouseColumn[].class)),
+                    null, new String[]{"java/lang/Exception"});
+            mv.visitCode();
+
+            // locals: 0 - this, 1 - reader, 2 - columns, 3.. - constructor arguments
+            int[] parameterSlots = new int[parameterTypes.length];
+            int nextSlot = 3;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterSlots[i] = nextSlot;
+                nextSlot += Type.getType(parameterTypes[i]).getSize();
+            }
+
+            Label endOfStream = new Label();
+            for (int i = 0; i < columns.length; i++) {
+                Label tryStart = new Label();
+                Label tryEnd = new Label();
+                if (i == 0) {
+                    // end of stream is detected by the first column
+                    mv.visitTryCatchBlock(tryStart, tryEnd, endOfStream, "java/io/EOFException");
+                }
+                mv.visitLabel(tryStart);
+
+                ClickHouseColumn column = columns[i];
+                int parameter = columnToParameter[i];
+                if (parameter < 0) {
+                    mv.visitVarInsn(ALOAD, 1);
+                    loadColumn(mv, i);
+                    mv.visitMethodInsn(INVOKEVIRTUAL,
+                            Type.getInternalName(BinaryStreamReader.class),
+                            "skipValue",
+                            Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(ClickHouseColumn.class)),
+                            false);
+                    mv.visitLabel(tryEnd);
+                    continue;
+                }
+
+                Class<?> targetType = parameterTypes[parameter];
+                mv.visitVarInsn(ALOAD, 1); // load reader
+                if (targetType.isPrimitive() && !column.isNullable()
+                        && BinaryStreamReader.isReadToPrimitive(column.getDataType())) {
+                    binaryReaderMethodForType(mv, targetType, column.getDataType());
+                } else {
+                    loadColumn(mv, i);
+                    mv.visitLdcInsn(Type.getType(ClickHouseDataType.toObjectType(targetType)));
+                    mv.visitMethodInsn(INVOKEVIRTUAL,
+                            Type.getInternalName(BinaryStreamReader.class),
+                            "readValue",
+                            Type.getMethodDescriptor(
+                                    Type.getType(Object.class),
+                                    Type.getType(ClickHouseColumn.class),
+                                    Type.getType(Class.class)),
+                            false);
+                    convertReadValue(mv, targetType, column);
+                }
+                mv.visitLabel(tryEnd);
+                mv.visitVarInsn(Type.getType(targetType).getOpcode(Opcodes.ISTORE), parameterSlots[parameter]);
+            }
+
+            // skipped columns leave parameters unset so they are assigned here
+            boolean[] assigned = new boolean[parameterTypes.length];
+            for (int parameter : columnToParameter) {
+                if (parameter >= 0) {
+                    assigned[parameter] = true;
+                }
+            }
+
+            mv.visitTypeInsn(Opcodes.NEW, Type.getInternalName(dtoClass));
+            mv.visitInsn(Opcodes.DUP);
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Type type = Type.getType(parameterTypes[i]);
+                if (assigned[i]) {
+                    mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), parameterSlots[i]);
+                } else {
+                    pushDefaultValue(mv, type);
+                }
+            }
+            mv.visitMethodInsn(INVOKESPECIAL,
+                    Type.getInternalName(dtoClass),
+                    "<init>",
+                    Type.getConstructorDescriptor(constructor),
+                    false);
+            mv.visitInsn(Opcodes.ARETURN);
+
+            mv.visitLabel(endOfStream);
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        try {
+            SerializerUtils.DynamicClassLoader loader = new SerializerUtils.DynamicClassLoader(dtoClass.getClassLoader());
+            Class<?> clazz = loader.defineClass(mapperClassName.replace('/', '.'), writer.toByteArray());
+            return (POJOConstructorDeserializer<T>) clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception | VerifyError e) {
+            throw new ClientException("Failed to compile constructor mapper for " + dtoClass.getName(), e);
+        } catch (LinkageError e) {
+            // class loader of the DTO cannot link the mapper (e.g. IllegalAccessError)
+            return new ReflectionConstructorDeserializer<>(constructor, columnToParameter);
+        }
+    }
+
+    private static boolean isPublicType(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!c.isPrimitive() && !Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Constructor deserializer for classes that generated code cannot access. Values are converted
+     * the same way as in {@link #compilePOJOConstructor(Constructor, ClickHouseColumn[], int[])}.
+     */
+    private static final class ReflectionConstructorDeserializer<T> implements POJOConstructorDeserializer<T> {
+
+        private final Constructor<T> constructor;
+
+        private final Class<?>[] parameterTypes;
+
+        private final int[] columnToParameter;
+
+        ReflectionConstructorDeserializer(Constructor<T> constructor, int[] columnToParameter) {
+            this.constructor = constructor;
+            this.parameterTypes = constructor.getParameterTypes();
+            this.columnToParameter = columnToParameter;
+            constructor.setAccessible(true);
+        }
+
+        @Override
+        public T readObject(BinaryStreamReader reader, ClickHouseColumn[] columns) throws Exception {
+            Object[] args = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isPrimitive()) {
+                    args[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+                }
+            }
+            for (int i = 0; i < columns.length; i++) {
+                int parameter = columnToParameter[i];
+                try {
+                    if (parameter < 0) {
+                        reader.skipValue(columns[i]);
+                    } else {
+                        Class<?> targetType = parameterTypes[parameter];
+                        Object value = reader.readValue(columns[i], ClickHouseDataType.toObjectType(targetType));
+                        args[parameter] = convertReadValue(value, targetType, columns[i]);
+                    }
+                } catch (EOFException e) {
+                    if (i == 0) {
+                        return null; // end of stream is detected by the first column
+                    }
+                    throw e;
+                }
+            }
+            return constructor.newInstance(args);
+        }
+
+        private static Object convertReadValue(Object value, Class<?> targetType, ClickHouseColumn column) {
+            if (targetType == String.class) {
+                return stringValueToString(value);
+            } else if (targetType == byte[].class) {
+                return stringValueToByteArray(value);
+            } else if (List.class.isAssignableFrom(targetType) && column.getDataType() == ClickHouseDataType.Tuple) {
+                return Arrays.asList((Object[]) value);
+            } else if (targetType == boolean.class) {
+                return convertToBoolean(value);
+            } else if (targetType == byte.class) {
+                return ((Number) value).byteValue();
+            } else if (targetType == short.class) {
+                return ((Number) value).shortValue();
+            } else if (targetType == int.class) {
+                return ((Number) value).intValue();
+            } else if (targetType == long.class) {
+                return ((Number) value).longValue();
+            } else if (targetType == float.class) {
+                return ((Number) value).floatValue();
+            } else if (targetType == double.class) {
+                return ((Number) value).doubleValue();
+            }
+            return value;
+        }
+    }
+
+    private static void loadColumn(MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitLdcInsn(index);
+        mv.visitInsn(Opcodes.AALOAD);
+    }
+
+    /**
+     * Converts a value returned by {@code BinaryStreamReader.readValue} on the stack to the target type.
+     */
+    private static void convertReadValue(MethodVisitor mv, Class<?> targetType, ClickHouseColumn column) {
+        if (targetType == String.class) {
+            mv.visitMethodInsn(INVOKESTATIC,
+                    Type.getInternalName(SerializerUtils.class),
+                    "stringValueToString",
+                    Type.getMethodDescriptor(Type.getType(String.class), Type.getType(Object.class)),
+                    false);
+        } else if (targetType == byte[].class) {
+            mv.visitMethodInsn(INVOKESTATIC,
+                    Type.getInternalName(SerializerUtils.class),
+                    "stringValueToByteArray",
+                    Type.getMethodDescriptor(Type.getType(byte[].class), Type.getType(Object.class)),
+                    false);
+        } else if (List.class.isAssignableFrom(targetType) && column.getDataType() == ClickHouseDataType.Tuple) {
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(Object[].class));
+            mv.visitMethodInsn(INVOKESTATIC,
+                    Type.getInternalName(Arrays.class),
+                    "asList",
+                    Type.getMethodDescriptor(Type.getType(List.class), Type.getType(Object[].class)),
+                    false);
+        } else if (targetType == boolean.class) {
+            mv.visitMethodInsn(INVOKESTATIC,
+                    Type.getInternalName(SerializerUtils.class),
+                    "convertToBoolean",
+                    Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(Object.class)),
+                    false);
+        } else if (targetType.isPrimitive()) {
+            if (targetType == char.class) {
+                throw new ClientException("Column '" + column.getColumnName() + "' cannot be read to a char");
+            }
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(Number.class));
+            mv.visitMethodInsn(INVOKEVIRTUAL,
+                    Type.getInternalName(Number.class),
+                    targetType.getName() + "Value",
+                    "()" + Type.getDescriptor(targetType),
+                    false);
+        } else {
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(targetType));
+        }
+    }
+
+    private static void pushDefaultValue(MethodVisitor mv, Type type) {
+        switch (type.getSort()) {
+            case Type.LONG:
+                mv.visitInsn(Opcodes.LCONST_0);
+                break;
+            case Type.FLOAT:
+                mv.visitInsn(Opcodes.FCONST_0);
+                break;
+            case Type.DOUBLE:
+                mv.visitInsn(Opcodes.DCONST_0);
+                break;
+            case Type.OBJECT:
+            case Type.ARRAY:
+                mv.visitInsn(Opcodes.ACONST_NULL);
+                break;
+            default:
+                mv.visitInsn(Opcodes.ICONST_0);
+        }
+    }
+
     private static void binaryReaderMethodForType(MethodVisitor mv, Class<?> targetType, ClickHouseDataType dataType) {
         String readerMethod = null;
         String readerMethodReturnType = null;
@@ -1314,14 +1711,17 @@ public class SerializerUtils {
             case Int8:
                 readerMethod = "readByte";
                 readerMethodReturnType = Type.getDescriptor(byte.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             case UInt8:
                 readerMethod = "readUnsignedByte";
                 readerMethodReturnType = Type.getDescriptor(short.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             case Int16:
                 readerMethod = "readShortLE";
                 readerMethodReturnType = Type.getDescriptor(short.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             case UInt16:
                 readerMethod = "readUnsignedShortLE";
@@ -1361,14 +1761,17 @@ public class SerializerUtils {
             case Enum8:
                 readerMethod = "readByte";
                 readerMethodReturnType = Type.getDescriptor(byte.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             case Enum16:
                 readerMethod = "readShortLE";
                 readerMethodReturnType = Type.getDescriptor(short.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             case Bool:
                 readerMethod = "readByte";
                 readerMethodReturnType = Type.getDescriptor(byte.class);
+                convertOpcode = intToOpcode(targetType);
                 break;
             default:
                 throw new ClientException("Column type '" + dataType + "' cannot be set to a primitive type '" + targetType + "'");
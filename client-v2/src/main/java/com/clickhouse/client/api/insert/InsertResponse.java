@@ -12,8 +12,12 @@ public class InsertResponse implements AutoCloseable {
     private final Map<String, String> responseHeaders;
 
     public InsertResponse(TransportResponse transportResponse, OperationMetrics metrics) {
+        this(metrics, transportResponse.getHeaders());
+    }
+
+    public InsertResponse(OperationMetrics metrics, Map<String, String> responseHeaders) {
         this.operationMetrics = metrics;
-        this.responseHeaders = transportResponse.getHeaders();
+        this.responseHeaders = responseHeaders;
     }
 
     @Override
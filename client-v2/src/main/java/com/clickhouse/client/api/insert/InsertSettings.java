@@ -4,6 +4,9 @@ import com.clickhouse.client.api.Client;
 import com.clickhouse.client.api.ClientConfigProperties;
 import com.clickhouse.client.api.Session;
 import com.clickhouse.client.api.internal.CommonSettings;
+import com.clickhouse.client.api.internal.HttpAPIClientHelper;
+import com.clickhouse.client.api.internal.ServerSettings;
+import com.clickhouse.client.api.metrics.ProgressListener;
 import org.apache.hc.core5.http.HttpHeaders;
 
 import java.time.temporal.ChronoUnit;
@@ -89,6 +92,78 @@ public class InsertSettings {
         return this;
     }
 
+    /**
+     * Encodes request body once and sends the same bytes on every retry or failover.
+     *
+     * @param enabled - indicates if replay buffer is used
+     * @return same instance of the settings
+     * @see ClientConfigProperties#INSERT_REPLAY_BUFFER
+     */
+    public InsertSettings useReplayBuffer(boolean enabled) {
+        settings.setOption(ClientConfigProperties.INSERT_REPLAY_BUFFER.getKey(), enabled);
+        return this;
+    }
+
+    /**
+     * Sets max number of bytes of the replay buffer kept in memory.
+     *
+     * @param bytes - memory limit in bytes
+     * @return same instance of the settings
+     * @see ClientConfigProperties#INSERT_REPLAY_BUFFER_MEMORY_LIMIT
+     */
+    public InsertSettings setReplayBufferMemoryLimit(long bytes) {
+        settings.setOption(ClientConfigProperties.INSERT_REPLAY_BUFFER_MEMORY_LIMIT.getKey(), bytes);
+        return this;
+    }
+
+    /**
+     * Generates deduplication token when it is not set.
+     *
+     * @param enabled - indicates if deduplication token is generated
+     * @return same instance of the settings
+     * @see ClientConfigProperties#INSERT_AUTO_DEDUPLICATION_TOKEN
+     */
+    public InsertSettings useAutoDeduplicationToken(boolean enabled) {
+        settings.setOption(ClientConfigProperties.INSERT_AUTO_DEDUPLICATION_TOKEN.getKey(), enabled);
+        return this;
+    }
+
+    /**
+     * Sets number of concurrent requests one insert is split into.
+     *
+     * @param streams - number of requests; 1 to send data in one request
+     * @return same instance of the settings
+     * @see ClientConfigProperties#INSERT_PARALLEL_STREAMS
+     */
+    public InsertSettings setParallelStreams(int streams) {
+        settings.setOption(ClientConfigProperties.INSERT_PARALLEL_STREAMS.getKey(), streams);
+        return this;
+    }
+
+    /**
+     * Sets a listener that receives progress of the operation while it runs. The server is asked to send
+     * progress headers ({@code send_progress_in_http_headers}) at the interval of
+     * {@code http_headers_progress_interval_ms} server setting. Progress is reported until the server starts
+     * sending the response body.
+     *
+     * @param listener - progress listener; {@code null} to remove
+     * @return same instance of the settings
+     */
+    public InsertSettings setProgressListener(ProgressListener listener) {
+        if (listener == null) {
+            settings.resetOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER);
+            settings.resetOption(ClientConfigProperties.serverSetting(ServerSettings.SEND_PROGRESS_IN_HTTP_HEADERS));
+        } else {
+            settings.setOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER, listener);
+            serverSetting(ServerSettings.SEND_PROGRESS_IN_HTTP_HEADERS, ServerSettings.ON);
+        }
+        return this;
+    }
+
+    public ProgressListener getProgressListener() {
+        return (ProgressListener) settings.getOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER);
+    }
+
     public String getQueryId() {
         return settings.getQueryId();
     }
@@ -0,0 +1,373 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.ClientConfigProperties;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.io.IOCallback;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects compression of insert requests for each endpoint by measured results of previous requests.
+ * <p>
+ * For every request it is measured how many bytes were written by the application, how many bytes were sent,
+ * how much time was spent in the codec stream and how much of it in writing to the connection. Time the application
+ * spends producing data is not counted. From this compression ratio and encoding speed of each codec and network speed of an endpoint
+ * are estimated. The codec that gives the lowest estimated time to send a byte of data is selected. Codecs that
+ * spend more than the CPU budget share of request time on encoding are not selected while there are other
+ * options.
+ * <p>
+ * Each codec is tried a few times before the estimation is used and then from time to time to keep
+ * estimations fresh.
+ */
+public class AdaptiveCompression {
+
+    public enum Codec {
+        NONE(null),
+        LZ4(null),
+        GZIP("gzip"),
+        ZSTD("zstd");
+
+        private final String contentEncoding;
+
+        Codec(String contentEncoding) {
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * Applies the codec to request configuration.
+         *
+         * @param requestConfig - request configuration to modify
+         */
+        void apply(Map<String, Object> requestConfig) {
+            requestConfig.put(ClientConfigProperties.COMPRESS_CLIENT_REQUEST.getKey(), this != NONE);
+            requestConfig.put(ClientConfigProperties.USE_HTTP_COMPRESSION.getKey(), contentEncoding != null);
+            if (contentEncoding != null) {
+                requestConfig.put(ClientConfigProperties.HTTP_HEADER_PREFIX + HttpHeaders.CONTENT_ENCODING,
+                        contentEncoding);
+            }
+        }
+    }
+
+    static final int MIN_SAMPLES = 2;
+
+    static final int EXPLORE_INTERVAL = 32;
+
+    /**
+     * Requests with less data than this are not measured because fixed costs dominate.
+     */
+    static final long MIN_MEASURED_BYTES = 8 * 1024;
+
+    private static final double SMOOTHING = 0.3;
+
+    private final List<Codec> codecs;
+
+    private final double cpuBudget;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param cpuBudgetPercent - max share of request time a codec may spend on encoding
+     */
+    public AdaptiveCompression(int cpuBudgetPercent) {
+        this(availableCodecs(), cpuBudgetPercent);
+    }
+
+    AdaptiveCompression(List<Codec> codecs, int cpuBudgetPercent) {
+        if (cpuBudgetPercent < 1 || cpuBudgetPercent > 100) {
+            throw new IllegalArgumentException("CPU budget should be in range [1, 100] but was " + cpuBudgetPercent);
+        }
+        this.codecs = Collections.unmodifiableList(new ArrayList<>(codecs));
+        this.cpuBudget = cpuBudgetPercent / 100.0;
+    }
+
+    private static List<Codec> availableCodecs() {
+        List<Codec> codecs = new ArrayList<>();
+        codecs.add(Codec.NONE);
+        codecs.add(Codec.LZ4);
+        codecs.add(Codec.GZIP);
+        if (ZstdUtils.isZstdCompressionAvailable()) {
+            codecs.add(Codec.ZSTD);
+        }
+        return codecs;
+    }
+
+    /**
+     * Selects codec for the next request to the endpoint.
+     *
+     * @param endpoint - endpoint key
+     * @return selected codec
+     */
+    public Codec select(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, k -> new EndpointStats()).select();
+    }
+
+    /**
+     * Wraps the request entity to measure writing of the request.
+     *
+     * @param endpoint - endpoint key
+     * @param codec - codec used by the request
+     * @param entity - compressing entity
+     * @param measurement - measurement that also counts bytes written by the application
+     * @return entity that records results when it is written
+     */
+    public HttpEntity measure(String endpoint, Codec codec, HttpEntity entity, Measurement measurement) {
+        return new MeasuredEntity(entity, measurement, () -> record(endpoint, codec, measurement));
+    }
+
+    void record(String endpoint, Codec codec, Measurement measurement) {
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointStats()).record(codec, measurement);
+    }
+
+    /**
+     * Returns a snapshot of estimations for the endpoint. Used for diagnostics and tests.
+     *
+     * @param endpoint - endpoint key
+     * @return map of codec to estimated nanoseconds per uncompressed byte, only measured codecs are included
+     */
+    public Map<Codec, Double> getEstimations(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (stats) {
+            Map<Codec, Double> estimations = new EnumMap<>(Codec.class);
+            for (Codec codec : codecs) {
+                CodecStats codecStats = stats.codecs.get(codec);
+                if (codecStats != null && codecStats.samples >= MIN_SAMPLES) {
+                    estimations.put(codec, stats.nanosPerByte(codecStats));
+                }
+            }
+            return estimations;
+        }
+    }
+
+    /**
+     * Counts bytes written by the application and to the network, time spent in the codec stream and
+     * time spent in network writes.
+     */
+    public static final class Measurement {
+
+        long uncompressedBytes;
+
+        long wireBytes;
+
+        /**
+         * Time of writes to the connection output stream. The stream writes to a session buffer that is flushed
+         * to the socket when it is full, so this is time of copying data and of blocking on the socket for
+         * the flushed parts. For large requests it approximates time of sending data.
+         */
+        long wireNanos;
+
+        /**
+         * Time spent in the codec stream: its creation, writes and flushes by the application and finishing
+         * the stream. Includes {@link #wireNanos} because the codec writes to the connection.
+         */
+        long codecNanos;
+
+        private long dataStart;
+
+        private long dataEnd;
+
+        /**
+         * Runs the application writer with the stream counting uncompressed bytes and timing the codec.
+         *
+         * @param writer - application writer
+         * @param out - stream of the request entity
+         * @throws IOException when writing fails
+         */
+        public void writeData(IOCallback<OutputStream> writer, OutputStream out) throws IOException {
+            dataStart = System.nanoTime();
+            writer.execute(countUncompressed(out));
+            dataEnd = System.nanoTime();
+        }
+
+        OutputStream countUncompressed(OutputStream out) {
+            return new FilterOutputStream(out) {
+                @Override
+                public void write(int b) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b);
+                    codecNanos += System.nanoTime() - start;
+                    uncompressedBytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b, off, len);
+                    codecNanos += System.nanoTime() - start;
+                    uncompressedBytes += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    long start = System.nanoTime();
+                    out.flush();
+                    codecNanos += System.nanoTime() - start;
+                }
+            };
+        }
+
+        OutputStream measureWire(OutputStream out) {
+            return new FilterOutputStream(out) {
+                @Override
+                public void write(int b) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b);
+                    wireNanos += System.nanoTime() - start;
+                    wireBytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b, off, len);
+                    wireNanos += System.nanoTime() - start;
+                    wireBytes += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    long start = System.nanoTime();
+                    out.flush();
+                    wireNanos += System.nanoTime() - start;
+                }
+            };
+        }
+    }
+
+    private static final class MeasuredEntity extends HttpEntityWrapper {
+
+        private final Measurement measurement;
+
+        private final Runnable onWritten;
+
+        MeasuredEntity(HttpEntity entity, Measurement measurement, Runnable onWritten) {
+            super(entity);
+            this.measurement = measurement;
+            this.onWritten = onWritten;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            measurement.uncompressedBytes = 0;
+            measurement.wireBytes = 0;
+            measurement.wireNanos = 0;
+            measurement.codecNanos = 0;
+            long start = System.nanoTime();
+            measurement.dataStart = start;
+            measurement.dataEnd = start;
+            super.writeTo(measurement.measureWire(outStream));
+            long end = System.nanoTime();
+            // codec is created before and finished after the application writes data
+            measurement.codecNanos += (measurement.dataStart - start) + (end - measurement.dataEnd);
+            onWritten.run();
+        }
+    }
+
+    private static final class CodecStats {
+
+        int samples;
+
+        // compressed to uncompressed size
+        double sizeRatio;
+
+        // encode nanoseconds per uncompressed byte
+        double encodeNanosPerByte;
+    }
+
+    private final class EndpointStats {
+
+        private final Map<Codec, CodecStats> codecs = new HashMap<>();
+
+        // network nanoseconds per sent byte
+        private double wireNanosPerByte;
+
+        private boolean wireMeasured;
+
+        private long requests;
+
+        synchronized Codec select() {
+            requests++;
+            for (Codec codec : AdaptiveCompression.this.codecs) {
+                CodecStats stats = this.codecs.get(codec);
+                if (stats == null || stats.samples < MIN_SAMPLES) {
+                    return codec;
+                }
+            }
+
+            Codec best = null;
+            double bestEstimation = Double.MAX_VALUE;
+            Codec bestOverBudget = null;
+            double bestOverBudgetEstimation = Double.MAX_VALUE;
+            for (Codec codec : AdaptiveCompression.this.codecs) {
+                CodecStats stats = this.codecs.get(codec);
+                double estimation = nanosPerByte(stats);
+                boolean inBudget = codec == Codec.NONE || stats.encodeNanosPerByte <= estimation * cpuBudget;
+                if (inBudget && estimation < bestEstimation) {
+                    best = codec;
+                    bestEstimation = estimation;
+                } else if (!inBudget && estimation < bestOverBudgetEstimation) {
+                    bestOverBudget = codec;
+                    bestOverBudgetEstimation = estimation;
+                }
+            }
+            if (best == null) {
+                best = bestOverBudget;
+            }
+
+            if (requests % EXPLORE_INTERVAL == 0) {
+                // refresh estimation of another codec
+                int next = (int) ((requests / EXPLORE_INTERVAL) % AdaptiveCompression.this.codecs.size());
+                Codec explored = AdaptiveCompression.this.codecs.get(next);
+                if (explored != best) {
+                    return explored;
+                }
+            }
+            return best;
+        }
+
+        double nanosPerByte(CodecStats stats) {
+            return stats.encodeNanosPerByte + stats.sizeRatio * wireNanosPerByte;
+        }
+
+        synchronized void record(Codec codec, Measurement measurement) {
+            if (measurement.uncompressedBytes < MIN_MEASURED_BYTES || measurement.wireBytes == 0) {
+                return;
+            }
+            double sizeRatio = (double) measurement.wireBytes / measurement.uncompressedBytes;
+            double encodeNanosPerByte = (double) Math.max(0, measurement.codecNanos - measurement.wireNanos)
+                    / measurement.uncompressedBytes;
+            double wirePerByte = (double) measurement.wireNanos / measurement.wireBytes;
+
+            CodecStats stats = this.codecs.computeIfAbsent(codec, k -> new CodecStats());
+            if (stats.samples == 0) {
+                stats.sizeRatio = sizeRatio;
+                stats.encodeNanosPerByte = encodeNanosPerByte;
+            } else {
+                stats.sizeRatio += SMOOTHING * (sizeRatio - stats.sizeRatio);
+                stats.encodeNanosPerByte += SMOOTHING * (encodeNanosPerByte - stats.encodeNanosPerByte);
+            }
+            stats.samples++;
+
+            if (!wireMeasured) {
+                wireNanosPerByte = wirePerByte;
+                wireMeasured = true;
+            } else {
+                wireNanosPerByte += SMOOTHING * (wirePerByte - wireNanosPerByte);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.clickhouse.client.api.internal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of byte arrays shared by streams of a client to reduce allocation of short-living buffers.
+ * <p>
+ * Arrays are grouped in size classes of powers of two from {@link #MIN_POOLED_SIZE} to {@link #MAX_POOLED_SIZE}.
+ * Free arrays are kept in stripes selected by the current thread to reduce contention. Total size of kept arrays
+ * is limited by {@code maxRetainedBytes}; arrays that do not fit are left to GC. Pool with zero limit keeps nothing
+ * and returns arrays of the exact requested size.
+ * <p>
+ * Leased arrays are not cleared. An array must be released only once and must not be used after release.
+ */
+public class BufferPool {
+
+    public static final int MIN_POOLED_SIZE = 1024;
+
+    public static final int MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * Pool that keeps nothing.
+     */
+    public static final BufferPool NONE = new BufferPool(0);
+
+    private final long maxRetainedBytes;
+
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    private final Stripe[] stripes;
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxRetainedBytes - maximum total size of kept arrays; 0 to disable pooling
+     */
+    public BufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = Math.max(0, maxRetainedBytes);
+        int nStripes = this.maxRetainedBytes == 0 ? 0
+                : Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.stripes = new Stripe[nStripes];
+        for (int i = 0; i < nStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns an array of at least the requested size. Requests bigger than {@link #MAX_POOLED_SIZE} and requests
+     * to a disabled pool get an array of the exact size.
+     *
+     * @param minSize - minimal size of the array
+     * @return array that may contain data of previous use
+     */
+    public byte[] lease(int minSize) {
+        if (stripes.length == 0 || minSize > MAX_POOLED_SIZE) {
+            return new byte[minSize];
+        }
+        int sizeClass = sizeClass(minSize);
+        byte[] buffer = stripe().poll(sizeClass);
+        if (buffer != null) {
+            retainedBytes.addAndGet(-buffer.length);
+            return buffer;
+        }
+        return new byte[MIN_POOLED_SIZE << sizeClass];
+    }
+
+    /**
+     * Returns an array to the pool. Arrays that are not of a size class or do not fit the limit are dropped.
+     *
+     * @param buffer - array that is not used anymore; {@code null} is ignored
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || stripes.length == 0) {
+            return;
+        }
+        int length = buffer.length;
+        if (length < MIN_POOLED_SIZE || length > MAX_POOLED_SIZE || Integer.bitCount(length) != 1) {
+            return;
+        }
+        if (retainedBytes.addAndGet(length) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-length);
+            return;
+        }
+        stripe().offer(Integer.numberOfTrailingZeros(length) - MIN_SHIFT, buffer);
+    }
+
+    /**
+     * @return total size of arrays kept by the pool
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ArrayDeque<?>[] free = new ArrayDeque<?>[SIZE_CLASSES];
+
+        Stripe() {
+            for (int i = 0; i < free.length; i++) {
+                free[i] = new ArrayDeque<byte[]>();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized byte[] poll(int sizeClass) {
+            return ((ArrayDeque<byte[]>) free[sizeClass]).pollFirst();
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void offer(int sizeClass, byte[] buffer) {
+            ((ArrayDeque<byte[]>) free[sizeClass]).addFirst(buffer);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.clickhouse.client.api.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * CityHash128 (version 1.0.2 used by ClickHouse) for checksums of compressed blocks.
+ * <p>
+ * Produces the same result as {@link com.clickhouse.data.ClickHouseCityHash#cityHash128(byte[], int, int)} but reads
+ * data with little-endian {@link ByteBuffer} views and keeps hash state in local variables, so there are no
+ * per-round allocations. Works with heap and direct buffers.
+ */
+public final class CityHash128 {
+
+    private static final long K0 = 0xc3a5c85c97cb3127L;
+    private static final long K1 = 0xb492b66fbe98f273L;
+    private static final long K2 = 0x9ae16a3b2f90404fL;
+    private static final long K3 = 0xc949d7c7509e6557L;
+    private static final long K_MUL = 0x9ddfea08eb382d69L;
+
+    private CityHash128() {
+    }
+
+    /**
+     * Calculates hash of the array range.
+     *
+     * @param bytes - data
+     * @param offset - offset of the first byte
+     * @param length - number of bytes to hash
+     * @return low and high 64 bits of the hash
+     */
+    public static long[] hash(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + offset + ", " + (offset + length)
+                    + ") for array of length " + bytes.length);
+        }
+        return hash128(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), offset, length);
+    }
+
+    /**
+     * Calculates hash of the buffer range. Position, limit and byte order of the buffer are not changed.
+     *
+     * @param buffer - data
+     * @param offset - absolute index of the first byte
+     * @param length - number of bytes to hash
+     * @return low and high 64 bits of the hash
+     */
+    public static long[] hash(ByteBuffer buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new IndexOutOfBoundsException("Invalid range [" + offset + ", " + (offset + length)
+                    + ") for buffer with limit " + buffer.limit());
+        }
+        ByteBuffer s = buffer.order() == ByteOrder.LITTLE_ENDIAN ? buffer
+                : buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return hash128(s, offset, length);
+    }
+
+    private static long[] hash128(ByteBuffer s, int pos, int len) {
+        if (len >= 16) {
+            return hash128WithSeed(s, pos + 16, len - 16, s.getLong(pos) ^ K3, s.getLong(pos + 8));
+        } else if (len >= 8) {
+            return hash128WithSeed(s, pos, 0, s.getLong(pos) ^ (len * K0), s.getLong(pos + len - 8) ^ K1);
+        } else {
+            return hash128WithSeed(s, pos, len, K0, K1);
+        }
+    }
+
+    private static long[] hash128WithSeed(ByteBuffer s, int pos, int len, long seed0, long seed1) {
+        if (len < 128) {
+            return cityMurmur(s, pos, len, seed0, seed1);
+        }
+
+        long x = seed0;
+        long y = seed1;
+        long z = K1 * len;
+        long v0 = Long.rotateRight(y ^ K1, 49) * K1 + s.getLong(pos);
+        long v1 = Long.rotateRight(v0, 42) * K1 + s.getLong(pos + 8);
+        long w0 = Long.rotateRight(y + z, 35) * K1 + x;
+        long w1 = Long.rotateRight(x + s.getLong(pos + 88), 53) * K1;
+        long a;
+        long b;
+        long c;
+        long t;
+
+        // the same inner loop as CityHash64(), manually unrolled
+        do {
+            for (int i = 0; i < 2; i++) {
+                x = Long.rotateRight(x + y + v0 + s.getLong(pos + 16), 37) * K1;
+                y = Long.rotateRight(y + v1 + s.getLong(pos + 48), 42) * K1;
+                x ^= w1;
+                y ^= v0;
+                z = Long.rotateRight(z ^ w0, 33);
+
+                // v = weakHashLen32WithSeeds(s, pos, v1 * K1, x + w0)
+                a = v1 * K1 + s.getLong(pos);
+                b = Long.rotateRight(x + w0 + a + s.getLong(pos + 24), 21);
+                c = a;
+                a += s.getLong(pos + 8) + s.getLong(pos + 16);
+                v0 = a + s.getLong(pos + 24);
+                v1 = b + Long.rotateRight(a, 44) + c;
+
+                // w = weakHashLen32WithSeeds(s, pos + 32, z + w1, y)
+                a = z + w1 + s.getLong(pos + 32);
+                b = Long.rotateRight(y + a + s.getLong(pos + 56), 21);
+                c = a;
+                a += s.getLong(pos + 40) + s.getLong(pos + 48);
+                w0 = a + s.getLong(pos + 56);
+                w1 = b + Long.rotateRight(a, 44) + c;
+
+                t = z;
+                z = x;
+                x = t;
+                pos += 64;
+            }
+            len -= 128;
+        } while (len >= 128);
+
+        y += Long.rotateRight(w0, 37) * K0 + z;
+        x += Long.rotateRight(v0 + z, 49) * K0;
+
+        // hash up to 4 chunks of 32 bytes each from the end of data
+        for (int tailDone = 0; tailDone < len; ) {
+            tailDone += 32;
+            y = Long.rotateRight(y - x, 42) * K0 + v1;
+            w0 += s.getLong(pos + len - tailDone + 16);
+            x = Long.rotateRight(x, 49) * K0 + w0;
+            w0 += v0;
+
+            // v = weakHashLen32WithSeeds(s, pos + len - tailDone, v0, v1)
+            int p = pos + len - tailDone;
+            a = v0 + s.getLong(p);
+            b = Long.rotateRight(v1 + a + s.getLong(p + 24), 21);
+            c = a;
+            a += s.getLong(p + 8) + s.getLong(p + 16);
+            v0 = a + s.getLong(p + 24);
+            v1 = b + Long.rotateRight(a, 44) + c;
+        }
+
+        x = hashLen16(x, v0);
+        y = hashLen16(y, w0);
+
+        return new long[] {hashLen16(x + v1, w1) + y, hashLen16(x + w1, y + v1)};
+    }
+
+    private static long[] cityMurmur(ByteBuffer s, int pos, int len, long seed0, long seed1) {
+        long a = seed0;
+        long b = seed1;
+        long c;
+        long d;
+
+        int l = len - 16;
+        if (l <= 0) {
+            a = shiftMix(a * K1) * K1;
+            c = b * K1 + hashLen0to16(s, pos, len);
+            d = shiftMix(a + (len >= 8 ? s.getLong(pos) : c));
+        } else {
+            c = hashLen16(s.getLong(pos + len - 8) + K1, a);
+            d = hashLen16(b + len, c + s.getLong(pos + len - 16));
+            a += d;
+            do {
+                a ^= shiftMix(s.getLong(pos) * K1) * K1;
+                a *= K1;
+                b ^= a;
+                c ^= shiftMix(s.getLong(pos + 8) * K1) * K1;
+                c *= K1;
+                d ^= c;
+                pos += 16;
+                l -= 16;
+            } while (l > 0);
+        }
+
+        a = hashLen16(a, c);
+        b = hashLen16(d, b);
+
+        return new long[] {a ^ b, hashLen16(b, a)};
+    }
+
+    private static long hashLen0to16(ByteBuffer s, int pos, int len) {
+        if (len > 8) {
+            long a = s.getLong(pos);
+            long b = s.getLong(pos + len - 8);
+            return hashLen16(a, Long.rotateRight(b + len, len)) ^ b;
+        }
+        if (len >= 4) {
+            long a = s.getInt(pos) & 0xFFFFFFFFL;
+            return hashLen16((a << 3) + len, s.getInt(pos + len - 4) & 0xFFFFFFFFL);
+        }
+        if (len > 0) {
+            int a = s.get(pos) & 0xFF;
+            int b = s.get(pos + (len >>> 1)) & 0xFF;
+            int c = s.get(pos + len - 1) & 0xFF;
+            int y = a + (b << 8);
+            int z = len + (c << 2);
+            return shiftMix(y * K2 ^ z * K3) * K2;
+        }
+        return K2;
+    }
+
+    private static long shiftMix(long val) {
+        return val ^ (val >>> 47);
+    }
+
+    private static long hashLen16(long u, long v) {
+        long a = (u ^ v) * K_MUL;
+        a ^= (a >>> 47);
+        long b = (v ^ a) * K_MUL;
+        b ^= (b >>> 47);
+        return b * K_MUL;
+    }
+}
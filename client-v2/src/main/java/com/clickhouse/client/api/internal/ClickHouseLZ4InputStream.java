@@ -1,8 +1,8 @@
 package com.clickhouse.client.api.internal;
 
 import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.metrics.ClientMetrics;
 import com.clickhouse.data.ClickHouseByteUtils;
-import com.clickhouse.data.ClickHouseCityHash;
 import com.clickhouse.data.ClickHouseUtils;
 import net.jpountz.lz4.LZ4FastDecompressor;
 import org.slf4j.Logger;
@@ -12,6 +12,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ClickHouseLZ4InputStream extends InputStream {
 
@@ -24,13 +26,69 @@ public class ClickHouseLZ4InputStream extends InputStream {
 
     private byte[] tmpBuffer = new byte[1];
 
+    private final ClientStatisticsHolder statistics;
+
+    private final boolean skipChecksum;
+
+    private final BufferPool bufferPool;
+
+    private byte[] compressedBlock;
+
+    private ByteBuffer compressedBlockBuffer;
+
+    private static final int IDLE = 0;
+
+    private static final int REFILLING = 1;
+
+    private static final int CLOSED = 2;
+
+    // buffers are returned to the pool by close() or, when it is called during refill, at the end of refill
+    private final AtomicInteger state = new AtomicInteger(IDLE);
 
     public ClickHouseLZ4InputStream(InputStream in, LZ4FastDecompressor decompressor, int bufferSize) {
+        this(in, decompressor, bufferSize, null);
+    }
+
+    public ClickHouseLZ4InputStream(InputStream in, LZ4FastDecompressor decompressor, int bufferSize,
+                                    ClientStatisticsHolder statistics) {
+        this(in, decompressor, bufferSize, statistics, false);
+    }
+
+    /**
+     * Creates stream that also accumulates checksum verification and decompression time of each block
+     * into {@link ClientMetrics#RESPONSE_DECOMPRESSION} of the given statistics.
+     *
+     * @param in - compressed stream
+     * @param decompressor - LZ4 decompressor
+     * @param bufferSize - initial size of decompressed data buffer
+     * @param statistics - operation statistics; {@code null} when not measured
+     * @param skipChecksum - indicates if checksum of blocks is not verified
+     */
+    public ClickHouseLZ4InputStream(InputStream in, LZ4FastDecompressor decompressor, int bufferSize,
+                                    ClientStatisticsHolder statistics, boolean skipChecksum) {
+        this(in, decompressor, bufferSize, statistics, skipChecksum, BufferPool.NONE);
+    }
+
+    /**
+     * Creates stream that leases its buffers from the pool and returns them on close.
+     *
+     * @param in - compressed stream
+     * @param decompressor - LZ4 decompressor
+     * @param bufferSize - initial size of decompressed data buffer
+     * @param statistics - operation statistics; {@code null} when not measured
+     * @param skipChecksum - indicates if checksum of blocks is not verified
+     * @param bufferPool - pool of buffers
+     */
+    public ClickHouseLZ4InputStream(InputStream in, LZ4FastDecompressor decompressor, int bufferSize,
+                                    ClientStatisticsHolder statistics, boolean skipChecksum, BufferPool bufferPool) {
         super();
+        this.statistics = statistics;
+        this.skipChecksum = skipChecksum;
+        this.bufferPool = bufferPool;
         LOG.debug("Using LZ4 decompressor with buffer size {}", bufferSize);
         this.decompressor = decompressor;
         this.in = in;
-        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer = ByteBuffer.wrap(bufferPool.lease(bufferSize)).order(ByteOrder.LITTLE_ENDIAN);
         this.buffer.limit(0);
     }
 
@@ -99,8 +157,32 @@ public class ClickHouseLZ4InputStream extends InputStream {
         return in;
     }
 
+    /**
+     * Returns decompressed data of the current block positioned at the next unread byte. Reading from the
+     * buffer consumes data of the stream. The buffer is in little-endian order and may be replaced when the
+     * next block is read, so it should be requested again after any read from the stream.
+     *
+     * @return buffer of the current block
+     */
+    public ByteBuffer getBlockBuffer() {
+        return buffer;
+    }
+
     private int refill() throws IOException {
+        if (!state.compareAndSet(IDLE, REFILLING)) {
+            throw new IOException("Stream is closed");
+        }
+        try {
+            return readBlock();
+        } finally {
+            if (!state.compareAndSet(REFILLING, IDLE)) {
+                // closed while reading the block
+                releaseBuffers();
+            }
+        }
+    }
 
+    private int readBlock() throws IOException {
         // read header
         boolean readFully = readFully(headerBuff, 0, HEADER_LENGTH);
         if (!readFully) {
@@ -118,7 +200,12 @@ public class ClickHouseLZ4InputStream extends InputStream {
         int uncompressedSize = getInt32(headerBuff, 21);
 
         int offset = 9;
-        final byte[] block =  new byte[compressedSizeWithHeader];
+        if (compressedBlock == null || compressedBlock.length < compressedSizeWithHeader) {
+            bufferPool.release(compressedBlock);
+            compressedBlock = bufferPool.lease(compressedSizeWithHeader);
+            compressedBlockBuffer = ByteBuffer.wrap(compressedBlock);
+        }
+        final byte[] block = compressedBlock;
         block[0] = MAGIC;
         setInt32(block, 1, compressedSizeWithHeader);
         setInt32(block, 5, uncompressedSize);
@@ -130,15 +217,22 @@ public class ClickHouseLZ4InputStream extends InputStream {
             throw new EOFException("Unexpected end of stream");
         }
 
-        long[] real = ClickHouseCityHash.cityHash128(block, 0, compressedSizeWithHeader);
-        if (real[0] != getInt64(headerBuff, 0) || real[1] != ClickHouseByteUtils.getInt64(headerBuff, 8)) {
-            throw new ClientException("Corrupted stream: checksum mismatch");
+        final long startNanoTime = statistics == null ? 0 : System.nanoTime();
+        if (!skipChecksum) {
+            long[] real = CityHash128.hash(block, 0, compressedSizeWithHeader);
+            if (real[0] != getInt64(headerBuff, 0) || real[1] != ClickHouseByteUtils.getInt64(headerBuff, 8)) {
+                throw new ClientException("Corrupted stream: checksum mismatch");
+            }
         }
 
         if (buffer.capacity() < uncompressedSize) {
-            buffer = ByteBuffer.allocate(uncompressedSize);
+            bufferPool.release(buffer.array());
+            buffer = ByteBuffer.wrap(bufferPool.lease(uncompressedSize)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        decompressor.decompress(compressedBlockBuffer, offset,  buffer, 0, uncompressedSize);
+        if (statistics != null) {
+            statistics.add(ClientMetrics.RESPONSE_DECOMPRESSION, System.nanoTime() - startNanoTime);
         }
-        decompressor.decompress(ByteBuffer.wrap(block), offset,  buffer, 0, uncompressedSize);
         buffer.position(0);
         buffer.limit(uncompressedSize);
         return uncompressedSize;
@@ -177,6 +271,20 @@ public class ClickHouseLZ4InputStream extends InputStream {
 
     @Override
     public void close() throws IOException {
-        in.close();
+        try {
+            in.close();
+        } finally {
+            if (state.getAndSet(CLOSED) == IDLE) {
+                releaseBuffers();
+            }
+        }
+    }
+
+    private void releaseBuffers() {
+        bufferPool.release(compressedBlock);
+        compressedBlock = null;
+        compressedBlockBuffer = null;
+        bufferPool.release(buffer.array());
+        buffer = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
     }
 }
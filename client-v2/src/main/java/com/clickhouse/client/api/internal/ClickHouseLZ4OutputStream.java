@@ -1,6 +1,5 @@
 package com.clickhouse.client.api.internal;
 
-import com.clickhouse.data.ClickHouseCityHash;
 import net.jpountz.lz4.LZ4Compressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,18 +25,37 @@ public class ClickHouseLZ4OutputStream extends OutputStream {
 
     private static int HEADER_LEN = 15; // 9 bytes for header, 6 bytes for checksum
 
+    private final BufferPool bufferPool;
+
+    private boolean closed;
 
     public ClickHouseLZ4OutputStream(OutputStream out, LZ4Compressor compressor, int bufferSize) {
+        this(out, compressor, bufferSize, BufferPool.NONE);
+    }
+
+    /**
+     * Creates stream that leases its buffers from the pool and returns them on close.
+     *
+     * @param out - output stream for compressed data
+     * @param compressor - LZ4 compressor
+     * @param bufferSize - size of uncompressed block
+     * @param bufferPool - pool of buffers
+     */
+    public ClickHouseLZ4OutputStream(OutputStream out, LZ4Compressor compressor, int bufferSize, BufferPool bufferPool) {
         super();
         LOG.debug("Using LZ4 compressor with buffer size {}", bufferSize);
-        this.inBuffer = ByteBuffer.allocate(bufferSize);
+        this.bufferPool = bufferPool;
+        // slice keeps block size when the pool gives a bigger array
+        this.inBuffer = ByteBuffer.wrap(bufferPool.lease(bufferSize), 0, bufferSize).slice();
         this.out = out;
         this.compressor = compressor;
-        this.compressedBuffer = ByteBuffer.allocate(compressor.maxCompressedLength(inBuffer.capacity()) + HEADER_LEN);
+        this.compressedBuffer = ByteBuffer.wrap(
+                bufferPool.lease(compressor.maxCompressedLength(inBuffer.capacity()) + HEADER_LEN));
     }
 
     @Override
     public void write(int b) throws IOException {
+        ensureOpen();
         if (inBuffer.remaining() == 0) {
             flush();
         }
@@ -66,6 +84,7 @@ public class ClickHouseLZ4OutputStream extends OutputStream {
         } else if (len == 0) {
             return;
         }
+        ensureOpen();
 
         int writtenBytes = 0;
         do {
@@ -80,7 +99,7 @@ public class ClickHouseLZ4OutputStream extends OutputStream {
 
     @Override
     public void flush() throws IOException {
-        if (inBuffer.position() > 0) {
+        if (!closed && inBuffer.position() > 0) {
             compressedBuffer.clear();
             compressedBuffer.put(16, ClickHouseLZ4InputStream.MAGIC);
             int uncompressedLen = inBuffer.position();
@@ -90,7 +109,7 @@ public class ClickHouseLZ4OutputStream extends OutputStream {
             int compressedSizeWithHeader = compressed + 9;
             ClickHouseLZ4InputStream.setInt32(compressedBuffer.array(), 17, compressedSizeWithHeader); // compressed size with header
             ClickHouseLZ4InputStream.setInt32(compressedBuffer.array(), 21, uncompressedLen); // uncompressed size
-            long[] hash = ClickHouseCityHash.cityHash128(compressedBuffer.array(), 16, compressedSizeWithHeader);
+            long[] hash = CityHash128.hash(compressedBuffer, 16, compressedSizeWithHeader);
             setInt64(compressedBuffer.array(), 0, hash[0]);
             setInt64(compressedBuffer.array(), 8, hash[1]);
             compressedBuffer.flip();
@@ -112,7 +131,22 @@ public class ClickHouseLZ4OutputStream extends OutputStream {
     }
     @Override
     public void close() throws IOException {
-        flush();
-        out.close();
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+            out.close();
+        } finally {
+            closed = true;
+            bufferPool.release(inBuffer.array());
+            bufferPool.release(compressedBuffer.array());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
     }
 }
@@ -1,14 +1,28 @@
 package com.clickhouse.client.api.internal;
 
 import com.clickhouse.client.api.metrics.ClientMetrics;
+import com.clickhouse.client.api.metrics.Metric;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class ClientStatisticsHolder {
 
     private final Map<String, StopWatch> stopWatches = new HashMap<>();
 
+    /**
+     * Spans that are measured in multiple steps (like decompression of each block). They are never stopped
+     * by operation completion and may be updated after it.
+     */
+    private final Map<String, StopWatch> accumulators = new HashMap<>();
+
+    private final Map<String, Gauge> counters = new HashMap<>();
+
+    private long responseReceivedNanoTime;
+
+    private Consumer<ClientStatisticsHolder> responseClosedListener;
+
     public void start(ClientMetrics metric) {
         start(metric.getKey());
     }
@@ -27,19 +41,91 @@ public class ClientStatisticsHolder {
         return timer;
     }
 
+    /**
+     * Adds time to an accumulating span.
+     *
+     * @param metric - metric to update
+     * @param nanos - time in nanoseconds
+     */
+    public void add(ClientMetrics metric, long nanos) {
+        accumulators.computeIfAbsent(metric.getKey(), k -> new StopWatch()).add(nanos);
+    }
+
+    public void increment(ClientMetrics metric) {
+        Gauge counter = counters.computeIfAbsent(metric.getKey(), k -> new Gauge(0));
+        counter.set(counter.getLong() + 1);
+    }
+
+    public long getCount(ClientMetrics metric) {
+        Gauge counter = counters.get(metric.getKey());
+        return counter == null ? 0 : counter.getLong();
+    }
+
+    /**
+     * Called by transport when response head is received and response body may be read.
+     */
+    public void responseReceived() {
+        responseReceivedNanoTime = System.nanoTime();
+        accumulators.computeIfAbsent(ClientMetrics.RESPONSE_READ.getKey(), k -> new StopWatch());
+        accumulators.computeIfAbsent(ClientMetrics.RESPONSE_DECOMPRESSION.getKey(), k -> new StopWatch());
+    }
+
+    /**
+     * Called by transport when response is closed. Completes response related spans and notifies listener.
+     */
+    public void responseClosed() {
+        if (responseReceivedNanoTime > 0) {
+            add(ClientMetrics.RESPONSE_READ, System.nanoTime() - responseReceivedNanoTime);
+            responseReceivedNanoTime = 0;
+            if (responseClosedListener != null) {
+                responseClosedListener.accept(this);
+            }
+        }
+    }
+
+    public void setResponseClosedListener(Consumer<ClientStatisticsHolder> listener) {
+        this.responseClosedListener = listener;
+    }
+
     public long getElapsedTime(String spanName) {
         StopWatch sw = stopWatches.get(spanName);
+        if (sw == null) {
+            sw = accumulators.get(spanName);
+        }
         return sw == null ? -1 : sw.getElapsedTime();
     }
 
+    /**
+     * Returns elapsed time of a span in nanoseconds or {@code -1} if span was never measured.
+     * @param metric - metric to look up
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos(ClientMetrics metric) {
+        StopWatch sw = stopWatches.get(metric.getKey());
+        if (sw == null) {
+            sw = accumulators.get(metric.getKey());
+        }
+        return sw == null ? -1 : sw.getElapsedNanos();
+    }
+
     public Map<String, StopWatch> getStopWatches() {
         return stopWatches;
     }
 
+    public Map<String, StopWatch> getAccumulators() {
+        return accumulators;
+    }
+
+    public Map<String, ? extends Metric> getCounters() {
+        return counters;
+    }
+
     @Override
     public String toString() {
         return "ClientStatistics{" +
                 "\"spans\"=" + stopWatches +
+                ", \"accumulators\"=" + accumulators +
+                ", \"counters\"=" + counters +
                 '}';
     }
 }
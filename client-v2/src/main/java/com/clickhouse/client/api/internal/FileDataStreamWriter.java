@@ -0,0 +1,99 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.DataStreamWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Writes content of a file to the request body. The file is opened for each attempt, so retries do not depend
+ * on {@link java.io.InputStream#reset()}.
+ * <p>
+ * The file is read sequentially into one buffer leased from a {@link BufferPool} and each read is written
+ * to the request stream, so no per-attempt buffers are allocated and no file regions stay mapped.
+ */
+public class FileDataStreamWriter implements DataStreamWriter {
+
+    private final Path file;
+
+    private final int bufferSize;
+
+    private final BufferPool bufferPool;
+
+    private long bytesWritten;
+
+    public FileDataStreamWriter(Path file, int bufferSize, BufferPool bufferPool) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be greater than 0");
+        }
+        this.file = file;
+        this.bufferSize = bufferSize;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public void onOutput(OutputStream out) throws IOException {
+        bytesWritten = 0;
+        byte[] buffer = bufferPool.lease(bufferSize);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer readBuffer = ByteBuffer.wrap(buffer);
+            int len;
+            while ((len = channel.read(readBuffer)) >= 0) {
+                out.write(buffer, 0, len);
+                bytesWritten += len;
+                readBuffer.clear();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * @return number of bytes written by the last attempt
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns HTTP content encoding matching the file extension of a compressed file.
+     *
+     * @param file - file to check
+     * @return content encoding or {@code null} if the file name doesn't have a known compression extension
+     */
+    public static String contentEncodingOf(Path file) {
+        Path fileName = file.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        switch (name.substring(dot + 1)) {
+            case "gz":
+                return "gzip";
+            case "zst":
+            case "zstd":
+                return "zstd";
+            case "lz4":
+                return "lz4";
+            case "br":
+                return "br";
+            case "xz":
+                return "xz";
+            case "bz2":
+                return "bz2";
+            case "deflate":
+                return "deflate";
+            default:
+                return null;
+        }
+    }
+}
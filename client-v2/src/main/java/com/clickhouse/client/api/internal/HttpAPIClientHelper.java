@@ -14,9 +14,12 @@ import com.clickhouse.client.api.TransportException;
 import com.clickhouse.client.api.enums.ProxyType;
 import com.clickhouse.client.api.enums.SSLMode;
 import com.clickhouse.client.api.http.ClickHouseHttpProto;
+import com.clickhouse.client.api.metrics.ClientMetrics;
+import com.clickhouse.client.api.metrics.ProgressListener;
 import com.clickhouse.client.api.observability.DefaultSpanRecorder;
 import com.clickhouse.client.api.observability.Span;
 import com.clickhouse.client.api.observability.SpanRecorder;
+import com.clickhouse.client.api.query.ExternalTable;
 import com.clickhouse.client.api.transport.Endpoint;
 import com.clickhouse.client.api.transport.internal.TransportRequest;
 import com.clickhouse.client.api.transport.internal.TransportResponse;
@@ -24,10 +27,16 @@ import com.clickhouse.data.ClickHouseFormat;
 import net.jpountz.lz4.LZ4Factory;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.mime.AbstractContentBody;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.RequestFailedException;
@@ -35,17 +44,20 @@ import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.socket.LayeredConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
@@ -62,7 +74,10 @@ import org.apache.hc.core5.http.impl.io.DefaultHttpResponseParserFactory;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityTemplate;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.concurrent.DefaultThreadFactory;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.io.IOCallback;
 import org.apache.hc.core5.net.URIAuthority;
@@ -71,6 +86,7 @@ import org.apache.hc.core5.pool.ConnPoolControl;
 import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
 import org.apache.hc.core5.pool.PoolReusePolicy;
 import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,6 +98,7 @@ import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocket;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.FilterOutputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Method;
@@ -95,6 +112,7 @@ import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
@@ -107,6 +125,8 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -119,6 +139,24 @@ public class HttpAPIClientHelper {
 
     public static final String KEY_STATEMENT_PARAMS = "statement_params";
 
+    public static final String KEY_EXTERNAL_TABLES = "external_tables";
+
+    /**
+     * Request config key of a {@link ProgressListener} that receives progress headers of the request.
+     */
+    public static final String KEY_PROGRESS_LISTENER = "progress_listener";
+
+    /**
+     * Request config key of a flag that makes a successful response body be returned as sent by the server -
+     * HTTP compression ({@code Content-Encoding}) is not decoded.
+     */
+    public static final String KEY_KEEP_CONTENT_ENCODING = "keep_content_encoding";
+
+    /**
+     * HTTP context attribute holding {@link ClientStatisticsHolder} of the operation a request is executed for.
+     */
+    static final String CTX_ATTR_STATISTICS = "clickhouse.client.statistics";
+
     private static final Logger LOG = LoggerFactory.getLogger(HttpAPIClientHelper.class);
 
     private static final int ERROR_BODY_BUFFER_SIZE = 1024; // Error messages are usually small
@@ -139,8 +177,25 @@ public class HttpAPIClientHelper {
 
     ConnPoolControl<?> poolControl;
 
+    /**
+     * Pooling connection manager or {@code null} when connection pool is disabled.
+     */
+    private PoolingHttpClientConnectionManager pooledConnectionManager;
+
+    private boolean usingHttpProxy;
+
+    private Timeout warmUpLeaseTimeout;
+
+    private TimeValue warmUpKeepAlive;
+
+    private volatile ScheduledExecutorService keepAliveScheduler;
+
     LZ4Factory lz4Factory;
 
+    private final AdaptiveCompression adaptiveCompression;
+
+    private final BufferPool bufferPool;
+
     private final SslContextProvider sslContextProvider = new SslContextProvider();
 
     /**
@@ -158,6 +213,7 @@ public class HttpAPIClientHelper {
         this.httpClient = createHttpClient(initSslContext, configuration);
         this.lz4Factory = lz4Factory;
         assert this.lz4Factory != null;
+        this.bufferPool = new BufferPool(ClientConfigProperties.BUFFER_POOL_MAX_RETAINED_BYTES.<Long>getOrDefault(configuration));
 
         boolean usingClientCompression = ClientConfigProperties.COMPRESS_CLIENT_REQUEST.getOrDefault(configuration);
         boolean usingServerCompression = ClientConfigProperties.COMPRESS_SERVER_RESPONSE.getOrDefault(configuration);
@@ -165,6 +221,14 @@ public class HttpAPIClientHelper {
 
         LOG.debug("client compression: {}, server compression: {}, http compression: {}", usingClientCompression, usingServerCompression, useHttpCompression);
 
+        try {
+            this.adaptiveCompression = new AdaptiveCompression(
+                    ClientConfigProperties.ADAPTIVE_COMPRESSION_CPU_BUDGET.<Integer>getOrDefault(configuration));
+        } catch (IllegalArgumentException e) {
+            throw new ClientMisconfigurationException("Invalid '"
+                    + ClientConfigProperties.ADAPTIVE_COMPRESSION_CPU_BUDGET.getKey() + "': " + e.getMessage());
+        }
+
         defaultRetryCauses = new HashSet<>(ClientConfigProperties.CLIENT_RETRY_ON_FAILURE.getOrDefault(configuration));
         if (defaultRetryCauses.contains(ClientFaultCause.None)) {
             defaultRetryCauses.removeIf(c -> c != ClientFaultCause.None);
@@ -218,11 +282,18 @@ public class HttpAPIClientHelper {
         }
         // else VERIFY_CA / STRICT with no trust material: the JVM default trust store is used.
 
+        builder.sessionCache((Integer) configuration.get(ClientConfigProperties.SSL_SESSION_CACHE_SIZE.getKey()),
+                (Integer) configuration.get(ClientConfigProperties.SSL_SESSION_TIMEOUT.getKey()));
+
         return builder.build();
     }
 
     private static final long CONNECTION_INACTIVITY_CHECK = 5000L;
 
+    private static final String WARM_UP_LEASE_ID = "clickhouse-warm-up";
+
+    private static final String PING_PATH = "ping";
+
     private ConnectionConfig createConnectionConfig(Map<String, Object> configuration) {
         ConnectionConfig.Builder connConfig = ConnectionConfig.custom();
 
@@ -240,7 +311,8 @@ public class HttpAPIClientHelper {
                 .build();
 
         BasicHttpClientConnectionManager connManager = BasicHttpClientConnectionManager.create(
-                null, null, tlsSocketStrategyLookup, null);
+                null, null, tlsSocketStrategyLookup, new ManagedHttpClientConnectionFactory(Http1Config.DEFAULT,
+                        CharCodingConfig.DEFAULT, ProgressResponseParserFactory.INSTANCE));
         connManager.setConnectionConfig(createConnectionConfig(configuration));
         connManager.setSocketConfig(socketConfig);
 
@@ -274,13 +346,19 @@ public class HttpAPIClientHelper {
                         .setBufferSize(networkBufferSize)
                         .build(),
                 CharCodingConfig.DEFAULT,
-                DefaultHttpResponseParserFactory.INSTANCE);
+                ProgressResponseParserFactory.INSTANCE);
 
         connMgrBuilder.setConnectionFactory(connectionFactory);
         connMgrBuilder.setSSLSocketFactory(sslConnectionSocketFactory);
         connMgrBuilder.setDefaultSocketConfig(socketConfig);
         PoolingHttpClientConnectionManager phccm = connMgrBuilder.build();
         poolControl = phccm;
+        pooledConnectionManager = phccm;
+        warmUpLeaseTimeout = Timeout.ofMilliseconds(
+                ClientConfigProperties.CONNECTION_REQUEST_TIMEOUT.<Long>getOrDefault(configuration));
+        Long keepAliveTimeout = ClientConfigProperties.HTTP_KEEP_ALIVE_TIMEOUT.getOrDefault(configuration);
+        warmUpKeepAlive = keepAliveTimeout != null && keepAliveTimeout > 0 ? TimeValue.ofMilliseconds(keepAliveTimeout)
+                : TimeValue.NEG_ONE_MILLISECOND;
         if (metricsRegistry != null) {
             try {
                 String mGroupName = ClientConfigProperties.METRICS_GROUP_NAME.getOrDefault(configuration);
@@ -373,6 +451,7 @@ public class HttpAPIClientHelper {
         ProxyType proxyType = proxyTypeVal == null ? null : ProxyType.valueOf(proxyTypeVal);
         if (proxyType == ProxyType.HTTP) {
             clientBuilder.setProxy(proxy);
+            usingHttpProxy = proxy != null;
             String proxyUser = (String) configuration.get(ClientConfigProperties.PROXY_USER.getKey());
             String proxyPassword = (String) configuration.get(ClientConfigProperties.PROXY_PASSWORD.getKey());
             if (proxyUser != null && proxyPassword != null) {
@@ -402,6 +481,15 @@ public class HttpAPIClientHelper {
 
         clientBuilder.disableContentCompression(); // will handle ourselves
 
+        if (ClientConfigProperties.OPERATION_METRICS_ENABLED.<Boolean>getOrDefault(configuration)) {
+            // Phase timing handlers are added only when operation metrics are enabled, so the
+            // exec chain stays untouched otherwise.
+            clientBuilder.addExecInterceptorBefore(ChainElement.CONNECT.name(), "clickhouse-connection-lease",
+                    new ConnectionLeaseTimingHandler());
+            clientBuilder.addExecInterceptorBefore(ChainElement.MAIN_TRANSPORT.name(), "clickhouse-request-timing",
+                    new RequestTimingHandler());
+        }
+
         return clientBuilder.build();
     }
 
@@ -615,8 +703,12 @@ public class HttpAPIClientHelper {
 
     public TransportRequest createRequest(Endpoint server, Map<String, Object> requestConfig,
                                           String body) {
-        boolean useMultipart = ClientConfigProperties.HTTP_SEND_PARAMS_IN_BODY.<Boolean>getOrDefault(requestConfig) &&
-                requestConfig.containsKey(HttpAPIClientHelper.KEY_STATEMENT_PARAMS);
+        @SuppressWarnings("unchecked")
+        final List<ExternalTable> externalTables = (List<ExternalTable>) requestConfig.get(KEY_EXTERNAL_TABLES);
+        final boolean hasExternalTables = externalTables != null && !externalTables.isEmpty();
+        boolean useMultipart = hasExternalTables
+                || (ClientConfigProperties.HTTP_SEND_PARAMS_IN_BODY.<Boolean>getOrDefault(requestConfig) &&
+                requestConfig.containsKey(HttpAPIClientHelper.KEY_STATEMENT_PARAMS));
 
         // create configuration dependent objects
         final URI uri = createRequestURI(server, requestConfig, useMultipart);
@@ -627,6 +719,9 @@ public class HttpAPIClientHelper {
             MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
             addStatementParams(requestConfig, multipartEntityBuilder::addTextBody);
             multipartEntityBuilder.addTextBody(ClickHouseHttpProto.QPARAM_QUERY_STMT, body);
+            if (hasExternalTables) {
+                addExternalTables(externalTables, multipartEntityBuilder);
+            }
 
             httpEntity = multipartEntityBuilder.build();
             req.setHeader(HttpHeaders.CONTENT_TYPE, httpEntity.getContentType()); // set proper content type with generated boundary value
@@ -652,8 +747,11 @@ public class HttpAPIClientHelper {
 
         private final ClassicHttpResponse delegate;
 
-        TransportResponseImpl(ClassicHttpResponse delegate) {
+        private final ClientStatisticsHolder statistics;
+
+        TransportResponseImpl(ClassicHttpResponse delegate, ClientStatisticsHolder statistics) {
             this.delegate = delegate;
+            this.statistics = statistics;
         }
 
         @Override
@@ -687,7 +785,13 @@ public class HttpAPIClientHelper {
 
         @Override
         public void close() throws IOException {
-            delegate.close();
+            try {
+                delegate.close();
+            } finally {
+                if (statistics != null) {
+                    statistics.responseClosed();
+                }
+            }
         }
 
         @Override
@@ -703,7 +807,7 @@ public class HttpAPIClientHelper {
     /**
      * Executes a single transport request and records it as a child span of the given operation
      * span, so a retried operation reports one request span per attempt. The request itself is
-     * executed by {@link #doExecuteRequest(TransportRequest, Span)}, which stays the single place
+     * executed by {@link #doExecuteRequest(TransportRequest, Span, ClientStatisticsHolder)}, which stays the single place
      * where a request is actually executed and which records the HTTP status of the response.
      *
      * <p>
@@ -717,13 +821,30 @@ public class HttpAPIClientHelper {
      * @throws Exception when the request could not be completed
      */
     public TransportResponse executeRequest(TransportRequest transportRequest, Span operationSpan) throws Exception {
+        return executeRequest(transportRequest, operationSpan, null);
+    }
+
+    /**
+     * Same as {@link #executeRequest(TransportRequest, Span)} but also records transport phases
+     * (connection lease, request write, time to first byte, response decompression and read) into the
+     * given statistics holder.
+     *
+     * @param transportRequest - request to execute
+     * @param operationSpan - span of the operation this request is made for
+     * @param statistics - operation statistics; {@code null} when phases are not recorded
+     * @return transport response
+     * @throws Exception when the request could not be completed
+     */
+    public TransportResponse executeRequest(TransportRequest transportRequest, Span operationSpan,
+                                            ClientStatisticsHolder statistics) throws Exception {
         if (spanRecorder == DefaultSpanRecorder.NOOP) {
-            return executeRequest(transportRequest);
+            return statistics == null ? executeRequest(transportRequest)
+                    : doExecuteRequest(transportRequest, DefaultSpanRecorder.NOOP_SPAN, statistics);
         }
 
         final Span requestSpan = startRequestSpan(operationSpan, transportRequest.getDelegate());
         try {
-            return doExecuteRequest(transportRequest, requestSpan);
+            return doExecuteRequest(transportRequest, requestSpan, statistics);
         } catch (Exception e) {
             spanRecorder.recordRequestFailure(requestSpan, e);
             throw e;
@@ -741,7 +862,7 @@ public class HttpAPIClientHelper {
     }
 
     public TransportResponse executeRequest(TransportRequest transportRequest) throws Exception {
-        return doExecuteRequest(transportRequest, DefaultSpanRecorder.NOOP_SPAN);
+        return doExecuteRequest(transportRequest, DefaultSpanRecorder.NOOP_SPAN, null);
     }
 
     /**
@@ -753,10 +874,12 @@ public class HttpAPIClientHelper {
      * @param transportRequest - request to execute
      * @param requestSpan - span of this request; {@link DefaultSpanRecorder#NOOP_SPAN} when the
      *                    request is not recorded
+     * @param statistics - operation statistics to record transport phases to; may be {@code null}
      * @return transport response
      * @throws Exception when the request could not be completed
      */
-    private TransportResponse doExecuteRequest(TransportRequest transportRequest, Span requestSpan) throws Exception {
+    private TransportResponse doExecuteRequest(TransportRequest transportRequest, Span requestSpan,
+                                               ClientStatisticsHolder statistics) throws Exception {
 
         final Map<String, Object> requestConfig = transportRequest.getConfig();
         final HttpPost req = transportRequest.getDelegate();
@@ -766,8 +889,22 @@ public class HttpAPIClientHelper {
         ClassicHttpResponse httpResponse = null;
         boolean closeResponse = true;
         HttpContext context = createRequestHttpContext(requestConfig);
+        if (statistics != null) {
+            context.setAttribute(CTX_ATTR_STATISTICS, statistics);
+        }
+        final ProgressListener progressListener = (ProgressListener) requestConfig.get(KEY_PROGRESS_LISTENER);
         try {
-            httpResponse = httpClient.executeOpen(null, req, context);
+            if (progressListener == null) {
+                httpResponse = httpClient.executeOpen(null, req, context);
+            } else {
+                // response head is parsed by this thread
+                ProgressResponseParserFactory.setListener(progressListener);
+                try {
+                    httpResponse = httpClient.executeOpen(null, req, context);
+                } finally {
+                    ProgressResponseParserFactory.setListener(null);
+                }
+            }
             if (requestSpan != DefaultSpanRecorder.NOOP_SPAN) {
                 // nothing to report when this request is not recorded - and a recorder is never handed a
                 // span it did not create
@@ -776,7 +913,7 @@ public class HttpAPIClientHelper {
 
             httpResponse.setEntity(wrapResponseEntity(httpResponse.getEntity(),
                     httpResponse.getCode(),
-                    requestConfig));
+                    requestConfig, statistics));
 
             if (httpResponse.containsHeader(ClickHouseHttpProto.HEADER_EXCEPTION_CODE)) {
                 throw readError(req, httpResponse);
@@ -786,7 +923,10 @@ public class HttpAPIClientHelper {
             switch (statusCode) {
                 case HttpStatus.SC_OK:
                     closeResponse = false;
-                    return new TransportResponseImpl(httpResponse);
+                    if (statistics != null) {
+                        statistics.responseReceived();
+                    }
+                    return new TransportResponseImpl(httpResponse, statistics);
                 case HttpStatus.SC_PROXY_AUTHENTICATION_REQUIRED:
                     throw new ClientMisconfigurationException("Proxy authentication required. Please check your proxy settings.");
                 case HttpStatus.SC_BAD_GATEWAY:
@@ -828,13 +968,56 @@ public class HttpAPIClientHelper {
     }
 
     public TransportRequest createRequest(Endpoint server, Map<String, Object> requestConfig, IOCallback<OutputStream> writeCallback) {
+        return createRequest(server, requestConfig, writeCallback, null);
+    }
+
+    /**
+     * Creates a request which body is written by the callback. With a replay buffer, the first attempt captures
+     * the body after compression and next attempts send the captured bytes with the same codec.
+     *
+     * @param server - endpoint
+     * @param requestConfig - request configuration
+     * @param writeCallback - writer of the body
+     * @param replayBuffer - buffer shared by all attempts of an operation or {@code null}
+     * @return request
+     */
+    public TransportRequest createRequest(Endpoint server, Map<String, Object> requestConfig,
+                                          IOCallback<OutputStream> writeCallback, ReplayBuffer replayBuffer) {
+        AdaptiveCompression.Codec codec = null;
+        AdaptiveCompression.Measurement measurement = null;
+        final boolean replay = replayBuffer != null && replayBuffer.isCaptured();
+        if (replay && replayBuffer.getCodec() != null) {
+            // captured body is already compressed with this codec
+            requestConfig = new HashMap<>(requestConfig);
+            replayBuffer.getCodec().apply(requestConfig);
+        } else if (!replay && ClientConfigProperties.ADAPTIVE_CLIENT_COMPRESSION.<Boolean>getOrDefault(requestConfig)
+                && !ClientConfigProperties.APP_COMPRESSED_DATA.<Boolean>getOrDefault(requestConfig)) {
+            codec = adaptiveCompression.select(server.getURI().toString());
+            requestConfig = new HashMap<>(requestConfig);
+            codec.apply(requestConfig);
+            final AdaptiveCompression.Measurement requestMeasurement = new AdaptiveCompression.Measurement();
+            final IOCallback<OutputStream> dataWriter = writeCallback;
+            writeCallback = out -> requestMeasurement.writeData(dataWriter, out);
+            measurement = requestMeasurement;
+        }
+
         final URI uri = createRequestURI(server, requestConfig, false);
         final HttpPost req = createPostRequest(uri, requestConfig);
         try {
             String contentEncoding = req.containsHeader(HttpHeaders.CONTENT_ENCODING) ? req.getHeader(HttpHeaders.CONTENT_ENCODING).getValue() : null;
-            req.setEntity(wrapRequestEntity(
+            HttpEntity entity = wrapRequestEntity(
                     new EntityTemplate(-1, CONTENT_TYPE, contentEncoding, writeCallback),
-                    requestConfig));
+                    requestConfig);
+            if (replayBuffer != null) {
+                if (!replay) {
+                    replayBuffer.setCodec(codec);
+                }
+                entity = replayBuffer.wrap(entity);
+            }
+            if (codec != null) {
+                entity = adaptiveCompression.measure(server.getURI().toString(), codec, entity, measurement);
+            }
+            req.setEntity(entity);
         } catch (ProtocolException e) {
             throw new ClientException("failed to create request body entity", e);
         }
@@ -842,6 +1025,19 @@ public class HttpAPIClientHelper {
         return new TransportRequestImpl(req, requestConfig);
     }
 
+    /**
+     * Returns state of adaptive compression. Used for diagnostics and tests.
+     *
+     * @return adaptive compression
+     */
+    public AdaptiveCompression getAdaptiveCompression() {
+        return adaptiveCompression;
+    }
+
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     private String getQueryId(HttpResponse httpResponse, HttpPost httpRequest) {
         final Header serverQueryIdHeader = httpResponse == null ? null : httpResponse.getFirstHeader(ClickHouseHttpProto.HEADER_QUERY_ID);
         final Header clientQueryIdHeader = httpRequest == null ? null : httpRequest.getFirstHeader(ClickHouseHttpProto.HEADER_QUERY_ID);
@@ -1007,6 +1203,58 @@ public class HttpAPIClientHelper {
         }
     }
 
+    /**
+     * Adds external tables to a multipart request. For each table its format and structure are sent as
+     * {@code <name>_format} and {@code <name>_structure} fields and data is sent as a file part named by the table.
+     */
+    private static void addExternalTables(List<ExternalTable> tables, MultipartEntityBuilder builder) {
+        ContentType textType = ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8);
+        for (ExternalTable table : tables) {
+            builder.addTextBody(table.getName() + "_format", table.getFormat().name(), textType);
+            builder.addTextBody(table.getName() + "_structure", table.getStructure(), textType);
+            builder.addPart(table.getName(), new ExternalTableBody(table));
+        }
+    }
+
+    /**
+     * Multipart body that streams data of an external table when the request is written.
+     */
+    private static final class ExternalTableBody extends AbstractContentBody {
+
+        private final ExternalTable table;
+
+        ExternalTableBody(ExternalTable table) {
+            super(ContentType.APPLICATION_OCTET_STREAM);
+            this.table = table;
+        }
+
+        @Override
+        public String getFilename() {
+            return table.getName();
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            // the rest of the multipart body is written to the same stream, so the writer must not close it
+            table.getWriter().onOutput(new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            });
+        }
+    }
+
     private HttpEntity wrapRequestEntity(HttpEntity httpEntity, Map<String, Object> requestConfig) {
 
         boolean clientCompression = ClientConfigProperties.COMPRESS_CLIENT_REQUEST.getOrDefault(requestConfig);
@@ -1019,17 +1267,22 @@ public class HttpAPIClientHelper {
         } else if (clientCompression && !appCompressedData) {
             int buffSize = ClientConfigProperties.COMPRESSION_LZ4_UNCOMPRESSED_BUF_SIZE.getOrDefault(requestConfig);
             return new LZ4Entity(httpEntity, useHttpCompression, false, true,
-                    buffSize, false, lz4Factory);
+                    buffSize, false, lz4Factory, null, false, bufferPool);
         } else {
             return httpEntity;
         }
     }
 
-    private HttpEntity wrapResponseEntity(HttpEntity httpEntity, int httpStatus, Map<String, Object> requestConfig) {
+    private HttpEntity wrapResponseEntity(HttpEntity httpEntity, int httpStatus, Map<String, Object> requestConfig,
+                                          ClientStatisticsHolder statistics) {
         boolean serverCompression = ClientConfigProperties.COMPRESS_SERVER_RESPONSE.getOrDefault(requestConfig);
         boolean useHttpCompression = ClientConfigProperties.USE_HTTP_COMPRESSION.getOrDefault(requestConfig);
 
         if (httpEntity.getContentEncoding() != null) {
+            if (httpStatus == HttpStatus.SC_OK && MapUtils.getFlag(requestConfig, KEY_KEEP_CONTENT_ENCODING, false)) {
+                // caller stores compressed body as is
+                return httpEntity;
+            }
             // http compressed response
             return new CompressedEntity(httpEntity, true, CompressorStreamFactory.getSingleton());
         }
@@ -1037,7 +1290,9 @@ public class HttpAPIClientHelper {
         // data compression
         if (serverCompression && !(httpStatus == HttpStatus.SC_FORBIDDEN || httpStatus == HttpStatus.SC_UNAUTHORIZED)) {
             int buffSize = ClientConfigProperties.COMPRESSION_LZ4_UNCOMPRESSED_BUF_SIZE.getOrDefault(requestConfig);
-            return new LZ4Entity(httpEntity, useHttpCompression, true, false, buffSize, true, lz4Factory);
+            boolean skipChecksum = ClientConfigProperties.COMPRESSION_LZ4_SKIP_CHECKSUM.getOrDefault(requestConfig);
+            return new LZ4Entity(httpEntity, useHttpCompression, true, false, buffSize, true, lz4Factory, statistics,
+                    skipChecksum, bufferPool);
         }
 
         return httpEntity;
@@ -1219,9 +1474,119 @@ public class HttpAPIClientHelper {
     }
 
     public void close() {
+        ScheduledExecutorService scheduler = keepAliveScheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
         httpClient.close(CloseMode.IMMEDIATE);
     }
 
+    /**
+     * Opens connections to each endpoint until the pool has at least {@code minConnections} of them (but not more
+     * than the pool allows per endpoint). Connections are established, including TLS handshake, and returned
+     * to the pool idle, so the following requests do not pay for it. Failures are logged and do not stop
+     * opening connections to other endpoints.
+     * <p>
+     * Does nothing when connection pool is disabled or requests go through an HTTP proxy - a tunnel through
+     * the proxy is established only while executing a request.
+     *
+     * @param endpoints - endpoints to open connections to
+     * @param minConnections - number of connections to have for each endpoint
+     * @return number of newly opened connections
+     */
+    public int warmUpConnections(Collection<Endpoint> endpoints, int minConnections) {
+        PoolingHttpClientConnectionManager connManager = pooledConnectionManager;
+        if (connManager == null || usingHttpProxy || minConnections <= 0) {
+            return 0;
+        }
+        int opened = 0;
+        for (Endpoint endpoint : endpoints) {
+            HttpRoute route = routeOf(endpoint);
+            int count = Math.min(minConnections, connManager.getMaxPerRoute(route));
+            List<ConnectionEndpoint> leased = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    ConnectionEndpoint connEndpoint = connManager.lease(WARM_UP_LEASE_ID, route, warmUpLeaseTimeout, null)
+                            .get(warmUpLeaseTimeout);
+                    leased.add(connEndpoint);
+                    if (!connEndpoint.isConnected()) {
+                        connManager.connect(connEndpoint, null, HttpClientContext.create());
+                        opened++;
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to open connections to {}: {}", endpoint, e.getMessage());
+            } finally {
+                for (ConnectionEndpoint connEndpoint : leased) {
+                    connManager.release(connEndpoint, null,
+                            connEndpoint.isConnected() ? warmUpKeepAlive : TimeValue.ZERO_MILLISECONDS);
+                }
+            }
+        }
+        LOG.debug("Opened {} connections to {} endpoints", opened, endpoints.size());
+        return opened;
+    }
+
+    /**
+     * Starts sending {@code GET /ping} requests to each endpoint with the given interval. On each round
+     * the pool is topped up to {@code minConnections} (see {@link #warmUpConnections(Collection, int)}) and then
+     * one ping is sent for each idle connection of the endpoint. With {@link ConnectionReuseStrategy#FIFO} pings
+     * go through all idle connections; with {@link ConnectionReuseStrategy#LIFO} the most recently used one is pinged.
+     * Pings are sent from a single daemon thread and are stopped when this helper is closed.
+     *
+     * @param endpoints - endpoints to ping
+     * @param intervalMillis - interval between rounds in milliseconds
+     * @param minConnections - number of connections to keep for each endpoint
+     */
+    public synchronized void startKeepAlivePings(Collection<Endpoint> endpoints, long intervalMillis, int minConnections) {
+        if (pooledConnectionManager == null || intervalMillis <= 0 || keepAliveScheduler != null) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                new DefaultThreadFactory("chc-keep-alive", true));
+        scheduler.scheduleWithFixedDelay(() -> {
+            warmUpConnections(endpoints, minConnections);
+            for (Endpoint endpoint : endpoints) {
+                int idle = pooledConnectionManager.getStats(routeOf(endpoint)).getAvailable();
+                for (int i = 0; i < idle; i++) {
+                    if (!pingEndpoint(endpoint)) {
+                        break;
+                    }
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        keepAliveScheduler = scheduler;
+    }
+
+    /**
+     * Sends {@code GET /ping} to the endpoint. The request doesn't need authentication and is handled by
+     * the server without running a query.
+     *
+     * @param endpoint - endpoint to ping
+     * @return {@code true} if the server responded with {@code 200 OK}
+     */
+    public boolean pingEndpoint(Endpoint endpoint) {
+        try {
+            URI uri = endpoint.getURI();
+            String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+            uri = new URIBuilder(uri).setPath(path.endsWith("/") ? path + PING_PATH : path + "/" + PING_PATH).build();
+            return httpClient.execute(new HttpGet(uri), response -> {
+                EntityUtils.consume(response.getEntity());
+                return response.getCode() == HttpStatus.SC_OK;
+            });
+        } catch (Exception e) {
+            LOG.debug("Failed to ping {}", endpoint, e);
+            return false;
+        }
+    }
+
+    private static HttpRoute routeOf(Endpoint endpoint) {
+        URI uri = endpoint.getURI();
+        boolean secure = URIScheme.HTTPS.same(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+
     private static <T> void setHeader(HttpRequest req, String headerName,
                                       String value)
     {
@@ -1299,6 +1664,67 @@ public class HttpAPIClientHelper {
         }
     }
 
+    private static ClientStatisticsHolder getStatistics(ExecChain.Scope scope) {
+        Object statistics = scope.clientContext.getAttribute(CTX_ATTR_STATISTICS);
+        return statistics instanceof ClientStatisticsHolder ? (ClientStatisticsHolder) statistics : null;
+    }
+
+    /**
+     * Starts measuring connection lease. Connect stage leases a connection from the pool and opens it if needed.
+     */
+    static class ConnectionLeaseTimingHandler implements ExecChainHandler {
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            ClientStatisticsHolder statistics = getStatistics(scope);
+            if (statistics != null) {
+                statistics.start(ClientMetrics.CONNECTION_LEASE);
+            }
+            return chain.proceed(request, scope);
+        }
+    }
+
+    /**
+     * Completes connection lease and measures request write and time to first byte (time between the end of
+     * request write and receiving response head).
+     */
+    static class RequestTimingHandler implements ExecChainHandler {
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            ClientStatisticsHolder statistics = getStatistics(scope);
+            if (statistics == null) {
+                return chain.proceed(request, scope);
+            }
+            statistics.stop(ClientMetrics.CONNECTION_LEASE);
+            HttpEntity entity = request.getEntity();
+            if (entity == null) {
+                statistics.start(ClientMetrics.TIME_TO_FIRST_BYTE);
+            } else {
+                request.setEntity(new HttpEntityWrapper(entity) {
+                    @Override
+                    public void writeTo(OutputStream outStream) throws IOException {
+                        statistics.start(ClientMetrics.REQUEST_WRITE);
+                        try {
+                            super.writeTo(outStream);
+                        } finally {
+                            statistics.stop(ClientMetrics.REQUEST_WRITE);
+                            statistics.start(ClientMetrics.TIME_TO_FIRST_BYTE);
+                        }
+                    }
+                });
+            }
+            try {
+                ClassicHttpResponse response = chain.proceed(request, scope);
+                statistics.stop(ClientMetrics.TIME_TO_FIRST_BYTE);
+                return response;
+            } finally {
+                // request may be executed again on retry
+                request.setEntity(entity);
+            }
+        }
+    }
+
     public static class CustomSSLConnectionFactory extends SSLConnectionSocketFactory {
 
         private final SNIHostName defaultSNI;
@@ -29,8 +29,34 @@ class LZ4Entity implements HttpEntity {
 
     private LZ4Factory lz4Factory = null;
 
+    private final ClientStatisticsHolder statistics;
+
+    private final boolean skipChecksum;
+
+    private final BufferPool bufferPool;
+
     LZ4Entity(HttpEntity httpEntity, boolean useHttpCompression, boolean serverCompression, boolean clientCompression,
               int bufferSize, boolean isResponse, LZ4Factory lz4Factory) {
+        this(httpEntity, useHttpCompression, serverCompression, clientCompression, bufferSize, isResponse, lz4Factory,
+                null);
+    }
+
+    LZ4Entity(HttpEntity httpEntity, boolean useHttpCompression, boolean serverCompression, boolean clientCompression,
+              int bufferSize, boolean isResponse, LZ4Factory lz4Factory, ClientStatisticsHolder statistics) {
+        this(httpEntity, useHttpCompression, serverCompression, clientCompression, bufferSize, isResponse, lz4Factory,
+                statistics, false);
+    }
+
+    LZ4Entity(HttpEntity httpEntity, boolean useHttpCompression, boolean serverCompression, boolean clientCompression,
+              int bufferSize, boolean isResponse, LZ4Factory lz4Factory, ClientStatisticsHolder statistics,
+              boolean skipChecksum) {
+        this(httpEntity, useHttpCompression, serverCompression, clientCompression, bufferSize, isResponse, lz4Factory,
+                statistics, skipChecksum, BufferPool.NONE);
+    }
+
+    LZ4Entity(HttpEntity httpEntity, boolean useHttpCompression, boolean serverCompression, boolean clientCompression,
+              int bufferSize, boolean isResponse, LZ4Factory lz4Factory, ClientStatisticsHolder statistics,
+              boolean skipChecksum, BufferPool bufferPool) {
         this.httpEntity = httpEntity;
         this.useHttpCompression = useHttpCompression;
         this.bufferSize = bufferSize;
@@ -38,6 +64,9 @@ class LZ4Entity implements HttpEntity {
         this.clientCompression = clientCompression;
         this.isResponse = isResponse;
         this.lz4Factory = lz4Factory;
+        this.statistics = statistics;
+        this.skipChecksum = skipChecksum;
+        this.bufferPool = bufferPool;
     }
 
     @Override
@@ -63,7 +92,7 @@ class LZ4Entity implements HttpEntity {
                 }
             } else  {
                 return new ClickHouseLZ4InputStream(httpEntity.getContent(), lz4Factory.fastDecompressor(),
-                        bufferSize);
+                        bufferSize, statistics, skipChecksum, bufferPool);
             }
         } else {
             return httpEntity.getContent();
@@ -81,7 +110,8 @@ class LZ4Entity implements HttpEntity {
             if (useHttpCompression) {
                 compressingStream = new FramedLZ4CompressorOutputStream(outStream);
             } else {
-                compressingStream = new ClickHouseLZ4OutputStream(outStream, lz4Factory.fastCompressor(), bufferSize);
+                compressingStream = new ClickHouseLZ4OutputStream(outStream, lz4Factory.fastCompressor(), bufferSize,
+                        bufferPool);
             }
 
             try {
@@ -0,0 +1,164 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.DataStreamWriter;
+import com.clickhouse.data.ClickHouseFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Splits data of a line-delimited format into chunks of whole rows and distributes them between writers of
+ * concurrent insert requests. A writer takes the next chunk when it is ready, so faster requests get more data.
+ * <p>
+ * Chunks are cut only at a line feed, so the format must end each row with a line feed and must not have
+ * line feeds inside rows (for example, {@code JSONEachRow} must have one object per line).
+ */
+public class LineChunkDistributor {
+
+    private static final Set<ClickHouseFormat> SPLITTABLE_FORMATS = EnumSet.of(
+            ClickHouseFormat.TabSeparated, ClickHouseFormat.TSV, ClickHouseFormat.TSKV,
+            ClickHouseFormat.JSONEachRow, ClickHouseFormat.JSONLines, ClickHouseFormat.NDJSON,
+            ClickHouseFormat.JSONStringsEachRow, ClickHouseFormat.JSONCompactEachRow,
+            ClickHouseFormat.JSONCompactStringsEachRow, ClickHouseFormat.LineAsString);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final InputStream input;
+
+    private final int chunkSize;
+
+    private final BlockingQueue<byte[]> chunks;
+
+    private volatile boolean complete;
+
+    private volatile boolean aborted;
+
+    /**
+     * @param input - data to distribute
+     * @param writers - number of writers
+     * @param chunkSize - approximate size of a chunk. A chunk is bigger when a row does not fit.
+     */
+    public LineChunkDistributor(InputStream input, int writers, int chunkSize) {
+        this.input = input;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.chunks = new ArrayBlockingQueue<>(writers * 2);
+    }
+
+    /**
+     * Checks if data of the format can be split by lines.
+     *
+     * @param format - data format
+     * @return {@code true} if rows of the format are separate lines without a header
+     */
+    public static boolean isSplittable(ClickHouseFormat format) {
+        return SPLITTABLE_FORMATS.contains(format);
+    }
+
+    /**
+     * Reads the input and passes chunks to writers. Writers complete when all chunks are taken. If reading fails or
+     * {@code failed} returns {@code true} then writers are aborted.
+     *
+     * @param failed - tells if any of the requests failed
+     * @throws IOException when failed to read the input
+     */
+    public void distribute(BooleanSupplier failed) throws IOException {
+        try {
+            byte[] buffer = new byte[chunkSize];
+            int size = 0;
+            int n;
+            while ((n = input.read(buffer, size, buffer.length - size)) != -1) {
+                size += n;
+                if (size < buffer.length) {
+                    continue;
+                }
+                int end = lastLineEnd(buffer, size);
+                if (end == 0) {
+                    // a row does not fit the chunk
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                put(Arrays.copyOf(buffer, end), failed);
+                size -= end;
+                System.arraycopy(buffer, end, buffer, 0, size);
+            }
+            if (size > 0) {
+                put(Arrays.copyOf(buffer, size), failed);
+            }
+            complete = true;
+        } catch (IOException | RuntimeException e) {
+            aborted = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a writer of one request. The writer does not support retries because chunks it has sent are not
+     * kept.
+     *
+     * @return new writer
+     */
+    public DataStreamWriter newWriter() {
+        return new DataStreamWriter() {
+            @Override
+            public void onOutput(OutputStream out) throws IOException {
+                try {
+                    while (true) {
+                        byte[] chunk = chunks.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                        if (aborted) {
+                            throw new IOException("Parallel insert is aborted");
+                        } else if (chunk != null) {
+                            out.write(chunk);
+                        } else if (complete && chunks.isEmpty()) {
+                            break;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    aborted = true;
+                    throw new InterruptedIOException("Interrupted while waiting for data");
+                } catch (IOException | RuntimeException e) {
+                    aborted = true;
+                    throw e;
+                }
+                out.close();
+            }
+
+            @Override
+            public void onRetry() throws IOException {
+                aborted = true;
+                throw new IOException("Retry is not supported for a stream of a parallel insert");
+            }
+        };
+    }
+
+    private void put(byte[] chunk, BooleanSupplier failed) throws IOException {
+        try {
+            do {
+                if (aborted || failed.getAsBoolean()) {
+                    throw new IOException("Parallel insert is aborted");
+                }
+            } while (!chunks.offer(chunk, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while distributing data");
+        }
+    }
+
+    private static int lastLineEnd(byte[] buffer, int size) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.data_formats.internal.ProcessParser;
+import com.clickhouse.client.api.http.ClickHouseHttpProto;
+import com.clickhouse.client.api.metrics.ProgressListener;
+import com.clickhouse.client.api.metrics.QueryProgress;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.impl.io.DefaultHttpResponseParserFactory;
+import org.apache.hc.core5.http.io.HttpMessageParser;
+import org.apache.hc.core5.http.io.HttpTransportMetrics;
+import org.apache.hc.core5.http.io.SessionInputBuffer;
+import org.apache.hc.core5.util.CharArrayBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Creates response parsers that pass {@code X-ClickHouse-Progress} headers to the progress listener of the request
+ * executed by the current thread as soon as each header line is read. The server sends these headers while
+ * a query runs, so the listener is not delayed until the whole response head is received.
+ */
+class ProgressResponseParserFactory extends DefaultHttpResponseParserFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProgressResponseParserFactory.class);
+
+    static final ProgressResponseParserFactory INSTANCE = new ProgressResponseParserFactory();
+
+    private static final String PROGRESS_HEADER_PREFIX = ClickHouseHttpProto.HEADER_PROGRESS + ":";
+
+    private static final ThreadLocal<Tracker> TRACKER = new ThreadLocal<>();
+
+    /**
+     * Sets the listener of the request executed by the current thread.
+     *
+     * @param listener - progress listener; {@code null} to remove
+     */
+    static void setListener(ProgressListener listener) {
+        if (listener == null) {
+            TRACKER.remove();
+        } else {
+            TRACKER.set(new Tracker(listener, System.nanoTime()));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public HttpMessageParser<ClassicHttpResponse> create(Http1Config http1Config) {
+        return track(super.create(http1Config));
+    }
+
+    @Override
+    public HttpMessageParser<ClassicHttpResponse> create() {
+        return track(super.create());
+    }
+
+    private static HttpMessageParser<ClassicHttpResponse> track(HttpMessageParser<ClassicHttpResponse> parser) {
+        return (buffer, inputStream) -> {
+            Tracker tracker = TRACKER.get();
+            return parser.parse(tracker == null ? buffer : new TrackingBuffer(buffer, tracker), inputStream);
+        };
+    }
+
+    static final class Tracker {
+
+        private final ProgressListener listener;
+
+        private final long startNanos;
+
+        Tracker(ProgressListener listener, long startNanos) {
+            this.listener = listener;
+            this.startNanos = startNanos;
+        }
+
+        void onHeaderLine(CharArrayBuffer line, int start) {
+            int length = line.length() - start;
+            if (length <= PROGRESS_HEADER_PREFIX.length()
+                    || !line.substring(start, start + PROGRESS_HEADER_PREFIX.length())
+                    .equalsIgnoreCase(PROGRESS_HEADER_PREFIX)) {
+                return;
+            }
+
+            Map<String, Long> values;
+            try {
+                values = ProcessParser.parse(line.substring(start + PROGRESS_HEADER_PREFIX.length(), line.length()));
+            } catch (IllegalArgumentException e) {
+                LOG.debug("Skipping invalid progress header: {}", line, e);
+                return;
+            }
+            Long elapsed = values.get("elapsed_ns");
+            listener.onProgress(new QueryProgress(
+                    values.getOrDefault("read_rows", -1L),
+                    values.getOrDefault("read_bytes", -1L),
+                    values.getOrDefault("written_rows", -1L),
+                    values.getOrDefault("written_bytes", -1L),
+                    values.getOrDefault("total_rows_to_read", -1L),
+                    elapsed == null ? System.nanoTime() - startNanos : elapsed));
+        }
+    }
+
+    private static final class TrackingBuffer implements SessionInputBuffer {
+
+        private final SessionInputBuffer buffer;
+
+        private final Tracker tracker;
+
+        TrackingBuffer(SessionInputBuffer buffer, Tracker tracker) {
+            this.buffer = buffer;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public int readLine(CharArrayBuffer charBuffer, InputStream inputStream) throws IOException {
+            int start = charBuffer.length();
+            int n = buffer.readLine(charBuffer, inputStream);
+            if (n > 0) {
+                tracker.onHeaderLine(charBuffer, start);
+            }
+            return n;
+        }
+
+        @Override
+        public int length() {
+            return buffer.length();
+        }
+
+        @Override
+        public int capacity() {
+            return buffer.capacity();
+        }
+
+        @Override
+        public int available() {
+            return buffer.available();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len, InputStream inputStream) throws IOException {
+            return buffer.read(b, off, len, inputStream);
+        }
+
+        @Override
+        public int read(byte[] b, InputStream inputStream) throws IOException {
+            return buffer.read(b, inputStream);
+        }
+
+        @Override
+        public int read(InputStream inputStream) throws IOException {
+            return buffer.read(inputStream);
+        }
+
+        @Override
+        public HttpTransportMetrics getMetrics() {
+            return buffer.getMetrics();
+        }
+    }
+}
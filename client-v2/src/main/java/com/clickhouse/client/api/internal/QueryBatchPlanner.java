@@ -0,0 +1,171 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.query.QueryStatement;
+import com.clickhouse.data.ClickHouseColumn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Plans execution of a query batch. Statements that return the same columns are merged into one
+ * {@code UNION ALL} query where each row is tagged with the index of its statement in the
+ * {@link #STATEMENT_COLUMN} column, so a group of statements takes one request.
+ * <p>
+ * The structure of a result is known only after a statement is run, so a statement is run alone the first time
+ * and its columns are remembered by the query text. The cache is bounded: when it is full, it is cleared and
+ * filled again. Only plain {@code SELECT} and {@code WITH} statements without {@code FORMAT} are merged.
+ * Statements are merged only if they have no parameters with the same name and different values.
+ */
+public class QueryBatchPlanner {
+
+    public static final String STATEMENT_COLUMN = "_chc_batch_statement";
+
+    static final int MAX_STRUCTURES = 1024;
+
+    private static final Pattern SELECT_STATEMENT = Pattern.compile("^(SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FORMAT_CLAUSE = Pattern.compile("\\bFORMAT\\b", Pattern.CASE_INSENSITIVE);
+
+    private final ConcurrentHashMap<String, String> structures = new ConcurrentHashMap<>();
+
+    /**
+     * Remembers columns returned by a statement.
+     *
+     * @param query - query text of the statement
+     * @param columns - columns of the result
+     */
+    public void remember(String query, List<ClickHouseColumn> columns) {
+        if (mergeableQuery(query) == null) {
+            return;
+        }
+        if (structures.size() >= MAX_STRUCTURES) {
+            structures.clear();
+        }
+        structures.put(query, structureOf(columns));
+    }
+
+    /**
+     * Splits statements into groups. A group of one statement is run as is, a bigger group is run as
+     * a {@link #mergedQuery(List, List) merged query}.
+     *
+     * @param statements - statements of the batch
+     * @return groups of statement indexes in the order of their first statement
+     */
+    public List<List<Integer>> plan(List<QueryStatement> statements) {
+        List<List<Integer>> groups = new ArrayList<>();
+        Map<String, List<List<Integer>>> groupsByStructure = new HashMap<>();
+        for (int i = 0; i < statements.size(); i++) {
+            QueryStatement statement = statements.get(i);
+            String structure = mergeableQuery(statement.getQuery()) == null ? null
+                    : structures.get(statement.getQuery());
+            if (structure == null) {
+                groups.add(Collections.singletonList(i));
+                continue;
+            }
+            List<List<Integer>> candidates = groupsByStructure.computeIfAbsent(structure, k -> new ArrayList<>());
+            List<Integer> group = null;
+            for (List<Integer> candidate : candidates) {
+                if (paramsMatch(statements, candidate, statement)) {
+                    group = candidate;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                candidates.add(group);
+                groups.add(group);
+            }
+            group.add(i);
+        }
+        return groups;
+    }
+
+    /**
+     * Checks that a merged query returned the columns remembered for its statements.
+     *
+     * @param statement - any statement of the group
+     * @param columns - columns of the merged query result
+     * @return {@code true} if rows of the merged query can be returned as rows of the statements
+     */
+    public boolean matches(QueryStatement statement, List<ClickHouseColumn> columns) {
+        int last = columns.size() - 1;
+        return last > 0 && STATEMENT_COLUMN.equals(columns.get(last).getColumnName())
+                && structureOf(columns.subList(0, last)).equals(structures.get(statement.getQuery()));
+    }
+
+    /**
+     * Builds a query that returns rows of all statements of a group. Each row has the index of its statement
+     * in the last column {@link #STATEMENT_COLUMN}.
+     *
+     * @param statements - statements of the batch
+     * @param group - indexes of the statements to merge
+     * @return merged query
+     */
+    public static String mergedQuery(List<QueryStatement> statements, List<Integer> group) {
+        StringBuilder sql = new StringBuilder();
+        for (int i : group) {
+            if (sql.length() > 0) {
+                sql.append("\nUNION ALL\n");
+            }
+            // line breaks keep a trailing comment of the statement from hiding the closing parenthesis
+            sql.append("SELECT *, toUInt32(").append(i).append(") AS ").append(STATEMENT_COLUMN)
+                    .append(" FROM (\n").append(mergeableQuery(statements.get(i).getQuery())).append("\n)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * @param statements - statements of the batch
+     * @param group - indexes of the merged statements
+     * @return parameters of all statements of the group
+     */
+    public static Map<String, Object> mergedParams(List<QueryStatement> statements, List<Integer> group) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i : group) {
+            params.putAll(statements.get(i).getParams());
+        }
+        return params;
+    }
+
+    /**
+     * @param query - query text
+     * @return query without trailing semicolon or {@code null} if the query cannot be a subquery
+     */
+    static String mergeableQuery(String query) {
+        String sql = query.trim();
+        while (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1).trim();
+        }
+        if (!SELECT_STATEMENT.matcher(sql).find() || sql.indexOf(';') >= 0 || FORMAT_CLAUSE.matcher(sql).find()) {
+            return null;
+        }
+        return sql;
+    }
+
+    private static String structureOf(List<ClickHouseColumn> columns) {
+        StringBuilder structure = new StringBuilder();
+        for (ClickHouseColumn column : columns) {
+            structure.append(column.getColumnName()).append(' ').append(column.getOriginalTypeName()).append('\n');
+        }
+        return structure.toString();
+    }
+
+    private static boolean paramsMatch(List<QueryStatement> statements, List<Integer> group, QueryStatement statement) {
+        for (Map.Entry<String, Object> param : statement.getParams().entrySet()) {
+            for (int i : group) {
+                Map<String, Object> params = statements.get(i).getParams();
+                if (params.containsKey(param.getKey()) && !Objects.equals(params.get(param.getKey()), param.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,219 @@
+package com.clickhouse.client.api.internal;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.io.IOCallback;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures a request body as it is sent to the server - encoded and compressed - once and writes the same bytes
+ * for every attempt of an operation. Retries and failovers to another endpoint do not encode or compress data again
+ * and do not depend on {@link java.io.InputStream#reset()} of the source.
+ * <p>
+ * Data is kept in memory chunks leased from a {@link BufferPool} up to the memory limit. The rest of the body
+ * is written to a temporary file. Chunks are released and the file is deleted when the buffer is closed.
+ * <p>
+ * When adaptive compression is used, the codec selected for the first attempt is kept for the next attempts
+ * because the captured body is compressed with it.
+ */
+public class ReplayBuffer implements Closeable {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+    private final long memoryLimit;
+
+    private final BufferPool bufferPool;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private int lastChunkLength;
+
+    private long memorySize;
+
+    private Path spillFile;
+
+    private long spillSize;
+
+    private boolean captured;
+
+    private AdaptiveCompression.Codec codec;
+
+    /**
+     * @param memoryLimit - max number of bytes kept in memory
+     * @param bufferPool - pool of memory chunks
+     */
+    public ReplayBuffer(long memoryLimit, BufferPool bufferPool) {
+        if (memoryLimit < 0) {
+            throw new IllegalArgumentException("Memory limit should not be negative");
+        }
+        this.memoryLimit = memoryLimit;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Captures everything the writer writes. The buffer is emptied if the writer fails.
+     *
+     * @param writer - writer of the request body
+     * @throws IOException when the writer fails or data cannot be spilled
+     */
+    public void capture(IOCallback<OutputStream> writer) throws IOException {
+        release();
+        try (CaptureStream capture = new CaptureStream()) {
+            writer.execute(capture);
+        } catch (IOException | RuntimeException | Error e) {
+            release();
+            throw e;
+        }
+        captured = true;
+    }
+
+    /**
+     * Writes the captured body.
+     *
+     * @param out - output stream
+     * @throws IOException when writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (!captured) {
+            throw new IllegalStateException("Body is not captured");
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] chunk = chunks.get(i);
+            out.write(chunk, 0, i == chunks.size() - 1 ? lastChunkLength : chunk.length);
+        }
+        if (spillFile != null) {
+            Files.copy(spillFile, out);
+        }
+    }
+
+    /**
+     * Wraps a request entity, so the body it produces is captured by the first attempt and replayed by the next ones.
+     *
+     * @param entity - entity that encodes and compresses the body
+     * @return entity writing the captured body
+     */
+    HttpEntity wrap(HttpEntity entity) {
+        return new HttpEntityWrapper(entity) {
+            @Override
+            public void writeTo(OutputStream outStream) throws IOException {
+                if (!captured) {
+                    capture(super::writeTo);
+                }
+                ReplayBuffer.this.writeTo(outStream);
+            }
+        };
+    }
+
+    /**
+     * @return {@code true} if the body is captured and next attempts replay it
+     */
+    public boolean isCaptured() {
+        return captured;
+    }
+
+    /**
+     * @return total size of the captured body in bytes
+     */
+    public long getSize() {
+        return memorySize + spillSize;
+    }
+
+    /**
+     * @return number of bytes written to the temporary file
+     */
+    public long getSpilledSize() {
+        return spillSize;
+    }
+
+    AdaptiveCompression.Codec getCodec() {
+        return codec;
+    }
+
+    void setCodec(AdaptiveCompression.Codec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+    }
+
+    private void release() throws IOException {
+        for (byte[] chunk : chunks) {
+            bufferPool.release(chunk);
+        }
+        chunks.clear();
+        lastChunkLength = 0;
+        memorySize = 0;
+        spillSize = 0;
+        captured = false;
+        if (spillFile != null) {
+            Path file = spillFile;
+            spillFile = null;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private final class CaptureStream extends OutputStream {
+
+        private OutputStream spill;
+
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            while (len > 0 && spill == null) {
+                long available = memoryLimit - memorySize;
+                if (available <= 0) {
+                    spillFile = Files.createTempFile("clickhouse-insert-", ".bin");
+                    spill = new BufferedOutputStream(Files.newOutputStream(spillFile), SPILL_BUFFER_SIZE);
+                    break;
+                }
+                byte[] chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+                if (chunk == null || lastChunkLength == chunk.length) {
+                    chunk = bufferPool.lease(CHUNK_SIZE);
+                    chunks.add(chunk);
+                    lastChunkLength = 0;
+                }
+                int n = (int) Math.min(Math.min(len, chunk.length - lastChunkLength), available);
+                System.arraycopy(b, off, chunk, lastChunkLength, n);
+                lastChunkLength += n;
+                memorySize += n;
+                off += n;
+                len -= n;
+            }
+            if (len > 0) {
+                spill.write(b, off, len);
+                spillSize += len;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                if (spill != null) {
+                    spill.close();
+                }
+            }
+        }
+    }
+}
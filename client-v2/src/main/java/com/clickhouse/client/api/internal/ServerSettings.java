@@ -47,6 +47,11 @@ public final class ServerSettings {
 
     public static final String WAIT_ASYNC_INSERT = "wait_for_async_insert";
 
+    /**
+     * Server sends {@code X-ClickHouse-Progress} headers while a query runs.
+     */
+    public static final String SEND_PROGRESS_IN_HTTP_HEADERS = "send_progress_in_http_headers";
+
     // Misc
     public static final String ON = "1";
 
@@ -184,6 +184,8 @@ public class SslContextProvider {
         private String trustStoreType;
         private String rootCertificate;
         private boolean trustAll;
+        private Integer sessionCacheSize;
+        private Integer sessionTimeout;
 
         /**
          * Sets the client certificate and key applied for mutual TLS. Independent of the trust strategy.
@@ -234,6 +236,23 @@ public class SslContextProvider {
             return this;
         }
 
+        /**
+         * Sets parameters of the client session cache used to resume TLS sessions. Resumed session skips
+         * the full handshake when a new connection is opened to the same server.
+         *
+         * @param cacheSize maximum number of cached sessions, 0 for no limit; null to keep the JVM default
+         * @param timeout   time in seconds a session can be resumed, 0 for no limit; null to keep the JVM default
+         * @return this builder
+         */
+        public Builder sessionCache(Integer cacheSize, Integer timeout) {
+            if ((cacheSize != null && cacheSize < 0) || (timeout != null && timeout < 0)) {
+                throw new ClientMisconfigurationException("SSL session cache size and timeout cannot be negative");
+            }
+            this.sessionCacheSize = cacheSize;
+            this.sessionTimeout = timeout;
+            return this;
+        }
+
         /**
          * Builds the SSL context from the configured key and trust material.
          *
@@ -272,6 +291,12 @@ public class SslContextProvider {
 
                 SSLContext ctx = SSLContext.getInstance(SSL_PROTOCOL);
                 ctx.init(kms, tms, new SecureRandom());
+                if (sessionCacheSize != null) {
+                    ctx.getClientSessionContext().setSessionCacheSize(sessionCacheSize);
+                }
+                if (sessionTimeout != null) {
+                    ctx.getClientSessionContext().setSessionTimeout(sessionTimeout);
+                }
                 return ctx;
             } catch (GeneralSecurityException | IOException e) {
                 throw new ClientMisconfigurationException("Failed to create SSL context", e);
@@ -25,6 +25,14 @@ public class StopWatch implements Metric {
         elapsedNanoTime = System.nanoTime() - startNanoTime;
     }
 
+    /**
+     * Adds time measured elsewhere. Used for spans that are measured in multiple steps.
+     * @param nanos - time in nanoseconds
+     */
+    public void add(long nanos) {
+        elapsedNanoTime += nanos;
+    }
+
     /**
      * Returns the elapsed time in milliseconds.
      * @return
@@ -10,7 +10,48 @@ public enum ClientMetrics {
     /**
      * Duration of the operation serialization step in milliseconds.
      */
-    OP_SERIALIZATION("client.opSerialization");
+    OP_SERIALIZATION("client.opSerialization"),
+
+    /**
+     * Time in milliseconds spent to lease a connection from the pool (including establishing a new one
+     * when no idle connection is available) for the last request attempt.
+     */
+    CONNECTION_LEASE("client.connectionLease"),
+
+    /**
+     * Time in milliseconds spent writing the request body (including client side compression)
+     * for the last request attempt.
+     */
+    REQUEST_WRITE("client.requestWrite"),
+
+    /**
+     * Time in milliseconds from the end of the request write (or from sending the request when it has no body)
+     * to receiving the response head for the last request attempt. Does not include {@link #REQUEST_WRITE}.
+     * It is mostly server processing time until the first bytes of the result are ready.
+     */
+    TIME_TO_FIRST_BYTE("client.timeToFirstByte"),
+
+    /**
+     * Total time in milliseconds spent decompressing and verifying response blocks. Accumulated while
+     * the response is read, so the value is final only after the response is closed.
+     */
+    RESPONSE_DECOMPRESSION("client.responseDecompression"),
+
+    /**
+     * Time in milliseconds from receiving the response head to closing the response. It is the time
+     * application spent reading and decoding the response body. Set only after the response is closed.
+     */
+    RESPONSE_READ("client.responseRead"),
+
+    /**
+     * Number of request attempts that were retried.
+     */
+    RETRIES("client.retries"),
+
+    /**
+     * Number of retries that were sent to a different endpoint.
+     */
+    FAILOVERS("client.failovers");
 
     private final String key;
 
@@ -63,4 +63,11 @@ public class MicrometerLoader {
         }
     }
 
+    public static OperationMetricsRecorder createOperationMetricsRecorder(Object registry, String metricsGroupName) {
+        if (registry instanceof MeterRegistry) {
+            return new MicrometerOperationMetricsRecorder((MeterRegistry) registry, metricsGroupName);
+        } else {
+            throw new ClientMisconfigurationException("Unsupported registry type." + registry.getClass());
+        }
+    }
 }
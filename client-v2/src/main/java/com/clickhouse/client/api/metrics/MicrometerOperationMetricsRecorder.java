@@ -0,0 +1,146 @@
+package com.clickhouse.client.api.metrics;
+
+import com.clickhouse.client.api.internal.ClientStatisticsHolder;
+import com.clickhouse.client.api.internal.StopWatch;
+import com.clickhouse.client.api.transport.Endpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer backed {@link OperationMetricsRecorder}. Every meter is tagged with metrics group name,
+ * operation and endpoint ({@code host:port}). Timers publish percentile histograms so latency distribution
+ * of each phase can be queried from the backend.
+ * <p>
+ * Loaded by reflection (see {@link MicrometerLoader}) because Micrometer is an optional dependency.
+ */
+class MicrometerOperationMetricsRecorder implements OperationMetricsRecorder {
+
+    static final String OPERATION_DURATION = "clickhouse.client.operation.duration";
+    static final String SERIALIZATION = "clickhouse.client.serialization";
+    static final String CONNECTION_LEASE = "clickhouse.client.connection.lease";
+    static final String REQUEST_WRITE = "clickhouse.client.request.write";
+    static final String TIME_TO_FIRST_BYTE = "clickhouse.client.time_to_first_byte";
+    static final String RESPONSE_DECOMPRESSION = "clickhouse.client.response.decompression";
+    static final String RESPONSE_READ = "clickhouse.client.response.read";
+    static final String SERVER_ELAPSED = "clickhouse.server.elapsed";
+    static final String ROWS = "clickhouse.client.operation.rows";
+    static final String BYTES = "clickhouse.client.operation.bytes";
+    static final String RETRIES = "clickhouse.client.retries";
+    static final String FAILOVERS = "clickhouse.client.failovers";
+    static final String FAILURES = "clickhouse.client.failures";
+
+    private final MeterRegistry registry;
+
+    private final String groupName;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    MicrometerOperationMetricsRecorder(MeterRegistry registry, String groupName) {
+        this.registry = registry;
+        this.groupName = groupName;
+    }
+
+    @Override
+    public void recordOperation(String operation, Endpoint endpoint, OperationMetrics metrics) {
+        String endpointTag = endpointTag(endpoint);
+        recordTimer(OPERATION_DURATION, operation, endpointTag, metrics.getMetric(ClientMetrics.OP_DURATION));
+        recordTimer(SERIALIZATION, operation, endpointTag, metrics.getMetric(ClientMetrics.OP_SERIALIZATION));
+        recordTimer(CONNECTION_LEASE, operation, endpointTag, metrics.getMetric(ClientMetrics.CONNECTION_LEASE));
+        recordTimer(REQUEST_WRITE, operation, endpointTag, metrics.getMetric(ClientMetrics.REQUEST_WRITE));
+        recordTimer(TIME_TO_FIRST_BYTE, operation, endpointTag, metrics.getMetric(ClientMetrics.TIME_TO_FIRST_BYTE));
+
+        long serverElapsed = valueOf(metrics.getMetric(ServerMetrics.ELAPSED_TIME));
+        if (serverElapsed >= 0) {
+            timer(SERVER_ELAPSED, operation, endpointTag).record(serverElapsed, TimeUnit.NANOSECONDS);
+        }
+
+        boolean isInsert = OP_INSERT.equals(operation);
+        long rows = valueOf(metrics.getMetric(isInsert ? ServerMetrics.NUM_ROWS_WRITTEN : ServerMetrics.RESULT_ROWS));
+        if (rows >= 0) {
+            summary(ROWS, operation, endpointTag).record(rows);
+        }
+        long bytes = valueOf(metrics.getMetric(isInsert ? ServerMetrics.NUM_BYTES_WRITTEN : ServerMetrics.NUM_BYTES_READ));
+        if (bytes >= 0) {
+            summary(BYTES, operation, endpointTag).record(bytes);
+        }
+    }
+
+    @Override
+    public void recordResponse(String operation, Endpoint endpoint, ClientStatisticsHolder statistics) {
+        String endpointTag = endpointTag(endpoint);
+        long decompression = statistics.getElapsedNanos(ClientMetrics.RESPONSE_DECOMPRESSION);
+        if (decompression > 0) {
+            timer(RESPONSE_DECOMPRESSION, operation, endpointTag).record(decompression, TimeUnit.NANOSECONDS);
+        }
+        long read = statistics.getElapsedNanos(ClientMetrics.RESPONSE_READ);
+        if (read >= 0) {
+            timer(RESPONSE_READ, operation, endpointTag).record(read, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void recordRetry(String operation, Endpoint endpoint, boolean failover) {
+        String endpointTag = endpointTag(endpoint);
+        counter(RETRIES, operation, endpointTag).increment();
+        if (failover) {
+            counter(FAILOVERS, operation, endpointTag).increment();
+        }
+    }
+
+    @Override
+    public void recordFailure(String operation, Endpoint endpoint) {
+        counter(FAILURES, operation, endpointTag(endpoint)).increment();
+    }
+
+    private void recordTimer(String name, String operation, String endpointTag, Metric metric) {
+        if (metric instanceof StopWatch) {
+            timer(name, operation, endpointTag).record(((StopWatch) metric).getElapsedNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String operation, String endpointTag) {
+        return timers.computeIfAbsent(meterKey(name, operation, endpointTag), k -> Timer.builder(name)
+                .tags(tags(operation, endpointTag))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private DistributionSummary summary(String name, String operation, String endpointTag) {
+        return summaries.computeIfAbsent(meterKey(name, operation, endpointTag), k -> DistributionSummary.builder(name)
+                .tags(tags(operation, endpointTag))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter counter(String name, String operation, String endpointTag) {
+        return counters.computeIfAbsent(meterKey(name, operation, endpointTag), k -> Counter.builder(name)
+                .tags(tags(operation, endpointTag))
+                .register(registry));
+    }
+
+    private Tags tags(String operation, String endpointTag) {
+        return Tags.of("httpclient", groupName, "operation", operation, "endpoint", endpointTag);
+    }
+
+    private static String meterKey(String name, String operation, String endpointTag) {
+        return name + '|' + operation + '|' + endpointTag;
+    }
+
+    private static String endpointTag(Endpoint endpoint) {
+        return endpoint == null ? "unknown" : endpoint.getHost() + ":" + endpoint.getPort();
+    }
+
+    private static long valueOf(Metric metric) {
+        return metric == null ? -1 : metric.getLong();
+    }
+}
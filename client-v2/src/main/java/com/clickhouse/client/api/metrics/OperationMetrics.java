@@ -45,6 +45,9 @@ public class OperationMetrics {
             sw.getValue().stop();
             metrics.put(sw.getKey(), sw.getValue());
         }
+        // accumulating spans may be updated after completion (for example, while response is read)
+        metrics.putAll(clientStatistics.getAccumulators());
+        metrics.putAll(clientStatistics.getCounters());
     }
 
     public void updateMetric(ServerMetrics metric, long value) {
@@ -0,0 +1,71 @@
+package com.clickhouse.client.api.metrics;
+
+import com.clickhouse.client.api.internal.ClientStatisticsHolder;
+import com.clickhouse.client.api.transport.Endpoint;
+
+/**
+ * Records per-operation metrics into a metrics backend. Implementation is selected by the client at
+ * build time: when operation metrics are not enabled {@link #NOOP} is used, so operation paths pay only for a
+ * virtual call to an empty method.
+ * <p>
+ * Operation names are {@link #OP_QUERY} and {@link #OP_INSERT}.
+ */
+public interface OperationMetricsRecorder {
+
+    String OP_QUERY = "query";
+
+    String OP_INSERT = "insert";
+
+    /**
+     * Called when response head is received and operation metrics are complete.
+     *
+     * @param operation - operation name
+     * @param endpoint - endpoint of the last request attempt
+     * @param metrics - operation metrics
+     */
+    void recordOperation(String operation, Endpoint endpoint, OperationMetrics metrics);
+
+    /**
+     * Called when response is closed by application.
+     *
+     * @param operation - operation name
+     * @param endpoint - endpoint of the last request attempt
+     * @param statistics - client statistics of the operation
+     */
+    void recordResponse(String operation, Endpoint endpoint, ClientStatisticsHolder statistics);
+
+    /**
+     * Called when a failed request attempt is going to be retried.
+     *
+     * @param operation - operation name
+     * @param endpoint - endpoint of the failed attempt
+     * @param failover - true if next attempt goes to another endpoint
+     */
+    void recordRetry(String operation, Endpoint endpoint, boolean failover);
+
+    /**
+     * Called when an operation failed after all attempts.
+     *
+     * @param operation - operation name
+     * @param endpoint - endpoint of the last request attempt
+     */
+    void recordFailure(String operation, Endpoint endpoint);
+
+    OperationMetricsRecorder NOOP = new OperationMetricsRecorder() {
+        @Override
+        public void recordOperation(String operation, Endpoint endpoint, OperationMetrics metrics) {
+        }
+
+        @Override
+        public void recordResponse(String operation, Endpoint endpoint, ClientStatisticsHolder statistics) {
+        }
+
+        @Override
+        public void recordRetry(String operation, Endpoint endpoint, boolean failover) {
+        }
+
+        @Override
+        public void recordFailure(String operation, Endpoint endpoint) {
+        }
+    };
+}
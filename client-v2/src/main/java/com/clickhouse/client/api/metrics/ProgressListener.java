@@ -0,0 +1,23 @@
+package com.clickhouse.client.api.metrics;
+
+/**
+ * Receives progress of an operation while it runs on the server.
+ * <p>
+ * The listener is called by the thread that executes the request every time the server sends
+ * an {@code X-ClickHouse-Progress} header. It should return quickly because reading of the response waits for it.
+ * An exception thrown by the listener aborts the request and is thrown to the caller, so it may be used
+ * to cancel a query that reads too much data.
+ *
+ * @see com.clickhouse.client.api.query.QuerySettings#setProgressListener(ProgressListener)
+ * @see com.clickhouse.client.api.insert.InsertSettings#setProgressListener(ProgressListener)
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Called when progress of the operation is received.
+     *
+     * @param progress - accumulated progress of the operation
+     */
+    void onProgress(QueryProgress progress);
+}
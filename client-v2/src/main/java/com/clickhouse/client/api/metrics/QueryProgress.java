@@ -0,0 +1,88 @@
+package com.clickhouse.client.api.metrics;
+
+/**
+ * Progress of an operation reported by the server. Values are accumulated from the start of the operation.
+ * <p>
+ * `-1` means the value is not available.
+ */
+public class QueryProgress {
+
+    private final long readRows;
+
+    private final long readBytes;
+
+    private final long writtenRows;
+
+    private final long writtenBytes;
+
+    private final long totalRowsToRead;
+
+    private final long elapsedNanos;
+
+    public QueryProgress(long readRows, long readBytes, long writtenRows, long writtenBytes, long totalRowsToRead,
+                         long elapsedNanos) {
+        this.readRows = readRows;
+        this.readBytes = readBytes;
+        this.writtenRows = writtenRows;
+        this.writtenBytes = writtenBytes;
+        this.totalRowsToRead = totalRowsToRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of rows read by the server
+     */
+    public long getReadRows() {
+        return readRows;
+    }
+
+    /**
+     * @return number of bytes read by the server
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    /**
+     * @return number of rows written by the server
+     */
+    public long getWrittenRows() {
+        return writtenRows;
+    }
+
+    /**
+     * @return number of bytes written by the server
+     */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * @return estimated number of rows to read. The estimation may grow while the query runs.
+     */
+    public long getTotalRowsToRead() {
+        return totalRowsToRead;
+    }
+
+    /**
+     * Returns elapsed time reported by the server. Servers that do not report it give time since the request
+     * was sent.
+     *
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryProgress{" +
+                "readRows=" + readRows +
+                ", readBytes=" + readBytes +
+                ", writtenRows=" + writtenRows +
+                ", writtenBytes=" + writtenBytes +
+                ", totalRowsToRead=" + totalRowsToRead +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
@@ -0,0 +1,121 @@
+package com.clickhouse.client.api.query;
+
+import com.clickhouse.client.api.DataStreamWriter;
+import com.clickhouse.client.api.metadata.TableSchema;
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * External table (temporary data) sent with a query. The table is available to the query by its name, for example
+ * {@code SELECT * FROM events WHERE id IN ids}, and exists only while the query runs.
+ * <p>
+ * Data is written to the request body by a {@link DataStreamWriter} when the request is sent, so it is streamed
+ * and not buffered in memory. A writer may use {@link com.clickhouse.client.api.data_formats.RowBinaryFormatWriter}
+ * to produce {@code RowBinary} data. When a query is retried, {@link DataStreamWriter#onRetry()} is called before
+ * data is written again.
+ *
+ * @see QuerySettings#addExternalTable(ExternalTable)
+ */
+public class ExternalTable {
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final String name;
+
+    private final String structure;
+
+    private final ClickHouseFormat format;
+
+    private final DataStreamWriter writer;
+
+    /**
+     * Creates external table definition.
+     *
+     * @param name - table name to use in the query
+     * @param structure - list of columns with types, for example {@code "id UInt64, name String"}
+     * @param format - format of the data
+     * @param writer - writer of the data
+     */
+    public ExternalTable(String name, String structure, ClickHouseFormat format, DataStreamWriter writer) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("External table name cannot be empty");
+        }
+        if (structure == null || structure.trim().isEmpty()) {
+            throw new IllegalArgumentException("External table structure cannot be empty");
+        }
+        this.name = name;
+        this.structure = structure;
+        this.format = Objects.requireNonNull(format, "format is null");
+        this.writer = Objects.requireNonNull(writer, "writer is null");
+    }
+
+    /**
+     * Creates external table which data is read from the stream. To retry a query the stream should support
+     * {@link InputStream#reset()}.
+     *
+     * @param name - table name to use in the query
+     * @param structure - list of columns with types, for example {@code "id UInt64, name String"}
+     * @param format - format of the data
+     * @param data - data stream
+     * @return external table
+     */
+    public static ExternalTable of(String name, String structure, ClickHouseFormat format, InputStream data) {
+        Objects.requireNonNull(data, "data is null");
+        return new ExternalTable(name, structure, format, new DataStreamWriter() {
+            @Override
+            public void onOutput(OutputStream out) throws IOException {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int bytesRead;
+                while ((bytesRead = data.read(buffer)) > 0) {
+                    out.write(buffer, 0, bytesRead);
+                }
+            }
+
+            @Override
+            public void onRetry() throws IOException {
+                data.reset();
+            }
+        });
+    }
+
+    /**
+     * Creates external table with structure of the schema.
+     *
+     * @param name - table name to use in the query
+     * @param schema - schema of the table
+     * @param format - format of the data
+     * @param writer - writer of the data
+     * @return external table
+     */
+    public static ExternalTable of(String name, TableSchema schema, ClickHouseFormat format, DataStreamWriter writer) {
+        StringBuilder structure = new StringBuilder();
+        for (ClickHouseColumn column : schema.getColumns()) {
+            if (structure.length() > 0) {
+                structure.append(", ");
+            }
+            structure.append(column.getColumnName()).append(' ').append(column.getOriginalTypeName());
+        }
+        return new ExternalTable(name, structure.toString(), format, writer);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStructure() {
+        return structure;
+    }
+
+    public ClickHouseFormat getFormat() {
+        return format;
+    }
+
+    public DataStreamWriter getWriter() {
+        return writer;
+    }
+}
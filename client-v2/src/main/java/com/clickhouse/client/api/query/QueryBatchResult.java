@@ -0,0 +1,52 @@
+package com.clickhouse.client.api.query;
+
+import com.clickhouse.client.api.ClientException;
+
+import java.util.List;
+
+/**
+ * Result of one statement of a batch. A statement either has records or an error; an error of one statement
+ * does not affect other statements of the batch.
+ */
+public class QueryBatchResult {
+
+    private final QueryStatement statement;
+
+    private final List<GenericRecord> records;
+
+    private final RuntimeException error;
+
+    public QueryBatchResult(QueryStatement statement, List<GenericRecord> records, RuntimeException error) {
+        this.statement = statement;
+        this.records = records;
+        this.error = error;
+    }
+
+    public QueryStatement getStatement() {
+        return statement;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns records of the statement.
+     *
+     * @return complete list of records
+     * @throws ClientException when the statement failed. The error of the statement is the cause.
+     */
+    public List<GenericRecord> getRecords() {
+        if (error != null) {
+            throw new ClientException("Statement failed: " + error.getMessage(), error);
+        }
+        return records;
+    }
+
+    /**
+     * @return error of the statement or {@code null} if it succeeded
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+}
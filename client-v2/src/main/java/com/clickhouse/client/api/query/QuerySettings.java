@@ -5,13 +5,19 @@ import com.clickhouse.client.api.Client;
 import com.clickhouse.client.api.ClientConfigProperties;
 import com.clickhouse.client.api.Session;
 import com.clickhouse.client.api.internal.CommonSettings;
+import com.clickhouse.client.api.internal.HttpAPIClientHelper;
 import com.clickhouse.client.api.internal.ServerSettings;
 import com.clickhouse.client.api.internal.ValidationUtils;
+import com.clickhouse.client.api.metrics.ProgressListener;
 import com.clickhouse.data.ClickHouseFormat;
 
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
 
 /**
@@ -330,6 +336,78 @@ public class QuerySettings {
         return settings.getLogComment();
     }
 
+    /**
+     * Adds an external table that is sent with the query. Query parameters are sent in the request body
+     * when a query has external tables.
+     *
+     * @param table - external table
+     * @return same instance of the builder
+     */
+    public QuerySettings addExternalTable(ExternalTable table) {
+        Objects.requireNonNull(table, "table is null");
+        List<ExternalTable> tables = new ArrayList<>(getExternalTables());
+        for (ExternalTable t : tables) {
+            if (t.getName().equals(table.getName())) {
+                throw new IllegalArgumentException("External table '" + table.getName() + "' is already added");
+            }
+        }
+        tables.add(table);
+        settings.setOption(HttpAPIClientHelper.KEY_EXTERNAL_TABLES, Collections.unmodifiableList(tables));
+        return this;
+    }
+
+    /**
+     * Returns external tables that are sent with the query.
+     *
+     * @return list of external tables
+     */
+    @SuppressWarnings("unchecked")
+    public List<ExternalTable> getExternalTables() {
+        Object tables = settings.getOption(HttpAPIClientHelper.KEY_EXTERNAL_TABLES);
+        return tables == null ? Collections.emptyList() : (List<ExternalTable>) tables;
+    }
+
+    /**
+     * Sets a listener that receives progress of the operation while it runs. The server is asked to send
+     * progress headers ({@code send_progress_in_http_headers}) at the interval of
+     * {@code http_headers_progress_interval_ms} server setting. Progress is reported until the server starts
+     * sending the response body.
+     *
+     * @param listener - progress listener; {@code null} to remove
+     * @return same instance of the settings
+     */
+    public QuerySettings setProgressListener(ProgressListener listener) {
+        if (listener == null) {
+            settings.resetOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER);
+            settings.resetOption(ClientConfigProperties.serverSetting(ServerSettings.SEND_PROGRESS_IN_HTTP_HEADERS));
+        } else {
+            settings.setOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER, listener);
+            serverSetting(ServerSettings.SEND_PROGRESS_IN_HTTP_HEADERS, ServerSettings.ON);
+        }
+        return this;
+    }
+
+    public ProgressListener getProgressListener() {
+        return (ProgressListener) settings.getOption(HttpAPIClientHelper.KEY_PROGRESS_LISTENER);
+    }
+
+    /**
+     * Sets number of threads decoding blocks of a {@code Native} format response. Blocks are decoded in
+     * parallel when the value is greater than 1.
+     *
+     * @param threads - number of decoding threads; 0 or 1 to decode sequentially
+     * @return same instance of the settings
+     * @see ClientConfigProperties#NATIVE_DECODING_THREADS
+     */
+    public QuerySettings setNativeDecodingThreads(int threads) {
+        settings.setOption(ClientConfigProperties.NATIVE_DECODING_THREADS.getKey(), threads);
+        return this;
+    }
+
+    public Integer getNativeDecodingThreads() {
+        return (Integer) settings.getOption(ClientConfigProperties.NATIVE_DECODING_THREADS.getKey());
+    }
+
     /**
      * Sets a network operation timeout.
      * @param timeout
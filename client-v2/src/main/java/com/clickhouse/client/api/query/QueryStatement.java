@@ -1,6 +1,9 @@
 package com.clickhouse.client.api.query;
 
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * QueryStatement class is responsible for constructing SQL query statements.
  *
@@ -9,11 +12,28 @@ public class QueryStatement {
 
     private final String query;
 
+    private final Map<String, Object> params;
+
     public QueryStatement(String query) {
+        this(query, null);
+    }
+
+    /**
+     * Creates a parametrized statement. See {@link com.clickhouse.client.api.Client#query(String, Map, QuerySettings)}.
+     *
+     * @param query - SQL statement
+     * @param params - query parameters; {@code null} if none
+     */
+    public QueryStatement(String query, Map<String, Object> params) {
         this.query = query;
+        this.params = params == null ? Collections.emptyMap() : params;
     }
 
     public String getQuery() {
         return query;
     }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
 }
@@ -0,0 +1,75 @@
+package com.clickhouse.client.api.query;
+
+import com.clickhouse.client.api.metrics.OperationMetrics;
+import com.clickhouse.client.api.metrics.ServerMetrics;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a query which response was written to a file or to a set of part files.
+ */
+public class QueryToFileResponse {
+
+    private final List<Path> files;
+
+    private final List<OperationMetrics> metrics;
+
+    private final long bytesWritten;
+
+    public QueryToFileResponse(List<Path> files, List<OperationMetrics> metrics, long bytesWritten) {
+        this.files = Collections.unmodifiableList(files);
+        this.metrics = Collections.unmodifiableList(metrics);
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * Returns written files. There is one file for each segment of the query in the order of segments.
+     *
+     * @return list of written files
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns metrics of each query sent to the server in the order of segments.
+     *
+     * @return list of metrics
+     */
+    public List<OperationMetrics> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return total number of bytes written to the files
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Alias for {@link ServerMetrics#NUM_ROWS_READ} summed for all segments
+     * @return number of rows read by server from the storage
+     */
+    public long getReadRows() {
+        return sum(ServerMetrics.NUM_ROWS_READ);
+    }
+
+    /**
+     * Alias for {@link ServerMetrics#RESULT_ROWS} summed for all segments
+     * @return number of returned rows
+     */
+    public long getResultRows() {
+        return sum(ServerMetrics.RESULT_ROWS);
+    }
+
+    private long sum(ServerMetrics metric) {
+        long total = 0;
+        for (OperationMetrics m : metrics) {
+            total += m.getMetric(metric).getLong();
+        }
+        return total;
+    }
+}
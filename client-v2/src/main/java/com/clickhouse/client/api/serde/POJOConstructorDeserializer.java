@@ -0,0 +1,24 @@
+package com.clickhouse.client.api.serde;
+
+import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
+import com.clickhouse.data.ClickHouseColumn;
+
+/**
+ * Reads a whole row and creates an object by calling its constructor with column values.
+ * Implementation is compiled for a specific class and a list of columns and is used for
+ * classes that cannot be filled with setters like Java records and immutable value classes.
+ *
+ * @param <T> type of the object
+ */
+public interface POJOConstructorDeserializer<T> {
+
+    /**
+     * Reads values of all columns from the stream and creates a new object.
+     *
+     * @param reader - reader to read values from
+     * @param columns - columns of the row in the order they are in the stream
+     * @return new object or {@code null} if stream ended before the first column
+     * @throws Exception when failed to read a value or to create an object
+     */
+    T readObject(BinaryStreamReader reader, ClickHouseColumn[] columns) throws Exception;
+}
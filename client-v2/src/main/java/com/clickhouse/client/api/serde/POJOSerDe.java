@@ -8,9 +8,15 @@ import com.clickhouse.data.ClickHouseColumn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,6 +26,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class POJOSerDe {
     private static final Logger LOG = LoggerFactory.getLogger(POJOSerDe.class);
 
+    private static final String CONSTRUCTOR_PROPERTIES = "java.beans.ConstructorProperties";
+
     private final ColumnToMethodMatchingStrategy columnToMethodMatchingStrategy;
 
     // POJO serializer mapping (class -> (schemaKey -> (column -> serializer)))
@@ -28,11 +36,19 @@ public class POJOSerDe {
     // POJO deserializer mapping (class -> (schemaKey -> (column -> deserializer)))
     private final Map<Class<?>, Map<String, Map<String, POJOFieldDeserializer>>> deserializers;
 
+    // Constructor based deserializer mapping (class -> (columns key -> deserializer))
+    private final Map<Class<?>, Map<String, POJOConstructorDeserializer<?>>> constructorDeserializers;
+
+    // POJO deserializer mapping for result columns (class -> (columns key -> (column -> deserializer)))
+    private final Map<Class<?>, Map<String, Map<String, POJOFieldDeserializer>>> resultDeserializers;
+
 
     public POJOSerDe(ColumnToMethodMatchingStrategy matchingStrategy) {
         this.columnToMethodMatchingStrategy = matchingStrategy;
         this.serializers = new ConcurrentHashMap<>();
         this.deserializers = new ConcurrentHashMap<>();
+        this.constructorDeserializers = new ConcurrentHashMap<>();
+        this.resultDeserializers = new ConcurrentHashMap<>();
     }
 
     public void registerClass(Class<?> clazz, TableSchema schema) {
@@ -94,6 +110,178 @@ public class POJOSerDe {
         classDeserializers.put(schemaKey, schemaDeserializers);
     }
 
+    /**
+     * Returns deserializer that creates objects of the class by calling a constructor with column values.
+     * Deserializer is compiled once for a class and a list of columns.
+     * <p>
+     * For a Java record the canonical constructor is used. For other classes a public constructor is used
+     * which parameter names are known: either compiled with {@code -parameters} or matching names of
+     * instance fields declared in the same order and of the same types as constructor parameters.
+     * Parameters are matched to columns the same way as setters.
+     *
+     * @param clazz - class of objects
+     * @param schema - schema of the result
+     * @return compiled deserializer
+     * @param <T> type of objects
+     * @throws IllegalArgumentException when no suitable constructor is found
+     */
+    @SuppressWarnings("unchecked")
+    public <T> POJOConstructorDeserializer<T> getConstructorDeserializer(Class<T> clazz, TableSchema schema) {
+        ClickHouseColumn[] columns = schema.getColumns().toArray(ClickHouseColumn.EMPTY_ARRAY);
+        return (POJOConstructorDeserializer<T>) constructorDeserializers
+                .computeIfAbsent(clazz, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(columnsKey(columns), k -> compileConstructorDeserializer(clazz, columns));
+    }
+
+    /**
+     * Returns setter based deserializers for columns of a query result. Unlike {@link #getFieldDeserializers(Class, TableSchema)}
+     * class doesn't need to be registered. Deserializers are compiled once for a class and a list of columns.
+     *
+     * @param clazz - class of objects
+     * @param schema - schema of the result
+     * @return map of column name to deserializer, empty if no setter matches columns
+     */
+    public Map<String, POJOFieldDeserializer> getResultFieldDeserializers(Class<?> clazz, TableSchema schema) {
+        ClickHouseColumn[] columns = schema.getColumns().toArray(ClickHouseColumn.EMPTY_ARRAY);
+        return resultDeserializers.computeIfAbsent(clazz, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(columnsKey(columns), k -> {
+                    Map<String, Method> classSetters = new HashMap<>();
+                    for (Method method : clazz.getMethods()) {
+                        if (columnToMethodMatchingStrategy.isSetter(method.getName())) {
+                            classSetters.put(columnToMethodMatchingStrategy.normalizeMethodName(method.getName()), method);
+                        }
+                    }
+                    Map<String, POJOFieldDeserializer> columnDeserializers = new HashMap<>();
+                    for (ClickHouseColumn column : columns) {
+                        Method setterMethod = classSetters.get(
+                                columnToMethodMatchingStrategy.normalizeColumnName(column.getColumnName()));
+                        if (setterMethod != null) {
+                            columnDeserializers.put(column.getColumnName(),
+                                    SerializerUtils.compilePOJOSetter(setterMethod, column));
+                        }
+                    }
+                    return Collections.unmodifiableMap(columnDeserializers);
+                });
+    }
+
+    private static String columnsKey(ClickHouseColumn[] columns) {
+        StringBuilder columnsKey = new StringBuilder();
+        for (ClickHouseColumn column : columns) {
+            columnsKey.append(column.getColumnName()).append(' ').append(column.getOriginalTypeName()).append(',');
+        }
+        return columnsKey.toString();
+    }
+
+    private <T> POJOConstructorDeserializer<T> compileConstructorDeserializer(Class<T> clazz, ClickHouseColumn[] columns) {
+        List<String> names = new ArrayList<>();
+        Constructor<T> constructor = findConstructor(clazz, names);
+        if (constructor == null) {
+            throw new IllegalArgumentException("No public constructor with known parameter names found in '" + clazz
+                    + "'. Compile the class with '-parameters', annotate the constructor with @ConstructorProperties"
+                    + " or use a class with setters.");
+        }
+
+        String[] parameterNames = names.toArray(new String[0]);
+        Map<String, Integer> parameterIndex = new HashMap<>();
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameterIndex.putIfAbsent(columnToMethodMatchingStrategy.normalizeColumnName(parameterNames[i]), i);
+        }
+        int[] columnToParameter = new int[columns.length];
+        boolean[] matched = new boolean[parameterNames.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer parameter = parameterIndex.get(
+                    columnToMethodMatchingStrategy.normalizeColumnName(columns[i].getColumnName()));
+            if (parameter == null || matched[parameter]) {
+                columnToParameter[i] = -1;
+            } else {
+                columnToParameter[i] = parameter;
+                matched[parameter] = true;
+            }
+        }
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
+                LOG.warn("No column found for constructor parameter: {}", parameterNames[i]);
+            }
+        }
+        return SerializerUtils.compilePOJOConstructor(constructor, columns, columnToParameter);
+    }
+
+    /**
+     * Finds a constructor to create objects of the class and names of its parameters.
+     *
+     * @param clazz - class of objects
+     * @param parameterNames - list to add parameter names to
+     * @return constructor or {@code null} if there is no suitable one
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Constructor<T> findConstructor(Class<T> clazz, List<String> parameterNames) {
+        if (clazz.getSuperclass() != null && "java.lang.Record".equals(clazz.getSuperclass().getName())) {
+            // canonical constructor of a record (accessed with reflection to keep Java 8 compatibility)
+            try {
+                Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(clazz);
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    Class<?> componentClass = components[i].getClass();
+                    parameterNames.add((String) componentClass.getMethod("getName").invoke(components[i]));
+                    types[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+                }
+                return clazz.getConstructor(types);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Failed to find canonical constructor of '" + clazz + "'", e);
+            }
+        }
+
+        Constructor<T> found = null;
+        String[] foundNames = null;
+        for (Constructor<?> constructor : clazz.getConstructors()) {
+            if (found != null && constructor.getParameterCount() <= found.getParameterCount()
+                    || constructor.getParameterCount() == 0) {
+                continue;
+            }
+            String[] names = parameterNamesOf(constructor);
+            if (names != null) {
+                found = (Constructor<T>) constructor;
+                foundNames = names;
+            }
+        }
+        if (found != null) {
+            parameterNames.addAll(Arrays.asList(foundNames));
+        }
+        return found;
+    }
+
+    /**
+     * Returns parameter names compiled into the class ({@code -parameters}) or listed in
+     * {@code java.beans.ConstructorProperties}. Names are never guessed from fields because order of
+     * {@link Class#getDeclaredFields()} is not specified.
+     */
+    private static String[] parameterNamesOf(Constructor<?> constructor) {
+        Parameter[] parameters = constructor.getParameters();
+        String[] names = new String[parameters.length];
+        boolean namesPresent = true;
+        for (int i = 0; i < parameters.length; i++) {
+            namesPresent &= parameters[i].isNamePresent();
+            names[i] = parameters[i].getName();
+        }
+        if (namesPresent) {
+            return names;
+        }
+
+        // annotation is matched by name because java.beans may be absent at runtime
+        for (Annotation annotation : constructor.getAnnotations()) {
+            if (CONSTRUCTOR_PROPERTIES.equals(annotation.annotationType().getName())) {
+                try {
+                    String[] properties = (String[]) annotation.annotationType().getMethod("value").invoke(annotation);
+                    return properties.length == parameters.length ? properties : null;
+                } catch (Exception e) {
+                    LOG.debug("Failed to read constructor properties of {}", constructor, e);
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
     public Map<String, POJOFieldSerializer> getFieldSerializers(Class<?> clazz, TableSchema schema) {
         // TODO: instead of storing a query list of columns should be stored and it will work both for read and write
         return serializers.getOrDefault(clazz, Collections.emptyMap())
@@ -3,6 +3,7 @@ package com.clickhouse.client;
 import com.clickhouse.client.api.Client;
 import com.clickhouse.client.api.DataTransferException;
 import com.clickhouse.client.api.internal.HttpAPIClientHelper;
+import com.clickhouse.client.api.internal.ReplayBuffer;
 import com.clickhouse.client.api.metadata.TableSchema;
 import com.clickhouse.client.api.observability.DefaultSpanRecorder;
 import com.clickhouse.client.api.serde.DataSerializationException;
@@ -111,7 +112,8 @@ public class InsertExceptionClassificationTest {
         }
 
         @Override
-        public TransportRequest createRequest(Endpoint server, Map<String, Object> requestConfig, IOCallback<OutputStream> writeCallback) {
+        public TransportRequest createRequest(Endpoint server, Map<String, Object> requestConfig,
+                                              IOCallback<OutputStream> writeCallback, ReplayBuffer replayBuffer) {
             this.writeCallback = writeCallback;
             return null;
         }
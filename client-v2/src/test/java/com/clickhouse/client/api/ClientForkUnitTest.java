@@ -0,0 +1,53 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.query.QueryResponse;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class ClientForkUnitTest {
+
+    @Test
+    public void testForkSharesTransportButNotSessionState() throws Exception {
+        WireMockServer mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        try {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .willReturn(WireMock.aResponse().withStatus(200)
+                            .withHeader("Content-Type", "text/plain")
+                            .withBody("")));
+
+            try (Client client = new Client.Builder()
+                    .addEndpoint("http://localhost:" + mockServer.port())
+                    .setUsername("default")
+                    .setPassword("password")
+                    .compressServerResponse(false)
+                    .build()) {
+
+                Client fork = client.fork();
+                fork.setDBRoles(Collections.singletonList("reader"));
+                Assert.assertTrue(client.getDBRoles().isEmpty());
+                Assert.assertEquals(fork.getServerTimeZone(), client.getServerTimeZone());
+
+                try (QueryResponse response = fork.query("SELECT 1").get(10, TimeUnit.SECONDS)) {
+                    Assert.assertNotNull(response);
+                }
+                mockServer.verify(WireMock.postRequestedFor(WireMock.anyUrl())
+                        .withQueryParam("role", WireMock.equalTo("reader")));
+
+                // closing the fork keeps shared transport open
+                fork.close();
+                try (QueryResponse response = client.query("SELECT 1").get(10, TimeUnit.SECONDS)) {
+                    Assert.assertNotNull(response);
+                }
+            }
+        } finally {
+            mockServer.stop();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.data_formats.RowBinaryFormatWriter;
+import com.clickhouse.client.api.metadata.TableSchema;
+import com.clickhouse.client.api.query.ExternalTable;
+import com.clickhouse.client.api.query.QueryResponse;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+
+public class ExternalTableUnitTest {
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .setMaxRetries(1)
+                .build();
+    }
+
+    @Test(groups = {"unit"})
+    public void testExternalTablesAreSentAsMultipart() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl()).willReturn(WireMock.aResponse().withStatus(200)));
+
+        TableSchema schema = new TableSchema(Collections.singletonList(ClickHouseColumn.of("id", "UInt64")));
+        QuerySettings settings = new QuerySettings()
+                .addExternalTable(ExternalTable.of("names", "id UInt64, name String", ClickHouseFormat.TSV,
+                        new ByteArrayInputStream("1\tone\n2\ttwo\n".getBytes(StandardCharsets.UTF_8))))
+                .addExternalTable(ExternalTable.of("ids", schema, ClickHouseFormat.RowBinary, out -> {
+                    RowBinaryFormatWriter writer = new RowBinaryFormatWriter(out, schema, ClickHouseFormat.RowBinary);
+                    for (long id = 1; id <= 3; id++) {
+                        writer.setValue("id", id);
+                        writer.commitRow();
+                    }
+                    // closing must not end the request body
+                    out.close();
+                }));
+
+        String sql = "SELECT name FROM names WHERE id IN ids AND id > {min:UInt64}";
+        try (Client client = newClient();
+             QueryResponse response = client.query(sql, Collections.singletonMap("min", 0), settings)
+                     .get(10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(response);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 1);
+        LoggedRequest request = requests.get(0);
+        Assert.assertTrue(request.getHeader("Content-Type").startsWith("multipart/form-data"));
+        Assert.assertFalse(request.getUrl().contains("query="));
+        Assert.assertFalse(request.getUrl().contains("param_min"));
+
+        Assert.assertEquals(partValue(request, "query"), sql);
+        Assert.assertEquals(partValue(request, "param_min"), "0");
+        Assert.assertEquals(partValue(request, "names_format"), "TSV");
+        Assert.assertEquals(partValue(request, "names_structure"), "id UInt64, name String");
+        Assert.assertEquals(partValue(request, "names"), "1\tone\n2\ttwo\n");
+        Assert.assertEquals(partValue(request, "ids_format"), "RowBinary");
+        Assert.assertEquals(partValue(request, "ids_structure"), "id UInt64");
+        byte[] ids = request.getPart("ids").getBody().asBytes();
+        Assert.assertEquals(ids.length, 3 * 8);
+        Assert.assertEquals(ids[16], 3);
+        Assert.assertTrue(request.getPart("ids").getHeader("Content-Disposition").firstValue()
+                .contains("filename=\"ids\""));
+    }
+
+    @Test(groups = {"unit"})
+    public void testExternalTableIsResentOnRetry() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs(STARTED)
+                .willSetStateTo("Failed")
+                .willReturn(WireMock.aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs("Failed")
+                .willReturn(WireMock.aResponse().withStatus(200)));
+
+        QuerySettings settings = new QuerySettings().addExternalTable(ExternalTable.of("ids", "id UInt32",
+                ClickHouseFormat.CSV, new ByteArrayInputStream("1\n2\n".getBytes(StandardCharsets.UTF_8))));
+        try (Client client = newClient();
+             QueryResponse response = client.query("SELECT * FROM ids", settings).get(10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(response);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 2);
+        for (LoggedRequest request : requests) {
+            Assert.assertEquals(partValue(request, "ids"), "1\n2\n");
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testInvalidExternalTables() {
+        ExternalTable table = ExternalTable.of("t", "id UInt8", ClickHouseFormat.CSV, new ByteArrayInputStream(new byte[0]));
+        QuerySettings settings = new QuerySettings().addExternalTable(table);
+        Assert.assertThrows(IllegalArgumentException.class, () -> settings.addExternalTable(table));
+        Assert.assertEquals(settings.getExternalTables(), Arrays.asList(table));
+
+        // copies of settings do not share the list
+        QuerySettings copy = new QuerySettings(settings.getAllSettings());
+        copy.addExternalTable(new ExternalTable("t2", "id UInt8", ClickHouseFormat.CSV, out -> { }));
+        Assert.assertEquals(settings.getExternalTables().size(), 1);
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new ExternalTable(" ", "id UInt8", ClickHouseFormat.CSV, out -> { }));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new ExternalTable("t", "", ClickHouseFormat.CSV, out -> { }));
+    }
+
+    private static String partValue(LoggedRequest request, String name) {
+        return request.getPart(name).getBody().asString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.insert.InsertResponse;
+import com.clickhouse.client.api.insert.InsertSettings;
+import com.clickhouse.client.api.internal.BufferPool;
+import com.clickhouse.client.api.internal.FileDataStreamWriter;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+
+public class FileInsertUnitTest {
+
+    private WireMockServer mockServer;
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        dir = Files.createTempDirectory("file-insert-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws Exception {
+        mockServer.stop();
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            files.forEach(f -> f.toFile().delete());
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressClientRequest(false)
+                .setMaxRetries(1)
+                .build();
+    }
+
+    @Test
+    public void testInsertFileIsReopenedOnRetry() throws Exception {
+        Path file = dir.resolve("data.csv");
+        String body = "1,one\n2,two\n";
+        Files.write(file, body.getBytes(StandardCharsets.UTF_8));
+
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs(STARTED)
+                .willSetStateTo("Failed")
+                .willReturn(WireMock.aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs("Failed")
+                .willReturn(WireMock.aResponse().withStatus(200)
+                        .withHeader("X-ClickHouse-Summary", "{ \"written_rows\": \"2\"}")));
+
+        try (Client client = newClient();
+             InsertResponse response = client.insert("t", file, ClickHouseFormat.CSV, new InsertSettings())
+                     .get(10, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getWrittenRows(), 2);
+        }
+
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl())
+                .withQueryParam("query", WireMock.equalTo("INSERT INTO t FORMAT CSV"))
+                .withRequestBody(WireMock.equalTo(body)));
+    }
+
+    @Test
+    public void testInsertCompressedFileAsIs() throws Exception {
+        Path file = dir.resolve("data.csv.zst");
+        byte[] content = new byte[100_000];
+        new Random(7).nextBytes(content);
+        Files.write(file, content);
+
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200)));
+
+        InsertSettings settings = new InsertSettings();
+        try (Client client = newClient();
+             InsertResponse response = client.insert("t", file, ClickHouseFormat.CSV, settings)
+                     .get(10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(response);
+        }
+        // caller settings are not changed
+        Assert.assertFalse(settings.getAllSettings().containsKey(ClientConfigProperties.APP_COMPRESSED_DATA.getKey()));
+
+        mockServer.verify(WireMock.postRequestedFor(WireMock.anyUrl())
+                .withHeader("Content-Encoding", WireMock.equalTo("zstd"))
+                .withRequestBody(WireMock.binaryEqualTo(content)));
+    }
+
+    @Test
+    public void testInsertMissingFile() {
+        try (Client client = newClient()) {
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> client.insert("t", dir.resolve("missing.csv"), ClickHouseFormat.CSV, new InsertSettings()));
+        }
+    }
+
+    @Test
+    public void testWriterCopiesWholeFile() throws Exception {
+        Path file = dir.resolve("data.bin");
+        byte[] content = new byte[10_000];
+        new Random(11).nextBytes(content);
+        Files.write(file, content);
+
+        FileDataStreamWriter writer = new FileDataStreamWriter(file, 333, BufferPool.NONE);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.onOutput(out);
+            Assert.assertEquals(out.toByteArray(), content);
+            Assert.assertEquals(writer.getBytesWritten(), content.length);
+        }
+
+        Assert.assertEquals(FileDataStreamWriter.contentEncodingOf(Paths.get("a", "b.CSV.GZ")), "gzip");
+        Assert.assertEquals(FileDataStreamWriter.contentEncodingOf(Paths.get("b.parquet.lz4")), "lz4");
+        Assert.assertNull(FileDataStreamWriter.contentEncodingOf(Paths.get("b.parquet")));
+        Assert.assertNull(FileDataStreamWriter.contentEncodingOf(Paths.get("noext")));
+    }
+}
@@ -0,0 +1,132 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.insert.InsertResponse;
+import com.clickhouse.client.api.insert.InsertSettings;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+
+public class InsertReplayUnitTest {
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs(STARTED)
+                .willSetStateTo("Failed")
+                .willReturn(WireMock.aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs("Failed")
+                .willReturn(WireMock.aResponse().withStatus(200)
+                        .withHeader("X-ClickHouse-Summary", "{ \"written_rows\": \"2\"}")));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient(long memoryLimit) {
+        return newClient(memoryLimit, false);
+    }
+
+    private Client newClient(long memoryLimit, boolean compress) {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressClientRequest(compress)
+                .setMaxRetries(1)
+                .useInsertReplayBuffer(true)
+                .setInsertReplayBufferMemoryLimit(memoryLimit)
+                .useAutoDeduplicationToken(true)
+                .build();
+    }
+
+    private static InputStream notResettable(String body) {
+        return new FilterInputStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public synchronized void reset() throws IOException {
+                throw new IOException("reset is not supported");
+            }
+        };
+    }
+
+    @Test(groups = {"unit"})
+    public void testRetryReplaysStream() throws Exception {
+        testRetryReplaysStream(1024);
+    }
+
+    @Test(groups = {"unit"})
+    public void testRetryReplaysSpilledStream() throws Exception {
+        testRetryReplaysStream(0);
+    }
+
+    private void testRetryReplaysStream(long memoryLimit) throws Exception {
+        String body = "1,one\n2,two\n";
+        try (Client client = newClient(memoryLimit);
+             InsertResponse response = client.insert("t", notResettable(body), ClickHouseFormat.CSV,
+                     new InsertSettings()).get(10, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getWrittenRows(), 2);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl())
+                .withRequestBody(WireMock.equalTo(body)));
+        Assert.assertEquals(requests.size(), 2);
+        String token = requests.get(0).queryParameter("insert_deduplication_token").firstValue();
+        Assert.assertFalse(token.isEmpty());
+        Assert.assertEquals(requests.get(1).queryParameter("insert_deduplication_token").firstValue(), token);
+    }
+
+    @Test(groups = {"unit"})
+    public void testRetryReplaysCompressedBody() throws Exception {
+        String body = "1,one\n2,two\n";
+        try (Client client = newClient(1024, true);
+             InsertResponse response = client.insert("t", notResettable(body), ClickHouseFormat.CSV,
+                     new InsertSettings()).get(10, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getWrittenRows(), 2);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 2);
+        for (LoggedRequest request : requests) {
+            Assert.assertEquals(request.queryParameter("decompress").firstValue(), "1");
+        }
+        Assert.assertNotEquals(requests.get(0).getBody(), body.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(requests.get(1).getBody(), requests.get(0).getBody());
+    }
+
+    @Test(groups = {"unit"})
+    public void testDeduplicationTokenIsNotReplaced() throws Exception {
+        try (Client client = newClient(1024);
+             InsertResponse response = client.insert("t", notResettable("1\n"), ClickHouseFormat.CSV,
+                     new InsertSettings().setDeduplicationToken("user-token")).get(10, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getWrittenRows(), 2);
+        }
+
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl())
+                .withQueryParam("insert_deduplication_token", WireMock.equalTo("user-token")));
+    }
+}
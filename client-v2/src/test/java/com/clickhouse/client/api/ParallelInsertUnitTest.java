@@ -0,0 +1,269 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.insert.InsertResponse;
+import com.clickhouse.client.api.insert.InsertSettings;
+import com.clickhouse.client.api.metadata.TableSchema;
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+
+public class ParallelInsertUnitTest {
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .setMaxRetries(0)
+                .build();
+    }
+
+    private void stubInsert() {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl()).willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("X-ClickHouse-Summary",
+                        "{\"written_rows\":\"10\",\"written_bytes\":\"100\",\"elapsed_ns\":\"1000\"}")));
+    }
+
+    @Test(groups = {"unit"})
+    public void testStreamInsert() throws Exception {
+        stubInsert();
+        StringBuilder data = new StringBuilder();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String line = i + "\tname" + i;
+            expected.add(line);
+            data.append(line).append('\n');
+        }
+
+        InsertSettings settings = new InsertSettings().setParallelStreams(4).setQueryId("load");
+        settings.setInputStreamCopyBufferSize(1000);
+        InsertResponse response;
+        try (Client client = newClient()) {
+            response = client.insert("t1", new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8)),
+                    ClickHouseFormat.TSV, settings).get(10, TimeUnit.SECONDS);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 4);
+        Set<String> lines = new HashSet<>();
+        Set<String> queryIds = new HashSet<>();
+        for (LoggedRequest request : requests) {
+            String body = request.getBodyAsString();
+            Assert.assertTrue(body.isEmpty() || body.endsWith("\n"), "part must have whole rows");
+            for (String line : body.split("\n")) {
+                if (!line.isEmpty()) {
+                    Assert.assertTrue(lines.add(line), "duplicate row " + line);
+                }
+            }
+            queryIds.add(request.queryParameter("query_id").firstValue());
+        }
+        Assert.assertEquals(lines, expected);
+        Assert.assertEquals(queryIds, new HashSet<>(Arrays.asList("load-0", "load-1", "load-2", "load-3")));
+
+        Assert.assertEquals(response.getWrittenRows(), 40);
+        Assert.assertEquals(response.getWrittenBytes(), 400);
+        Assert.assertEquals(response.getServerTime(), 1000);
+        Assert.assertEquals(response.getQueryId(), "load");
+    }
+
+    @Test(groups = {"unit"})
+    public void testStreamInsertWithTokenIsNotSplit() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs(STARTED)
+                .willSetStateTo("Failed")
+                .willReturn(WireMock.aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .inScenario("Retry")
+                .whenScenarioStateIs("Failed")
+                .willReturn(WireMock.aResponse().withStatus(200)));
+
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append(i).append('\n');
+        }
+        InsertSettings settings = new InsertSettings().setParallelStreams(4).setDeduplicationToken("token");
+        settings.setInputStreamCopyBufferSize(100);
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressClientRequest(false)
+                .setMaxRetries(1)
+                .build()) {
+            client.insert("t1", new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8)),
+                    ClickHouseFormat.TSV, settings).get(10, TimeUnit.SECONDS);
+        }
+
+        // the retry sends all rows with the original token
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 2);
+        for (LoggedRequest request : requests) {
+            Assert.assertEquals(request.queryParameter("insert_deduplication_token").firstValue(), "token");
+            Assert.assertTrue(request.getBodyAsString().endsWith("999\n"));
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testListInsert() throws Exception {
+        stubInsert();
+        List<ValuePojo> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add(new ValuePojo(String.format("v%03d", i)));
+        }
+
+        InsertResponse response;
+        try (Client client = newClient()) {
+            client.register(ValuePojo.class, new TableSchema("t2", null, "",
+                    Collections.singletonList(ClickHouseColumn.of("value", "String"))));
+            response = client.insert("t2", data, new InsertSettings().setParallelStreams(3))
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        List<LoggedRequest> requests = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assert.assertEquals(requests.size(), 3);
+        Set<String> values = new HashSet<>();
+        for (LoggedRequest request : requests) {
+            byte[] body = request.getBody();
+            String text = new String(body, StandardCharsets.UTF_8);
+            int offset = text.indexOf("RowBinary \n") + "RowBinary \n".length();
+            Assert.assertEquals((body.length - offset) % 5, 0);
+            for (int i = offset; i < body.length; i += 5) {
+                Assert.assertEquals(body[i], 4);
+                values.add(new String(body, i + 1, 4, StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertEquals(values.size(), 100);
+        Assert.assertEquals(response.getWrittenRows(), 30);
+    }
+
+    @Test(groups = {"unit"})
+    public void testFailedPartFailsInsert() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .withQueryParam("query_id", WireMock.equalTo("load-1"))
+                .willReturn(WireMock.aResponse().withStatus(500)
+                        .withHeader("X-ClickHouse-Exception-Code", "27")
+                        .withBody("Code: 27. DB::Exception: Cannot parse input. (CANNOT_PARSE_INPUT_ASSERTION_FAILED)")));
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .withQueryParam("query_id", WireMock.notMatching("load-1"))
+                .willReturn(WireMock.aResponse().withStatus(200)));
+
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append(i).append('\n');
+        }
+        InsertSettings settings = new InsertSettings().setParallelStreams(2).setQueryId("load");
+        settings.setInputStreamCopyBufferSize(100);
+        try (Client client = newClient()) {
+            ServerException e = Assert.expectThrows(ServerException.class, () ->
+                    client.insert("t1", new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8)),
+                            ClickHouseFormat.TSV, settings).get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(e.getCode(), 27);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testStreamsAreLimitedByConnections() throws Exception {
+        stubInsert();
+        List<ValuePojo> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add(new ValuePojo("v" + i));
+        }
+
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .setMaxConnections(2)
+                .build()) {
+            client.register(ValuePojo.class, new TableSchema("t2", null, "",
+                    Collections.singletonList(ClickHouseColumn.of("value", "String"))));
+            InsertResponse response = client.insert("t2", data, new InsertSettings().setParallelStreams(8))
+                    .get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.getWrittenRows(), 20);
+        }
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl()));
+    }
+
+    @Test(groups = {"unit"})
+    public void testListInsertWithSingleThreadExecutor() throws Exception {
+        stubInsert();
+        List<ValuePojo> data = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            data.add(new ValuePojo("v" + i));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .useAsyncRequests(true)
+                .setSharedOperationExecutor(executor)
+                .build()) {
+            client.register(ValuePojo.class, new TableSchema("t2", null, "",
+                    Collections.singletonList(ClickHouseColumn.of("value", "String"))));
+            InsertResponse response = client.insert("t2", data, new InsertSettings().setParallelStreams(2))
+                    .get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.getWrittenRows(), 20);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class ValuePojo {
+        private String value;
+
+        public ValuePojo() {
+        }
+
+        public ValuePojo(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
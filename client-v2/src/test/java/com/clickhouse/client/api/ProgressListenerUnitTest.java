@@ -0,0 +1,126 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.insert.InsertResponse;
+import com.clickhouse.client.api.insert.InsertSettings;
+import com.clickhouse.client.api.metrics.QueryProgress;
+import com.clickhouse.client.api.query.QueryResponse;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ProgressListenerUnitTest {
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .setMaxRetries(1)
+                .build();
+    }
+
+    private void stubProgress(String... progress) {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl()).willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("X-ClickHouse-Progress", progress)
+                .withHeader("X-ClickHouse-Summary", "{\"read_rows\":\"300\"}")));
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryProgress() throws Exception {
+        stubProgress("{\"read_rows\":\"100\",\"read_bytes\":\"800\",\"total_rows_to_read\":\"300\",\"elapsed_ns\":\"1000\"}",
+                "{\"read_rows\":\"300\",\"read_bytes\":\"2400\",\"total_rows_to_read\":\"300\",\"elapsed_ns\":\"3000\"}");
+
+        List<QueryProgress> progress = new ArrayList<>();
+        QuerySettings settings = new QuerySettings().setProgressListener(progress::add);
+        try (Client client = newClient();
+             QueryResponse response = client.query("SELECT * FROM numbers(300)", settings).get(10, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getReadRows(), 300);
+        }
+
+        Assert.assertEquals(progress.size(), 2);
+        Assert.assertEquals(progress.get(0).getReadRows(), 100);
+        Assert.assertEquals(progress.get(0).getReadBytes(), 800);
+        Assert.assertEquals(progress.get(0).getTotalRowsToRead(), 300);
+        Assert.assertEquals(progress.get(0).getElapsedNanos(), 1000);
+        Assert.assertEquals(progress.get(0).getWrittenRows(), -1);
+        Assert.assertEquals(progress.get(1).getReadRows(), 300);
+        Assert.assertEquals(progress.get(1).getElapsedNanos(), 3000);
+
+        String url = mockServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl())).get(0).getUrl();
+        Assert.assertTrue(url.contains("send_progress_in_http_headers=1"), url);
+    }
+
+    @Test(groups = {"unit"})
+    public void testInsertProgress() throws Exception {
+        stubProgress("{\"written_rows\":\"10\",\"written_bytes\":\"80\"}");
+
+        List<QueryProgress> progress = new ArrayList<>();
+        InsertSettings settings = new InsertSettings().setProgressListener(progress::add);
+        try (Client client = newClient();
+             InsertResponse response = client.insert("table01", new ByteArrayInputStream(new byte[10]),
+                     ClickHouseFormat.RowBinary, settings).get(10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(response);
+        }
+
+        Assert.assertEquals(progress.size(), 1);
+        Assert.assertEquals(progress.get(0).getWrittenRows(), 10);
+        Assert.assertEquals(progress.get(0).getWrittenBytes(), 80);
+        Assert.assertTrue(progress.get(0).getElapsedNanos() >= 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testListenerCancelsQuery() throws Exception {
+        stubProgress("{\"read_rows\":\"100\",\"total_rows_to_read\":\"1000000000\"}");
+
+        QuerySettings settings = new QuerySettings().setProgressListener(p -> {
+            if (p.getTotalRowsToRead() > 1_000_000) {
+                throw new ClientException("Query reads too many rows: " + p.getTotalRowsToRead());
+            }
+        });
+        try (Client client = newClient()) {
+            ClientException e = Assert.expectThrows(ClientException.class, () ->
+                    client.query("SELECT * FROM numbers(1000000000)", settings).get(10, TimeUnit.SECONDS));
+            Assert.assertTrue(e.getMessage().contains("too many rows"), e.getMessage());
+        }
+
+        // listener is not left attached to the thread
+        try (Client client = newClient();
+             QueryResponse response = client.query("SELECT 1").get(10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(response);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testRemoveListener() {
+        QuerySettings settings = new QuerySettings().setProgressListener(p -> { }).setProgressListener(null);
+        Assert.assertNull(settings.getProgressListener());
+        Assert.assertFalse(settings.getAllSettings().containsKey(
+                ClientConfigProperties.serverSetting("send_progress_in_http_headers")));
+    }
+}
@@ -0,0 +1,223 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.query.GenericRecord;
+import com.clickhouse.client.api.query.QueryBatchResult;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.client.api.query.QueryStatement;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class QueryBatchUnitTest {
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .useServerTimeZone(false)
+                .useTimeZone("UTC")
+                .setMaxRetries(0)
+                .build();
+    }
+
+    private void stubValue(String table, long value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 1);
+        BinaryStreamUtils.writeString(out, "v");
+        BinaryStreamUtils.writeString(out, "Int64");
+        BinaryStreamUtils.writeInt64(out, value);
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .withRequestBody(WireMock.containing("FROM " + table))
+                .willReturn(WireMock.aResponse().withStatus(200).withBody(out.toByteArray())));
+    }
+
+    @Test(groups = {"unit"})
+    public void testBatch() throws Exception {
+        List<QueryStatement> statements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            stubValue("t" + i, i * 10L);
+            statements.add(new QueryStatement("SELECT v FROM t" + i));
+        }
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .withRequestBody(WireMock.containing("FROM missing"))
+                .willReturn(WireMock.aResponse().withStatus(404)
+                        .withHeader("X-ClickHouse-Exception-Code", "60")
+                        .withBody("Code: 60. DB::Exception: Table default.missing does not exist. (UNKNOWN_TABLE)")));
+        statements.add(5, new QueryStatement("SELECT v FROM missing"));
+
+        List<QueryBatchResult> results;
+        try (Client client = newClient()) {
+            results = client.queryBatch(statements, new QuerySettings().setQueryId("page"))
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(results.size(), 21);
+        for (int i = 0; i < results.size(); i++) {
+            QueryBatchResult result = results.get(i);
+            Assert.assertSame(result.getStatement(), statements.get(i));
+            if (i == 5) {
+                Assert.assertFalse(result.isSuccess());
+                Assert.assertTrue(result.getError() instanceof ServerException, String.valueOf(result.getError()));
+                Assert.assertEquals(((ServerException) result.getError()).getCode(), 60);
+                Assert.assertThrows(ClientException.class, result::getRecords);
+            } else {
+                int table = i < 5 ? i : i - 1;
+                Assert.assertTrue(result.isSuccess(), String.valueOf(result.getError()));
+                List<GenericRecord> records = result.getRecords();
+                Assert.assertEquals(records.size(), 1);
+                Assert.assertEquals(records.get(0).getLong("v"), table * 10L);
+            }
+        }
+        mockServer.verify(21, WireMock.postRequestedFor(WireMock.anyUrl()));
+        mockServer.verify(1, WireMock.postRequestedFor(WireMock.urlMatching(".*query_id=page-20.*")));
+    }
+
+    private void stubMerged(long... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 2);
+        BinaryStreamUtils.writeString(out, "v");
+        BinaryStreamUtils.writeString(out, "_chc_batch_statement");
+        BinaryStreamUtils.writeString(out, "Int64");
+        BinaryStreamUtils.writeString(out, "UInt32");
+        // value and statement index pairs
+        for (int i = 0; i < rows.length; i += 2) {
+            BinaryStreamUtils.writeInt64(out, rows[i]);
+            BinaryStreamUtils.writeUnsignedInt32(out, rows[i + 1]);
+        }
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .withRequestBody(WireMock.containing("UNION ALL"))
+                .willReturn(WireMock.aResponse().withStatus(200).withBody(out.toByteArray())));
+    }
+
+    private static List<QueryStatement> similarStatements(int count) {
+        List<QueryStatement> statements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            statements.add(new QueryStatement("SELECT v FROM t" + i));
+        }
+        return statements;
+    }
+
+    @Test(groups = {"unit"})
+    public void testSimilarStatementsAreMerged() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            stubValue("t" + i, i);
+        }
+        List<QueryStatement> statements = similarStatements(3);
+        try (Client client = newClient()) {
+            // columns of statements are learned from the first batch
+            client.queryBatch(statements, new QuerySettings().setQueryId("page")).get(10, TimeUnit.SECONDS);
+            mockServer.verify(3, WireMock.postRequestedFor(WireMock.anyUrl()));
+
+            stubMerged(20, 2, 0, 0, 21, 2);
+            mockServer.resetRequests();
+            List<QueryBatchResult> results = client.queryBatch(statements, new QuerySettings().setQueryId("page"))
+                    .get(10, TimeUnit.SECONDS);
+
+            mockServer.verify(1, WireMock.postRequestedFor(WireMock.anyUrl()));
+            mockServer.verify(1, WireMock.postRequestedFor(WireMock.urlMatching(".*query_id=page-0.*")));
+            Assert.assertEquals(results.size(), 3);
+            Assert.assertEquals(results.get(0).getRecords().size(), 1);
+            Assert.assertEquals(results.get(0).getRecords().get(0).getLong("v"), 0L);
+            Assert.assertTrue(results.get(1).getRecords().isEmpty());
+            List<GenericRecord> records = results.get(2).getRecords();
+            Assert.assertEquals(records.size(), 2);
+            Assert.assertEquals(records.get(0).getLong(1), 20L);
+            Assert.assertEquals(records.get(1).getLong("v"), 21L);
+            Assert.assertEquals(records.get(1).getSchema().getColumns().size(), 1);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testFailedMergedQueryRunsStatementsAlone() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            stubValue("t" + i, i);
+        }
+        List<QueryStatement> statements = similarStatements(3);
+        try (Client client = newClient()) {
+            client.queryBatch(statements).get(10, TimeUnit.SECONDS);
+
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .withRequestBody(WireMock.containing("UNION ALL"))
+                    .willReturn(WireMock.aResponse().withStatus(404)
+                            .withHeader("X-ClickHouse-Exception-Code", "60")
+                            .withBody("Code: 60. DB::Exception: Table default.t1 does not exist. (UNKNOWN_TABLE)")));
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .withRequestBody(WireMock.equalTo("SELECT v FROM t1"))
+                    .willReturn(WireMock.aResponse().withStatus(404)
+                            .withHeader("X-ClickHouse-Exception-Code", "60")
+                            .withBody("Code: 60. DB::Exception: Table default.t1 does not exist. (UNKNOWN_TABLE)")));
+            mockServer.resetRequests();
+            List<QueryBatchResult> results = client.queryBatch(statements).get(10, TimeUnit.SECONDS);
+
+            // the merged query and then each statement
+            mockServer.verify(4, WireMock.postRequestedFor(WireMock.anyUrl()));
+            Assert.assertEquals(results.get(0).getRecords().get(0).getLong("v"), 0L);
+            Assert.assertFalse(results.get(1).isSuccess());
+            Assert.assertEquals(((ServerException) results.get(1).getError()).getCode(), 60);
+            Assert.assertEquals(results.get(2).getRecords().get(0).getLong("v"), 2L);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testBatchWithSingleThreadExecutor() throws Exception {
+        List<QueryStatement> statements = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            stubValue("t" + i, i);
+            statements.add(new QueryStatement("SELECT v FROM t" + i));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .useAsyncRequests(true)
+                .setSharedOperationExecutor(executor)
+                .build()) {
+            List<QueryBatchResult> results = client.queryBatch(statements).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(results.size(), 4);
+            for (QueryBatchResult result : results) {
+                Assert.assertTrue(result.isSuccess(), String.valueOf(result.getError()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testEmptyBatch() {
+        try (Client client = newClient()) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> client.queryBatch(Collections.emptyList()));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.beans.ConstructorProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class QueryStreamUnitTest {
+
+    public static class Row {
+        private long id;
+        private String name;
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static final class ImmutableRow {
+        private final long id;
+        private final String name;
+
+        @ConstructorProperties({"id", "name"})
+        public ImmutableRow(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    public static class NoSetters {
+        public String getValue() {
+            return null;
+        }
+    }
+
+    private WireMockServer mockServer;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        mockServer.stop();
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .useServerTimeZone(false)
+                .useTimeZone("UTC")
+                .build();
+    }
+
+    private void stubRows(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 2);
+        BinaryStreamUtils.writeString(out, "id");
+        BinaryStreamUtils.writeString(out, "name");
+        BinaryStreamUtils.writeString(out, "Int64");
+        BinaryStreamUtils.writeString(out, "String");
+        for (int i = 0; i < rows; i++) {
+            BinaryStreamUtils.writeInt64(out, i);
+            BinaryStreamUtils.writeString(out, "row" + i);
+        }
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200).withBody(out.toByteArray())));
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryStream() throws Exception {
+        stubRows(100);
+        try (Client client = newClient();
+             Stream<Row> rows = client.queryStream("SELECT id, name FROM t", Row.class, new QuerySettings())) {
+            List<Row> list = rows.collect(Collectors.toList());
+            Assert.assertEquals(list.size(), 100);
+            Assert.assertEquals(list.get(42).id, 42);
+            Assert.assertEquals(list.get(42).name, "row42");
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryStreamWithRecycledObjects() throws Exception {
+        stubRows(1000);
+        Deque<Row> pool = new ArrayDeque<>();
+        AtomicInteger allocated = new AtomicInteger();
+        Map<Row, Boolean> instances = new IdentityHashMap<>();
+        long sum = 0;
+        try (Client client = newClient();
+             Stream<Row> rows = client.queryStream("SELECT id, name FROM t", Row.class, null, () -> {
+                 Row row = pool.poll();
+                 if (row == null) {
+                     allocated.incrementAndGet();
+                     row = new Row();
+                 }
+                 return row;
+             })) {
+            for (Row row : (Iterable<Row>) rows::iterator) {
+                sum += row.id;
+                instances.put(row, Boolean.TRUE);
+                pool.push(row);
+            }
+        }
+        Assert.assertEquals(sum, 999L * 1000 / 2);
+        Assert.assertEquals(allocated.get(), 1);
+        Assert.assertEquals(instances.size(), 1);
+    }
+
+    @Test(groups = {"unit"})
+    public void testAllocatorCalledOnlyForRows() throws Exception {
+        for (int rowCount : new int[]{0, 1, 5}) {
+            stubRows(rowCount);
+            AtomicInteger allocated = new AtomicInteger();
+            try (Client client = newClient();
+                 Stream<Row> rows = client.queryStream("SELECT id, name FROM t", Row.class, null, () -> {
+                     allocated.incrementAndGet();
+                     return new Row();
+                 })) {
+                List<Row> list = rows.collect(Collectors.toList());
+                Assert.assertEquals(list.size(), rowCount);
+                for (int i = 0; i < rowCount; i++) {
+                    Assert.assertEquals(list.get(i).id, i);
+                    Assert.assertEquals(list.get(i).name, "row" + i);
+                }
+            }
+            Assert.assertEquals(allocated.get(), rowCount);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryStreamWithConstructor() throws Exception {
+        stubRows(3);
+        try (Client client = newClient();
+             Stream<ImmutableRow> rows = client.queryStream("SELECT id, name FROM t", ImmutableRow.class, null)) {
+            Assert.assertEquals(rows.map(r -> r.name).collect(Collectors.joining(",")), "row0,row1,row2");
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryStreamWithoutSetters() throws Exception {
+        stubRows(1);
+        try (Client client = newClient()) {
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> client.queryStream("SELECT id, name FROM t", NoSetters.class, null));
+        }
+    }
+}
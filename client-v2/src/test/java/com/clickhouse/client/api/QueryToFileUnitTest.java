@@ -0,0 +1,197 @@
+package com.clickhouse.client.api;
+
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.client.api.query.QueryToFileResponse;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+public class QueryToFileUnitTest {
+
+    private WireMockServer mockServer;
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        dir = Files.createTempDirectory("query-to-file-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws Exception {
+        mockServer.stop();
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            files.forEach(f -> f.toFile().delete());
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Client newClient() {
+        return new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressClientRequest(false)
+                .compressServerResponse(false)
+                .setMaxRetries(1)
+                .build();
+    }
+
+    @Test
+    public void testQueryToFile() throws Exception {
+        byte[] body = "1,one\n2,two\n".getBytes(StandardCharsets.UTF_8);
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200).withBody(body)
+                        .withHeader("X-ClickHouse-Summary", "{ \"result_rows\": \"2\"}")));
+
+        Path file = dir.resolve("data.csv");
+        Files.write(file, new byte[100]); // existing file is truncated
+        try (Client client = newClient()) {
+            QueryToFileResponse response = client.queryToFile("SELECT * FROM t", file, ClickHouseFormat.CSV,
+                    new QuerySettings()).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.getFiles(), Arrays.asList(file));
+            Assert.assertEquals(response.getBytesWritten(), body.length);
+            Assert.assertEquals(response.getResultRows(), 2);
+        }
+        Assert.assertEquals(Files.readAllBytes(file), body);
+    }
+
+    @Test
+    public void testQueryToCompressedFileKeepsEncoding() throws Exception {
+        byte[] content = new byte[50_000];
+        new Random(3).nextBytes(content);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200).withBody(compressed.toByteArray())
+                        .withHeader("Content-Encoding", "gzip")));
+
+        Path file = dir.resolve("data.csv.gz");
+        try (Client client = newClient()) {
+            client.queryToFile("SELECT * FROM t", file, ClickHouseFormat.CSV, new QuerySettings())
+                    .get(10, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(Files.readAllBytes(file), compressed.toByteArray());
+
+        mockServer.verify(WireMock.postRequestedFor(WireMock.anyUrl())
+                .withHeader("Accept-Encoding", WireMock.equalTo("gzip"))
+                .withQueryParam("enable_http_compression", WireMock.equalTo("1")));
+    }
+
+    @Test
+    public void testSegmentedQueryToFile() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .withRequestBody(WireMock.containing("cityHash64(id) % 3 = " + i))
+                    .willReturn(WireMock.aResponse().withStatus(200).withBody("segment" + i)));
+        }
+
+        Path file = dir.resolve("export.csv");
+        QueryToFileResponse response;
+        try (Client client = newClient()) {
+            response = client.queryToFile("SELECT * FROM t", "id", 3, file, ClickHouseFormat.CSV,
+                    new QuerySettings()).get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(response.getFiles().size(), 3);
+        Assert.assertEquals(response.getMetrics().size(), 3);
+        Assert.assertEquals(response.getBytesWritten(), 3 * "segment0".length());
+        for (int i = 0; i < 3; i++) {
+            Path part = response.getFiles().get(i);
+            Assert.assertEquals(part, dir.resolve("export.part" + i + ".csv"));
+            Assert.assertEquals(new String(Files.readAllBytes(part), StandardCharsets.UTF_8), "segment" + i);
+        }
+        Assert.assertFalse(Files.exists(file));
+        mockServer.verify(3, WireMock.postRequestedFor(WireMock.anyUrl()));
+    }
+
+    @Test
+    public void testSegmentedQueryToFileWithSingleThreadExecutor() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200).withBody("segment")));
+
+        Path file = dir.resolve("export.csv");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .useAsyncRequests(true)
+                .setSharedOperationExecutor(executor)
+                .build()) {
+            QueryToFileResponse response = client.queryToFile("SELECT * FROM t", "id", 2, file,
+                    ClickHouseFormat.CSV, new QuerySettings()).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.getFiles().size(), 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSegmentsAboveConnectionLimit() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200).withBody("segment").withFixedDelay(300)));
+
+        Path file = dir.resolve("export.csv");
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .setMaxConnections(2)
+                .setConnectionRequestTimeout(100, ChronoUnit.MILLIS)
+                .build()) {
+            // segments wait for a thread, not for a connection
+            QueryToFileResponse response = client.queryToFile("SELECT * FROM t", "id", 6, file,
+                    ClickHouseFormat.CSV, new QuerySettings()).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.getFiles().size(), 6);
+        }
+        mockServer.verify(6, WireMock.postRequestedFor(WireMock.anyUrl()));
+    }
+
+    @Test
+    public void testFailedQueryToFileDeletesFile() throws Exception {
+        mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse().withStatus(200)
+                        .withHeader("Transfer-Encoding", "chunked")
+                        .withFault(Fault.MALFORMED_RESPONSE_CHUNK)));
+
+        Path file = dir.resolve("data.csv");
+        try (Client client = newClient()) {
+            Assert.expectThrows(Exception.class, () -> client.queryToFile("SELECT * FROM t", file,
+                    ClickHouseFormat.CSV, new QuerySettings()).get(10, TimeUnit.SECONDS));
+        }
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testPartFileNames() {
+        Assert.assertEquals(Client.partFileOf(Paths.get("a", "b.csv.gz"), 2), Paths.get("a", "b.part2.csv.gz"));
+        Assert.assertEquals(Client.partFileOf(Paths.get("noext"), 0), Paths.get("noext.part0"));
+        Assert.assertEquals(Client.partFileOf(Paths.get(".hidden"), 1), Paths.get(".hidden.part1"));
+    }
+}
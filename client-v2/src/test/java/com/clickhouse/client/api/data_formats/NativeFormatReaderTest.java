@@ -0,0 +1,282 @@
+package com.clickhouse.client.api.data_formats;
+
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Test(groups = {"unit"})
+public class NativeFormatReaderTest {
+
+    private static final String[] NAMES = {"id", "tag", "opt"};
+    private static final String[] TYPES = {"Int32", "LowCardinality(String)", "LowCardinality(Nullable(String))"};
+
+    private static void writeBlockHeader(ByteArrayOutputStream out, int nRows) throws IOException {
+        BinaryStreamUtils.writeVarInt(out, NAMES.length);
+        BinaryStreamUtils.writeVarInt(out, nRows);
+    }
+
+    private static void writeColumnHeader(ByteArrayOutputStream out, int column) throws IOException {
+        BinaryStreamUtils.writeString(out, NAMES[column]);
+        BinaryStreamUtils.writeString(out, TYPES[column]);
+    }
+
+    private static void writeLowCardinality(ByteArrayOutputStream out, int indexType, List<String> keys,
+                                            int... indexes) throws IOException {
+        BinaryStreamUtils.writeInt64(out, NativeFormatReader.LOW_CARDINALITY_SHARED_DICTIONARIES_WITH_ADDITIONAL_KEYS);
+        BinaryStreamUtils.writeInt64(out, indexType | NativeFormatReader.LOW_CARDINALITY_HAS_ADDITIONAL_KEYS_BIT);
+        BinaryStreamUtils.writeInt64(out, keys.size());
+        for (String key : keys) {
+            BinaryStreamUtils.writeString(out, key);
+        }
+        BinaryStreamUtils.writeInt64(out, indexes.length);
+        for (int index : indexes) {
+            if (indexType == 0) {
+                BinaryStreamUtils.writeUnsignedInt8(out, index);
+            } else {
+                BinaryStreamUtils.writeUnsignedInt16(out, index);
+            }
+        }
+    }
+
+    private static NativeFormatReader createReader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writeBlockHeader(out, 3);
+        writeColumnHeader(out, 0);
+        for (int id = 1; id <= 3; id++) {
+            BinaryStreamUtils.writeInt32(out, id);
+        }
+        writeColumnHeader(out, 1);
+        writeLowCardinality(out, 0, Arrays.asList("", "a", "b"), 1, 2, 1);
+        writeColumnHeader(out, 2);
+        writeLowCardinality(out, 0, Arrays.asList("", "", "x"), 0, 2, 0);
+
+        // empty block has no column data
+        writeBlockHeader(out, 0);
+        for (int i = 0; i < NAMES.length; i++) {
+            writeColumnHeader(out, i);
+        }
+
+        writeBlockHeader(out, 2);
+        writeColumnHeader(out, 0);
+        BinaryStreamUtils.writeInt32(out, 4);
+        BinaryStreamUtils.writeInt32(out, 5);
+        writeColumnHeader(out, 1);
+        writeLowCardinality(out, 1, Arrays.asList("", "c"), 1, 1);
+        writeColumnHeader(out, 2);
+        writeLowCardinality(out, 1, Arrays.asList("", "", "y"), 2, 0);
+
+        QuerySettings settings = new QuerySettings().setUseTimeZone(TimeZone.getTimeZone("UTC").toZoneId().getId());
+        return new NativeFormatReader(new ByteArrayInputStream(out.toByteArray()), settings,
+                new BinaryStreamReader.CachingByteBufferAllocator());
+    }
+
+    @Test
+    public void testLowCardinalityValues() throws Exception {
+        NativeFormatReader reader = createReader();
+        String[] tags = {"a", "b", "a", "c", "c"};
+        String[] opts = {null, "x", null, "y", null};
+        for (int i = 0; i < tags.length; i++) {
+            Assert.assertNotNull(reader.next(), "row " + i);
+            Assert.assertEquals(reader.getInteger("id"), i + 1);
+            Assert.assertEquals(reader.getString("tag"), tags[i]);
+            Assert.assertEquals(reader.readValue("opt"), opts[i]);
+        }
+        Assert.assertNull(reader.next());
+    }
+
+    @Test
+    public void testDictionaryAccess() throws Exception {
+        NativeFormatReader reader = createReader();
+        Assert.assertThrows(ClientException.class, () -> reader.getDictionary("tag"));
+
+        reader.next();
+        List<Object> firstDictionary = reader.getDictionary("tag");
+        Assert.assertEquals(firstDictionary, Arrays.asList("", "a", "b"));
+        Assert.assertEquals(reader.getDictionaryIndex("tag"), 1);
+        Assert.assertEquals(reader.getDictionaryIndex(3), 0);
+        Assert.assertNull(reader.getDictionary(3).get(0));
+        Assert.assertSame(reader.readValue("tag"), firstDictionary.get(1));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> firstDictionary.set(0, "z"));
+        Assert.assertThrows(ClientException.class, () -> reader.getDictionaryIndex("id"));
+
+        reader.next();
+        Assert.assertEquals(reader.getDictionaryIndex("tag"), 2);
+        Assert.assertSame(reader.getDictionary("tag"), firstDictionary);
+
+        reader.next();
+        Assert.assertEquals(reader.getDictionaryIndex("opt"), 0);
+
+        // next block brings its own dictionary
+        reader.next();
+        Assert.assertNotSame(reader.getDictionary("tag"), firstDictionary);
+        Assert.assertEquals(reader.getDictionary("tag"), Arrays.asList("", "c"));
+        Assert.assertEquals(reader.getDictionaryIndex("tag"), 1);
+        Assert.assertEquals(reader.getDictionaryIndex("opt"), 2);
+        Assert.assertEquals(reader.getInteger("id"), 4);
+    }
+
+    @Test
+    public void testArrayOffsets() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 1);
+        BinaryStreamUtils.writeVarInt(out, 3);
+        BinaryStreamUtils.writeString(out, "v");
+        BinaryStreamUtils.writeString(out, "Array(Float32)");
+        // offsets are cumulative
+        BinaryStreamUtils.writeInt64(out, 2);
+        BinaryStreamUtils.writeInt64(out, 2);
+        BinaryStreamUtils.writeInt64(out, 3);
+        BinaryStreamUtils.writeFloat32(out, 1.0f);
+        BinaryStreamUtils.writeFloat32(out, 2.0f);
+        BinaryStreamUtils.writeFloat32(out, 3.0f);
+
+        QuerySettings settings = new QuerySettings().setUseTimeZone("UTC");
+        NativeFormatReader reader = new NativeFormatReader(new ByteArrayInputStream(out.toByteArray()), settings,
+                new BinaryStreamReader.CachingByteBufferAllocator());
+        reader.next();
+        Assert.assertEquals(reader.getFloatArray("v"), new float[] {1.0f, 2.0f});
+        reader.next();
+        Assert.assertEquals(reader.getFloatArray("v"), new float[0]);
+        reader.next();
+        Assert.assertEquals(reader.getFloatArray("v"), new float[] {3.0f});
+        Assert.assertNull(reader.next());
+    }
+
+    private static byte[] manyBlocks(int nBlocks, int nVariantBlocks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int id = 0;
+        for (int b = 0; b < nBlocks; b++) {
+            int nRows = b % 3 == 0 ? 0 : 50 + b;
+            BinaryStreamUtils.writeVarInt(out, 5);
+            BinaryStreamUtils.writeVarInt(out, nRows);
+            BinaryStreamUtils.writeString(out, "id");
+            BinaryStreamUtils.writeString(out, "Int32");
+            for (int i = 0; i < nRows; i++) {
+                BinaryStreamUtils.writeInt32(out, id + i);
+            }
+            BinaryStreamUtils.writeString(out, "name");
+            BinaryStreamUtils.writeString(out, "Nullable(String)");
+            for (int i = 0; i < nRows; i++) {
+                if ((id + i) % 5 == 0) {
+                    BinaryStreamUtils.writeNull(out);
+                } else {
+                    BinaryStreamUtils.writeNonNull(out);
+                    BinaryStreamUtils.writeString(out, "name" + (id + i));
+                }
+            }
+            BinaryStreamUtils.writeString(out, "v");
+            BinaryStreamUtils.writeString(out, "Array(Int64)");
+            long offset = 0;
+            for (int i = 0; i < nRows; i++) {
+                offset += (id + i) % 4;
+                BinaryStreamUtils.writeInt64(out, offset);
+            }
+            for (long i = 0; i < offset; i++) {
+                BinaryStreamUtils.writeInt64(out, i);
+            }
+            BinaryStreamUtils.writeString(out, "tag");
+            BinaryStreamUtils.writeString(out, "LowCardinality(String)");
+            if (nRows > 0) {
+                int[] indexes = new int[nRows];
+                for (int i = 0; i < nRows; i++) {
+                    indexes[i] = 1 + (id + i) % 2;
+                }
+                writeLowCardinality(out, 0, Arrays.asList("", "a", "b"), indexes);
+            }
+            // Variant values are not skipped by the splitter: the first block having them and the rest of
+            // the stream are decoded sequentially
+            BinaryStreamUtils.writeString(out, "vars");
+            BinaryStreamUtils.writeString(out, "Array(Variant(String))");
+            boolean hasVariants = b >= nBlocks - nVariantBlocks;
+            for (int i = 0; i < nRows; i++) {
+                BinaryStreamUtils.writeInt64(out, hasVariants ? i + 1 : 0);
+            }
+            for (int i = 0; hasVariants && i < nRows; i++) {
+                BinaryStreamUtils.writeUnsignedInt8(out, 0);
+                BinaryStreamUtils.writeString(out, "s" + (id + i));
+            }
+            id += nRows;
+        }
+        return out.toByteArray();
+    }
+
+    private static List<List<Object>> readAll(byte[] data, int threads) throws Exception {
+        QuerySettings settings = new QuerySettings().setUseTimeZone("UTC").setNativeDecodingThreads(threads);
+        List<List<Object>> rows = new ArrayList<>();
+        try (NativeFormatReader reader = new NativeFormatReader(new ByteArrayInputStream(data), settings,
+                new BinaryStreamReader.CachingByteBufferAllocator())) {
+            while (reader.next() != null) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= reader.getSchema().getColumns().size(); i++) {
+                    Object value = reader.readValue(i);
+                    row.add(value instanceof BinaryStreamReader.ArrayValue
+                            ? ((BinaryStreamReader.ArrayValue) value).asList() : value);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void testParallelDecoding() throws Exception {
+        byte[] data = manyBlocks(40, 0);
+        List<List<Object>> expected = readAll(data, 0);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(readAll(data, 4), expected);
+        Assert.assertEquals(readAll(data, 2), expected);
+    }
+
+    @Test
+    public void testParallelDecodingFallback() throws Exception {
+        byte[] data = manyBlocks(20, 2);
+        List<List<Object>> expected = readAll(data, 0);
+        Assert.assertEquals(expected.get(expected.size() - 1).get(4), Arrays.asList("s" + (expected.size() - 1)));
+        Assert.assertEquals(readAll(data, 3), expected);
+    }
+
+    @Test
+    public void testParallelDecodingCloseEarly() throws Exception {
+        QuerySettings settings = new QuerySettings().setUseTimeZone("UTC").setNativeDecodingThreads(2);
+        NativeFormatReader reader = new NativeFormatReader(new ByteArrayInputStream(manyBlocks(40, 0)),
+                settings, new BinaryStreamReader.CachingByteBufferAllocator());
+        Assert.assertNotNull(reader.next());
+        Assert.assertEquals(reader.getInteger("id"), 0);
+        reader.close();
+    }
+
+    @Test
+    public void testParallelDecodingStopsWhenReaderIsDropped() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        try {
+            QuerySettings settings = new QuerySettings().setUseTimeZone("UTC").setNativeDecodingThreads(2);
+            NativeFormatReader reader = new NativeFormatReader(new ByteArrayInputStream(manyBlocks(40, 0)),
+                    settings, new BinaryStreamReader.CachingByteBufferAllocator(), null, executor);
+            Assert.assertNotNull(reader.next());
+            reader = null;
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(executor.getActiveCount(), 0, "splitter is still running");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.clickhouse.client.api.data_formats;
+
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.query.NullValueException;
+import com.clickhouse.data.ClickHouseDataType;
+import com.clickhouse.data.ClickHouseFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+@Test(groups = {"unit"})
+public class StreamingJSONFormatReaderTest {
+
+    private static StreamingJSONFormatReader readerOf(ClickHouseFormat format, String data) throws IOException {
+        return new StreamingJSONFormatReader(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Test
+    public void testJSONEachRowSchemaInference() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow,
+                "{\"i\": 1, \"l\": 10000000000, \"b\": 123456789012345678901234567890, \"d\": 1.5,"
+                        + " \"s\": \"str\", \"f\": true, \"a\": [1, 2], \"n\": null}\n")) {
+            Assert.assertEquals(reader.getSchema().getColumnByName("i").getDataType(), ClickHouseDataType.Int32);
+            Assert.assertEquals(reader.getSchema().getColumnByName("l").getDataType(), ClickHouseDataType.Int64);
+            Assert.assertEquals(reader.getSchema().getColumnByName("b").getDataType(), ClickHouseDataType.Int256);
+            Assert.assertEquals(reader.getSchema().getColumnByName("d").getDataType(), ClickHouseDataType.Float64);
+            Assert.assertEquals(reader.getSchema().getColumnByName("s").getDataType(), ClickHouseDataType.String);
+            Assert.assertEquals(reader.getSchema().getColumnByName("f").getDataType(), ClickHouseDataType.Bool);
+            Assert.assertEquals(reader.getSchema().getColumnByName("a").getDataType(), ClickHouseDataType.Array);
+            Assert.assertEquals(reader.getSchema().getColumns().get(0).getColumnName(), "i");
+        }
+    }
+
+    @Test
+    public void testJSONEachRowValues() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow,
+                "{\"id\": 1, \"name\": \"a\", \"big\": \"18446744073709551615\", \"v\": 0.25, \"arr\": [1, 2, 3]}\n"
+                        + "{\"name\": \"b\", \"id\": 2, \"extra\": {\"x\": 1}, \"v\": 2}\n")) {
+            Assert.assertTrue(reader.hasNext());
+            Assert.assertNotNull(reader.next());
+            Assert.assertEquals(reader.getInteger("id"), 1);
+            Assert.assertEquals(reader.getLong(1), 1L);
+            Assert.assertEquals(reader.getString("name"), "a");
+            Assert.assertEquals(reader.getBigInteger("big"), new BigInteger("18446744073709551615"));
+            Assert.assertEquals(reader.getDouble("v"), 0.25);
+            Assert.assertEquals(reader.getIntArray("arr"), new int[] {1, 2, 3});
+
+            // fields out of order, unknown field skipped, missing field is null
+            Map<String, Object> row = reader.next();
+            Assert.assertNotNull(row);
+            Assert.assertEquals(reader.getLong("id"), 2L);
+            Assert.assertEquals(reader.getString("name"), "b");
+            Assert.assertEquals(reader.getDouble("v"), 2.0);
+            Assert.assertFalse(reader.hasValue("arr"));
+            Assert.assertNull(reader.getList("arr"));
+            Assert.assertEquals(row.get("id"), 2);
+            Assert.assertEquals(row.size(), 5);
+
+            Assert.assertFalse(reader.hasNext());
+            Assert.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testNullValueOnPrimitiveAccessor() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow, "{\"v\": null}")) {
+            reader.next();
+            Assert.assertThrows(NullValueException.class, () -> reader.getLong("v"));
+            Assert.assertNull(reader.readValue("v"));
+        }
+    }
+
+    @Test
+    public void testNumberFromString() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow,
+                "{\"v\": \"9223372036854775807\", \"b\": 300}")) {
+            reader.next();
+            Assert.assertEquals(reader.getLong("v"), Long.MAX_VALUE);
+            Assert.assertThrows(ArithmeticException.class, () -> reader.getByte("b"));
+            Assert.assertEquals(reader.getShort("b"), (short) 300);
+        }
+    }
+
+    @Test
+    public void testJSONCompactEachRowWithNamesAndTypes() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONCompactEachRowWithNamesAndTypes,
+                "[\"id\", \"dec\", \"day\"]\n[\"UInt32\", \"Decimal(10, 3)\", \"Date\"]\n"
+                        + "[1, 12.345, \"2024-01-02\"]\n[2, null, \"2024-01-03\"]\n")) {
+            Assert.assertEquals(reader.getSchema().getColumnByName("id").getDataType(), ClickHouseDataType.UInt32);
+            Assert.assertEquals(reader.getSchema().getColumnByName("dec").getDataType(), ClickHouseDataType.Decimal);
+            Assert.assertEquals(reader.getSchema().getColumnByName("day").getDataType(), ClickHouseDataType.Date);
+
+            reader.next();
+            Assert.assertEquals(reader.getLong("id"), 1L);
+            Assert.assertEquals(reader.getBigDecimal("dec"), new BigDecimal("12.345"));
+            Assert.assertEquals(reader.getLocalDate(3), LocalDate.of(2024, 1, 2));
+
+            reader.next();
+            Assert.assertEquals(reader.getInteger(1), 2);
+            Assert.assertNull(reader.getBigDecimal("dec"));
+            Assert.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testJSONCompactEachRow() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONCompactEachRow,
+                "[1, \"a\", [\"x\", \"y\"]]\n[2, \"b\", []]\n")) {
+            Assert.assertEquals(reader.getSchema().getColumns().size(), 3);
+            Assert.assertEquals(reader.getSchema().getColumnByIndex(1).getColumnName(), "c1");
+            int rows = 0;
+            while (reader.hasNext()) {
+                reader.next();
+                rows++;
+                Assert.assertEquals(reader.getInteger("c1"), rows);
+            }
+            Assert.assertEquals(rows, 2);
+            Assert.assertEquals(reader.getStringArray(3), new String[0]);
+        }
+    }
+
+    @Test
+    public void testJSONCompactEachRowWithNames() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONCompactEachRowWithNames,
+                "[\"a\", \"b\"]\n[true, [1.5, 2.5]]\n")) {
+            Assert.assertEquals(reader.getSchema().getColumnByName("a").getDataType(), ClickHouseDataType.Bool);
+            reader.next();
+            Assert.assertTrue(reader.getBoolean("a"));
+            Assert.assertEquals(reader.getDoubleArray("b"), new double[] {1.5, 2.5});
+            Assert.assertEquals(Arrays.asList(reader.getObjectArray("b")), Arrays.asList(1.5, 2.5));
+        }
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow, "")) {
+            Assert.assertTrue(reader.getSchema().getColumns().isEmpty());
+            Assert.assertFalse(reader.hasNext());
+            Assert.assertNull(reader.next());
+        }
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONCompactEachRowWithNamesAndTypes,
+                "[\"id\"]\n[\"Int8\"]\n")) {
+            Assert.assertEquals(reader.getSchema().getColumnByName("id").getDataType(), ClickHouseDataType.Int8);
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testTypedAccessors() throws Exception {
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONCompactEachRowWithNamesAndTypes,
+                "[\"dt\", \"ts\", \"d\", \"ip4\", \"ip6\", \"sec\", \"mon\", \"t\", \"pt\", \"ring\"]\n"
+                        + "[\"DateTime('Asia/Tokyo')\", \"DateTime64(3)\", \"Date\", \"IPv4\", \"IPv6\","
+                        + " \"IntervalSecond\", \"IntervalMonth\", \"Time\", \"Point\", \"Ring\"]\n"
+                        + "[\"2024-01-02 03:04:05\", \"1700000000.250\", \"2024-01-02\", \"10.0.0.1\", \"::1\","
+                        + " 90, \"5\", \"-100:02:03\", [1.5, 2], [[0, 0], [1, 1]]]\n")) {
+            reader.next();
+            ZonedDateTime dt = reader.getZonedDateTime("dt");
+            Assert.assertEquals(dt, ZonedDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneId.of("Asia/Tokyo")));
+            Assert.assertEquals(reader.getInstant(1), dt.toInstant());
+            Assert.assertEquals(reader.getInstant("ts"), Instant.ofEpochSecond(1700000000L, 250_000_000));
+            Assert.assertEquals(reader.getInstant("d"), Instant.parse("2024-01-02T00:00:00Z"));
+            Assert.assertEquals(reader.getInet4Address("ip4").getHostAddress(), "10.0.0.1");
+            Assert.assertEquals(reader.getInet6Address(4).getHostAddress(), "0:0:0:0:0:ffff:a00:1");
+            Assert.assertTrue(reader.getInet6Address("ip6").isLoopbackAddress());
+            Assert.assertEquals(reader.getDuration("sec"), Duration.ofSeconds(90));
+            Assert.assertEquals(reader.getTemporalAmount("mon"), Period.ofMonths(5));
+            Assert.assertEquals(reader.getDuration("t"), Duration.ofHours(100).plusMinutes(2).plusSeconds(3).negated());
+            Assert.assertEquals(reader.getGeoPoint("pt").getValue(), new double[] {1.5, 2});
+            Assert.assertEquals(reader.getGeoRing("ring").getValue(), new double[][] {{0, 0}, {1, 1}});
+            Assert.assertThrows(ClientException.class, () -> reader.getInet4Address("dt"));
+            Assert.assertThrows(UnsupportedOperationException.class, () -> reader.getClickHouseBitmap(1));
+        }
+
+        try (StreamingJSONFormatReader reader = readerOf(ClickHouseFormat.JSONEachRow,
+                "{\"dt\": \"2024-01-02T03:04:05Z\", \"i\": 10}")) {
+            reader.next();
+            Assert.assertEquals(reader.getInstant("dt"), Instant.parse("2024-01-02T03:04:05Z"));
+            // inferred type does not tell the interval unit
+            Assert.assertThrows(ClientException.class, () -> reader.getDuration("i"));
+        }
+    }
+
+    @Test
+    public void testMapperFeatures() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .enable(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+        try (StreamingJSONFormatReader reader = new StreamingJSONFormatReader(mapper,
+                new ByteArrayInputStream("{\"f\": 0.1, \"i\": 1}\n{\"f\": 0.2, \"i\": 2}".getBytes(StandardCharsets.UTF_8)),
+                ClickHouseFormat.JSONEachRow)) {
+            reader.next();
+            Assert.assertEquals(reader.readValue("f"), new BigDecimal("0.1"));
+            reader.next();
+            Assert.assertEquals(reader.readValue("f"), new BigDecimal("0.2"));
+            Assert.assertEquals(reader.readValue("i"), BigInteger.valueOf(2));
+            Assert.assertEquals(reader.getInteger("i"), 2);
+        }
+    }
+
+    @Test
+    public void testParserFactoryReader() throws Exception {
+        byte[] data = "{\"id\": 1}\n".getBytes(StandardCharsets.UTF_8);
+        try (ClickHouseTextFormatReader reader = new JacksonJsonParserFactory()
+                .createReader(new ByteArrayInputStream(data), ClickHouseFormat.JSONEachRow)) {
+            Assert.assertTrue(reader instanceof StreamingJSONFormatReader);
+            reader.next();
+            Assert.assertEquals(reader.getInteger("id"), 1);
+        }
+        try (ClickHouseTextFormatReader reader = new GsonJsonParserFactory()
+                .createReader(new ByteArrayInputStream(data), ClickHouseFormat.JSONEachRow)) {
+            Assert.assertTrue(reader instanceof JSONEachRowFormatReader);
+            reader.next();
+            Assert.assertEquals(reader.getInteger("id"), 1);
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> new GsonJsonParserFactory()
+                .createReader(new ByteArrayInputStream(data), ClickHouseFormat.JSONCompactEachRow));
+    }
+
+    @Test
+    public void testUnsupportedFormat() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> readerOf(ClickHouseFormat.CSV, ""));
+    }
+}
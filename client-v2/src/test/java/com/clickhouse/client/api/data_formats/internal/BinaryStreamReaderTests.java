@@ -1,16 +1,20 @@
 package com.clickhouse.client.api.data_formats.internal;
 
+import com.clickhouse.client.api.internal.ClickHouseLZ4InputStream;
+import com.clickhouse.client.api.internal.ClickHouseLZ4OutputStream;
 import com.clickhouse.data.ClickHouseColumn;
 import com.clickhouse.data.format.BinaryStreamUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.TimeZone;
 
+import net.jpountz.lz4.LZ4Factory;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
@@ -192,6 +196,108 @@ public class BinaryStreamReaderTests {
         Assert.assertEquals(array1.length, array2.length);
     }
 
+    @DataProvider(name = "primitiveArrays")
+    public Object[][] primitiveArrays() {
+        return new Object[][] {
+                {"Array(Int8)", new byte[] {0, -1, 127, -128}, new byte[] {0, -1, 127, -128}},
+                {"Array(UInt8)", new byte[] {0, -1, 127, -128}, new short[] {0, 255, 127, 128}},
+                {"Array(Bool)", new byte[] {1, 0, 1}, new boolean[] {true, false, true}},
+                {"Array(Int16)", new byte[] {1, 0, -1, -1}, new short[] {1, -1}},
+                {"Array(UInt16)", new byte[] {1, 0, -1, -1}, new int[] {1, 65535}},
+                {"Array(Int32)", new byte[] {1, 0, 0, 0, -1, -1, -1, -1}, new int[] {1, -1}},
+                {"Array(UInt32)", new byte[] {1, 0, 0, 0, -1, -1, -1, -1}, new long[] {1, 4294967295L}},
+                {"Array(Int64)", new byte[] {2, 0, 0, 0, 0, 0, 0, 0, -1, -1, -1, -1, -1, -1, -1, -1}, new long[] {2, -1}},
+        };
+    }
+
+    @Test(dataProvider = "primitiveArrays")
+    public void testReadPrimitiveArray(String type, byte[] data, Object expected) throws Exception {
+        int len = java.lang.reflect.Array.getLength(expected);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(baos, len);
+        baos.write(data);
+
+        BinaryStreamReader.ArrayValue array = newReader(baos.toByteArray()).readArray(ClickHouseColumn.of("v", type));
+        Assert.assertEquals(array.getArray().getClass(), expected.getClass());
+        Assert.assertEquals(array.length(), len);
+        for (int i = 0; i < len; i++) {
+            Assert.assertEquals(array.get(i), java.lang.reflect.Array.get(expected, i));
+        }
+    }
+
+    @Test
+    public void testReadFloatArrays() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(baos, 3);
+        for (float v : new float[] {1.5f, -2.25f, Float.NaN}) {
+            BinaryStreamUtils.writeFloat32(baos, v);
+        }
+        BinaryStreamUtils.writeVarInt(baos, 2);
+        for (double v : new double[] {Double.MAX_VALUE, -0.5d}) {
+            BinaryStreamUtils.writeFloat64(baos, v);
+        }
+        BinaryStreamUtils.writeVarInt(baos, 0);
+
+        BinaryStreamReader reader = newReader(baos.toByteArray());
+        Assert.assertEquals((float[]) reader.readArray(ClickHouseColumn.of("v", "Array(Float32)")).getArray(),
+                new float[] {1.5f, -2.25f, Float.NaN});
+        Assert.assertEquals((double[]) reader.readArray(ClickHouseColumn.of("v", "Array(Float64)")).getArray(),
+                new double[] {Double.MAX_VALUE, -0.5d});
+        Assert.assertEquals(reader.readArray(ClickHouseColumn.of("v", "Array(Float64)")).length(), 0);
+    }
+
+    @DataProvider(name = "blockSizes")
+    public Object[][] blockSizes() {
+        return new Object[][] {{5}, {13}, {1024}};
+    }
+
+    @Test(dataProvider = "blockSizes")
+    public void testReadFromDecompressedBlocks(int blockSize) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ClickHouseLZ4OutputStream out = new ClickHouseLZ4OutputStream(compressed,
+                LZ4Factory.fastestJavaInstance().fastCompressor(), blockSize)) {
+            BinaryStreamUtils.writeInt64(out, Long.MIN_VALUE + 1);
+            BinaryStreamUtils.writeString(out, "hello, world");
+            BinaryStreamUtils.writeInt32(out, -7);
+            BinaryStreamUtils.writeNonNull(out);
+            BinaryStreamUtils.writeInt16(out, 300);
+            BinaryStreamUtils.writeUnsignedInt16(out, 65000);
+            BinaryStreamUtils.writeVarInt(out, 3);
+            for (double v : new double[] {1.0, 2.5, -3.0}) {
+                BinaryStreamUtils.writeFloat64(out, v);
+            }
+            BinaryStreamUtils.writeVarInt(out, 300);
+            for (int i = 0; i < 300; i++) {
+                BinaryStreamUtils.writeString(out, "s" + i);
+            }
+            BinaryStreamUtils.writeUnsignedInt8(out, 255);
+        }
+
+        ClickHouseLZ4InputStream input = new ClickHouseLZ4InputStream(
+                new ByteArrayInputStream(compressed.toByteArray()),
+                LZ4Factory.fastestJavaInstance().fastDecompressor(), blockSize);
+        BinaryStreamReader reader = new BinaryStreamReader(input, TimeZone.getTimeZone("UTC"), null,
+                new BinaryStreamReader.CachingByteBufferAllocator(), false, null, false);
+
+        Assert.assertEquals(reader.readLongLE(), Long.MIN_VALUE + 1);
+        Assert.assertEquals(reader.readString(), "hello, world");
+        Assert.assertEquals((int) reader.readValue(ClickHouseColumn.of("v", "Int32")), -7);
+        Assert.assertEquals((short) reader.readValue(ClickHouseColumn.of("v", "Nullable(Int16)")), 300);
+        Assert.assertEquals(reader.readUnsignedShortLE(), 65000);
+        Assert.assertEquals((double[]) reader.readArray(ClickHouseColumn.of("v", "Array(Float64)")).getArray(),
+                new double[] {1.0, 2.5, -3.0});
+        BinaryStreamReader.ArrayValue strings = reader.readArray(ClickHouseColumn.of("v", "Array(String)"));
+        Assert.assertEquals(strings.length(), 300);
+        Assert.assertEquals(strings.get(299), "s299");
+        Assert.assertEquals(reader.readUnsignedByte(), 255);
+        Assert.assertThrows(EOFException.class, reader::readByte);
+    }
+
+    private static BinaryStreamReader newReader(byte[] data) {
+        return new BinaryStreamReader(new ByteArrayInputStream(data), TimeZone.getTimeZone("UTC"), null,
+                new BinaryStreamReader.CachingByteBufferAllocator(), false, null, false);
+    }
+
     @Test
     public void testReadNullVariantReturnsNull() throws Exception {
         ClickHouseColumn column = ClickHouseColumn.of("v", "Variant(Int32, String)");
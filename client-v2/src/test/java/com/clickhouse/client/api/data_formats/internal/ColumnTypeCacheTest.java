@@ -0,0 +1,70 @@
+package com.clickhouse.client.api.data_formats.internal;
+
+import com.clickhouse.data.ClickHouseColumn;
+import com.clickhouse.data.ClickHouseDataType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+@Test(groups = {"unit"})
+public class ColumnTypeCacheTest {
+
+    @Test
+    public void testTypeNameDescriptorsAreCached() {
+        ClickHouseColumn first = ColumnTypeCache.get("Array(Nullable(String))");
+        ClickHouseColumn second = ColumnTypeCache.get("Array(Nullable(String))");
+        Assert.assertNotSame(first, second);
+        // parsed state is shared, only the descriptor is copied
+        Assert.assertSame(first.getNestedColumns(), second.getNestedColumns());
+        Assert.assertEquals(first.getDataType(), ClickHouseDataType.Array);
+        Assert.assertEquals(first.getColumnName(), "v");
+        Assert.assertEquals(first.getOriginalTypeName(), "Array(Nullable(String))");
+    }
+
+    @Test
+    public void testChangesDoNotLeak() {
+        ClickHouseColumn first = ColumnTypeCache.get("LowCardinality(String)");
+        first.setHasDefault(true);
+        first.setDefaultExpression("'x'");
+        ClickHouseColumn second = ColumnTypeCache.get("LowCardinality(String)");
+        Assert.assertFalse(second.hasDefault());
+        Assert.assertNull(second.getDefaultExpression());
+        Assert.assertTrue(second.isLowCardinality());
+
+        ClickHouseColumn simple = ColumnTypeCache.get(ClickHouseDataType.Int32);
+        simple.setHasDefault(true);
+        Assert.assertFalse(ColumnTypeCache.get(ClickHouseDataType.Int32).hasDefault());
+    }
+
+    @Test
+    public void testSimpleAndDecimalDescriptors() {
+        Assert.assertEquals(ColumnTypeCache.get(ClickHouseDataType.Int32).getDataType(), ClickHouseDataType.Int32);
+
+        ClickHouseColumn decimal = ColumnTypeCache.getDecimal(ClickHouseDataType.Decimal64, 18, 4);
+        Assert.assertEquals(decimal.getPrecision(), 18);
+        Assert.assertEquals(decimal.getScale(), 4);
+        Assert.assertEquals(ColumnTypeCache.getDecimal(ClickHouseDataType.Decimal64, 18, 5).getScale(), 5);
+    }
+
+    @Test
+    public void testDynamicValueColumns() {
+        Assert.assertEquals(SerializerUtils.valueToColumnForDynamicType(Arrays.asList(1, 2)).getOriginalTypeName(),
+                SerializerUtils.valueToColumnForDynamicType(Arrays.asList(3, 4)).getOriginalTypeName());
+        ClickHouseColumn decimal = SerializerUtils.valueToColumnForDynamicType(new BigDecimal("1.25"));
+        Assert.assertEquals(decimal.getScale(), 8);
+        Assert.assertEquals(SerializerUtils.valueToColumnForDynamicType(new BigDecimal("3.75")).getOriginalTypeName(),
+                decimal.getOriginalTypeName());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int i = 0; i < ColumnTypeCache.MAX_SIZE + 10; i++) {
+            Assert.assertEquals(ColumnTypeCache.get("FixedString(" + (i + 1) + ")").getDataType(),
+                    ClickHouseDataType.FixedString);
+        }
+        Assert.assertTrue(ColumnTypeCache.size() <= ColumnTypeCache.MAX_SIZE * 2);
+        Assert.assertEquals(ColumnTypeCache.get("Array(UInt8)").getOriginalTypeName(), "Array(UInt8)");
+    }
+}
@@ -30,6 +30,41 @@ public class SerializerUtilsTest {
                 new BinaryStreamReader.DefaultByteBufferAllocator(), false, null, false);
     }
 
+    @DataProvider(name = "primitiveArrays")
+    public Object[][] primitiveArrays() {
+        double[] doubles = new double[5000];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = i * 0.5D - 100;
+        }
+        return new Object[][] {
+                {"Array(Float32)", new float[] {1.5f, -2f, Float.MIN_VALUE}},
+                {"Array(Float64)", doubles},
+                {"Array(Int64)", new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE}},
+                {"Array(Int32)", new int[] {Integer.MIN_VALUE, 1, Integer.MAX_VALUE}},
+                {"Array(Int16)", new short[] {Short.MIN_VALUE, 2, Short.MAX_VALUE}},
+                {"Array(Int8)", new byte[] {Byte.MIN_VALUE, 3, Byte.MAX_VALUE}},
+                {"Array(Int32)", new int[0]},
+                {"QBit(Float32, 3)", new float[] {0.1f, 0.2f, 0.3f}},
+        };
+    }
+
+    @Test(dataProvider = "primitiveArrays")
+    public void testPrimitiveArrayIsWrittenAsElements(String type, Object value) throws Exception {
+        ClickHouseColumn column = ClickHouseColumn.of("v", type);
+        ByteArrayOutputStream bulk = new ByteArrayOutputStream();
+        SerializerUtils.serializeData(bulk, value, column);
+
+        // boxed elements are written one by one
+        List<Object> boxed = new ArrayList<>();
+        for (int i = 0; i < java.lang.reflect.Array.getLength(value); i++) {
+            boxed.add(java.lang.reflect.Array.get(value, i));
+        }
+        ByteArrayOutputStream elements = new ByteArrayOutputStream();
+        SerializerUtils.serializeData(elements, boxed, column);
+
+        Assert.assertEquals(bulk.toByteArray(), elements.toByteArray());
+    }
+
     @Test
     public void testGeometryRoundTrip() throws Exception {
         ClickHouseColumn geometry = ClickHouseColumn.of("v", "Geometry");
@@ -0,0 +1,118 @@
+package com.clickhouse.client.api.data_formats.internal;
+
+import com.clickhouse.client.api.ClientConfigProperties;
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.client.api.data_formats.RowBinaryWithNamesAndTypesFormatReader;
+import com.clickhouse.client.api.data_formats.StringSlice;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import com.clickhouse.client.api.query.QuerySettings;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.TimeZone;
+
+public class StringSliceTests {
+
+    private static RowBinaryWithNamesAndTypesFormatReader reader(boolean stringSliceSupport, String... rows)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 4);
+        BinaryStreamUtils.writeString(out, "id");
+        BinaryStreamUtils.writeString(out, "s");
+        BinaryStreamUtils.writeString(out, "ns");
+        BinaryStreamUtils.writeString(out, "fs");
+        BinaryStreamUtils.writeString(out, "Int32");
+        BinaryStreamUtils.writeString(out, "String");
+        BinaryStreamUtils.writeString(out, "Nullable(String)");
+        BinaryStreamUtils.writeString(out, "FixedString(3)");
+        int id = 0;
+        for (String row : rows) {
+            BinaryStreamUtils.writeInt32(out, id++);
+            BinaryStreamUtils.writeString(out, row);
+            if (row.isEmpty()) {
+                BinaryStreamUtils.writeNull(out);
+            } else {
+                BinaryStreamUtils.writeNonNull(out);
+                BinaryStreamUtils.writeString(out, row);
+            }
+            BinaryStreamUtils.writeFixedString(out, "abc", 3);
+        }
+
+        return new RowBinaryWithNamesAndTypesFormatReader(new ByteArrayInputStream(out.toByteArray()),
+                new QuerySettings().setUseTimeZone(TimeZone.getTimeZone("UTC").toZoneId().getId())
+                        .setOption(ClientConfigProperties.STRING_SLICE_SUPPORT.getKey(), stringSliceSupport),
+                new BinaryStreamReader.CachingByteBufferAllocator(), null);
+    }
+
+    @Test
+    public void testSlicesAreReusedBetweenRows() throws IOException {
+        RowBinaryWithNamesAndTypesFormatReader reader = reader(true, "first", "second value", "", "third");
+
+        reader.next();
+        StringSlice first = reader.getStringBytes("s");
+        Assert.assertEquals(first.asString(), "first");
+        Assert.assertEquals(reader.getString("ns"), "first");
+        Assert.assertEquals(reader.getStringBytes(4).asString(), "abc");
+        Assert.assertEquals(reader.getInteger("id"), 0);
+
+        reader.next();
+        StringSlice second = reader.getStringBytes("s");
+        Assert.assertEquals(second.length(), "second value".length());
+        Assert.assertTrue(second.contentEquals("second value".getBytes(StandardCharsets.UTF_8)));
+
+        reader.next();
+        Assert.assertTrue(reader.getStringBytes("s").isEmpty());
+        Assert.assertNull(reader.getStringBytes("ns"));
+        Assert.assertNull(reader.getString("ns"));
+
+        // record buffers are swapped between rows, so a slice comes back two rows later
+        reader.next();
+        Assert.assertSame(reader.getStringBytes("s"), second);
+        Assert.assertEquals(reader.getString("s"), "third");
+        Assert.assertEquals(reader.getByteArray("s"), "third".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(reader.next());
+    }
+
+    @Test
+    public void testSlicesWithoutSliceSupport() throws IOException {
+        RowBinaryWithNamesAndTypesFormatReader reader = reader(false, "value");
+        reader.next();
+        Assert.assertEquals(reader.getStringBytes("s").asString(), "value");
+        Assert.assertEquals(reader.readValue("s"), "value");
+        Assert.assertThrows(ClientException.class, () -> reader.getStringBytes("id"));
+    }
+
+    @Test
+    public void testCopyToBuffers() {
+        ReusableStringSlice slice = new ReusableStringSlice();
+        byte[] bytes = "привет".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, slice.prepare(bytes.length), 0, bytes.length);
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(32);
+        slice.copyTo(byteBuffer);
+        Assert.assertEquals(byteBuffer.position(), bytes.length);
+
+        CharBuffer charBuffer = CharBuffer.allocate(32);
+        slice.copyTo(charBuffer);
+        charBuffer.flip();
+        Assert.assertEquals(charBuffer.toString(), "привет");
+
+        Assert.assertThrows(BufferOverflowException.class, () -> slice.copyTo(CharBuffer.allocate(3)));
+        Assert.assertThrows(BufferOverflowException.class, () -> slice.copyTo(ByteBuffer.allocate(3)));
+        Assert.assertTrue(slice.asByteBuffer().isReadOnly());
+        Assert.assertEquals(slice.toByteArray(), bytes);
+
+        // smaller value keeps the backing array
+        byte[] array = slice.array();
+        slice.prepare(2);
+        Assert.assertSame(slice.array(), array);
+        Assert.assertEquals(slice.length(), 2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.Client;
+import com.clickhouse.client.api.ClientMisconfigurationException;
+import com.clickhouse.client.api.insert.InsertResponse;
+import com.clickhouse.client.api.internal.AdaptiveCompression.Codec;
+import com.clickhouse.data.ClickHouseFormat;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class AdaptiveCompressionTest {
+
+    private static final String ENDPOINT = "http://localhost:8123/";
+
+    private static AdaptiveCompression.Measurement measurement(long uncompressed, long wire, long codecNanos,
+                                                               long wireNanos) {
+        AdaptiveCompression.Measurement m = new AdaptiveCompression.Measurement();
+        m.uncompressedBytes = uncompressed;
+        m.wireBytes = wire;
+        m.codecNanos = codecNanos;
+        m.wireNanos = wireNanos;
+        return m;
+    }
+
+    /**
+     * Feeds measurements for a network sending a byte in {@code wireNanosPerByte}.
+     * NONE encodes at 1 ns/byte, LZ4 at 2 ns/byte with ratio 0.5, GZIP at 10 ns/byte with ratio 0.2.
+     */
+    private static Codec train(AdaptiveCompression compression, long wireNanosPerByte) {
+        long size = 1_000_000;
+        for (int i = 0; i < 100; i++) {
+            Codec codec = compression.select(ENDPOINT);
+            long wire;
+            long encodeNanos;
+            switch (codec) {
+                case NONE:
+                    wire = size;
+                    encodeNanos = size;
+                    break;
+                case LZ4:
+                    wire = size / 2;
+                    encodeNanos = 2 * size;
+                    break;
+                default:
+                    wire = size / 5;
+                    encodeNanos = 10 * size;
+            }
+            long wireNanos = wire * wireNanosPerByte;
+            compression.record(ENDPOINT, codec, measurement(size, wire, encodeNanos + wireNanos, wireNanos));
+        }
+        return compression.select(ENDPOINT);
+    }
+
+    @Test(groups = {"unit"})
+    public void testCodecsAreTriedFirst() {
+        AdaptiveCompression compression = new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4), 100);
+        for (Codec expected : new Codec[]{Codec.NONE, Codec.NONE, Codec.LZ4, Codec.LZ4}) {
+            Codec codec = compression.select(ENDPOINT);
+            Assert.assertEquals(codec, expected);
+            compression.record(ENDPOINT, codec, measurement(100_000, 50_000, 1_000_000, 500_000));
+        }
+        Assert.assertEquals(compression.getEstimations(ENDPOINT).keySet().size(), 2);
+
+        // small requests are not measured
+        compression.record("other", Codec.NONE, measurement(100, 100, 1000, 500));
+        Assert.assertTrue(compression.getEstimations("other").isEmpty());
+    }
+
+    @Test(groups = {"unit"})
+    public void testSelectionFollowsNetworkSpeed() {
+        // fast network: sending is cheaper than compressing
+        Assert.assertEquals(train(new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4, Codec.GZIP), 100), 0),
+                Codec.NONE);
+        // medium network
+        Assert.assertEquals(train(new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4, Codec.GZIP), 100), 5),
+                Codec.LZ4);
+        // slow network: strong compression pays off
+        Assert.assertEquals(train(new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4, Codec.GZIP), 100), 100),
+                Codec.GZIP);
+        // GZIP spends 10 of 30 ns/byte on encoding which is over 20% budget
+        Assert.assertEquals(train(new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4, Codec.GZIP), 20), 100),
+                Codec.LZ4);
+    }
+
+    @Test(groups = {"unit"})
+    public void testProducerTimeIsNotEncodingTime() throws Exception {
+        AdaptiveCompression compression = new AdaptiveCompression(Arrays.asList(Codec.NONE, Codec.LZ4), 100);
+        AdaptiveCompression.Measurement measurement = new AdaptiveCompression.Measurement();
+        byte[] data = new byte[64 * 1024];
+        HttpEntity entity = compression.measure(ENDPOINT, Codec.NONE, new EntityTemplate(-1,
+                ContentType.APPLICATION_OCTET_STREAM, null, out -> measurement.writeData(o -> {
+                    for (int i = 0; i < 4; i++) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50)); // slow producer
+                        o.write(data, 0, data.length / 4);
+                    }
+                }, out)), measurement);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        Assert.assertEquals(out.size(), data.length);
+        Assert.assertEquals(measurement.uncompressedBytes, data.length);
+        Assert.assertEquals(measurement.wireBytes, data.length);
+        Assert.assertTrue(measurement.codecNanos < TimeUnit.MILLISECONDS.toNanos(100), "codec time "
+                + measurement.codecNanos + " includes producer time");
+        Assert.assertTrue(measurement.codecNanos >= measurement.wireNanos);
+    }
+
+    @Test(groups = {"unit"})
+    public void testInvalidBudget() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new AdaptiveCompression(0));
+        Assert.assertThrows(ClientMisconfigurationException.class, () -> new Client.Builder()
+                .addEndpoint("http://localhost:8123")
+                .setUsername("default")
+                .setPassword("")
+                .setAdaptiveCompressionCpuBudget(101)
+                .build());
+    }
+
+    @Test(groups = {"unit"})
+    public void testInsertsUseSelectedCodec() throws Exception {
+        WireMockServer mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressClientRequest(false)
+                .useAdaptiveCompression(true)
+                .build()) {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .willReturn(WireMock.aResponse().withStatus(200)));
+
+            byte[] data = new byte[64 * 1024];
+            for (int i = 0; i < 6; i++) {
+                try (InsertResponse response = client.insert("t", new ByteArrayInputStream(data),
+                        ClickHouseFormat.RowBinary).get(10, TimeUnit.SECONDS)) {
+                    Assert.assertNotNull(response);
+                }
+            }
+        } finally {
+            mockServer.stop();
+        }
+
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl())
+                .withoutHeader("Content-Encoding")
+                .withoutQueryParam("decompress"));
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl())
+                .withQueryParam("decompress", WireMock.equalTo("1")));
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.anyUrl())
+                .withHeader("Content-Encoding", WireMock.equalTo("gzip"))
+                .withQueryParam("enable_http_compression", WireMock.equalTo("1")));
+    }
+}
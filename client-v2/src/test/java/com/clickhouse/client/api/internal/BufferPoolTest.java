@@ -0,0 +1,91 @@
+package com.clickhouse.client.api.internal;
+
+import net.jpountz.lz4.LZ4Factory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+public class BufferPoolTest {
+
+    @Test(groups = {"unit"})
+    public void testLeaseAndRelease() {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[] buffer = pool.lease(3000);
+        Assert.assertEquals(buffer.length, 4096);
+        Assert.assertEquals(pool.lease(10).length, BufferPool.MIN_POOLED_SIZE);
+
+        pool.release(buffer);
+        Assert.assertEquals(pool.getRetainedBytes(), 4096);
+        Assert.assertSame(pool.lease(4096), buffer);
+        Assert.assertEquals(pool.getRetainedBytes(), 0);
+
+        // not a size class
+        pool.release(new byte[3000]);
+        pool.release(new byte[16]);
+        pool.release(null);
+        Assert.assertEquals(pool.getRetainedBytes(), 0);
+
+        byte[] big = pool.lease(BufferPool.MAX_POOLED_SIZE + 1);
+        Assert.assertEquals(big.length, BufferPool.MAX_POOLED_SIZE + 1);
+    }
+
+    @Test(groups = {"unit"})
+    public void testRetainedBytesLimit() {
+        BufferPool pool = new BufferPool(8192);
+        pool.release(new byte[4096]);
+        pool.release(new byte[4096]);
+        pool.release(new byte[4096]);
+        Assert.assertEquals(pool.getRetainedBytes(), 8192);
+        pool.lease(4096);
+        pool.lease(4096);
+        Assert.assertEquals(pool.getRetainedBytes(), 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testDisabled() {
+        Assert.assertEquals(BufferPool.NONE.lease(3000).length, 3000);
+        BufferPool.NONE.release(new byte[4096]);
+        Assert.assertEquals(BufferPool.NONE.getRetainedBytes(), 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testCompressionStreams() throws IOException {
+        BufferPool pool = new BufferPool(16 * 1024 * 1024);
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        Random random = new Random(11);
+        byte[] data = new byte[200_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(16);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ClickHouseLZ4OutputStream out = new ClickHouseLZ4OutputStream(compressed, factory.fastCompressor(),
+                    10_000, pool)) {
+                out.write(data);
+            }
+            Assert.assertTrue(pool.getRetainedBytes() > 0);
+
+            byte[] decompressed = new byte[data.length];
+            InputStream in = new ClickHouseLZ4InputStream(new ByteArrayInputStream(compressed.toByteArray()),
+                    factory.fastDecompressor(), 8192, null, false, pool);
+            int n = 0;
+            int read;
+            while ((read = in.read(decompressed, n, Math.min(7000, decompressed.length - n))) > 0) {
+                n += read;
+            }
+            Assert.assertEquals(in.read(), -1);
+            in.close();
+            Assert.assertEquals(n, data.length);
+            Assert.assertEquals(decompressed, data);
+            Assert.assertThrows(IOException.class, in::read);
+        }
+        // buffers are reused instead of being added again
+        Assert.assertTrue(pool.getRetainedBytes() < 4 * 64 * 1024, String.valueOf(pool.getRetainedBytes()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.ClientException;
+import com.clickhouse.data.ClickHouseCityHash;
+import net.jpountz.lz4.LZ4Factory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class CityHash128Test {
+
+    @Test(groups = {"unit"})
+    public void testSameAsReferenceImplementation() {
+        Random random = new Random(42);
+        byte[] data = new byte[1024 + 7];
+        random.nextBytes(data);
+
+        for (int len = 0; len <= 1024; len++) {
+            int offset = len % 8;
+            long[] expected = ClickHouseCityHash.cityHash128(data, offset, len);
+            Assert.assertEquals(CityHash128.hash(data, offset, len), expected, "length " + len);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testBuffers() {
+        Random random = new Random(7);
+        byte[] data = new byte[64 * 1024 + 25];
+        random.nextBytes(data);
+        long[] expected = ClickHouseCityHash.cityHash128(data, 16, data.length - 16);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+        direct.flip();
+        Assert.assertEquals(CityHash128.hash(direct, 16, data.length - 16), expected);
+        Assert.assertEquals(direct.position(), 0);
+
+        ByteBuffer bigEndian = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(CityHash128.hash(bigEndian, 16, data.length - 16), expected);
+        Assert.assertEquals(bigEndian.order(), ByteOrder.BIG_ENDIAN);
+    }
+
+    @Test(groups = {"unit"}, expectedExceptions = IndexOutOfBoundsException.class)
+    public void testInvalidRange() {
+        CityHash128.hash(new byte[16], 8, 16);
+    }
+
+    @Test(groups = {"unit"})
+    public void testChecksumVerification() throws IOException {
+        byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        LZ4Factory factory = LZ4Factory.fastestJavaInstance();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ClickHouseLZ4OutputStream out = new ClickHouseLZ4OutputStream(compressed, factory.fastCompressor(),
+                4096)) {
+            out.write(data);
+        }
+        byte[] corrupted = compressed.toByteArray();
+        corrupted[0] ^= 1; // checksum of the first block
+
+        Assert.assertEquals(readAll(new ClickHouseLZ4InputStream(new ByteArrayInputStream(compressed.toByteArray()),
+                factory.fastDecompressor(), 4096)), data);
+        Assert.assertThrows(ClientException.class, () -> readAll(new ClickHouseLZ4InputStream(
+                new ByteArrayInputStream(corrupted), factory.fastDecompressor(), 4096)));
+        Assert.assertEquals(readAll(new ClickHouseLZ4InputStream(new ByteArrayInputStream(corrupted),
+                factory.fastDecompressor(), 4096, null, true)), data);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
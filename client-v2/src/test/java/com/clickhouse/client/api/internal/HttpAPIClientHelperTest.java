@@ -1,6 +1,7 @@
 package com.clickhouse.client.api.internal;
 
 import com.clickhouse.client.api.ClientConfigProperties;
+import com.clickhouse.client.api.ClientMisconfigurationException;
 import com.clickhouse.client.api.ServerException;
 import com.clickhouse.client.api.enums.SSLMode;
 import com.clickhouse.client.api.http.ClickHouseHttpProto;
@@ -8,6 +9,9 @@ import com.clickhouse.client.api.internal.HttpAPIClientHelper.CustomSSLConnectio
 import com.clickhouse.client.api.transport.Endpoint;
 import com.clickhouse.client.api.transport.HttpEndpoint;
 import com.clickhouse.client.api.transport.internal.TransportRequest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import net.jpountz.lz4.LZ4Factory;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
@@ -454,6 +458,73 @@ public class HttpAPIClientHelperTest {
         }
     }
 
+    @Test
+    public void testWarmUpConnectionsAreReusedByRequests() throws Exception {
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        server.start();
+        HttpAPIClientHelper helper = HttpAPIClientHelperFactory.newHelper(new HashMap<>(), LZ4Factory.fastestInstance());
+        try {
+            server.stubFor(WireMock.get(WireMock.urlEqualTo("/ping"))
+                    .willReturn(WireMock.aResponse().withStatus(200).withBody("Ok.\n")));
+            List<Endpoint> endpoints = Collections.singletonList(
+                    new HttpEndpoint("localhost", server.port(), false, "/"));
+
+            assertEquals(helper.warmUpConnections(endpoints, 3), 3);
+            assertEquals(helper.poolControl.getTotalStats().getAvailable(), 3);
+            // pool already has enough connections
+            assertEquals(helper.warmUpConnections(endpoints, 2), 0);
+
+            assertTrue(helper.pingEndpoint(endpoints.get(0)));
+            // request used one of the opened connections
+            assertEquals(helper.poolControl.getTotalStats().getAvailable(), 3);
+            assertEquals(helper.poolControl.getTotalStats().getLeased(), 0);
+        } finally {
+            helper.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testKeepAlivePings() throws Exception {
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        server.start();
+        HttpAPIClientHelper helper = HttpAPIClientHelperFactory.newHelper(new HashMap<>(), LZ4Factory.fastestInstance());
+        try {
+            server.stubFor(WireMock.get(WireMock.urlEqualTo("/ping"))
+                    .willReturn(WireMock.aResponse().withStatus(200).withBody("Ok.\n")));
+            List<Endpoint> endpoints = Collections.singletonList(
+                    new HttpEndpoint("localhost", server.port(), false, "/"));
+
+            helper.startKeepAlivePings(endpoints, 20, 2);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.countRequestsMatching(WireMock.getRequestedFor(WireMock.urlEqualTo("/ping")).build())
+                    .getCount() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(server.countRequestsMatching(WireMock.getRequestedFor(WireMock.urlEqualTo("/ping")).build())
+                    .getCount() >= 4);
+            assertEquals(helper.poolControl.getTotalStats().getAvailable()
+                    + helper.poolControl.getTotalStats().getLeased(), 2);
+        } finally {
+            helper.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testSslSessionCacheSettings() {
+        HttpAPIClientHelper helper = HttpAPIClientHelperFactory.newHelper(new HashMap<>(), LZ4Factory.fastestJavaInstance());
+        Map<String, Object> config = new HashMap<>();
+        config.put(ClientConfigProperties.SSL_SESSION_CACHE_SIZE.getKey(), 100);
+        config.put(ClientConfigProperties.SSL_SESSION_TIMEOUT.getKey(), 600);
+        SSLContext context = helper.createSSLContext(config);
+        assertEquals(context.getClientSessionContext().getSessionCacheSize(), 100);
+        assertEquals(context.getClientSessionContext().getSessionTimeout(), 600);
+
+        config.put(ClientConfigProperties.SSL_SESSION_CACHE_SIZE.getKey(), -1);
+        Assert.assertThrows(ClientMisconfigurationException.class, () -> helper.createSSLContext(config));
+    }
+
     /**
      * Builds an {@link HttpAPIClientHelper} and invokes {@link HttpAPIClientHelper#createHttpClient} with SSL
      * enabled while intercepting every {@link CustomSSLConnectionFactory} construction, returning the
@@ -0,0 +1,70 @@
+package com.clickhouse.client.api.internal;
+
+import com.clickhouse.client.api.query.QueryStatement;
+import com.clickhouse.data.ClickHouseColumn;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class QueryBatchPlannerTest {
+
+    private static final List<ClickHouseColumn> INT_COLUMN = Collections.singletonList(ClickHouseColumn.of("v", "Int64"));
+
+    @Test(groups = {"unit"})
+    public void testMergeableQuery() {
+        Assert.assertEquals(QueryBatchPlanner.mergeableQuery(" SELECT 1 ; "), "SELECT 1");
+        Assert.assertEquals(QueryBatchPlanner.mergeableQuery("with 1 as x select x"), "with 1 as x select x");
+        Assert.assertEquals(QueryBatchPlanner.mergeableQuery("SELECT formatDateTime(now(), '%F')"),
+                "SELECT formatDateTime(now(), '%F')");
+        Assert.assertNull(QueryBatchPlanner.mergeableQuery("SELECT 1 FORMAT JSON"));
+        Assert.assertNull(QueryBatchPlanner.mergeableQuery("SHOW TABLES"));
+        Assert.assertNull(QueryBatchPlanner.mergeableQuery("SELECT 1; SELECT 2"));
+    }
+
+    @Test(groups = {"unit"})
+    public void testPlan() {
+        QueryBatchPlanner planner = new QueryBatchPlanner();
+        List<QueryStatement> statements = Arrays.asList(
+                new QueryStatement("SELECT v FROM t0"),
+                new QueryStatement("SELECT v FROM t1"),
+                new QueryStatement("SELECT name FROM t2"),
+                new QueryStatement("SELECT v FROM t3 WHERE id = {id:UInt32}", Collections.singletonMap("id", 1)),
+                new QueryStatement("SELECT v FROM t4 WHERE id = {id:UInt32}", Collections.singletonMap("id", 2)),
+                new QueryStatement("SELECT v FROM t5"));
+
+        // nothing is known before statements run
+        Assert.assertEquals(planner.plan(statements).size(), statements.size());
+
+        for (QueryStatement statement : statements) {
+            planner.remember(statement.getQuery(), statement.getQuery().contains("name")
+                    ? Collections.singletonList(ClickHouseColumn.of("name", "String")) : INT_COLUMN);
+        }
+        Assert.assertEquals(planner.plan(statements), Arrays.asList(
+                Arrays.asList(0, 1, 3, 5),
+                Collections.singletonList(2),
+                Collections.singletonList(4)));
+
+        String sql = QueryBatchPlanner.mergedQuery(statements, Arrays.asList(0, 1));
+        Assert.assertEquals(sql, "SELECT *, toUInt32(0) AS _chc_batch_statement FROM (\nSELECT v FROM t0\n)"
+                + "\nUNION ALL\nSELECT *, toUInt32(1) AS _chc_batch_statement FROM (\nSELECT v FROM t1\n)");
+        Assert.assertEquals(QueryBatchPlanner.mergedParams(statements, Arrays.asList(0, 3)),
+                Collections.singletonMap("id", 1));
+    }
+
+    @Test(groups = {"unit"})
+    public void testMatches() {
+        QueryBatchPlanner planner = new QueryBatchPlanner();
+        QueryStatement statement = new QueryStatement("SELECT v FROM t0");
+        planner.remember(statement.getQuery(), INT_COLUMN);
+
+        Assert.assertTrue(planner.matches(statement, Arrays.asList(ClickHouseColumn.of("v", "Int64"),
+                ClickHouseColumn.of(QueryBatchPlanner.STATEMENT_COLUMN, "UInt32"))));
+        // supertype of merged statements differs from the remembered type
+        Assert.assertFalse(planner.matches(statement, Arrays.asList(ClickHouseColumn.of("v", "Nullable(Int64)"),
+                ClickHouseColumn.of(QueryBatchPlanner.STATEMENT_COLUMN, "UInt32"))));
+        Assert.assertFalse(planner.matches(statement, INT_COLUMN));
+    }
+}
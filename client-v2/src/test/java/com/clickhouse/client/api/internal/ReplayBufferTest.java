@@ -0,0 +1,101 @@
+package com.clickhouse.client.api.internal;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplayBufferTest {
+
+    private static byte[] randomBytes(int len) {
+        byte[] bytes = new byte[len];
+        new Random(len).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test(groups = {"unit"})
+    public void testBodyIsWrittenOnce() throws Exception {
+        byte[] content = randomBytes(ReplayBuffer.CHUNK_SIZE * 2 + 17);
+        AtomicInteger calls = new AtomicInteger();
+        HttpEntity entity = new EntityTemplate(-1, ContentType.APPLICATION_OCTET_STREAM, null, out -> {
+            calls.incrementAndGet();
+            out.write(content, 0, 10);
+            out.write(content[10]);
+            out.write(content, 11, content.length - 11);
+            out.close();
+        });
+
+        try (ReplayBuffer buffer = new ReplayBuffer(Long.MAX_VALUE, new BufferPool(1024 * 1024))) {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                // every attempt creates a new entity
+                buffer.wrap(entity).writeTo(out);
+                Assert.assertEquals(out.toByteArray(), content);
+            }
+            Assert.assertEquals(calls.get(), 1);
+            Assert.assertEquals(buffer.getSize(), content.length);
+            Assert.assertEquals(buffer.getSpilledSize(), 0);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testSpillToFile() throws Exception {
+        byte[] content = randomBytes(300_000);
+        long memoryLimit = 100_000;
+        try (ReplayBuffer buffer = new ReplayBuffer(memoryLimit, BufferPool.NONE)) {
+            buffer.capture(out -> out.write(content));
+            for (int attempt = 0; attempt < 2; attempt++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                buffer.writeTo(out);
+                Assert.assertEquals(out.toByteArray(), content);
+            }
+            Assert.assertEquals(buffer.getSize(), content.length);
+            Assert.assertEquals(buffer.getSpilledSize(), content.length - memoryLimit);
+
+            buffer.close();
+            Assert.assertFalse(buffer.isCaptured());
+            Assert.assertEquals(buffer.getSize(), 0);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testChunksAreReturnedToPool() throws Exception {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        ReplayBuffer buffer = new ReplayBuffer(Long.MAX_VALUE, pool);
+        buffer.capture(out -> out.write(new byte[] {1, 2, 3}));
+        buffer.close();
+
+        byte[] leased = pool.lease(ReplayBuffer.CHUNK_SIZE);
+        Assert.assertEquals(leased.length, ReplayBuffer.CHUNK_SIZE);
+        Assert.assertEquals(new byte[] {leased[0], leased[1], leased[2]}, new byte[] {1, 2, 3});
+    }
+
+    @Test(groups = {"unit"})
+    public void testFailedCaptureIsDropped() throws Exception {
+        try (ReplayBuffer buffer = new ReplayBuffer(0, BufferPool.NONE)) {
+            Assert.assertThrows(IOException.class, () -> buffer.capture(out -> {
+                out.write(new byte[] {1, 2, 3});
+                throw new IOException("source failed");
+            }));
+            Assert.assertFalse(buffer.isCaptured());
+            Assert.assertEquals(buffer.getSize(), 0);
+
+            buffer.capture(out -> out.write(new byte[] {1, 2, 3}));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            buffer.writeTo(out);
+            Assert.assertEquals(out.toByteArray(), new byte[] {1, 2, 3});
+            Assert.assertEquals(buffer.getSpilledSize(), 3);
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testNegativeMemoryLimit() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ReplayBuffer(-1, BufferPool.NONE));
+    }
+}
@@ -0,0 +1,101 @@
+package com.clickhouse.client.api.metrics;
+
+import com.clickhouse.client.api.Client;
+import com.clickhouse.client.api.query.QueryResponse;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class OperationMetricsUnitTest {
+
+    @Test
+    public void testOperationMetersRecorded() throws Exception {
+        WireMockServer mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .willReturn(WireMock.aResponse().withStatus(200)
+                            .withHeader("Content-Type", "text/plain")
+                            .withHeader("X-ClickHouse-Summary",
+                                    "{ \"read_bytes\": \"10\", \"read_rows\": \"1\", \"result_rows\": \"1\", \"elapsed_ns\": \"1000\"}")
+                            .withBody("")));
+
+            try (Client client = new Client.Builder()
+                    .addEndpoint("http://127.0.0.1:1") // dead endpoint
+                    .addEndpoint("http://localhost:" + mockServer.port())
+                    .setUsername("default")
+                    .setPassword("password")
+                    .compressServerResponse(false)
+                    .setMaxRetries(3)
+                    .registerClientMetrics(meterRegistry, "test-ops")
+                    .enableOperationMetrics(true)
+                    .build()) {
+
+                OperationMetrics metrics;
+                try (QueryResponse response = client.query("SELECT 1").get(10, TimeUnit.SECONDS)) {
+                    metrics = response.getMetrics();
+                }
+
+                Assert.assertTrue(metrics.getMetric(ClientMetrics.RETRIES).getLong() >= 1);
+                Assert.assertTrue(metrics.getMetric(ClientMetrics.FAILOVERS).getLong() >= 1);
+                Assert.assertNotNull(metrics.getMetric(ClientMetrics.CONNECTION_LEASE));
+                Assert.assertNotNull(metrics.getMetric(ClientMetrics.TIME_TO_FIRST_BYTE));
+                Assert.assertNotNull(metrics.getMetric(ClientMetrics.RESPONSE_READ));
+
+                Timer duration = meterRegistry.find("clickhouse.client.operation.duration")
+                        .tag("httpclient", "test-ops").tag("operation", "query").timer();
+                Assert.assertNotNull(duration);
+                Assert.assertEquals(duration.count(), 1);
+                Assert.assertNotNull(meterRegistry.find("clickhouse.client.time_to_first_byte").timer());
+                Assert.assertNotNull(meterRegistry.find("clickhouse.client.response.read").timer());
+                Assert.assertEquals(meterRegistry.find("clickhouse.client.operation.rows").summary().totalAmount(), 1.0);
+
+                Counter failovers = meterRegistry.find("clickhouse.client.failovers")
+                        .tag("endpoint", "127.0.0.1:1").counter();
+                Assert.assertNotNull(failovers);
+                Assert.assertTrue(failovers.count() >= 1);
+            }
+        } finally {
+            mockServer.stop();
+        }
+    }
+
+    @Test
+    public void testOperationMetersDisabledByDefault() throws Exception {
+        WireMockServer mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .willReturn(WireMock.aResponse().withStatus(200)
+                            .withHeader("Content-Type", "text/plain")
+                            .withBody("")));
+
+            try (Client client = new Client.Builder()
+                    .addEndpoint("http://localhost:" + mockServer.port())
+                    .setUsername("default")
+                    .setPassword("password")
+                    .compressServerResponse(false)
+                    .registerClientMetrics(meterRegistry, "test-ops")
+                    .build()) {
+
+                OperationMetrics metrics;
+                try (QueryResponse response = client.query("SELECT 1").get(10, TimeUnit.SECONDS)) {
+                    metrics = response.getMetrics();
+                }
+                Assert.assertNull(metrics.getMetric(ClientMetrics.CONNECTION_LEASE));
+                Assert.assertNull(meterRegistry.find("clickhouse.client.operation.duration").timer());
+            }
+        } finally {
+            mockServer.stop();
+        }
+    }
+}
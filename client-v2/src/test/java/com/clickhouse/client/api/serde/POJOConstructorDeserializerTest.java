@@ -0,0 +1,208 @@
+package com.clickhouse.client.api.serde;
+
+import com.clickhouse.client.api.Client;
+import com.clickhouse.client.api.data_formats.RowBinaryWithNamesAndTypesFormatReader;
+import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
+import com.clickhouse.client.api.metadata.DefaultColumnToMethodMatchingStrategy;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.beans.ConstructorProperties;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class POJOConstructorDeserializerTest {
+
+    public static final class Event {
+        private final long id;
+        private final String name;
+        private final double score;
+        private final int count;
+        private final boolean active;
+
+        @ConstructorProperties({"id", "name", "score", "count", "active"})
+        public Event(long id, String name, double score, int count, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.count = count;
+            this.active = active;
+        }
+    }
+
+    public static final class Partial {
+        private final String name;
+        private final short level;
+
+        @ConstructorProperties({"name", "level"})
+        public Partial(String name, short level) {
+            this.name = name;
+            this.level = level;
+        }
+    }
+
+    public static final class NoNames {
+        private final String name;
+
+        public NoNames(String name, int unknown) {
+            this.name = name;
+        }
+    }
+
+    public static final class SameTypes {
+        private final String name;
+        private final String extra;
+
+        public SameTypes(String name, String extra) {
+            this.name = name;
+            this.extra = extra;
+        }
+    }
+
+    static final class PackagePrivate {
+        private final long id;
+        private final String name;
+
+        @ConstructorProperties({"id", "name"})
+        public PackagePrivate(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static byte[] eventRows(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String[] names = {"extra", "id", "name", "score", "count", "active"};
+        String[] types = {"String", "UInt32", "Nullable(String)", "Float64", "Nullable(Int8)", "Bool"};
+        BinaryStreamUtils.writeVarInt(out, names.length);
+        for (String name : names) {
+            BinaryStreamUtils.writeString(out, name);
+        }
+        for (String type : types) {
+            BinaryStreamUtils.writeString(out, type);
+        }
+        for (int i = 0; i < rows; i++) {
+            BinaryStreamUtils.writeString(out, "skip" + i);
+            BinaryStreamUtils.writeUnsignedInt32(out, 4_000_000_000L + i);
+            if (i % 2 == 0) {
+                BinaryStreamUtils.writeNull(out);
+            } else {
+                BinaryStreamUtils.writeNonNull(out);
+                BinaryStreamUtils.writeString(out, "event" + i);
+            }
+            BinaryStreamUtils.writeFloat64(out, i * 1.5);
+            BinaryStreamUtils.writeNonNull(out);
+            BinaryStreamUtils.writeInt8(out, -i);
+            BinaryStreamUtils.writeBoolean(out, i % 2 == 1);
+        }
+        return out.toByteArray();
+    }
+
+    private static RowBinaryWithNamesAndTypesFormatReader newReader(byte[] data) {
+        QuerySettings settings = new QuerySettings().setUseTimeZone("UTC");
+        return new RowBinaryWithNamesAndTypesFormatReader(new ByteArrayInputStream(data), settings,
+                new BinaryStreamReader.DefaultByteBufferAllocator());
+    }
+
+    @Test(groups = {"unit"})
+    public void testReadObjects() throws Exception {
+        POJOSerDe serDe = new POJOSerDe(DefaultColumnToMethodMatchingStrategy.INSTANCE);
+        RowBinaryWithNamesAndTypesFormatReader reader = newReader(eventRows(3));
+        POJOConstructorDeserializer<Event> deserializer = serDe.getConstructorDeserializer(Event.class, reader.getSchema());
+
+        List<Event> events = new ArrayList<>();
+        for (Iterator<Event> it = reader.objectIterator(deserializer); it.hasNext(); ) {
+            events.add(it.next());
+        }
+
+        Assert.assertEquals(events.size(), 3);
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            Assert.assertEquals(event.id, 4_000_000_000L + i);
+            Assert.assertEquals(event.name, i % 2 == 0 ? null : "event" + i);
+            Assert.assertEquals(event.score, i * 1.5);
+            Assert.assertEquals(event.count, -i);
+            Assert.assertEquals(event.active, i % 2 == 1);
+        }
+        Assert.assertNull(reader.readToObject(deserializer));
+
+        // compiled once for the same columns
+        Assert.assertSame(serDe.getConstructorDeserializer(Event.class, newReader(eventRows(0)).getSchema()),
+                deserializer);
+    }
+
+    @Test(groups = {"unit"})
+    public void testParametersWithoutColumns() throws Exception {
+        POJOSerDe serDe = new POJOSerDe(DefaultColumnToMethodMatchingStrategy.INSTANCE);
+        RowBinaryWithNamesAndTypesFormatReader reader = newReader(eventRows(2));
+
+        Partial partial = reader.readToObject(serDe.getConstructorDeserializer(Partial.class, reader.getSchema()));
+        Assert.assertNull(partial.name);
+        Assert.assertEquals(partial.level, 0);
+        partial = reader.readToObject(serDe.getConstructorDeserializer(Partial.class, reader.getSchema()));
+        Assert.assertEquals(partial.name, "event1");
+    }
+
+    @Test(groups = {"unit"})
+    public void testNoSuitableConstructor() {
+        POJOSerDe serDe = new POJOSerDe(DefaultColumnToMethodMatchingStrategy.INSTANCE);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> serDe.getConstructorDeserializer(NoNames.class, newReader(eventRows(0)).getSchema()));
+    }
+
+    @Test(groups = {"unit"})
+    public void testNamesAreNotGuessedFromFields() {
+        POJOSerDe serDe = new POJOSerDe(DefaultColumnToMethodMatchingStrategy.INSTANCE);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> serDe.getConstructorDeserializer(SameTypes.class, newReader(eventRows(0)).getSchema()));
+    }
+
+    @Test(groups = {"unit"})
+    public void testNonPublicClass() throws Exception {
+        POJOSerDe serDe = new POJOSerDe(DefaultColumnToMethodMatchingStrategy.INSTANCE);
+        RowBinaryWithNamesAndTypesFormatReader reader = newReader(eventRows(2));
+        POJOConstructorDeserializer<PackagePrivate> deserializer =
+                serDe.getConstructorDeserializer(PackagePrivate.class, reader.getSchema());
+
+        PackagePrivate value = reader.readToObject(deserializer);
+        Assert.assertEquals(value.id, 4_000_000_000L);
+        Assert.assertNull(value.name);
+        value = reader.readToObject(deserializer);
+        Assert.assertEquals(value.id, 4_000_000_001L);
+        Assert.assertEquals(value.name, "event1");
+        Assert.assertNull(reader.readToObject(deserializer));
+    }
+
+    @Test(groups = {"unit"})
+    public void testQueryAllWithConstructor() throws Exception {
+        WireMockServer mockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        mockServer.start();
+        try (Client client = new Client.Builder()
+                .addEndpoint("http://localhost:" + mockServer.port())
+                .setUsername("default")
+                .setPassword("password")
+                .compressServerResponse(false)
+                .useServerTimeZone(false)
+                .useTimeZone("UTC")
+                .build()) {
+            mockServer.stubFor(WireMock.post(WireMock.anyUrl())
+                    .willReturn(WireMock.aResponse().withStatus(200).withBody(eventRows(5))));
+
+            List<Event> events = client.queryAll("SELECT * FROM events", Event.class, null);
+            Assert.assertEquals(events.size(), 5);
+            Assert.assertEquals(events.get(4).name, null);
+            Assert.assertEquals(events.get(3).name, "event3");
+        } finally {
+            mockServer.stop();
+        }
+    }
+}
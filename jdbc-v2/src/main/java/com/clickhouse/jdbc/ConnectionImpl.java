@@ -12,6 +12,7 @@ import com.clickhouse.jdbc.internal.ExceptionUtils;
 import com.clickhouse.jdbc.internal.FeatureManager;
 import com.clickhouse.jdbc.internal.JdbcConfiguration;
 import com.clickhouse.jdbc.internal.ParsedPreparedStatement;
+import com.clickhouse.jdbc.internal.SharedClientRegistry;
 import com.clickhouse.jdbc.internal.SqlParserFacade;
 import com.clickhouse.jdbc.metadata.DatabaseMetaDataImpl;
 import com.google.common.collect.ImmutableMap;
@@ -50,6 +51,7 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
 
     protected final String url;
     private final Client client; // this member is private to force using getClient()
+    private final SharedClientRegistry.Lease clientLease; // not null when client is shared with other connections
     protected final JdbcConfiguration config;
 
     private boolean closed = false;
@@ -75,6 +77,7 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
     private final JsonParserFactory jsonParserFactory;
 
     public ConnectionImpl(String url, Properties info) throws SQLException {
+        SharedClientRegistry.Lease lease = null;
         try {
             this.url = url;//Raw URL
             this.config = new JdbcConfiguration(url, info);
@@ -104,13 +107,20 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
                 }
             }
 
-            this.client = this.config.applyClientProperties(new Client.Builder())
-                    .setClientName(clientName)
-                    .build();
-            String serverTimezone = this.client.getServerTimeZone();
-            if (serverTimezone == null) {
-                // we cannot operate without timezone
-                this.client.loadServerInfo();
+            if (config.isFlagSet(DriverProperties.SHARED_CLIENT)) {
+                lease = SharedClientRegistry.INSTANCE.acquire(config, clientName);
+                this.clientLease = lease;
+                this.client = lease.getClient();
+            } else {
+                this.clientLease = null;
+                this.client = this.config.applyClientProperties(new Client.Builder())
+                        .setClientName(clientName)
+                        .build();
+                String serverTimezone = this.client.getServerTimeZone();
+                if (serverTimezone == null) {
+                    // we cannot operate without timezone
+                    this.client.loadServerInfo();
+                }
             }
             this.schema = client.getDefaultDatabase();
             this.defaultQuerySettings = new QuerySettings();
@@ -126,9 +136,18 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
 
             final String jsonParserFactoryName = config.getDriverProperty(DriverProperties.JSON_PARSER_FACTORY.getKey(), null);
             this.jsonParserFactory = jsonParserFactoryName == null ? null : instantiateJsonParserFactory(jsonParserFactoryName);
-        } catch (SQLException e) {
-            throw e;
         } catch (Exception e) {
+            if (lease != null) {
+                // connection will never be closed - give the shared client back
+                try {
+                    lease.close();
+                } catch (Exception closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            if (e instanceof SQLException) {
+                throw (SQLException) e;
+            }
             throw new SQLException("Failed to create connection", ExceptionUtils.SQL_STATE_CONNECTION_EXCEPTION, e);
         }
     }
@@ -270,7 +289,11 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
             return;
         }
         closed = true; // mark as closed to prevent further invocations
-        client.close(); // this will disrupt pending requests.
+        if (clientLease != null) {
+            clientLease.close(); // cancels pending requests of this connection only
+        } else {
+            client.close(); // this will disrupt pending requests.
+        }
     }
 
     @Override
@@ -415,13 +438,13 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
     public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         ensureOpen();
         checkResultSetFlags(resultSetType, resultSetConcurrency, resultSetHoldability);
-        return new StatementImpl(this);
+        return new StatementImpl(this, resultSetType);
     }
 
     private void checkResultSetFlags(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         if (!config.isIgnoreUnsupportedRequests()) {
-            if (resultSetType != ResultSet.TYPE_FORWARD_ONLY) {
-                throw new SQLFeatureNotSupportedException("Cannot create statement with result set type other then ResultSet.TYPE_FORWARD_ONLY",
+            if (resultSetType != ResultSet.TYPE_FORWARD_ONLY && resultSetType != ResultSet.TYPE_SCROLL_INSENSITIVE) {
+                throw new SQLFeatureNotSupportedException("Cannot create statement with result set type other then ResultSet.TYPE_FORWARD_ONLY or ResultSet.TYPE_SCROLL_INSENSITIVE",
                         ExceptionUtils.SQL_STATE_FEATURE_NOT_SUPPORTED);
             }
             if (resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
@@ -454,7 +477,7 @@ public class ConnectionImpl implements Connection, JdbcV2Wrapper {
                 return new WriterStatementImpl(this, sql, tableSchema, parsedStatement);
             }
         }
-        return new PreparedStatementImpl(this, sql, parsedStatement);
+        return new PreparedStatementImpl(this, sql, parsedStatement, resultSetType);
     }
 
     @Override
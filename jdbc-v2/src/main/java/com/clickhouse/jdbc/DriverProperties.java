@@ -153,6 +153,37 @@ public enum DriverProperties {
      */
     JSON_PARSER_FACTORY("jdbc_json_parser_factory", null),
 
+    /**
+     * Enables sharing of a client between connections with the same URL, credentials and settings. Connections use
+     * one HTTP connection pool, SSL context and loaded server information, so opening a connection does not do any
+     * network calls after the first one. Session state (roles, client name) is kept per connection.
+     * Size of the shared pool is controlled by {@link ClientConfigProperties#HTTP_MAX_OPEN_CONNECTIONS}.
+     * The shared client is closed when the last connection using it is closed. Closing or aborting a connection
+     * cancels only its own requests that were sent with a query id.
+     */
+    SHARED_CLIENT("jdbc_shared_client", String.valueOf(Boolean.FALSE)),
+
+    /**
+     * Time in seconds for which {@link java.sql.DatabaseMetaData#getSchemas()}, {@code getTables()} and
+     * {@code getColumns()} are answered from a snapshot of system tables kept by the connection. Snapshots are
+     * loaded in bulk on the first call and filtered in memory, which helps BI tools that browse the schema with
+     * many metadata calls. Changes made after a snapshot is loaded are not visible until it expires or
+     * {@link com.clickhouse.jdbc.metadata.DatabaseMetaDataImpl#refreshMetadataCache()} is called.
+     * Default is {@code 0} - cache is disabled.
+     */
+    METADATA_CACHE_TTL("jdbc_metadata_cache_ttl", "0"),
+
+    /**
+     * If enabled, prepared statements that return a result set send values as typed server-side query parameters
+     * instead of inlining them into SQL as literals. Each {@code ?} is replaced with a {@code {pN:Type}}
+     * placeholder where the type follows the Java type of the bound value, so SQL text stays the same between
+     * executions and values are not escaped into it. Values without a type mapping (like {@code null} or streams)
+     * make the execution fall back to literals. A decimal parameter keeps the type of its first value or of the scale
+     * given to {@code setObject}, so values with a different scale do not change SQL text.
+     * Default is {@code false}.
+     */
+    SERVER_SIDE_PARAMETERS("jdbc_server_side_parameters", "false"),
+
     ;
 
 
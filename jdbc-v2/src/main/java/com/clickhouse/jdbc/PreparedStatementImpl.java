@@ -9,6 +9,7 @@ import com.clickhouse.data.Tuple;
 import com.clickhouse.jdbc.internal.ExceptionUtils;
 import com.clickhouse.jdbc.internal.JdbcUtils;
 import com.clickhouse.jdbc.internal.ParsedPreparedStatement;
+import com.clickhouse.jdbc.internal.ServerSideParameters;
 import com.clickhouse.jdbc.metadata.ParameterMetaDataImpl;
 import com.clickhouse.jdbc.metadata.ResultSetMetaDataImpl;
 import org.slf4j.Logger;
@@ -83,8 +84,18 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     private final ParameterMetaData parameterMetaData;
     private ResultSetMetaData resultSetMetaData = null;
 
+    /**
+     * Typed server-side parameters or {@code null} if values are inlined into SQL as literals.
+     */
+    private final ServerSideParameters serverSideParameters;
+
     public PreparedStatementImpl(ConnectionImpl connection, String sql, ParsedPreparedStatement parsedStatement) throws SQLException {
-        super(connection);
+        this(connection, sql, parsedStatement, ResultSet.TYPE_FORWARD_ONLY);
+    }
+
+    public PreparedStatementImpl(ConnectionImpl connection, String sql, ParsedPreparedStatement parsedStatement,
+                                 int resultSetType) throws SQLException {
+        super(connection, resultSetType);
         this.isPoolable = true; // PreparedStatement is poolable by default
         this.originalSql = sql;
         this.parsedPreparedStatement = parsedStatement;
@@ -113,6 +124,40 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
             valueListTmpl = "";
             insertStmtWithValues = false;
         }
+
+        if (argCount > 0 && parsedStatement.isHasResultSet() && !insertStmtWithValues
+                && connection.getJdbcConfig().isFlagSet(DriverProperties.SERVER_SIDE_PARAMETERS)) {
+            serverSideParameters = new ServerSideParameters(originalSql, parsedStatement.getParamPositions(),
+                    defaultCalendar.getTimeZone());
+        } else {
+            serverSideParameters = null;
+        }
+    }
+
+    private void setValue(int parameterIndex, Object x) throws SQLException {
+        setValue(parameterIndex, x, null);
+    }
+
+    private void setValue(int parameterIndex, Object x, Long length) throws SQLException {
+        setValue(parameterIndex, x, length, -1);
+    }
+
+    private void setValue(int parameterIndex, Object x, Long length, int decimalScale) throws SQLException {
+        if (serverSideParameters != null && serverSideParameters.bind(parameterIndex - 1, x, decimalScale)) {
+            // encoded as literal only if the statement is executed with literal values
+            values[parameterIndex - 1] = null;
+        } else {
+            values[parameterIndex - 1] = encodeObject(x, length);
+        }
+    }
+
+    private static int decimalScaleOf(Integer targetSqlType, int scaleOrLength) {
+        return targetSqlType != null && (targetSqlType == Types.DECIMAL || targetSqlType == Types.NUMERIC)
+                ? scaleOrLength : -1;
+    }
+
+    private boolean useServerSideParameters() {
+        return serverSideParameters != null && serverSideParameters.isComplete();
     }
 
     private String buildSQL() throws SQLException {
@@ -122,6 +167,9 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         for (int i = 0; i < argCount; i++) {
             int p = positions[i] + posOffset;
             String val = values[i];
+            if (val == null && serverSideParameters != null && serverSideParameters.isBound(i)) {
+                val = values[i] = encodeObject(serverSideParameters.getValue(i));
+            }
             if (val == null) {
                 throw new SQLException("Parameter at position '" + (i + 1) + "' is not set");
             }
@@ -134,6 +182,12 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     @Override
     public ResultSet executeQuery() throws SQLException {
         ensureOpen();
+        if (useServerSideParameters()) {
+            currentUpdateCount = -1;
+            currentResultSet = executeQueryImpl(serverSideParameters.getSql(), serverSideParameters.getParameters(),
+                    localSettings);
+            return currentResultSet;
+        }
         String buildSQL = buildSQL();
         return super.executeQuery(buildSQL);
     }
@@ -153,61 +207,61 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setFloat(int parameterIndex, float x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
@@ -234,7 +288,7 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     @Override
     public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x, (long) length);
+        setValue(parameterIndex, x, (long) length);
     }
 
     @Override
@@ -247,6 +301,9 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     public void clearParameters() throws SQLException {
         ensureOpen();
         Arrays.fill(this.values, null);
+        if (serverSideParameters != null) {
+            serverSideParameters.clear();
+        }
     }
 
     int getParametersCount() {
@@ -258,7 +315,7 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         ensureOpen();
 
         isValidForTargetType(x, targetSqlType);
-        values[parameterIndex-1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
@@ -266,7 +323,7 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         ensureOpen();
 
         isValidForTargetType(x, targetSqlType);
-        values[parameterIndex-1] = encodeObject(x, (long) scaleOrLength);
+        setValue(parameterIndex, x, (long) scaleOrLength, decimalScaleOf(targetSqlType, scaleOrLength));
     }
 
     @Override
@@ -274,27 +331,32 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         ensureOpen();
 
         isValidForTargetType(x, targetSqlType.getVendorTypeNumber());
-        values[parameterIndex-1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
         ensureOpen();
         isValidForTargetType(x, targetSqlType.getVendorTypeNumber());
-        values[parameterIndex-1] = encodeObject(x, (long) scaleOrLength);
+        setValue(parameterIndex, x, (long) scaleOrLength,
+                decimalScaleOf(targetSqlType.getVendorTypeNumber(), scaleOrLength));
     }
 
     @Override
     public void setObject(int parameterIndex, Object x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public boolean execute() throws SQLException {
         ensureOpen();
         currentUpdateCount = -1;
-        if (parsedPreparedStatement.isHasResultSet()) {
+        if (useServerSideParameters()) {
+            currentResultSet = executeQueryImpl(serverSideParameters.getSql(), serverSideParameters.getParameters(),
+                    localSettings);
+            return currentResultSet != null;
+        } else if (parsedPreparedStatement.isHasResultSet()) {
             currentResultSet = super.executeQueryImpl(buildSQL(), localSettings);
             return currentResultSet != null;
         } else {
@@ -387,19 +449,19 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     @Override
     public void setBlob(int parameterIndex, Blob x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setClob(int parameterIndex, Clob x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setArray(int parameterIndex, Array x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
@@ -472,33 +534,33 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
         ensureOpen();
         TimeZone tz = (cal == null ? defaultCalendar : cal).getTimeZone();
-        values[parameterIndex - 1] = encodeObject(DataTypeUtils.toLocalDate(x, tz));
+        setValue(parameterIndex, DataTypeUtils.toLocalDate(x, tz));
     }
 
     @Override
     public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
         ensureOpen();
         TimeZone tz = (cal == null ? defaultCalendar : cal).getTimeZone();
-        values[parameterIndex - 1] = encodeObject(DataTypeUtils.toLocalTime(x, tz));
+        setValue(parameterIndex, DataTypeUtils.toLocalTime(x, tz));
     }
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
         ensureOpen();
         TimeZone tz = (cal == null ? defaultCalendar : cal).getTimeZone();
-        values[parameterIndex - 1] = encodeObject(DataTypeUtils.toZonedDateTime(x, tz));
+        setValue(parameterIndex, DataTypeUtils.toZonedDateTime(x, tz));
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(null);
+        setValue(parameterIndex, null);
     }
 
     @Override
     public void setURL(int parameterIndex, URL x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     /**
@@ -525,103 +587,103 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     @Override
     public void setNString(int parameterIndex, String x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x, length);
+        setValue(parameterIndex, x, length);
     }
 
     @Override
     public void setNClob(int parameterIndex, NClob x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setClob(int parameterIndex, Reader x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x, length);
+        setValue(parameterIndex, x, length);
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x, length);
+        setValue(parameterIndex, x, length);
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x, length);
+        setValue(parameterIndex, x, length);
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setClob(int parameterIndex, Reader x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader x) throws SQLException {
         ensureOpen();
-        values[parameterIndex - 1] = encodeObject(x);
+        setValue(parameterIndex, x);
     }
 
     @Override
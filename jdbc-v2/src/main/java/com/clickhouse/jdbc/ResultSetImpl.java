@@ -9,6 +9,7 @@ import com.clickhouse.data.ClickHouseDataType;
 import com.clickhouse.jdbc.internal.ExceptionUtils;
 import com.clickhouse.jdbc.internal.FeatureManager;
 import com.clickhouse.jdbc.internal.JdbcUtils;
+import com.clickhouse.jdbc.internal.SpooledRowStore;
 import com.clickhouse.jdbc.metadata.ResultSetMetaDataImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,6 +73,11 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
 
     private final Map<String, Class<?>> connTypeMap;
 
+    // set only for TYPE_SCROLL_INSENSITIVE result sets
+    private SpooledRowStore rowStore;
+    // row (1-based) that next call to reader.next() returns
+    private int readerNextRow;
+
     public ResultSetImpl(StatementImpl parentStatement, QueryResponse response, ClickHouseFormatReader reader,
                          Consumer<Exception> onDataTransferException) throws SQLException {
         this(parentStatement, response, reader, onDataTransferException, JdbcUtils.DATA_TYPE_CLASS_MAP);
@@ -108,6 +114,19 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
         this.onDataTransferException = onDataTransferException;
     }
 
+    /**
+     * Creates {@link ResultSet#TYPE_SCROLL_INSENSITIVE} result set over spooled rows.
+     * The result set owns the store and closes it when closed.
+     *
+     * @param reader - reader opened at the first row of the store
+     */
+    public ResultSetImpl(StatementImpl parentStatement, QueryResponse response, ClickHouseFormatReader reader,
+                         SpooledRowStore rowStore, Consumer<Exception> onDataTransferException) throws SQLException {
+        this(parentStatement, response, reader, onDataTransferException);
+        this.rowStore = rowStore;
+        this.readerNextRow = FIRST_ROW;
+    }
+
     private void checkClosed() throws SQLException {
         if (closed) {
             throw new SQLException("ResultSet is closed.", ExceptionUtils.SQL_STATE_CONNECTION_EXCEPTION);
@@ -135,6 +154,10 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
             return false;
         }
 
+        if (rowStore != null) {
+            return moveTo(rowPos + 1);
+        }
+
         if (maxRows > 0 && rowPos == maxRows) {
             // rowPos is at current position. if we reached here it means we stepped over maxRows
             rowPos = AFTER_LAST;
@@ -157,12 +180,62 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
         }
     }
 
+    private int scrollRowCount() {
+        int count = rowStore.getRowCount();
+        return maxRows > 0 ? Math.min(count, maxRows) : count;
+    }
+
+    /**
+     * Moves cursor of a scrollable result set to the row. Reader is reopened only when the row is not the next one.
+     *
+     * @param row - 1-based row number, values out of range move cursor before first or after last row
+     * @return true if cursor is on a row
+     */
+    private boolean moveTo(int row) throws SQLException {
+        if (row < FIRST_ROW) {
+            rowPos = BEFORE_FIRST;
+            return false;
+        }
+        if (row > scrollRowCount()) {
+            rowPos = AFTER_LAST;
+            return false;
+        }
+
+        try {
+            if (row != readerNextRow) {
+                ClickHouseFormatReader prevReader = reader;
+                reader = rowStore.openReader(row - 1);
+                readerNextRow = row;
+                prevReader.close();
+            }
+            reader.next();
+            readerNextRow++;
+            rowPos = row;
+            return true;
+        } catch (Exception e) {
+            if (onDataTransferException != null) {
+                onDataTransferException.accept(e);
+            }
+            throw ExceptionUtils.toSqlState(e);
+        }
+    }
+
     @Override
     public void close() throws SQLException {
         closed = true;
 
         Exception e = null;
         try {
+            if (rowStore != null) {
+                try {
+                    rowStore.close();
+                } catch (Exception re) {
+                    log.debug("Error closing row store", re);
+                    e = re;
+                } finally {
+                    rowStore = null;
+                }
+            }
             if (reader != null) {
                 try {
                     reader.close();
@@ -586,24 +659,38 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public boolean isLast() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return rowPos != AFTER_LAST && rowPos != BEFORE_FIRST && rowPos == scrollRowCount();
+        }
         return (!reader.hasNext() || rowPos == maxRows) && rowPos != AFTER_LAST && rowPos != BEFORE_FIRST;
     }
 
     @Override
     public void beforeFirst() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            rowPos = BEFORE_FIRST;
+            return;
+        }
         featureManager.unsupportedFeatureThrow("beforeFirst");
     }
 
     @Override
     public void afterLast() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            rowPos = AFTER_LAST;
+            return;
+        }
         featureManager.unsupportedFeatureThrow("afterLast");
     }
 
     @Override
     public boolean first() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return moveTo(FIRST_ROW);
+        }
         featureManager.unsupportedFeatureThrow("first");
 
         return false;
@@ -612,6 +699,9 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public boolean last() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return moveTo(scrollRowCount());
+        }
         featureManager.unsupportedFeatureThrow("last");
 
         return false;
@@ -626,6 +716,9 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public boolean absolute(int row) throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return moveTo(row >= 0 ? row : scrollRowCount() + 1 + row);
+        }
         featureManager.unsupportedFeatureThrow("absolute");
 
         return false;
@@ -634,6 +727,9 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public boolean relative(int rows) throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return moveTo((rowPos == AFTER_LAST ? scrollRowCount() + 1 : rowPos) + rows);
+        }
         featureManager.unsupportedFeatureThrow("relative");
 
         return false;
@@ -642,6 +738,9 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public boolean previous() throws SQLException {
         checkClosed();
+        if (rowStore != null) {
+            return moveTo(rowPos == AFTER_LAST ? scrollRowCount() : rowPos - 1);
+        }
         featureManager.unsupportedFeatureThrow("previous");
 
         return false;
@@ -680,7 +779,7 @@ public class ResultSetImpl implements ResultSet, JdbcV2Wrapper {
     @Override
     public int getType() throws SQLException {
         checkClosed();
-        return TYPE_FORWARD_ONLY;
+        return rowStore != null ? TYPE_SCROLL_INSENSITIVE : TYPE_FORWARD_ONLY;
     }
 
     @Override
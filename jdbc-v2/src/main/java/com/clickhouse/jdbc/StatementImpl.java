@@ -1,8 +1,8 @@
 package com.clickhouse.jdbc;
 
 import com.clickhouse.client.api.ClientConfigProperties;
+import com.clickhouse.client.api.data_formats.ClickHouseBinaryFormatReader;
 import com.clickhouse.client.api.data_formats.ClickHouseFormatReader;
-import com.clickhouse.client.api.data_formats.JSONEachRowFormatReader;
 import com.clickhouse.client.api.internal.ServerSettings;
 import com.clickhouse.client.api.query.QueryResponse;
 import com.clickhouse.client.api.query.QuerySettings;
@@ -11,18 +11,21 @@ import com.clickhouse.data.ClickHouseFormat;
 import com.clickhouse.jdbc.internal.ExceptionUtils;
 import com.clickhouse.jdbc.internal.FeatureManager;
 import com.clickhouse.jdbc.internal.ParsedStatement;
+import com.clickhouse.jdbc.internal.SpooledRowStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketTimeoutException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
@@ -63,12 +66,19 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
 
     private int fetchSize = 1;
 
+    private final int resultSetType;
+
     // settings local to a statement
     protected QuerySettings localSettings;
 
 
     public StatementImpl(ConnectionImpl connection) throws SQLException {
+        this(connection, ResultSet.TYPE_FORWARD_ONLY);
+    }
+
+    public StatementImpl(ConnectionImpl connection, int resultSetType) throws SQLException {
         this.connection = connection;
+        this.resultSetType = resultSetType;
         this.queryTimeout = 0;
         this.closed = false;
         this.batch = new ArrayList<>();
@@ -283,6 +293,19 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
     }
 
     protected ResultSetImpl executeQueryImpl(String sql, QuerySettings settings) throws SQLException {
+        return executeQueryImpl(sql, null, settings);
+    }
+
+    /**
+     * Executes a query with server-side parameters.
+     *
+     * @param sql - query with {@code {name:Type}} placeholders
+     * @param queryParams - parameter values or {@code null}
+     * @param settings - query settings
+     * @return result set or {@code null} if the query doesn't return one
+     */
+    protected ResultSetImpl executeQueryImpl(String sql, Map<String, Object> queryParams, QuerySettings settings)
+            throws SQLException {
         ensureOpen();
 
         // Closing before trying to do next request. Otherwise, deadlock because previous connection will not be
@@ -299,13 +322,14 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
         QuerySettings mergedSettings = QuerySettings.merge(settings, new  QuerySettings());
         mergedSettings.setQueryId(setLastQueryID(mergedSettings.getQueryId()));
         QueryResponse response = null;
+        SpooledRowStore rowStore = null;
         try {
             lastStatementSql = parseJdbcEscapeSyntax(sql);
             LOG.trace("SQL Query: {}", lastStatementSql); // this is not secure for create statements because of passwords
             if (queryTimeout == 0) {
-                response = connection.getClient().query(lastStatementSql, mergedSettings).get();
+                response = connection.getClient().query(lastStatementSql, queryParams, mergedSettings).get();
             } else {
-                response = connection.getClient().query(lastStatementSql, mergedSettings).get(queryTimeout, TimeUnit.SECONDS);
+                response = connection.getClient().query(lastStatementSql, queryParams, mergedSettings).get(queryTimeout, TimeUnit.SECONDS);
             }
 
             ClickHouseFormatReader reader;
@@ -316,7 +340,17 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
                             DriverProperties.JSON_PARSER_FACTORY.getKey() + " to a JsonParserFactory implementation.",
                             ExceptionUtils.SQL_STATE_CLIENT_ERROR);
                 }
-                reader = new JSONEachRowFormatReader(connection.getJsonParserFactory().createJsonParser(response.getInputStream()));
+                reader = connection.getJsonParserFactory().createReader(response.getInputStream(), ClickHouseFormat.JSONEachRow);
+            } else if (resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE) {
+                if (response.getFormat() != ClickHouseFormat.RowBinaryWithNamesAndTypes) {
+                    throw new SQLFeatureNotSupportedException("Scrollable result sets support only " +
+                            ClickHouseFormat.RowBinaryWithNamesAndTypes + " output format but response is in " +
+                            response.getFormat(), ExceptionUtils.SQL_STATE_FEATURE_NOT_SUPPORTED);
+                }
+                rowStore = SpooledRowStore.spool(response.getInputStream(), response.getSettings(),
+                        ClientConfigProperties.translateTypeHintMapping(connection.getClient().getConfiguration()
+                                .get(ClientConfigProperties.TYPE_HINT_MAPPING.getKey())));
+                reader = rowStore.openReader(0);
             } else if (!response.getFormat().isText()) {
                 reader = connection.getClient().newBinaryFormatReader(response);
             } else {
@@ -342,12 +376,29 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
                     } catch (Exception closeRespEx) {
                         LOG.warn("Failed to close response when schema is null", closeRespEx);
                     }
+                    if (rowStore != null) {
+                        try {
+                            rowStore.close();
+                        } catch (Exception closeStoreEx) {
+                            LOG.warn("Failed to close row store when schema is null", closeStoreEx);
+                        }
+                    }
                 }
                 onResultSetClosed(null);
                 return null;
             }
+            if (rowStore != null) {
+                return new ResultSetImpl(this, response, reader, rowStore, this::handleSocketTimeoutException);
+            }
             return new ResultSetImpl(this, response, reader, this::handleSocketTimeoutException);
         } catch (Exception e) {
+            if (rowStore != null) {
+                try {
+                    rowStore.close();
+                } catch (Exception ex) {
+                    LOG.warn("Failed to close row store after exception", ex);
+                }
+            }
             if (response != null) {
                 try {
                     response.close();
@@ -576,7 +627,7 @@ public class StatementImpl implements Statement, JdbcV2Wrapper {
     @Override
     public int getResultSetType() throws SQLException {
         ensureOpen();
-        return ResultSet.TYPE_FORWARD_ONLY;
+        return resultSetType;
     }
 
     @Override
@@ -31,6 +31,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
@@ -82,6 +83,32 @@ public class DetachedResultSet implements ResultSet, JdbcV2Wrapper {
     }
 
     public static DetachedResultSet createFromResultSet(ResultSet resultSet, Calendar defaultCalendar, Collection<Consumer<Map<String, Object>>> mutators) throws SQLException {
+        return new DetachedResultSet(readRecords(resultSet, mutators), resultSet.getMetaData(), defaultCalendar);
+    }
+
+    /**
+     * Creates result set over already detached records. Records are not copied and should not be modified
+     * while the result set is in use.
+     *
+     * @param records - records keyed by column label
+     * @param metaData - metadata of the records
+     * @param defaultCalendar - calendar used for date and time conversions
+     * @return result set
+     * @throws SQLException if metadata cannot be read
+     */
+    public static DetachedResultSet createFromRecords(List<Map<String, Object>> records, ResultSetMetaData metaData, Calendar defaultCalendar) throws SQLException {
+        return new DetachedResultSet(records, metaData, defaultCalendar);
+    }
+
+    /**
+     * Reads all rows of the result set into records keyed by column label and applies mutators to each record.
+     *
+     * @param resultSet - result set to read
+     * @param mutators - functions applied to each record
+     * @return list of records
+     * @throws SQLException if reading fails
+     */
+    public static List<Map<String, Object>> readRecords(ResultSet resultSet, Collection<Consumer<Map<String, Object>>> mutators) throws SQLException {
         ResultSetMetaData  metaData = resultSet.getMetaData();
         List<Map<String, Object>> records = new ArrayList<>();
         while (resultSet.next()) {
@@ -94,7 +121,18 @@ public class DetachedResultSet implements ResultSet, JdbcV2Wrapper {
             }
             records.add(record);
         }
-        return new DetachedResultSet(records, metaData, defaultCalendar);
+        return records;
+    }
+
+    /**
+     * Returns all records of the result set regardless of the cursor position.
+     *
+     * @return unmodifiable list of records
+     * @throws SQLException if the result set is closed
+     */
+    public List<Map<String, Object>> getRecords() throws SQLException {
+        ensureOpen();
+        return Collections.unmodifiableList(records);
     }
 
     @Override
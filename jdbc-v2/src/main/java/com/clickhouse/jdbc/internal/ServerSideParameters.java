@@ -0,0 +1,363 @@
+package com.clickhouse.jdbc.internal;
+
+import com.clickhouse.client.api.DataTypeUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Binds prepared statement parameters as typed server-side query parameters.
+ * <p>
+ * Each {@code ?} of the statement is replaced with a {@code {pN:Type}} placeholder where the type is derived from
+ * the Java type of the bound value. Values are sent separately as {@code param_pN} and are not escaped into
+ * the SQL text, so the SQL stays the same between executions while value types do not change. The rewritten SQL
+ * is kept and rebuilt only when types of the bound values change.
+ * <p>
+ * Only scalar values and flat arrays of scalars have a type mapping. When a value has none (for example
+ * {@code null}, a stream or a nested array) the statement is executed with literal values.
+ * <p>
+ * Type of a decimal parameter is fixed once: from the scale given to
+ * {@link java.sql.PreparedStatement#setObject(int, Object, int, int)} or from the first bound value. Precision is
+ * the narrowest of 18, 38 and 76 digits that fits the value, so the parameter is not a 256-bit decimal without need.
+ * Following values are rescaled to the fixed type, so the SQL does not change with the scale of values. A value
+ * that cannot be rescaled without rounding or does not fit the precision is sent as a literal.
+ */
+public final class ServerSideParameters {
+
+    static final String PARAM_PREFIX = "p";
+
+    private static final int[] DECIMAL_PRECISIONS = {18, 38, 76};
+
+    private final String sql;
+
+    private final int[] positions;
+
+    private final TimeZone timeZone;
+
+    private final String[] types;
+
+    private final Object[] values;
+
+    private final Object[] boundObjects;
+
+    // fixed decimal type of each parameter; precision is 0 until a decimal is bound
+    private final int[] decimalPrecisions;
+
+    private final int[] decimalScales;
+
+    private String[] preparedTypes;
+
+    private String preparedSql;
+
+    public ServerSideParameters(String sql, int[] positions, TimeZone timeZone) {
+        this.sql = sql;
+        this.positions = positions;
+        this.timeZone = timeZone;
+        this.types = new String[positions.length];
+        this.values = new Object[positions.length];
+        this.boundObjects = new Object[positions.length];
+        this.decimalPrecisions = new int[positions.length];
+        this.decimalScales = new int[positions.length];
+    }
+
+    /**
+     * Binds a value to the parameter.
+     *
+     * @param index - zero-based index of the parameter
+     * @param value - value to bind
+     * @return {@code true} if the value is bound; {@code false} if it has no type mapping and the parameter is unset
+     */
+    public boolean bind(int index, Object value) {
+        return bind(index, value, -1);
+    }
+
+    /**
+     * Binds a value to the parameter.
+     *
+     * @param index - zero-based index of the parameter
+     * @param value - value to bind
+     * @param decimalScale - scale of a decimal parameter; -1 to keep the scale fixed earlier or to take it from
+     *                     the value
+     * @return {@code true} if the value is bound; {@code false} if it has no type mapping and the parameter is unset
+     */
+    public boolean bind(int index, Object value, int decimalScale) {
+        String type;
+        Object parameterValue;
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            if (decimalPrecisions[index] == 0 || decimalScale >= 0) {
+                int scale = Math.max(decimalScale >= 0 ? decimalScale : decimal.scale(), 0);
+                decimalPrecisions[index] = decimalPrecisionOf(decimal, scale);
+                decimalScales[index] = scale;
+            }
+            type = decimalType(decimalPrecisions[index], decimalScales[index]);
+            parameterValue = rescale(decimal, decimalPrecisions[index], decimalScales[index]);
+        } else {
+            type = typeOf(value);
+            parameterValue = type == null ? null : toParameterValue(value);
+        }
+        if (parameterValue == null) {
+            unbind(index);
+            return false;
+        }
+        types[index] = type;
+        values[index] = parameterValue;
+        boundObjects[index] = value;
+        return true;
+    }
+
+    public void unbind(int index) {
+        types[index] = null;
+        values[index] = null;
+        boundObjects[index] = null;
+    }
+
+    public void clear() {
+        Arrays.fill(types, null);
+        Arrays.fill(values, null);
+        Arrays.fill(boundObjects, null);
+    }
+
+    /**
+     * @return {@code true} if every parameter is bound
+     */
+    public boolean isComplete() {
+        for (String type : types) {
+            if (type == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param index - zero-based index of the parameter
+     * @return {@code true} if the parameter is bound
+     */
+    public boolean isBound(int index) {
+        return types[index] != null;
+    }
+
+    /**
+     * @param index - zero-based index of the parameter
+     * @return value as it was bound
+     */
+    public Object getValue(int index) {
+        return boundObjects[index];
+    }
+
+    /**
+     * Returns SQL with typed placeholders for the types of currently bound values.
+     *
+     * @return SQL to send with {@link #getParameters()}
+     */
+    public String getSql() {
+        if (preparedSql == null || !Arrays.equals(types, preparedTypes)) {
+            StringBuilder sb = new StringBuilder(sql.length() + positions.length * 16);
+            int last = 0;
+            for (int i = 0; i < positions.length; i++) {
+                sb.append(sql, last, positions[i])
+                        .append('{').append(PARAM_PREFIX).append(i + 1).append(':').append(types[i]).append('}');
+                last = positions[i] + 1;
+            }
+            sb.append(sql, last, sql.length());
+            preparedSql = sb.toString();
+            preparedTypes = types.clone();
+        }
+        return preparedSql;
+    }
+
+    /**
+     * @return map of parameter names to values
+     */
+    public Map<String, Object> getParameters() {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            params.put(PARAM_PREFIX + (i + 1), values[i]);
+        }
+        return params;
+    }
+
+    /**
+     * Returns ClickHouse type of a parameter for the value.
+     *
+     * @param value - value to check
+     * @return type name or {@code null} if value cannot be sent as a typed parameter
+     */
+    static String typeOf(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Collection) {
+            return arrayTypeOf(((Collection<?>) value).toArray());
+        } else if (value instanceof Object[]) {
+            return arrayTypeOf((Object[]) value);
+        } else if (value instanceof int[]) {
+            return "Array(Int32)";
+        } else if (value instanceof long[]) {
+            return "Array(Int64)";
+        } else if (value instanceof short[]) {
+            return "Array(Int16)";
+        } else if (value instanceof double[]) {
+            return "Array(Float64)";
+        } else if (value instanceof float[]) {
+            return "Array(Float32)";
+        } else if (value instanceof boolean[]) {
+            return "Array(Bool)";
+        } else if (value instanceof BigDecimal) {
+            int scale = Math.max(((BigDecimal) value).scale(), 0);
+            int precision = decimalPrecisionOf((BigDecimal) value, scale);
+            return precision == 0 ? null : decimalType(precision, scale);
+        } else if (value instanceof Timestamp) {
+            return "DateTime64(9)";
+        } else if (value instanceof LocalDateTime || value instanceof Instant || value instanceof OffsetDateTime
+                || value instanceof ZonedDateTime) {
+            return "DateTime64(9, 'UTC')";
+        } else if (value instanceof java.sql.Date) {
+            return "Date32";
+        } else if (value instanceof Inet4Address) {
+            return "IPv4";
+        } else if (value instanceof Inet6Address) {
+            return "IPv6";
+        }
+        return scalarTypeOf(value);
+    }
+
+    /**
+     * Returns the narrowest decimal precision that fits the value with the scale.
+     *
+     * @return precision or 0 if the value does not fit any decimal type
+     */
+    private static int decimalPrecisionOf(BigDecimal value, int scale) {
+        int digits;
+        try {
+            digits = value.setScale(scale).precision();
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+        for (int precision : DECIMAL_PRECISIONS) {
+            if (digits <= precision && scale <= precision) {
+                return precision;
+            }
+        }
+        return 0;
+    }
+
+    private static String decimalType(int precision, int scale) {
+        return "Decimal(" + precision + ", " + scale + ")";
+    }
+
+    /**
+     * @return plain string of the value with the scale or {@code null} if the value does not fit the type
+     */
+    private static String rescale(BigDecimal value, int precision, int scale) {
+        if (precision == 0) {
+            return null;
+        }
+        BigDecimal rescaled;
+        try {
+            rescaled = value.setScale(scale);
+        } catch (ArithmeticException e) {
+            // rounding would change the value
+            return null;
+        }
+        return rescaled.precision() > precision ? null : rescaled.toPlainString();
+    }
+
+    /**
+     * Returns type of scalar values that are formatted the same way at top level and inside an array.
+     */
+    private static String scalarTypeOf(Object value) {
+        if (value instanceof String) {
+            return "String";
+        } else if (value instanceof Integer) {
+            return "Int32";
+        } else if (value instanceof Long) {
+            return "Int64";
+        } else if (value instanceof Double) {
+            return "Float64";
+        } else if (value instanceof Boolean) {
+            return "Bool";
+        } else if (value instanceof Short) {
+            return "Int16";
+        } else if (value instanceof Byte) {
+            return "Int8";
+        } else if (value instanceof Float) {
+            return "Float32";
+        } else if (value instanceof BigInteger) {
+            return "Int256";
+        } else if (value instanceof LocalDate) {
+            return "Date32";
+        } else if (value instanceof UUID) {
+            return "UUID";
+        }
+        return null;
+    }
+
+    private static String arrayTypeOf(Object[] array) {
+        Class<?> elementClass = null;
+        boolean hasNulls = false;
+        for (Object element : array) {
+            if (element == null) {
+                hasNulls = true;
+            } else if (elementClass == null) {
+                elementClass = element.getClass();
+            } else if (elementClass != element.getClass()) {
+                return null;
+            }
+        }
+        if (elementClass == null) {
+            return null;
+        }
+        String elementType = null;
+        for (Object element : array) {
+            if (element != null) {
+                elementType = scalarTypeOf(element);
+                break;
+            }
+        }
+        if (elementType == null) {
+            return null;
+        }
+        return hasNulls ? "Array(Nullable(" + elementType + "))" : "Array(" + elementType + ")";
+    }
+
+    private Object toParameterValue(Object value) {
+        if (value instanceof Timestamp) {
+            return DataTypeUtils.DATE_TIME_WITH_OPTIONAL_NANOS.format(((Timestamp) value).toLocalDateTime());
+        } else if (value instanceof LocalDateTime) {
+            return utc(((LocalDateTime) value).atZone(timeZone.toZoneId()).toInstant());
+        } else if (value instanceof Instant) {
+            return utc((Instant) value);
+        } else if (value instanceof OffsetDateTime) {
+            return utc(((OffsetDateTime) value).toInstant());
+        } else if (value instanceof ZonedDateTime) {
+            return utc(((ZonedDateTime) value).toInstant());
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof Inet4Address || value instanceof Inet6Address) {
+            return ((java.net.InetAddress) value).getHostAddress();
+        } else if (value instanceof Collection) {
+            return ((Collection<?>) value).toArray();
+        }
+        return value;
+    }
+
+    private static String utc(Instant instant) {
+        return DataTypeUtils.DATE_TIME_WITH_OPTIONAL_NANOS.format(instant.atOffset(ZoneOffset.UTC).toLocalDateTime());
+    }
+}
@@ -0,0 +1,170 @@
+package com.clickhouse.jdbc.internal;
+
+import com.clickhouse.client.api.Client;
+import com.clickhouse.jdbc.DriverProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps one {@link Client} per distinct connection configuration (URL, credentials and settings) when
+ * {@link DriverProperties#SHARED_CLIENT} is enabled. Connections get a {@link Client#fork()} of the shared client,
+ * so they use the same HTTP connection pool and server information while keeping own session state.
+ * The shared client is created with the first connection and closed together with the last one.
+ */
+public final class SharedClientRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedClientRegistry.class);
+
+    public static final SharedClientRegistry INSTANCE = new SharedClientRegistry();
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    SharedClientRegistry() {
+    }
+
+    /**
+     * Returns a lease of a client sharing transport with other connections of the same configuration.
+     * Shared client is created and server information is loaded only for the first connection.
+     *
+     * @param config - connection configuration
+     * @param clientName - client name reported to the server
+     * @return lease that should be closed when the connection is closed
+     */
+    public Lease acquire(JdbcConfiguration config, String clientName) {
+        Key key = new Key(config.getConnectionUrl(), config.getClientProperties(), config.getSslContext(), clientName);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, Entry::new);
+            entry.references++;
+        }
+
+        try {
+            Client shared = entry.getClient(config, clientName);
+            return new Lease(entry, shared.fork());
+        } catch (RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void release(Entry entry) {
+        Client toClose = null;
+        synchronized (entries) {
+            if (--entry.references == 0) {
+                entries.remove(entry.key);
+                toClose = entry.client;
+            }
+        }
+        if (toClose != null) {
+            LOG.debug("Closing shared client for {}", entry.key.url);
+            toClose.close();
+        }
+    }
+
+    /**
+     * Client of a single connection. Closing the lease closes the client and releases the shared transport.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private final Client client;
+        private boolean closed;
+
+        private Lease(Entry entry, Client client) {
+            this.entry = entry;
+            this.client = client;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            client.close();
+            release(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private int references;
+        private volatile Client client;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        Client getClient(JdbcConfiguration config, String clientName) {
+            Client result = client;
+            if (result == null) {
+                synchronized (this) {
+                    result = client;
+                    if (result == null) {
+                        result = config.applyClientProperties(new Client.Builder())
+                                .setClientName(clientName)
+                                .build();
+                        try {
+                            if (result.getServerTimeZone() == null) {
+                                // we cannot operate without timezone
+                                result.loadServerInfo();
+                            }
+                        } catch (RuntimeException e) {
+                            result.close();
+                            throw e;
+                        }
+                        client = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Key {
+        private final String url;
+        private final Map<String, String> properties;
+        private final SSLContext sslContext;
+        private final String clientName;
+
+        Key(String url, Map<String, String> properties, SSLContext sslContext, String clientName) {
+            this.url = url;
+            this.properties = new TreeMap<>(properties);
+            this.sslContext = sslContext;
+            this.clientName = clientName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return url.equals(other.url) && properties.equals(other.properties)
+                    && sslContext == other.sslContext && Objects.equals(clientName, other.clientName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, properties, System.identityHashCode(sslContext), clientName);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.clickhouse.jdbc.internal;
+
+import com.clickhouse.client.api.data_formats.ClickHouseBinaryFormatReader;
+import com.clickhouse.client.api.data_formats.RowBinaryFormatReader;
+import com.clickhouse.client.api.data_formats.RowBinaryWithNamesAndTypesFormatReader;
+import com.clickhouse.client.api.data_formats.internal.BinaryStreamReader;
+import com.clickhouse.client.api.metadata.TableSchema;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.ClickHouseDataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a {@code RowBinaryWithNamesAndTypes} response in a temporary file to give random access to its rows.
+ * <p>
+ * The response is written to the file while it is read, so the server connection is released as soon as
+ * the result is received. Only start offsets of rows are kept on the heap (8 bytes per row). Rows are read
+ * back from memory-mapped regions of the file by a reader positioned at the offset of the requested row.
+ * The file is opened with {@link StandardOpenOption#DELETE_ON_CLOSE} and is removed not later than the store
+ * is closed.
+ */
+public final class SpooledRowStore implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpooledRowStore.class);
+
+    static final int REGION_SIZE = 64 * 1024 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final QuerySettings settings;
+
+    private final Map<ClickHouseDataType, Class<?>> typeHintMapping;
+
+    private final int regionSize;
+
+    private TableSchema schema;
+
+    private long[] offsets = new long[1024];
+
+    private int rowCount;
+
+    private long size;
+
+    private MappedByteBuffer[] regions;
+
+    private SpooledRowStore(Path file, FileChannel channel, QuerySettings settings,
+                            Map<ClickHouseDataType, Class<?>> typeHintMapping, int regionSize) {
+        this.file = file;
+        this.channel = channel;
+        this.settings = settings;
+        this.typeHintMapping = typeHintMapping;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Reads the whole stream into a new temporary file and indexes its rows.
+     *
+     * @param input - {@code RowBinaryWithNamesAndTypes} stream
+     * @param settings - settings used to decode values
+     * @param typeHintMapping - type hints of the client
+     * @return store with all rows of the stream
+     * @throws IOException if reading the stream or writing the file fails
+     */
+    public static SpooledRowStore spool(InputStream input, QuerySettings settings,
+                                        Map<ClickHouseDataType, Class<?>> typeHintMapping) throws IOException {
+        return spool(input, settings, typeHintMapping, REGION_SIZE);
+    }
+
+    static SpooledRowStore spool(InputStream input, QuerySettings settings,
+                                 Map<ClickHouseDataType, Class<?>> typeHintMapping, int regionSize) throws IOException {
+        Path file = Files.createTempFile("clickhouse-jdbc-", ".rowbinary");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            SpooledRowStore store = new SpooledRowStore(file, channel, settings, typeHintMapping, regionSize);
+            store.load(input);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private void load(InputStream input) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+        TeeInputStream tee = new TeeInputStream(input, out);
+        RowBinaryWithNamesAndTypesFormatReader reader = new RowBinaryWithNamesAndTypesFormatReader(tee, settings,
+                new BinaryStreamReader.DefaultByteBufferAllocator(), typeHintMapping);
+        schema = reader.getSchema();
+        if (schema != null) {
+            Map<String, Object> record = new HashMap<>();
+            long offset = tee.position;
+            while (reader.readRecord(record)) {
+                addRow(offset);
+                offset = tee.position;
+                record.clear();
+            }
+        }
+        // copy what is left after the last row
+        byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+        while (tee.read(buffer) != -1) {
+            // nothing to do - data is written by the stream
+        }
+        out.flush();
+        size = tee.position;
+        regions = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+        LOG.debug("Spooled {} rows ({} bytes) to {}", rowCount, size, file);
+    }
+
+    private void addRow(long offset) {
+        if (rowCount == offsets.length) {
+            if (rowCount == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many rows to spool: " + rowCount);
+            }
+            offsets = Arrays.copyOf(offsets, (int) Math.min(Integer.MAX_VALUE - 8L, rowCount + (rowCount >> 1)));
+        }
+        offsets[rowCount++] = offset;
+    }
+
+    /**
+     * @return schema of the result or {@code null} if the response has no header
+     */
+    public TableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return number of rows in the store
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return size of the spooled data in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns a new reader that starts with the row with the given index. Reader created for an index past the last
+     * row has no rows. If the response has no header then reader is created over the whole response.
+     *
+     * @param row - zero-based index of the first row to read
+     * @return reader
+     */
+    public ClickHouseBinaryFormatReader openReader(int row) {
+        if (schema == null) {
+            return new RowBinaryWithNamesAndTypesFormatReader(new MappedInputStream(0), settings,
+                    new BinaryStreamReader.DefaultByteBufferAllocator(), typeHintMapping);
+        }
+        long offset = row < rowCount ? offsets[row] : size;
+        return new RowBinaryFormatReader(new MappedInputStream(offset), settings, schema,
+                new BinaryStreamReader.DefaultByteBufferAllocator(), typeHintMapping);
+    }
+
+    @Override
+    public void close() throws IOException {
+        regions = null;
+        offsets = null;
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private ByteBuffer region(int index) throws IOException {
+        MappedByteBuffer[] regions = this.regions;
+        if (regions == null) {
+            throw new IOException("Row store is closed");
+        }
+        MappedByteBuffer region = regions[index];
+        if (region == null) {
+            long start = (long) index * regionSize;
+            region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+            regions[index] = region;
+        }
+        return region.duplicate();
+    }
+
+    /**
+     * Reads the spooled file through memory-mapped regions. Regions are shared between streams.
+     */
+    private final class MappedInputStream extends InputStream {
+
+        private long position;
+
+        private ByteBuffer buffer;
+
+        MappedInputStream(long position) {
+            this.position = position;
+        }
+
+        private boolean ensureAvailable() throws IOException {
+            if (buffer != null && buffer.hasRemaining()) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            buffer = region((int) (position / regionSize));
+            buffer.position((int) (position % regionSize));
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            position++;
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+        }
+    }
+
+    /**
+     * Copies everything that is read to the output and counts read bytes.
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream out;
+
+        private long position;
+
+        TeeInputStream(InputStream in, OutputStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                out.write(b);
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                out.write(b, off, n);
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes must be copied too
+            byte[] buffer = new byte[(int) Math.min(n, WRITE_BUFFER_SIZE)];
+            long skipped = 0;
+            while (skipped < n) {
+                int r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (r == -1) {
+                    break;
+                }
+                skipped += r;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // input is closed by the owner
+        }
+    }
+}
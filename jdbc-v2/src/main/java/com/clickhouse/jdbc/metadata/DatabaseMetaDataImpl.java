@@ -32,7 +32,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wrapper {
@@ -76,6 +78,8 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
 
     private String jdbcUrl;
 
+    private final MetadataCache metadataCache;
+
     /**
      * Creates an instance of DatabaseMetaData for the given connection.
      *
@@ -83,7 +87,7 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
      * @param connection - connection for which metadata is created
      * @param useCatalogs - if true then getCatalogs() will return non-empty list (not implemented yet)
      */
-    public DatabaseMetaDataImpl(ConnectionImpl connection, boolean useCatalogs, String url) throws SQLFeatureNotSupportedException {
+    public DatabaseMetaDataImpl(ConnectionImpl connection, boolean useCatalogs, String url) throws SQLException {
         if (useCatalogs) {
             throw new SQLFeatureNotSupportedException("Catalogs are not supported yet", ExceptionUtils.SQL_STATE_FEATURE_NOT_SUPPORTED);
         }
@@ -91,6 +95,34 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
         this.useCatalogs = useCatalogs;
         this.catalogPlaceholder = useCatalogs ? "'local' " : "''";
         this.jdbcUrl = url;
+
+        String ttl = connection.getJdbcConfig().getDriverProperty(DriverProperties.METADATA_CACHE_TTL.getKey(),
+                DriverProperties.METADATA_CACHE_TTL.getDefaultValue());
+        long ttlSec;
+        try {
+            ttlSec = Long.parseLong(ttl.trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Invalid value of '" + DriverProperties.METADATA_CACHE_TTL.getKey() + "': " + ttl,
+                    ExceptionUtils.SQL_STATE_CLIENT_ERROR, e);
+        }
+        this.metadataCache = ttlSec > 0 ? new MetadataCache(ttlSec, TimeUnit.SECONDS) : null;
+    }
+
+    /**
+     * Drops cached snapshots of schemas, tables and columns so the next metadata call reads them from the server.
+     * Does nothing when the cache is disabled (see {@link DriverProperties#METADATA_CACHE_TTL}).
+     */
+    public void refreshMetadataCache() {
+        if (metadataCache != null) {
+            metadataCache.invalidate();
+        }
+    }
+
+    /**
+     * @return {@code true} if schemas, tables and columns are answered from cached snapshots
+     */
+    public boolean isMetadataCacheEnabled() {
+        return metadataCache != null;
     }
 
     @Override
@@ -956,6 +988,21 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
 
         // Get engines that map to the requested table types
         Set<String> requestedTypes = (types == null || types.length == 0) ? TABLE_TYPES : Arrays.stream(types).collect(Collectors.toSet())  ;
+        if (metadataCache != null) {
+            MetadataCache.Snapshot snapshot = metadataCache.get(MetadataCache.TABLES,
+                    () -> loadSnapshot(() -> queryTables("%", "%", TABLE_TYPES)));
+            Predicate<String> schemaFilter = MetadataCache.likePredicate(schemaPattern);
+            Predicate<String> tableFilter = MetadataCache.likePredicate(tableNamePattern);
+            return DetachedResultSet.createFromRecords(MetadataCache.filter(snapshot,
+                            r -> requestedTypes.contains((String) r.get(TABLE_TYPE_COL_IN_GET_TABLES))
+                                    && schemaFilter.test((String) r.get("TABLE_SCHEM"))
+                                    && tableFilter.test((String) r.get("TABLE_NAME"))),
+                    snapshot.metaData, connection.getDefaultCalendar());
+        }
+        return queryTables(schemaPattern, tableNamePattern, requestedTypes);
+    }
+
+    private DetachedResultSet queryTables(String schemaPattern, String tableNamePattern, Set<String> requestedTypes) throws SQLException {
         Set<String> engines = getEnginesForTableTypes(requestedTypes);
         
         // Build engine filter conditions
@@ -1027,13 +1074,45 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
     @Override
     public ResultSet getSchemas() throws SQLException {
         // TODO: handle useCatalogs == true and return schema catalog name
+        if (metadataCache != null) {
+            return getCachedSchemas(null);
+        }
         try {
-            return connection.createStatement().executeQuery("SELECT name AS TABLE_SCHEM, " + catalogPlaceholder + " AS TABLE_CATALOG FROM system.databases ORDER BY name");
+            return connection.createStatement().executeQuery(getSchemasSqlPrefix() + "ORDER BY name");
         } catch (Exception e) {
             throw ExceptionUtils.toSqlState(e);
         }
     }
 
+    private ResultSet getCachedSchemas(String schemaPattern) throws SQLException {
+        MetadataCache.Snapshot snapshot = metadataCache.get(MetadataCache.SCHEMAS, () -> loadSnapshot(() -> {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(getSchemasSqlPrefix() + "ORDER BY name")) {
+                return DetachedResultSet.createFromResultSet(rs, connection.getDefaultCalendar(), Collections.emptyList());
+            } catch (Exception e) {
+                throw ExceptionUtils.toSqlState(e);
+            }
+        }));
+        Predicate<String> schemaFilter = MetadataCache.likePredicate(schemaPattern);
+        return DetachedResultSet.createFromRecords(MetadataCache.filter(snapshot,
+                        r -> schemaFilter.test((String) r.get("TABLE_SCHEM"))),
+                snapshot.metaData, connection.getDefaultCalendar());
+    }
+
+    private String getSchemasSqlPrefix() {
+        return "SELECT name AS TABLE_SCHEM, " + catalogPlaceholder + " AS TABLE_CATALOG FROM system.databases ";
+    }
+
+    private interface MetadataQuery {
+        DetachedResultSet execute() throws SQLException;
+    }
+
+    private static MetadataCache.Snapshot loadSnapshot(MetadataQuery query) throws SQLException {
+        try (DetachedResultSet rs = query.execute()) {
+            return new MetadataCache.Snapshot(rs.getRecords(), rs.getMetaData());
+        }
+    }
+
     /**
      * The closes term to catalog in ClickHouse is "cluster".
      * Current implementation version doesn't support work with cluster and will always return
@@ -1072,6 +1151,23 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
     @SuppressWarnings({"squid:S2095", "squid:S2077"})
     public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
         // TODO: handle useCatalogs == true and return schema catalog name
+        if (metadataCache != null) {
+            MetadataCache.Snapshot snapshot = metadataCache.get(MetadataCache.COLUMNS,
+                    () -> loadSnapshot(() -> queryColumns("%", "%", "%")));
+            Predicate<String> schemaFilter = MetadataCache.likePredicate(schemaPattern);
+            Predicate<String> tableFilter = MetadataCache.likePredicate(tableNamePattern);
+            Predicate<String> columnFilter = MetadataCache.likePredicate(columnNamePattern);
+            return DetachedResultSet.createFromRecords(MetadataCache.filter(snapshot,
+                            r -> schemaFilter.test((String) r.get("TABLE_SCHEM"))
+                                    && tableFilter.test((String) r.get("TABLE_NAME"))
+                                    && columnFilter.test((String) r.get("COLUMN_NAME"))),
+                    snapshot.metaData, connection.getDefaultCalendar());
+        }
+        return queryColumns(schemaPattern, tableNamePattern, columnNamePattern);
+    }
+
+    @SuppressWarnings({"squid:S2095", "squid:S2077"})
+    private DetachedResultSet queryColumns(String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
         final String sql = "SELECT " +
                 catalogPlaceholder + " AS TABLE_CAT, " +
                 "database AS TABLE_SCHEM, " +
@@ -1543,12 +1639,12 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
 
     @Override
     public boolean supportsResultSetType(int type) throws SQLException {
-        return ResultSet.TYPE_FORWARD_ONLY == type;
+        return ResultSet.TYPE_FORWARD_ONLY == type || ResultSet.TYPE_SCROLL_INSENSITIVE == type;
     }
 
     @Override
     public boolean supportsResultSetConcurrency(int type, int concurrency) throws SQLException {
-        return ResultSet.TYPE_FORWARD_ONLY == type && ResultSet.CONCUR_READ_ONLY == concurrency;
+        return supportsResultSetType(type) && ResultSet.CONCUR_READ_ONLY == concurrency;
     }
 
     @Override
@@ -1774,8 +1870,11 @@ public class DatabaseMetaDataImpl implements java.sql.DatabaseMetaData, JdbcV2Wr
     @Override
     public ResultSet getSchemas(String catalog, String schemaPattern) throws SQLException {
         // TODO: handle useCatalogs == true and return schema catalog name
+        if (metadataCache != null) {
+            return getCachedSchemas(schemaPattern);
+        }
         try {
-            return connection.createStatement().executeQuery("SELECT name AS TABLE_SCHEM, " + catalogPlaceholder + " AS TABLE_CATALOG FROM system.databases " +
+            return connection.createStatement().executeQuery(getSchemasSqlPrefix() +
                     "WHERE name LIKE '" + (schemaPattern == null ? "%" : schemaPattern) + "'");
         } catch (Exception e) {
             throw ExceptionUtils.toSqlState(e);
@@ -0,0 +1,155 @@
+package com.clickhouse.jdbc.metadata;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps snapshots of metadata result sets (all schemas, tables and columns) loaded in bulk.
+ * Metadata calls are answered by filtering a snapshot in memory instead of querying system tables each time.
+ * A snapshot is reloaded when it is older than TTL or after {@link #invalidate()}.
+ */
+final class MetadataCache {
+
+    static final String SCHEMAS = "schemas";
+
+    static final String TABLES = "tables";
+
+    static final String COLUMNS = "columns";
+
+    private final long ttlNanos;
+
+    private final LongSupplier clock;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    MetadataCache(long ttl, TimeUnit unit) {
+        this(ttl, unit, System::nanoTime);
+    }
+
+    MetadataCache(long ttl, TimeUnit unit, LongSupplier clock) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a snapshot of the given kind. Loads it if missing or expired.
+     *
+     * @param kind - snapshot kind
+     * @param loader - loads all records of the kind
+     * @return snapshot
+     * @throws SQLException if loading fails
+     */
+    Snapshot get(String kind, Loader loader) throws SQLException {
+        Snapshot snapshot = snapshots.get(kind);
+        long now = clock.getAsLong();
+        if (snapshot == null || now - snapshot.loadedAt >= ttlNanos) {
+            synchronized (this) {
+                snapshot = snapshots.get(kind);
+                now = clock.getAsLong();
+                if (snapshot == null || now - snapshot.loadedAt >= ttlNanos) {
+                    snapshot = loader.load();
+                    snapshot.loadedAt = now;
+                    snapshots.put(kind, snapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops all snapshots. They are reloaded on the next request.
+     */
+    void invalidate() {
+        snapshots.clear();
+    }
+
+    /**
+     * Converts SQL {@code LIKE} pattern to a predicate. {@code %} matches any sequence, {@code _} matches any single
+     * character and backslash escapes the next character. Matching is case-sensitive as in ClickHouse.
+     *
+     * @param pattern - pattern or {@code null} to match everything
+     * @return predicate
+     */
+    static Predicate<String> likePredicate(String pattern) {
+        if (pattern == null || pattern.equals("%")) {
+            return value -> true;
+        }
+
+        StringBuilder regex = new StringBuilder(pattern.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        StringBuilder unescaped = new StringBuilder(pattern.length());
+        boolean hasWildcards = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                c = pattern.charAt(++i);
+                literal.append(c);
+                unescaped.append(c);
+            } else if (c == '%' || c == '_') {
+                appendLiteral(regex, literal);
+                regex.append(c == '%' ? ".*" : ".");
+                hasWildcards = true;
+            } else {
+                literal.append(c);
+                unescaped.append(c);
+            }
+        }
+        appendLiteral(regex, literal);
+
+        if (!hasWildcards) {
+            return unescaped.toString()::equals;
+        }
+        Pattern compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        return value -> value != null && compiled.matcher(value).matches();
+    }
+
+    private static void appendLiteral(StringBuilder regex, StringBuilder literal) {
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * Returns records of the snapshot accepted by the filter.
+     *
+     * @param snapshot - snapshot
+     * @param filter - record filter
+     * @return new list of shared records
+     */
+    static List<Map<String, Object>> filter(Snapshot snapshot, Predicate<Map<String, Object>> filter) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> record : snapshot.records) {
+            if (filter.test(record)) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    interface Loader {
+        Snapshot load() throws SQLException;
+    }
+
+    static final class Snapshot {
+        final List<Map<String, Object>> records;
+
+        final ResultSetMetaData metaData;
+
+        private long loadedAt;
+
+        Snapshot(List<Map<String, Object>> records, ResultSetMetaData metaData) {
+            this.records = Collections.unmodifiableList(records);
+            this.metaData = metaData;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
 import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
@@ -1974,4 +1975,58 @@ public class PreparedStatementTest extends JdbcIntegrationTest {
             }
         }
     }
+
+    @Test(groups = { "integration" })
+    public void testServerSideParameters() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(DriverProperties.SERVER_SIDE_PARAMETERS.getKey(), "true");
+        try (Connection conn = getJdbcConnection(properties);
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT number, toString(number) FROM numbers(100) WHERE number IN ? AND toString(number) != ?")) {
+            for (int i = 0; i < 2; i++) {
+                stmt.setObject(1, new long[] {1, 5, 7, 200});
+                stmt.setString(2, i == 0 ? "5" : "it's\t\\");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Long> numbers = new ArrayList<>();
+                    while (rs.next()) {
+                        numbers.add(rs.getLong(1));
+                    }
+                    assertEquals(numbers, i == 0 ? Arrays.asList(1L, 7L) : Arrays.asList(1L, 5L, 7L));
+                }
+                assertTrue(((StatementImpl) stmt).getLastStatementSql().contains("{p1:Array(Int64)}"));
+            }
+
+            // null has no parameter type - values are inlined
+            stmt.setObject(1, new long[] {3});
+            stmt.setNull(2, Types.VARCHAR);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertFalse(rs.next());
+            }
+            assertFalse(((StatementImpl) stmt).getLastStatementSql().contains("{p1:"));
+        }
+    }
+
+    @Test(groups = { "integration" })
+    public void testServerSideDecimalParameters() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(DriverProperties.SERVER_SIDE_PARAMETERS.getKey(), "true");
+        try (Connection conn = getJdbcConnection(properties);
+             PreparedStatement stmt = conn.prepareStatement("SELECT toDecimal64(1.5, 2) = ?")) {
+            String sql = null;
+            for (String value : new String[] {"1.50", "1.5", "2"}) {
+                stmt.setBigDecimal(1, new BigDecimal(value));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(rs.getBoolean(1), !value.equals("2"));
+                }
+                // scale of a value does not change the SQL
+                String lastSql = ((StatementImpl) stmt).getLastStatementSql();
+                if (sql == null) {
+                    sql = lastSql;
+                }
+                assertEquals(lastSql, sql);
+            }
+            assertTrue(sql.contains("{p1:Decimal(18, 2)}"));
+        }
+    }
 }
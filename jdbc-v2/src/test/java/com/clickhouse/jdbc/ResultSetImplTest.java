@@ -344,6 +344,49 @@ public class ResultSetImplTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = {"integration"})
+    public void testScrollInsensitiveResultSet() throws SQLException {
+        try (Connection conn = getJdbcConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            Assert.assertEquals(stmt.getResultSetType(), ResultSet.TYPE_SCROLL_INSENSITIVE);
+            try (ResultSet rs = stmt.executeQuery("SELECT number, toString(number) AS s FROM system.numbers LIMIT 10")) {
+                Assert.assertEquals(rs.getType(), ResultSet.TYPE_SCROLL_INSENSITIVE);
+                Assert.assertTrue(rs.last());
+                Assert.assertEquals(rs.getRow(), 10);
+                Assert.assertTrue(rs.isLast());
+                Assert.assertEquals(rs.getLong(1), 9);
+
+                Assert.assertTrue(rs.previous());
+                Assert.assertEquals(rs.getString("s"), "8");
+                Assert.assertTrue(rs.absolute(3));
+                Assert.assertEquals(rs.getLong(1), 2);
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getLong(1), 3);
+                Assert.assertTrue(rs.relative(-3));
+                Assert.assertEquals(rs.getLong(1), 0);
+                Assert.assertTrue(rs.isFirst());
+                Assert.assertTrue(rs.absolute(-1));
+                Assert.assertEquals(rs.getLong(1), 9);
+
+                Assert.assertFalse(rs.next());
+                Assert.assertTrue(rs.isAfterLast());
+                Assert.assertTrue(rs.previous());
+                Assert.assertEquals(rs.getLong(1), 9);
+
+                rs.beforeFirst();
+                int count = 0;
+                while (rs.next()) {
+                    Assert.assertEquals(rs.getLong(1), count++);
+                }
+                Assert.assertEquals(count, 10);
+                Assert.assertTrue(rs.first());
+                Assert.assertEquals(rs.getLong(1), 0);
+                Assert.assertFalse(rs.absolute(11));
+                Assert.assertTrue(rs.isAfterLast());
+            }
+        }
+    }
+
     @Test(groups = {"integration"})
     public void testWasNull() throws SQLException {
         try (Connection conn = getJdbcConnection(); Statement stmt = conn.createStatement()) {
@@ -0,0 +1,141 @@
+package com.clickhouse.jdbc.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+public class ServerSideParametersTest {
+
+    @DataProvider(name = "types")
+    public Object[][] types() throws Exception {
+        return new Object[][] {
+                {"text", "String"},
+                {1, "Int32"},
+                {1L, "Int64"},
+                {(short) 1, "Int16"},
+                {(byte) 1, "Int8"},
+                {1.0f, "Float32"},
+                {1.0d, "Float64"},
+                {true, "Bool"},
+                {new BigDecimal("12.345"), "Decimal(18, 3)"},
+                {new BigDecimal("12345678901234567890.5"), "Decimal(38, 1)"},
+                {LocalDate.of(2024, 1, 2), "Date32"},
+                {java.sql.Date.valueOf("2024-01-02"), "Date32"},
+                {Timestamp.valueOf("2024-01-02 03:04:05"), "DateTime64(9)"},
+                {Instant.EPOCH, "DateTime64(9, 'UTC')"},
+                {UUID.randomUUID(), "UUID"},
+                {InetAddress.getByName("127.0.0.1"), "IPv4"},
+                {InetAddress.getByName("::1"), "IPv6"},
+                {new long[] {1, 2}, "Array(Int64)"},
+                {Arrays.asList(1, 2, 3), "Array(Int32)"},
+                {new String[] {"a", null}, "Array(Nullable(String))"},
+                {null, null},
+                {new byte[] {1}, null},
+                {Collections.emptyList(), null},
+                {Arrays.asList(1, "a"), null},
+                {new Object[] {new int[] {1}}, null},
+                {new BigDecimal("1E+3"), "Decimal(18, 0)"},
+                {new BigDecimal("1E+100"), null},
+        };
+    }
+
+    @Test(groups = {"unit"}, dataProvider = "types")
+    public void testTypeOf(Object value, String expectedType) {
+        Assert.assertEquals(ServerSideParameters.typeOf(value), expectedType);
+    }
+
+    @Test(groups = {"unit"})
+    public void testSqlIsRewrittenOnlyWhenTypesChange() {
+        String sql = "SELECT * FROM t WHERE a = ? AND b IN ? AND c = '?'";
+        int[] positions = {sql.indexOf('?'), sql.indexOf('?', sql.indexOf('?') + 1)};
+        ServerSideParameters params = new ServerSideParameters(sql, positions, TimeZone.getTimeZone("UTC"));
+        Assert.assertFalse(params.isComplete());
+
+        Assert.assertTrue(params.bind(0, 10));
+        Assert.assertTrue(params.bind(1, new int[] {1, 2}));
+        Assert.assertTrue(params.isComplete());
+        String first = params.getSql();
+        Assert.assertEquals(first, "SELECT * FROM t WHERE a = {p1:Int32} AND b IN {p2:Array(Int32)} AND c = '?'");
+
+        Assert.assertTrue(params.bind(0, 20));
+        Assert.assertSame(params.getSql(), first);
+        Map<String, Object> values = params.getParameters();
+        Assert.assertEquals(values.get("p1"), 20);
+
+        Assert.assertTrue(params.bind(0, "x"));
+        Assert.assertEquals(params.getSql(), "SELECT * FROM t WHERE a = {p1:String} AND b IN {p2:Array(Int32)} AND c = '?'");
+
+        Assert.assertFalse(params.bind(0, null));
+        Assert.assertFalse(params.isBound(0));
+        Assert.assertFalse(params.isComplete());
+
+        params.clear();
+        Assert.assertFalse(params.isBound(1));
+    }
+
+    @Test(groups = {"unit"})
+    public void testTemporalValues() {
+        ServerSideParameters params = new ServerSideParameters("SELECT ?, ?, ?", new int[] {7, 10, 13},
+                TimeZone.getTimeZone("Asia/Tokyo"));
+        Timestamp ts = Timestamp.valueOf("2024-01-02 03:04:05.123");
+        LocalDateTime ldt = LocalDateTime.of(2024, 1, 2, 9, 0);
+        params.bind(0, ts);
+        params.bind(1, ldt);
+        params.bind(2, new BigDecimal("1.50"));
+
+        Map<String, Object> values = params.getParameters();
+        Assert.assertEquals(values.get("p1"), "2024-01-02 03:04:05.123");
+        // local date time is in the connection time zone
+        Assert.assertEquals(values.get("p2"), "2024-01-02 00:00:00");
+        Assert.assertEquals(values.get("p3"), "1.50");
+        Assert.assertSame(params.getValue(1), ldt);
+        Assert.assertEquals(params.getSql(),
+                "SELECT {p1:DateTime64(9)}, {p2:DateTime64(9, 'UTC')}, {p3:Decimal(18, 2)}");
+    }
+
+    @Test(groups = {"unit"})
+    public void testDecimalTypeIsFixed() {
+        ServerSideParameters params = new ServerSideParameters("SELECT ?", new int[] {7}, TimeZone.getTimeZone("UTC"));
+        Assert.assertTrue(params.bind(0, new BigDecimal("1.25")));
+        String sql = params.getSql();
+        Assert.assertEquals(sql, "SELECT {p1:Decimal(18, 2)}");
+
+        // values with other scales are rescaled to the type of the first value
+        for (String value : new String[] {"1.5", "3", "-0.1", "1E+2"}) {
+            Assert.assertTrue(params.bind(0, new BigDecimal(value)), value);
+            Assert.assertSame(params.getSql(), sql, value);
+        }
+        Assert.assertEquals(params.getParameters().get("p1"), "100.00");
+
+        // values that do not fit are sent as literals
+        Assert.assertFalse(params.bind(0, new BigDecimal("1.125")));
+        Assert.assertFalse(params.bind(0, new BigDecimal("1E+20")));
+        Assert.assertTrue(params.bind(0, new BigDecimal("2.5")));
+        Assert.assertSame(params.getSql(), sql);
+
+        // type stays fixed after clearing parameters
+        params.clear();
+        Assert.assertFalse(params.bind(0, new BigDecimal("7.125")));
+        Assert.assertTrue(params.bind(0, new BigDecimal("7")));
+        Assert.assertSame(params.getSql(), sql);
+
+        // explicit scale fixes the type
+        Assert.assertTrue(params.bind(0, new BigDecimal("7.125"), 4));
+        Assert.assertEquals(params.getSql(), "SELECT {p1:Decimal(18, 4)}");
+        Assert.assertEquals(params.getParameters().get("p1"), "7.1250");
+        Assert.assertTrue(params.bind(0, new BigDecimal("0.5")));
+        Assert.assertEquals(params.getSql(), "SELECT {p1:Decimal(18, 4)}");
+    }
+}
@@ -0,0 +1,66 @@
+package com.clickhouse.jdbc.internal;
+
+import com.clickhouse.client.api.Client;
+import com.clickhouse.client.api.ClientConfigProperties;
+import com.clickhouse.jdbc.ConnectionImpl;
+import com.clickhouse.jdbc.DriverProperties;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Properties;
+
+public class SharedClientRegistryTest {
+
+    private static JdbcConfiguration config(String password) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(ClientConfigProperties.USER.getKey(), "default");
+        properties.setProperty(ClientConfigProperties.PASSWORD.getKey(), password);
+        // avoids loading server info over network
+        properties.setProperty(ClientConfigProperties.SERVER_TIMEZONE.getKey(), "UTC");
+        return new JdbcConfiguration("jdbc:clickhouse://localhost:8123", properties);
+    }
+
+    @Test(groups = {"unit"})
+    public void testConnectionsShareClientByConfiguration() throws Exception {
+        SharedClientRegistry registry = new SharedClientRegistry();
+
+        SharedClientRegistry.Lease first = registry.acquire(config("secret"), "test");
+        SharedClientRegistry.Lease second = registry.acquire(config("secret"), "test");
+        Assert.assertEquals(registry.size(), 1);
+        Assert.assertNotSame(first.getClient(), second.getClient());
+
+        SharedClientRegistry.Lease other = registry.acquire(config("another"), "test");
+        Assert.assertEquals(registry.size(), 2);
+
+        // session state is not shared
+        Client client = first.getClient();
+        client.setDBRoles(Collections.singletonList("reader"));
+        Assert.assertEquals(client.getDBRoles(), Collections.singletonList("reader"));
+        Assert.assertTrue(second.getClient().getDBRoles().isEmpty());
+
+        first.close();
+        first.close(); // second close is no-op
+        Assert.assertEquals(registry.size(), 2);
+        second.close();
+        Assert.assertEquals(registry.size(), 1);
+        other.close();
+        Assert.assertEquals(registry.size(), 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testLeaseReleasedWhenConnectionFails() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(ClientConfigProperties.USER.getKey(), "default");
+        properties.setProperty(ClientConfigProperties.PASSWORD.getKey(), "failing-connection");
+        properties.setProperty(ClientConfigProperties.SERVER_TIMEZONE.getKey(), "UTC");
+        properties.setProperty(DriverProperties.SHARED_CLIENT.getKey(), "true");
+        properties.setProperty(DriverProperties.JSON_PARSER_FACTORY.getKey(), "com.example.MissingFactory");
+
+        int before = SharedClientRegistry.INSTANCE.size();
+        Assert.expectThrows(SQLException.class,
+                () -> new ConnectionImpl("jdbc:clickhouse://localhost:8123", properties));
+        Assert.assertEquals(SharedClientRegistry.INSTANCE.size(), before);
+    }
+}
@@ -0,0 +1,94 @@
+package com.clickhouse.jdbc.internal;
+
+import com.clickhouse.client.api.data_formats.ClickHouseBinaryFormatReader;
+import com.clickhouse.client.api.data_formats.internal.AbstractBinaryFormatReader;
+import com.clickhouse.client.api.query.QuerySettings;
+import com.clickhouse.data.format.BinaryStreamUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TimeZone;
+
+public class SpooledRowStoreTest {
+
+    private static final QuerySettings SETTINGS = new QuerySettings()
+            .setUseTimeZone(TimeZone.getTimeZone("UTC").toZoneId().getId());
+
+    private static byte[] response(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 2);
+        BinaryStreamUtils.writeString(out, "id");
+        BinaryStreamUtils.writeString(out, "name");
+        BinaryStreamUtils.writeString(out, "Int32");
+        BinaryStreamUtils.writeString(out, "String");
+        for (int i = 0; i < rows; i++) {
+            BinaryStreamUtils.writeInt32(out, i);
+            // rows of different length
+            StringBuilder name = new StringBuilder("name");
+            for (int j = 0; j < i % 5; j++) {
+                name.append('_').append(j);
+            }
+            BinaryStreamUtils.writeString(out, name.toString());
+        }
+        return out.toByteArray();
+    }
+
+    private static Path spoolFile(SpooledRowStore store) throws Exception {
+        java.lang.reflect.Field field = SpooledRowStore.class.getDeclaredField("file");
+        field.setAccessible(true);
+        return (Path) field.get(store);
+    }
+
+    @Test(groups = {"unit"})
+    public void testRandomAccessAcrossRegions() throws Exception {
+        byte[] data = response(100);
+        // small regions make rows span region boundaries
+        SpooledRowStore store = SpooledRowStore.spool(new ByteArrayInputStream(data), SETTINGS,
+                AbstractBinaryFormatReader.NO_TYPE_HINT_MAPPING, 7);
+        Path file = spoolFile(store);
+        try {
+            Assert.assertEquals(store.getRowCount(), 100);
+            Assert.assertEquals(store.getSize(), data.length);
+            Assert.assertEquals(store.getSchema().getColumns().size(), 2);
+
+            for (int row : new int[] {99, 0, 42, 43, 7}) {
+                ClickHouseBinaryFormatReader reader = store.openReader(row);
+                Assert.assertNotNull(reader.next());
+                Assert.assertEquals(reader.getInteger("id"), row);
+                Assert.assertTrue(reader.getString("name").startsWith("name"));
+            }
+
+            ClickHouseBinaryFormatReader reader = store.openReader(98);
+            Assert.assertNotNull(reader.next());
+            Assert.assertNotNull(reader.next());
+            Assert.assertEquals(reader.getInteger("id"), 99);
+            Assert.assertNull(reader.next());
+
+            Assert.assertNull(store.openReader(100).next());
+        } finally {
+            store.close();
+        }
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test(groups = {"unit"})
+    public void testEmptyResult() throws Exception {
+        try (SpooledRowStore store = SpooledRowStore.spool(new ByteArrayInputStream(response(0)), SETTINGS,
+                AbstractBinaryFormatReader.NO_TYPE_HINT_MAPPING)) {
+            Assert.assertEquals(store.getRowCount(), 0);
+            Assert.assertNotNull(store.getSchema());
+            Assert.assertNull(store.openReader(0).next());
+        }
+
+        try (SpooledRowStore store = SpooledRowStore.spool(new ByteArrayInputStream(new byte[0]), SETTINGS,
+                AbstractBinaryFormatReader.NO_TYPE_HINT_MAPPING)) {
+            Assert.assertNull(store.getSchema());
+            Assert.assertNull(store.openReader(0).getSchema());
+        }
+    }
+}
@@ -391,9 +391,10 @@ public class DatabaseMetaDataTest extends JdbcIntegrationTest {
             assertEquals(dbmd.dataDefinitionCausesTransactionCommit(), false);
             assertEquals(dbmd.dataDefinitionIgnoredInTransactions(), false);
             assertEquals(dbmd.supportsResultSetType(ResultSet.TYPE_FORWARD_ONLY), true);
+            assertEquals(dbmd.supportsResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE), true);
+            assertFalse(dbmd.supportsResultSetType(ResultSet.TYPE_SCROLL_SENSITIVE));
 
             for (int type : new int[] {ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.TYPE_SCROLL_SENSITIVE} ) {
-                assertFalse(dbmd.supportsResultSetType(type));
                 assertFalse(dbmd.ownUpdatesAreVisible(type));
                 assertFalse(dbmd.ownDeletesAreVisible(type));
                 assertFalse(dbmd.ownInsertsAreVisible(type));
@@ -404,9 +405,9 @@ public class DatabaseMetaDataTest extends JdbcIntegrationTest {
                 assertFalse(dbmd.deletesAreDetected(type));
                 assertFalse(dbmd.insertsAreDetected(type));
 
-                for (int concurType : new int[] {ResultSet.CONCUR_UPDATABLE, ResultSet.CONCUR_READ_ONLY}) {
-                    assertFalse(dbmd.supportsResultSetConcurrency(type, concurType));
-                }
+                assertFalse(dbmd.supportsResultSetConcurrency(type, ResultSet.CONCUR_UPDATABLE));
+                assertEquals(dbmd.supportsResultSetConcurrency(type, ResultSet.CONCUR_READ_ONLY),
+                        type == ResultSet.TYPE_SCROLL_INSENSITIVE);
             }
 
             assertFalse(dbmd.generatedKeyAlwaysReturned());
@@ -605,6 +606,48 @@ public class DatabaseMetaDataTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = { "integration" })
+    public void testCachedMetadata() throws Exception {
+        runQuery("CREATE TABLE IF NOT EXISTS metadata_cache_t1 (id Int32, name String) ENGINE = MergeTree ORDER BY id");
+        runQuery("DROP TABLE IF EXISTS metadata_cache_t2");
+
+        Properties props = new Properties();
+        props.setProperty(DriverProperties.METADATA_CACHE_TTL.getKey(), "3600");
+        try (Connection conn = getJdbcConnection(props)) {
+            DatabaseMetaDataImpl dbmd = conn.getMetaData().unwrap(DatabaseMetaDataImpl.class);
+            assertTrue(dbmd.isMetadataCacheEnabled());
+            String schema = conn.getSchema();
+
+            try (ResultSet rs = dbmd.getTables(null, schema, "metadata\\_cache\\_t_", new String[] {"TABLE"})) {
+                assertTrue(rs.next());
+                assertEquals(rs.getString("TABLE_NAME"), "metadata_cache_t1");
+                assertEquals(rs.getString("TABLE_TYPE"), "TABLE");
+                assertFalse(rs.next());
+            }
+            try (ResultSet rs = dbmd.getColumns(null, schema, "metadata_cache_t1", "n%")) {
+                assertTrue(rs.next());
+                assertEquals(rs.getString("COLUMN_NAME"), "name");
+                assertEquals(rs.getInt("DATA_TYPE"), Types.VARCHAR);
+                assertFalse(rs.next());
+            }
+            try (ResultSet rs = dbmd.getSchemas(null, schema)) {
+                assertTrue(rs.next());
+                assertEquals(rs.getString("TABLE_SCHEM"), schema);
+                assertFalse(rs.next());
+            }
+
+            // snapshot is not updated until refresh
+            runQuery("CREATE TABLE metadata_cache_t2 (id Int32) ENGINE = MergeTree ORDER BY id");
+            try (ResultSet rs = dbmd.getTables(null, schema, "metadata_cache_t2", null)) {
+                assertFalse(rs.next());
+            }
+            dbmd.refreshMetadataCache();
+            try (ResultSet rs = dbmd.getTables(null, schema, "metadata_cache_t2", null)) {
+                assertTrue(rs.next());
+            }
+        }
+    }
+
     @Test(groups = { "integration" })
     public void testGetSchemas() throws Exception {
         try (Connection conn = getJdbcConnection()) {
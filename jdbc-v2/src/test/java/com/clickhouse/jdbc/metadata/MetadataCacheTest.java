@@ -0,0 +1,81 @@
+package com.clickhouse.jdbc.metadata;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+public class MetadataCacheTest {
+
+    @DataProvider(name = "likePatterns")
+    public Object[][] likePatterns() {
+        return new Object[][] {
+                {null, "anything", true},
+                {"%", "", true},
+                {"tab%", "table", true},
+                {"tab%", "Table", false},
+                {"t_ble", "table", true},
+                {"t_ble", "tble", false},
+                {"my\\_table", "my_table", true},
+                {"my\\_table", "myXtable", false},
+                {"my\\%", "my%", true},
+                {"my\\%", "my_", false},
+                {"a.b%", "a.bc", true},
+                {"a.b%", "axbc", false},
+                {"exact", "exact", true},
+                {"exact", "exact1", false},
+                {"%[x]", "a[x]", true},
+                {"%", null, true},
+                {"a%", null, false},
+        };
+    }
+
+    @Test(groups = {"unit"}, dataProvider = "likePatterns")
+    public void testLikePredicate(String pattern, String value, boolean expected) {
+        Predicate<String> predicate = MetadataCache.likePredicate(pattern);
+        Assert.assertEquals(predicate.test(value), expected, pattern + " LIKE " + value);
+    }
+
+    @Test(groups = {"unit"})
+    public void testSnapshotTtlAndInvalidate() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        MetadataCache cache = new MetadataCache(10, TimeUnit.SECONDS, clock::get);
+        MetadataCache.Loader loader = () -> {
+            Map<String, Object> record = new HashMap<>();
+            record.put("TABLE_NAME", "t" + loads.incrementAndGet());
+            List<Map<String, Object>> records = new ArrayList<>();
+            records.add(record);
+            return new MetadataCache.Snapshot(records, null);
+        };
+
+        MetadataCache.Snapshot first = cache.get(MetadataCache.TABLES, loader);
+        Assert.assertSame(cache.get(MetadataCache.TABLES, loader), first);
+        Assert.assertEquals(loads.get(), 1);
+
+        // other kind has own snapshot
+        cache.get(MetadataCache.COLUMNS, loader);
+        Assert.assertEquals(loads.get(), 2);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        MetadataCache.Snapshot second = cache.get(MetadataCache.TABLES, loader);
+        Assert.assertNotSame(second, first);
+        Assert.assertEquals(second.records.get(0).get("TABLE_NAME"), "t3");
+
+        cache.invalidate();
+        cache.get(MetadataCache.TABLES, loader);
+        Assert.assertEquals(loads.get(), 4);
+
+        Assert.assertEquals(MetadataCache.filter(second, r -> false), Collections.emptyList());
+        Assert.assertEquals(MetadataCache.filter(second, r -> true), second.records);
+    }
+}
@@ -1,5 +1,6 @@
 package com.clickhouse.benchmark;
 
+import com.clickhouse.benchmark.clients.Checksums;
 import com.clickhouse.benchmark.clients.Compression;
 import com.clickhouse.benchmark.clients.ConcurrentInsertClient;
 import com.clickhouse.benchmark.clients.ConcurrentQueryClient;
@@ -105,6 +106,7 @@ public class BenchmarkRunner {
         map.put("cq", ConcurrentQueryClient.class.getName());
         map.put("ci", ConcurrentInsertClient.class.getName());
         map.put("lz", Compression.class.getName());
+        map.put("cs", Checksums.class.getName());
         map.put("reader", Deserializers.class.getName());
         map.put("writer", Serializers.class.getName());
         map.put("mixed", MixedWorkload.class.getName());
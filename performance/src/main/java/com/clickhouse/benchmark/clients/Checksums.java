@@ -0,0 +1,51 @@
+package com.clickhouse.benchmark.clients;
+
+import com.clickhouse.client.api.internal.CityHash128;
+import com.clickhouse.data.ClickHouseCityHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Compares CityHash128 implementations used for checksums of compressed blocks. Does not need a server.
+ */
+@State(Scope.Benchmark)
+public class Checksums {
+
+    @Param({"1024", "65536", "1048576"})
+    int blockSize;
+
+    private byte[] block;
+
+    private ByteBuffer directBlock;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        block = new byte[blockSize];
+        new Random(blockSize).nextBytes(block);
+        directBlock = ByteBuffer.allocateDirect(blockSize);
+        directBlock.put(block);
+        directBlock.flip();
+    }
+
+    @Benchmark
+    public long[] CityHashV1() {
+        return ClickHouseCityHash.cityHash128(block, 0, blockSize);
+    }
+
+    @Benchmark
+    public long[] CityHashV2() {
+        return CityHash128.hash(block, 0, blockSize);
+    }
+
+    @Benchmark
+    public long[] CityHashV2Direct() {
+        return CityHash128.hash(directBlock, 0, blockSize);
+    }
+}